@@ -8,7 +8,14 @@ import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import static com.badlogic.gdx.Gdx.graphics;
+import com.main.leaderboard.HttpTransport;
+import com.main.leaderboard.LeaderboardClient;
+import com.main.replay.InputPlayback;
+import com.main.utils.AsyncLeaderboards;
+import com.main.utils.GameAssets;
+import com.main.utils.GameAtlas;
 import com.main.utils.GameData;
+import com.main.utils.RenderStats;
 import com.main.utils.ScreenManager;
 import com.main.utils.ScreenType;
 
@@ -23,9 +30,18 @@ public class Main extends Game {
 	public int screenWidth, screenHeight; // The current width and height of the screen
 	public int defWidth, defHeight; // Default screen width and height, used for UI scaling
 	public Skin skin; // Used for storing UI elements' styles and skins
+	public GameAssets assets; // Shared cache of the textures and fonts loaded from files
+	public GameAtlas atlas; // Holds the UI images, so they can be drawn without switching textures
 	public OrthographicCamera defaultCamera;
 	public float scaleFactorX;
 	public float scaleFactorY;
+	private RenderStats renderStats; // Only created when render stats are enabled
+	public String recordPath; // Where the input of each game session is recorded to, or null to not record
+	public InputPlayback playback; // A recorded session to replay instead of reading input, or null
+	public int replaySpeed = 1; // How many times real speed a replay runs at
+	public AsyncLeaderboards leaderboards; // Read and written in the background, shared by every game
+	public String leaderboardUrl; // A server shared by several machines, or null to keep the leaderboard in a file
+	public String leaderboardBoard = "main"; // The board used on the shared server
 
     /**
 	 * Called when the game is first created.
@@ -34,6 +50,8 @@ public class Main extends Game {
 	@Override
 	public void create () {
 		batch = new SpriteBatch();
+		if (RenderStats.ENABLED) renderStats = new RenderStats(batch);
+		assets = new GameAssets();
 		gameData = new GameData();
 		screenWidth = graphics.getWidth();
 		screenHeight = graphics.getHeight();
@@ -49,13 +67,20 @@ public class Main extends Game {
 
 		// Fonts for writing in game
 		skin = new Skin();
-		BitmapFont font = new BitmapFont(Gdx.files.internal("font/WhitePeaberry.fnt"));
+		BitmapFont font = assets.acquireFont(GameAssets.FONT);
 		skin.add("default-font", font, BitmapFont.class);
 		Label.LabelStyle labelStyle = new Label.LabelStyle();
 		labelStyle.font = font;
 		skin.add("Peaberry", labelStyle, Label.LabelStyle.class);
 
-		// Initialize and set up the screen manager
+		atlas = new GameAtlas(GameAtlas.UI_ATLAS);
+		if (leaderboardUrl == null) {
+			leaderboards = new AsyncLeaderboards("Leaderboards.csv");
+		} else {
+			leaderboards = new AsyncLeaderboards(() -> new LeaderboardClient(new HttpTransport(leaderboardUrl), leaderboardBoard));
+		}
+
+		// Initialize and set up the screen manager, which loads the game screen in the background while the menu is shown
 		screenManager = new ScreenManager(this);
 		screenManager.keepInMemory(ScreenType.GAME_SCREEN);
 		screenManager.setScreen(ScreenType.MAIN_MENU);
@@ -72,7 +97,10 @@ public class Main extends Game {
 	 */
 	@Override
 	public void render () {
+		assets.update();
+		screenManager.update(); // Builds screens whose assets have finished loading
 		super.render();
+		if (renderStats != null) renderStats.endFrame(Gdx.graphics.getDeltaTime());
 	}
 
 	/**
@@ -100,5 +128,8 @@ public class Main extends Game {
 	 */
 	@Override
 	public void dispose () {
+		atlas.dispose();
+		assets.dispose();
+		leaderboards.shutdown(2000); // Let a result that is still being written finish
 	}
 }
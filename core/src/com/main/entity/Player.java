@@ -13,6 +13,7 @@ import com.main.map.GameMap;
 import com.main.Main;
 import com.main.utils.CollisionHandler;
 import com.main.utils.Directions;
+import com.main.utils.GameAssets;
 
 /**
  * The Player class represents the character in the game, handling movement, collision,
@@ -23,10 +24,15 @@ public class Player extends Entity implements Disposable {
     public static final float ANIMATION_SPEED = 0.2f; // speed that sprite will animate or frame duration
     public static final int SPRITE_X = 24;// this is in reference to the sprite sheet
     public static final int SPRITE_Y = 38;
+    // Bits of the movement keys held during a tick
+    public static final int KEY_UP = 1, KEY_DOWN = 2, KEY_LEFT = 4, KEY_RIGHT = 8, KEY_SPRINT = 16;
     final Main game;
     final GameMap gameMap;
     final OrthographicCamera camera;
     final CollisionHandler collisionHandler;
+    private final Vector2 newPos = new Vector2(); // Reused each frame to receive the collision-adjusted position
+    private float prevX, prevY; // Position at the start of the current tick
+    private float renderX, renderY; // Position interpolated between the last two ticks, for drawing
 
     Directions dir; // Current direction of the player
     final int tileSize;
@@ -35,7 +41,7 @@ public class Player extends Entity implements Disposable {
     public final float startY;
     // End of added code
 
-    Texture idleSheet, walkSheet;
+    String idlePath, walkPath; // Paths of the sprite sheets acquired from the game's assets
 
     Animation<TextureRegion> walkDownAnimation, walkRightAnimation, walkLeftAnimation, walkUpAnimation;
     Animation<TextureRegion> idleDownAnimation, idleRightAnimation, idleLeftAnimation, idleUpAnimation;
@@ -56,38 +62,62 @@ public class Player extends Entity implements Disposable {
         tileSize = gameMap.getTileSize();
         this.collisionHandler = new CollisionHandler(gameMap.getMap(), tileSize, tileSize, SPRITE_X, SPRITE_Y * 0.5f, 0.7f, 0.7f); // Added code
         this.collisionHandler.addCollisionLayers("Water", "Trees", "wall_1", "wall_2", "wall_3", "roof_1", "roof_2", "roof_3", "other"); // Added code
+        this.collisionHandler.setSolver(CollisionHandler.Solver.SWEPT); // Sprinting through a frame hitch must not skip thin walls
         //this.settingsScreen = settingsScreen;
 
         this.speed = 200;
         startX = (float) game.screenWidth /2 - (float) game.screenHeight /2;
         startY = 500;
-        worldX = startX;
-        worldY = startY;
+        setPos(startX, startY);
 
         updateGender();
         setDirection(Directions.Down);  // Added code
     }
 
+    /**
+     * Remembers the current position as the start of a new tick, so that drawing can interpolate from it.
+     * Called at the start of every tick, including those where the player can not move.
+     */
+    public void startTick() {
+        prevX = worldX;
+        prevY = worldY;
+    }
+
+    /**
+     * Reads which movement keys are held down, as the bits that {@link #update(float, int)} takes.
+     *
+     * @return The bits of the held keys.
+     */
+    public static int pollKeys() {
+        int keys = 0;
+        if (Gdx.input.isKeyPressed(Input.Keys.UP) || Gdx.input.isKeyPressed(Input.Keys.W)) keys |= KEY_UP;
+        if (Gdx.input.isKeyPressed(Input.Keys.DOWN) || Gdx.input.isKeyPressed(Input.Keys.S)) keys |= KEY_DOWN;
+        if (Gdx.input.isKeyPressed(Input.Keys.LEFT) || Gdx.input.isKeyPressed(Input.Keys.A)) keys |= KEY_LEFT;
+        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D)) keys |= KEY_RIGHT;
+        if (Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT) || Gdx.input.isKeyPressed(Input.Keys.SHIFT_RIGHT)) keys |= KEY_SPRINT;
+        return keys;
+    }
+
     /**
      * Updates the player's position, animations, and handles collision.
      *
-     * @param delta Time since last frame in seconds.
+     * @param delta The length of the tick in seconds.
+     * @param keys The movement keys held during the tick, from {@link #pollKeys()} or a recording.
      */
-    public void update(float delta) {
+    public void update(float delta, int keys) {
         boolean isMoving = false;
+        boolean up = (keys & KEY_UP) != 0, down = (keys & KEY_DOWN) != 0;
+        boolean left = (keys & KEY_LEFT) != 0, right = (keys & KEY_RIGHT) != 0;
 
         // Determine if the player is moving diagonally
-        boolean isMovingDiagonally = ((Gdx.input.isKeyPressed(Input.Keys.UP) || Gdx.input.isKeyPressed(Input.Keys.W)) ||
-                (Gdx.input.isKeyPressed(Input.Keys.DOWN) || Gdx.input.isKeyPressed(Input.Keys.S))) &&
-                ((Gdx.input.isKeyPressed(Input.Keys.LEFT) || Gdx.input.isKeyPressed(Input.Keys.A)) ||
-                        (Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D)));
+        boolean isMovingDiagonally = (up || down) && (left || right);
         // Calculate the normalised speed for diagonal movement
         double normalizedSpeed = speed;
         if (isMovingDiagonally) {
             normalizedSpeed = (speed / Math.sqrt(2)) * 1.07; // Adjust speed for diagonal movement
         }
         // shift key doubles player speed
-        if (Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT) || Gdx.input.isKeyPressed(Input.Keys.SHIFT_RIGHT)) {
+        if ((keys & KEY_SPRINT) != 0) {
             normalizedSpeed *= 2; // Increase speed if shift is pressed
         }
 
@@ -95,26 +125,26 @@ public class Player extends Entity implements Disposable {
         float targY = worldY;
 
         // checks movement and updates animation, adjusts speed with delta time
-        if (Gdx.input.isKeyPressed(Input.Keys.UP) || Gdx.input.isKeyPressed(Input.Keys.W)) {
-            targY = worldY + (float) (normalizedSpeed * Gdx.graphics.getDeltaTime());
+        if (up) {
+            targY = worldY + (float) (normalizedSpeed * delta);
             currentAnimation = walkUpAnimation;
             dir = Directions.Up; // Added code
             isMoving = true;
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.DOWN) || Gdx.input.isKeyPressed(Input.Keys.S)) {
-            targY = worldY - (float) (normalizedSpeed * Gdx.graphics.getDeltaTime());
+        if (down) {
+            targY = worldY - (float) (normalizedSpeed * delta);
             currentAnimation = walkDownAnimation;
             dir = Directions.Down; // Added code
             isMoving = true;
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT) || Gdx.input.isKeyPressed(Input.Keys.A)) {
-            targX = worldX - (float) (normalizedSpeed * Gdx.graphics.getDeltaTime());
+        if (left) {
+            targX = worldX - (float) (normalizedSpeed * delta);
             currentAnimation = walkLeftAnimation;
             dir = Directions.Left; // Added code
             isMoving = true;
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D)) {
-            targX = worldX + (float) (normalizedSpeed * Gdx.graphics.getDeltaTime());
+        if (right) {
+            targX = worldX + (float) (normalizedSpeed * delta);
             currentAnimation = walkRightAnimation;
             dir = Directions.Right; // Added code
             isMoving = true;
@@ -142,15 +172,25 @@ public class Player extends Entity implements Disposable {
             else if (currentAnimation == walkUpAnimation) currentAnimation = idleUpAnimation;
         }
 
-        Vector2 newPos = collisionHandler.adjustPos(worldX, worldY, targX, targY);
+        collisionHandler.adjustPos(worldX, worldY, targX, targY, newPos);
         worldX = newPos.x;
         worldY = newPos.y;
 
 
         stateTime += delta;
+    }
 
-        float camX = worldX + SPRITE_Y /2f; // Added code
-        float camY = worldY + SPRITE_Y /2f; // Added code
+    /**
+     * Works out where to draw the player between the last two ticks and moves the camera to follow.
+     *
+     * @param alpha How far through the next tick the frame is, from 0 to 1.
+     */
+    public void interpolate(float alpha) {
+        renderX = prevX + (worldX - prevX) * alpha;
+        renderY = prevY + (worldY - prevY) * alpha;
+
+        float camX = renderX + SPRITE_Y /2f; // Added code
+        float camY = renderY + SPRITE_Y /2f; // Added code
 
         camera.position.set(camX, camY, 0);
         // this will make sure the camera follows the player
@@ -177,8 +217,8 @@ public class Player extends Entity implements Disposable {
      * @param newY The new Y coordinate.
      */
     public void setPos(float newX, float newY) {
-        worldX = newX;
-        worldY = newY;
+        worldX = prevX = renderX = newX;
+        worldY = prevY = renderY = newY;
     }
 
     /**
@@ -186,19 +226,17 @@ public class Player extends Entity implements Disposable {
      * the player's choice in the settings menu.
      * Then updates corresponding textures and animations.
      * <p>
-     * This functionality should be segregated into its own class to reduce overheads and
-     * processing delay.
+     * The sheets come from the game's shared assets, so they are only read from disk the first time.
      */
     public void updateGender(){
-        if (idleSheet != null) {idleSheet.dispose();}
-        if (walkSheet != null) {walkSheet.dispose();}
-        if (game.gameData.getGender()) {
-            idleSheet = new Texture("character/boy_idle.png");
-            walkSheet = new Texture("character/boy_walk.png");
-        } else {
-            idleSheet = new Texture("character/girl_idle.png");
-            walkSheet = new Texture("character/girl_walk.png");
-        }
+        // The new sheets are acquired before the old ones are released, so unchanged sheets are not reloaded
+        String oldIdlePath = idlePath, oldWalkPath = walkPath;
+        idlePath = game.gameData.getGender() ? GameAssets.BOY_IDLE : GameAssets.GIRL_IDLE;
+        walkPath = game.gameData.getGender() ? GameAssets.BOY_WALK : GameAssets.GIRL_WALK;
+        Texture idleSheet = game.assets.acquire(idlePath, Texture.class);
+        Texture walkSheet = game.assets.acquire(walkPath, Texture.class);
+        if (oldIdlePath != null) game.assets.release(oldIdlePath);
+        if (oldWalkPath != null) game.assets.release(oldWalkPath);
 
         TextureRegion[][] idleSpriteSheet = TextureRegion.split(idleSheet, SPRITE_X, SPRITE_Y); // Splits the sprite sheet up by its frames
         TextureRegion[][] walkSpriteSheet = TextureRegion.split(walkSheet, SPRITE_X, SPRITE_Y); // Splits the sprite sheet up by its frames
@@ -241,6 +279,20 @@ public class Player extends Entity implements Disposable {
         return currentAnimation.getKeyFrame(stateTime, true);
     }
 
+    /**
+     * @return The x position to draw the player at this frame.
+     */
+    public float getRenderX() {
+        return renderX;
+    }
+
+    /**
+     * @return The y position to draw the player at this frame.
+     */
+    public float getRenderY() {
+        return renderY;
+    }
+
     public CollisionHandler getCollisionHandler(){
         return collisionHandler;
     }
@@ -250,7 +302,7 @@ public class Player extends Entity implements Disposable {
     }
 
     public void dispose(){
-        idleSheet.dispose();
-        walkSheet.dispose();
+        game.assets.release(idlePath);
+        game.assets.release(walkPath);
     }
 }
@@ -0,0 +1,258 @@
+package com.main.leaderboard;
+
+import com.main.simulation.ScoreVerifier;
+import com.main.utils.LeaderboardJournal;
+import com.main.utils.LeaderboardStore;
+import com.main.utils.LeaderboardView;
+import com.main.utils.LeaderboardWindows;
+import com.main.utils.Leaderboards;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * The named leaderboards served to every machine, which many submitters can update at once.
+ * <p>
+ * Each board keeps a {@link LeaderboardStore} ranking the best score of each player, with {@link LeaderboardWindows}
+ * for the daily and weekly views, which share a lock. Results are stamped with the time they reach the registry.
+ * The best score of each player on the day of their latest result is also kept in a {@link ConcurrentHashMap}, which
+ * is updated without taking a lock: a result that does not beat it can not change any view, as today's best is part
+ * of this week's and of all time. Most results only touch the map, so submitters only wait for each other when they
+ * raise a best score on the same board. When the registry has a directory, raised scores are also appended to a
+ * journal for each board, with their time, which is replayed when the board is first used.
+ */
+public class BoardRegistry {
+    private static final Pattern BOARD_NAME = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+    private static final int MAX_PLAYER_NAME = 64;
+
+    /**
+     * A leaderboard and the lock on its ranking.
+     */
+    private static final class Board {
+        final ConcurrentHashMap<String, DayBest> best = new ConcurrentHashMap<>();
+        final LeaderboardStore ranking = new LeaderboardStore(); // Guarded by itself
+        final LeaderboardWindows windows; // Guarded by the ranking
+        final LeaderboardJournal journal; // Null when boards are not saved
+        Board(ZoneId zone, LeaderboardJournal journal) {
+            this.windows = new LeaderboardWindows(zone);
+            this.journal = journal;
+        }
+    }
+
+    /**
+     * A player's best score on the day of their latest result.
+     */
+    private static final class DayBest {
+        final long day;
+        final int score;
+
+        DayBest(long day, int score) {
+            this.day = day;
+            this.score = score;
+        }
+
+        /**
+         * @return True if a result with the given day and score is later in the day, or from a later day.
+         */
+        boolean isBeatenBy(long day, int score) {
+            return day > this.day || day == this.day && score > this.score;
+        }
+
+        static DayBest later(DayBest held, DayBest result) {
+            return held.isBeatenBy(result.day, result.score) ? result : held;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Board> boards = new ConcurrentHashMap<>();
+    private final Path directory;
+    private final ZoneId zone;
+
+    /**
+     * Creates a registry that keeps its boards in memory only.
+     */
+    public BoardRegistry() {
+        this(null);
+    }
+
+    /**
+     * Creates a registry that journals its boards in a directory.
+     *
+     * @param directory The directory of the journals, or null to keep the boards in memory only.
+     */
+    public BoardRegistry(Path directory) {
+        this(directory, ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates a registry that journals its boards in a directory, whose days and weeks start in the given time zone.
+     *
+     * @param directory The directory of the journals, or null to keep the boards in memory only.
+     * @param zone The time zone the daily and weekly views start in.
+     */
+    public BoardRegistry(Path directory, ZoneId zone) {
+        this.directory = directory;
+        this.zone = zone;
+    }
+
+    /**
+     * Registers a result now, keeping the best score of each player in each view.
+     *
+     * @param board The name of the board, made of letters, digits, '-' and '_'.
+     * @param name The name of the player, which can not contain commas or line breaks.
+     * @param score The score of the result.
+     * @return True if the player's best score on the board was raised in any view.
+     * @throws IllegalArgumentException If the board or player name is not allowed.
+     */
+    public boolean submit(String board, String name, int score) {
+        return submit(board, name, score, System.currentTimeMillis());
+    }
+
+    /**
+     * Registers a result at the given time, keeping the best score of each player in each view.
+     * Results are expected in the order of their times, as a result from an earlier day than the player's latest
+     * one is ignored.
+     *
+     * @param board The name of the board, made of letters, digits, '-' and '_'.
+     * @param name The name of the player, which can not contain commas or line breaks.
+     * @param score The score of the result.
+     * @param timestamp When the result arrived, in milliseconds since 1970.
+     * @return True if the player's best score on the board was raised in any view.
+     * @throws IllegalArgumentException If the board or player name is not allowed.
+     */
+    public boolean submit(String board, String name, int score, long timestamp) {
+        checkPlayerName(name);
+        Board entries = getBoard(board);
+        long day = LeaderboardView.DAILY.windowOf(timestamp, zone);
+        DayBest previous = entries.best.get(name);
+        if (previous != null && !previous.isBeatenBy(day, score)) return false;
+        DayBest result = new DayBest(day, score);
+        if (entries.best.merge(name, result, DayBest::later) != result) return false; // Beaten by another submitter
+
+        synchronized (entries.ranking) {
+            if (!(entries.ranking.upsert(name, score, timestamp) | entries.windows.upsert(name, score, timestamp))) {
+                return false;
+            }
+            if (entries.journal != null) {
+                try {
+                    entries.journal.append(name, score, timestamp);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lists the highest scores of all time on a board.
+     *
+     * @param board The name of the board.
+     * @param count The maximum number of entries to list.
+     * @return Up to count entries, highest score first.
+     */
+    public List<Leaderboards.Entry> top(String board, int count) {
+        return top(board, LeaderboardView.ALL_TIME, count);
+    }
+
+    /**
+     * Lists the highest scores on a board in the current period of a view.
+     *
+     * @param board The name of the board.
+     * @param view The period to list the scores of.
+     * @param count The maximum number of entries to list.
+     * @return Up to count entries, highest score first.
+     */
+    public List<Leaderboards.Entry> top(String board, LeaderboardView view, int count) {
+        return top(board, view, count, System.currentTimeMillis());
+    }
+
+    /**
+     * Lists the highest scores on a board in the period of a view at the given time.
+     *
+     * @param board The name of the board.
+     * @param view The period to list the scores of.
+     * @param count The maximum number of entries to list.
+     * @param now The current time, in milliseconds since 1970.
+     * @return Up to count entries, highest score first.
+     */
+    public List<Leaderboards.Entry> top(String board, LeaderboardView view, int count, long now) {
+        Board entries = getBoard(board);
+        synchronized (entries.ranking) {
+            if (view == LeaderboardView.ALL_TIME) return entries.ranking.top(count);
+            return entries.windows.get(view, now).top(count);
+        }
+    }
+
+    /**
+     * @param board The name of the board.
+     * @return The number of players with a score on the board.
+     */
+    public int size(String board) {
+        Board entries = getBoard(board);
+        synchronized (entries.ranking) {
+            return entries.ranking.size();
+        }
+    }
+
+    /**
+     * @param board The name of a board.
+     * @return True if boards can have the name.
+     */
+    public static boolean isBoardName(String board) {
+        return board != null && BOARD_NAME.matcher(board).matches();
+    }
+
+    /**
+     * @param name The name of a player.
+     * @throws IllegalArgumentException If the name could not be sent in a request.
+     */
+    static void checkPlayerName(String name) {
+        if (name == null || name.isEmpty() || name.length() > MAX_PLAYER_NAME
+                || name.indexOf(',') >= 0 || name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Invalid player name: " + name);
+        }
+    }
+
+    /**
+     * Checks a result before it is submitted, replaying its session to make sure the score was earned.
+     *
+     * @param result The result and the log of its session.
+     * @throws IllegalArgumentException If the player name is not allowed or the score does not match the log.
+     */
+    static void checkResult(LoggedResult result) {
+        checkPlayerName(result.name);
+        if (!ScoreVerifier.verify(result.sessionLog, result.score)) {
+            throw new IllegalArgumentException("Score " + result.score + " for " + result.name
+                    + " does not match its log");
+        }
+    }
+
+    private Board getBoard(String board) {
+        if (!isBoardName(board)) throw new IllegalArgumentException("Invalid board name: " + board);
+        return boards.computeIfAbsent(board, this::openBoard);
+    }
+
+    /**
+     * Creates a board, replaying its journal if boards are saved.
+     */
+    private Board openBoard(String board) {
+        if (directory == null) return new Board(zone, null);
+        Board opened = new Board(zone, new LeaderboardJournal(directory.resolve(board + ".journal")));
+        try {
+            opened.journal.replay(entry -> {
+                opened.ranking.upsert(entry.name, entry.score, entry.timestamp);
+                opened.windows.upsert(entry.name, entry.score, entry.timestamp);
+                DayBest result = new DayBest(LeaderboardView.DAILY.windowOf(entry.timestamp, zone), entry.score);
+                opened.best.merge(entry.name, result, DayBest::later);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return opened;
+    }
+}
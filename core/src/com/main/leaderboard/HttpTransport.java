@@ -0,0 +1,88 @@
+package com.main.leaderboard;
+
+import com.main.utils.LeaderboardView;
+import com.main.utils.Leaderboards;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Delivers results to a {@link LeaderboardServer} over HTTP.
+ * <p>
+ * Entries are sent as plain text, one "name,score" per line, as the leaderboard CSV file stores them. Results add
+ * the log of their session to the line in Base64, as "name,score,log".
+ */
+public class HttpTransport implements LeaderboardTransport {
+    private static final int TIMEOUT_MILLIS = 5000;
+
+    private final String baseUrl;
+
+    /**
+     * @param baseUrl The address of the server, such as "http://localhost:8642".
+     */
+    public HttpTransport(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    @Override
+    public void submit(String board, List<LoggedResult> results) throws IOException {
+        byte[] body = LeaderboardServer.formatResults(results).getBytes(StandardCharsets.UTF_8);
+        HttpURLConnection connection = open(board, "results");
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(body.length);
+        connection.setRequestProperty("Content-Type", LeaderboardServer.CONTENT_TYPE);
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(body);
+        }
+        readBody(connection);
+    }
+
+    @Override
+    public List<Leaderboards.Entry> fetchTop(String board, LeaderboardView view, int count) throws IOException {
+        HttpURLConnection connection = open(board, "top?count=" + count + "&view=" + view);
+        return LeaderboardServer.parse(readBody(connection));
+    }
+
+    private HttpURLConnection open(String board, String resource) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/boards/" + board + "/" + resource)
+                .openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        return connection;
+    }
+
+    /**
+     * Reads the whole response, so that the connection can be reused.
+     *
+     * @throws RequestRefusedException If the server refused the request, answering with a 4xx status.
+     * @throws IOException If the server did not accept the request.
+     */
+    private static String readBody(HttpURLConnection connection) throws IOException {
+        int status = connection.getResponseCode();
+        InputStream stream = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        StringBuilder body = new StringBuilder();
+        if (stream != null) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                char[] buffer = new char[1024];
+                for (int read = reader.read(buffer); read >= 0; read = reader.read(buffer)) {
+                    body.append(buffer, 0, read);
+                }
+            }
+        }
+        if (status >= 400 && status < 500) {
+            throw new RequestRefusedException("Leaderboard server answered " + status + ": " + body.toString().trim());
+        }
+        if (status >= 300) {
+            throw new IOException("Leaderboard server answered " + status + ": " + body.toString().trim());
+        }
+        return body.toString();
+    }
+}
@@ -0,0 +1,225 @@
+package com.main.leaderboard;
+
+import com.main.utils.LeaderboardService;
+import com.main.utils.LeaderboardView;
+import com.main.utils.Leaderboards;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A leaderboard shared between machines, which the game uses in place of a local {@link Leaderboards} file.
+ * <p>
+ * Results are held until they are flushed, keeping only the best score of each name, and are then sent together
+ * in one request with the logs of their sessions, which the board checks the scores against. Requests that fail are
+ * retried a few times, waiting twice as long before each retry, and results that still could not be sent are kept
+ * for the next flush. Results the board refuses are dropped, as sending them again would be refused again. Like the
+ * local leaderboard, every method waits for the network, so the game uses it through
+ * {@link com.main.utils.AsyncLeaderboards}.
+ */
+public class LeaderboardClient implements LeaderboardService {
+    private static final int MAX_ENTRIES = 10;
+    private static final LeaderboardView[] VIEWS = LeaderboardView.values();
+    private static final int DEFAULT_ATTEMPTS = 4;
+    private static final long DEFAULT_RETRY_DELAY_MILLIS = 200;
+    private static final Logger logger = Logger.getLogger(LeaderboardClient.class.getName());
+
+    /**
+     * A request to the leaderboard, which may be sent again if it fails.
+     */
+    private interface Request<T> {
+        T send() throws IOException;
+    }
+
+    private final LeaderboardTransport transport;
+    private final String board;
+    private final int attempts;
+    private final long retryDelayMillis;
+    private final Map<String, LoggedResult> pending = new LinkedHashMap<>(); // Best unsent result of each name
+    private final Leaderboards.Entry[][] entries = new Leaderboards.Entry[VIEWS.length][MAX_ENTRIES]; // By view
+
+    /**
+     * Connects to a board and fetches its top 10.
+     *
+     * @param transport Carries requests to the board.
+     * @param board The name of the board.
+     */
+    public LeaderboardClient(LeaderboardTransport transport, String board) {
+        this(transport, board, DEFAULT_ATTEMPTS, DEFAULT_RETRY_DELAY_MILLIS);
+    }
+
+    /**
+     * Connects to a board and fetches its top 10.
+     *
+     * @param transport Carries requests to the board.
+     * @param board The name of the board.
+     * @param attempts The number of times each request is tried before giving up.
+     * @param retryDelayMillis How long to wait before the first retry.
+     */
+    public LeaderboardClient(LeaderboardTransport transport, String board, int attempts, long retryDelayMillis) {
+        if (!BoardRegistry.isBoardName(board)) throw new IllegalArgumentException("Invalid board name: " + board);
+        this.transport = transport;
+        this.board = board;
+        this.attempts = attempts;
+        this.retryDelayMillis = retryDelayMillis;
+        refresh();
+    }
+
+    /**
+     * Holds a result until the next flush, keeping only the best score of each name.
+     *
+     * @param score the score of the new result
+     * @param name  the name of the new result
+     * @param sessionLog the log of the game, from {@link com.main.simulation.SessionLog}
+     */
+    public synchronized void submit(int score, String name, byte[] sessionLog) {
+        BoardRegistry.checkPlayerName(name);
+        pending.merge(name, new LoggedResult(name, score, sessionLog),
+                (held, result) -> result.score > held.score ? result : held);
+    }
+
+    /**
+     * Sends every held result in one request.
+     *
+     * @return true if there were no results or they were all registered, false if any are still held or were
+     * refused
+     */
+    @Override
+    public synchronized boolean flush() {
+        return sendHeld().isEmpty() && pending.isEmpty();
+    }
+
+    /**
+     * Sends every held result in one request. If the board refuses the request, the results are sent again one at a
+     * time, so that only the ones it refuses are dropped.
+     *
+     * @return The results the board refused, which are no longer held.
+     */
+    private List<LoggedResult> sendHeld() {
+        List<LoggedResult> refused = new ArrayList<>();
+        if (pending.isEmpty()) return refused;
+        List<LoggedResult> results = new ArrayList<>(pending.values());
+        Boolean accepted = send(() -> trySubmit(results));
+        if (accepted == null) return refused; // Kept for the next flush
+        if (accepted || results.size() == 1) {
+            if (!accepted) refused.addAll(results);
+            pending.clear();
+            return refused;
+        }
+        for (LoggedResult result : results) {
+            accepted = send(() -> trySubmit(Collections.singletonList(result)));
+            if (accepted == null) continue;
+            if (!accepted) refused.add(result);
+            pending.remove(result.name);
+        }
+        return refused;
+    }
+
+    /**
+     * Sends results in one request.
+     *
+     * @return true if the board registered them, false if it refused them
+     * @throws IOException If the board could not be reached.
+     */
+    private boolean trySubmit(List<LoggedResult> results) throws IOException {
+        try {
+            transport.submit(board, results);
+            return true;
+        } catch (RequestRefusedException e) {
+            logger.log(Level.WARNING, "Leaderboard " + board + " refused " + results.size() + " results", e);
+            return false;
+        }
+    }
+
+    /**
+     * Fetches the top 10 of each view again, keeping the last known entries if the board can not be reached.
+     *
+     * @return true if the entries were fetched
+     */
+    public synchronized boolean refresh() {
+        for (LeaderboardView view : VIEWS) {
+            List<Leaderboards.Entry> top = send(() -> transport.fetchTop(board, view, MAX_ENTRIES));
+            if (top == null) return false;
+            Leaderboards.Entry[] viewEntries = entries[view.ordinal()];
+            Arrays.fill(viewEntries, null);
+            for (int i = 0; i < Math.min(top.size(), MAX_ENTRIES); i++) {
+                viewEntries[i] = top.get(i);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The number of names with results waiting to be sent.
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Registers a result, sending it along with any results that could not be sent before. The board replays the
+     * log and refuses the result if the score does not match it.
+     *
+     * @return true if the result was registered, false if the board refused it or it is held until the next flush
+     */
+    @Override
+    public synchronized boolean registerVerifiedResult(int score, String name, byte[] sessionLog) {
+        submit(score, name, sessionLog);
+        LoggedResult best = pending.get(name); // An earlier held result of the same name may beat this one
+        boolean registered = !sendHeld().contains(best) && !pending.containsKey(name);
+        if (registered) refresh();
+        return registered;
+    }
+
+    @Override
+    public synchronized boolean doesPlaceT10(int score) {
+        Leaderboards.Entry last = getEntries()[MAX_ENTRIES - 1];
+        return last == null || score > last.score;
+    }
+
+    @Override
+    public synchronized Leaderboards.Entry[] getEntries() {
+        return getEntries(LeaderboardView.ALL_TIME);
+    }
+
+    /**
+     * Returns the top 10 of a view as last fetched, whose days and weeks are those of the board's time zone.
+     */
+    @Override
+    public synchronized Leaderboards.Entry[] getEntries(LeaderboardView view) {
+        return entries[view.ordinal()];
+    }
+
+    /**
+     * Sends a request, retrying it with a growing delay if it fails.
+     *
+     * @return The answer, or null if every attempt failed.
+     */
+    private <T> T send(Request<T> request) {
+        long delay = retryDelayMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return request.send();
+            } catch (IOException e) {
+                if (attempt >= attempts) {
+                    logger.log(Level.WARNING, "Could not reach leaderboard " + board, e);
+                    return null;
+                }
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            delay *= 2;
+        }
+    }
+}
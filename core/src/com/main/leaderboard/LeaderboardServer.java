@@ -0,0 +1,238 @@
+package com.main.leaderboard;
+
+import com.main.utils.LeaderboardView;
+import com.main.utils.Leaderboards;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A small HTTP server for leaderboards shared between machines, built on the server included in the JDK.
+ * <p>
+ * It answers two requests, with entries as "name,score" lines of plain text:
+ * <ul>
+ *     <li>POST /boards/{board}/results registers the results in the body, as "name,score,log" lines with the log
+ *     of each session in Base64. Every score is checked against its log first, and if any does not match, the
+ *     request is answered with 400 and none of them are registered. Results are stamped with the time they
+ *     arrive, by the server's clock.</li>
+ *     <li>GET /boards/{board}/top?count=n&amp;view=v lists the n highest scores, 10 if count is left out, of today,
+ *     this week or all time for a view of DAILY, WEEKLY or ALL_TIME, all time if view is left out. Days and weeks
+ *     start in the server's time zone.</li>
+ * </ul>
+ * Requests are handled by a pool of threads, and the {@link BoardRegistry} lets them update boards at the same time.
+ */
+public class LeaderboardServer {
+    public static final int DEFAULT_PORT = 8642;
+    static final String CONTENT_TYPE = "text/plain; charset=utf-8";
+    private static final int DEFAULT_COUNT = 10;
+    private static final int MAX_COUNT = 1000;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+    private static final int BACKLOG = 1024; // Connections waiting to be accepted
+
+    private final BoardRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server, which does not answer until it is started.
+     *
+     * @param registry The boards to serve.
+     * @param port The port to listen on, or 0 for any free port.
+     * @param threads The number of requests handled at once.
+     * @throws IOException If the port could not be opened.
+     */
+    public LeaderboardServer(BoardRegistry registry, int port, int threads) throws IOException {
+        this.registry = registry;
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/boards/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops answering requests, and stops the threads once the requests being handled are answered.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * @return The port the server listens on, which was chosen by the system if 0 was asked for.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            // The path is /boards/{board}/{resource}
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            if (parts.length != 4 || !BoardRegistry.isBoardName(parts[2])) {
+                respond(exchange, 404, "Unknown board");
+                return;
+            }
+            String board = parts[2];
+            String method = exchange.getRequestMethod();
+            if (parts[3].equals("results") && method.equals("POST")) {
+                List<LoggedResult> results = parseResults(readBody(exchange));
+                for (LoggedResult result : results) {
+                    BoardRegistry.checkResult(result); // Refuse the whole batch before registering any
+                }
+                int raised = 0;
+                for (LoggedResult result : results) {
+                    if (registry.submit(board, result.name, result.score)) raised++;
+                }
+                respond(exchange, 200, Integer.toString(raised));
+            } else if (parts[3].equals("top") && method.equals("GET")) {
+                String query = exchange.getRequestURI().getQuery();
+                respond(exchange, 200, format(registry.top(board, readView(query), readCount(query))));
+            } else {
+                respond(exchange, 405, "Unsupported request");
+            }
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, e.getMessage());
+        } catch (UncheckedIOException e) {
+            respond(exchange, 500, "Could not save the board");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static int readCount(String query) {
+        if (query == null) return DEFAULT_COUNT;
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("count=")) {
+                int count = Integer.parseInt(parameter.substring("count=".length()));
+                if (count < 0 || count > MAX_COUNT) throw new IllegalArgumentException("Invalid count: " + count);
+                return count;
+            }
+        }
+        return DEFAULT_COUNT;
+    }
+
+    private static LeaderboardView readView(String query) {
+        if (query == null) return LeaderboardView.ALL_TIME;
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("view=")) {
+                return LeaderboardView.valueOf(parameter.substring("view=".length())); // 400 if not a view
+            }
+        }
+        return LeaderboardView.ALL_TIME;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream input = exchange.getRequestBody()) {
+            byte[] buffer = new byte[4096];
+            for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+                body.write(buffer, 0, read);
+                if (body.size() > MAX_BODY_BYTES) throw new IllegalArgumentException("Too many results");
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    /**
+     * Writes entries as "name,score" lines.
+     */
+    static String format(List<Leaderboards.Entry> entries) {
+        StringBuilder text = new StringBuilder();
+        for (Leaderboards.Entry entry : entries) {
+            text.append(entry.name).append(',').append(entry.score).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads entries from "name,score" lines, skipping empty ones.
+     *
+     * @throws IllegalArgumentException If a line is not a name and a score.
+     */
+    static List<Leaderboards.Entry> parse(String text) {
+        List<Leaderboards.Entry> entries = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            if (line.isEmpty()) continue;
+            int comma = line.lastIndexOf(',');
+            if (comma <= 0) throw new IllegalArgumentException("Invalid result: " + line);
+            entries.add(new Leaderboards.Entry(line.substring(0, comma), Integer.parseInt(line.substring(comma + 1))));
+        }
+        return entries;
+    }
+
+    /**
+     * Writes results as "name,score,log" lines, with the log in Base64.
+     */
+    static String formatResults(List<LoggedResult> results) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        StringBuilder text = new StringBuilder();
+        for (LoggedResult result : results) {
+            text.append(result.name).append(',').append(result.score).append(',')
+                    .append(encoder.encodeToString(result.sessionLog)).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads results from "name,score,log" lines, skipping empty ones.
+     *
+     * @throws IllegalArgumentException If a line is not a name, a score and a log in Base64.
+     */
+    static List<LoggedResult> parseResults(String text) {
+        Base64.Decoder decoder = Base64.getDecoder();
+        List<LoggedResult> results = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            if (line.isEmpty()) continue;
+            int logComma = line.lastIndexOf(',');
+            int scoreComma = logComma > 0 ? line.lastIndexOf(',', logComma - 1) : -1;
+            if (scoreComma <= 0) throw new IllegalArgumentException("Invalid result: " + line);
+            results.add(new LoggedResult(line.substring(0, scoreComma),
+                    Integer.parseInt(line.substring(scoreComma + 1, logComma)),
+                    decoder.decode(line.substring(logComma + 1))));
+        }
+        return results;
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args The port, then the directory to journal the boards in, which keeps them in memory if left out.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Path directory = args.length > 1 ? Paths.get(args[1]) : null;
+        LeaderboardServer server = new LeaderboardServer(new BoardRegistry(directory), port,
+                Runtime.getRuntime().availableProcessors() * 2);
+        server.start();
+        System.out.println("Serving leaderboards on port " + server.getPort());
+    }
+}
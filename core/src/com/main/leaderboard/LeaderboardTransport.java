@@ -0,0 +1,36 @@
+package com.main.leaderboard;
+
+import com.main.utils.LeaderboardView;
+import com.main.utils.Leaderboards;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Carries results to a shared leaderboard and the top scores back, so that {@link LeaderboardClient} works the same
+ * over HTTP or in the same process.
+ */
+public interface LeaderboardTransport {
+    /**
+     * Sends results to a board, which checks each score against its log and keeps the best score of each player.
+     *
+     * @param board The name of the board.
+     * @param results The results to register.
+     * @throws RequestRefusedException If a name is not allowed or a score does not match its log, in which case
+     *                                 none of the results were registered.
+     * @throws IOException If the results could not be delivered. They may still have been registered, which
+     *                     sending them again does not change.
+     */
+    void submit(String board, List<LoggedResult> results) throws IOException;
+
+    /**
+     * Fetches the highest scores on a board in the current period of a view, by the board's clock.
+     *
+     * @param board The name of the board.
+     * @param view The period to fetch the scores of.
+     * @param count The maximum number of entries to fetch.
+     * @return Up to count entries, highest score first.
+     * @throws IOException If the board could not be reached.
+     */
+    List<Leaderboards.Entry> fetchTop(String board, LeaderboardView view, int count) throws IOException;
+}
@@ -0,0 +1,36 @@
+package com.main.leaderboard;
+
+import com.main.utils.LeaderboardView;
+import com.main.utils.Leaderboards;
+
+import java.util.List;
+
+/**
+ * Delivers results straight to a registry in the same process, for a single machine and for tests.
+ */
+public class LocalTransport implements LeaderboardTransport {
+    private final BoardRegistry registry;
+
+    public LocalTransport(BoardRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void submit(String board, List<LoggedResult> results) throws RequestRefusedException {
+        try {
+            for (LoggedResult result : results) {
+                BoardRegistry.checkResult(result); // Refuse the whole batch before registering any, as the server does
+            }
+        } catch (IllegalArgumentException e) {
+            throw new RequestRefusedException(e.getMessage());
+        }
+        for (LoggedResult result : results) {
+            registry.submit(board, result.name, result.score);
+        }
+    }
+
+    @Override
+    public List<Leaderboards.Entry> fetchTop(String board, LeaderboardView view, int count) {
+        return registry.top(board, view, count);
+    }
+}
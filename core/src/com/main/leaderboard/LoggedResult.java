@@ -0,0 +1,22 @@
+package com.main.leaderboard;
+
+/**
+ * A result sent to a shared board, with the log of the session it came from, which the board replays with
+ * {@link com.main.simulation.ScoreVerifier} before registering the score.
+ */
+public class LoggedResult {
+    public final String name;
+    public final int score;
+    public final byte[] sessionLog;
+
+    /**
+     * @param name The name of the player.
+     * @param score The score the session finished with.
+     * @param sessionLog The log of the session, from {@link com.main.simulation.SessionLog}.
+     */
+    public LoggedResult(String name, int score, byte[] sessionLog) {
+        this.name = name;
+        this.score = score;
+        this.sessionLog = sessionLog;
+    }
+}
@@ -0,0 +1,15 @@
+package com.main.leaderboard;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a {@link LeaderboardTransport} when the board received a request but refused it, for example because a
+ * score does not match its log. Unlike other failures, sending the same request again would be refused again.
+ */
+public class RequestRefusedException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public RequestRefusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,290 @@
+package com.main.map;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads a map written by {@link MapCompiler} into a TiledMap.
+ * The file is memory mapped where possible and the tile ids of each layer are read in bulk,
+ * so the only real work left at load time is creating the textures and cells.
+ * The resulting map matches what TmxMapLoader produces for the same .tmx file.
+ * <p>
+ * Loading is split in two, so that the file can be read on a background thread: {@link #read} parses the file
+ * without touching OpenGL, and {@link CompiledMap#build} creates the map from textures loaded by the caller.
+ */
+public class BinaryMapLoader {
+    // Flags stored in the high bits of a tile id, as defined by the Tiled format
+    private static final int FLIP_HORIZONTALLY = 0x80000000;
+    private static final int FLIP_VERTICALLY = 0x40000000;
+    private static final int FLIP_DIAGONALLY = 0x20000000;
+    private static final int MASK_CLEAR = 0xE0000000;
+
+    /**
+     * A compiled map read into memory, with everything except its textures.
+     */
+    public static class CompiledMap {
+        private final MapProperties properties = new MapProperties();
+        private final Array<TilesetData> tilesets = new Array<>();
+        private final Array<LayerData> layers = new Array<>();
+        private final ObjectSet<String> images = new ObjectSet<>();
+        private int tileWidth, tileHeight;
+
+        /**
+         * @return The paths of every image used by the tilesets, relative to the directory of the .tmx file.
+         */
+        public Array<String> getImages() {
+            return images.iterator().toArray();
+        }
+
+        /**
+         * Creates the map, which must be done on the rendering thread.
+         *
+         * @param textures Gets the texture of each image returned by {@link #getImages()}.
+         * @return The map, which does not own the textures.
+         */
+        public TiledMap build(ObjectMap<String, Texture> textures) {
+            TiledMap map = new TiledMap();
+            map.getProperties().putAll(properties);
+            for (TilesetData tileset : tilesets) {
+                map.getTileSets().addTileSet(tileset.build(textures));
+            }
+            for (LayerData layer : layers) {
+                map.getLayers().add(layer.build(map.getTileSets(), tileWidth, tileHeight));
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Reads a compiled map without creating any textures, so it can be called from any thread.
+     *
+     * @param compiled The compiled map file.
+     * @return The map's tilesets and layers, to be built once their textures are loaded.
+     * @throws GdxRuntimeException If the file is not a compiled map of the supported version.
+     * @throws java.nio.BufferUnderflowException If the file is cut short.
+     */
+    public CompiledMap read(FileHandle compiled) {
+        ByteBuffer buffer = map(compiled);
+        if (buffer.getInt() != MapCompiler.MAGIC || buffer.getInt() != MapCompiler.VERSION) {
+            throw new GdxRuntimeException("Not a compiled map of version " + MapCompiler.VERSION + ": " + compiled);
+        }
+        buffer.getLong(); // Checksum of the source, only used to check if the file is up to date
+
+        CompiledMap map = new CompiledMap();
+        MapProperties properties = map.properties;
+        properties.put("width", buffer.getInt());
+        properties.put("height", buffer.getInt());
+        properties.put("tilewidth", map.tileWidth = buffer.getInt());
+        properties.put("tileheight", map.tileHeight = buffer.getInt());
+        properties.put("orientation", readString(buffer));
+
+        int tilesetCount = buffer.getInt();
+        for (int i = 0; i < tilesetCount; i++) {
+            TilesetData tileset = new TilesetData(buffer);
+            if (!tileset.image.isEmpty()) map.images.add(tileset.image);
+            map.images.addAll(tileset.tileImages);
+            map.tilesets.add(tileset);
+        }
+
+        int layerCount = buffer.getInt();
+        for (int i = 0; i < layerCount; i++) {
+            map.layers.add(new LayerData(buffer));
+        }
+        return map;
+    }
+
+    /**
+     * Memory maps the file if it is on disk, otherwise reads it fully into memory.
+     */
+    private static ByteBuffer map(FileHandle file) {
+        ByteBuffer buffer;
+        try {
+            buffer = file.map();
+        } catch (GdxRuntimeException e) {
+            buffer = ByteBuffer.wrap(file.readBytes());
+        }
+        return buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * A tileset as it is stored in the file.
+     */
+    private static class TilesetData {
+        final String name, image;
+        final int firstGid, tileWidth, tileHeight, spacing, margin, offsetX, offsetY;
+        final int[] tileImageIds;
+        final Array<String> tileImages = new Array<>();
+
+        TilesetData(ByteBuffer buffer) {
+            name = readString(buffer);
+            firstGid = buffer.getInt();
+            tileWidth = buffer.getInt();
+            tileHeight = buffer.getInt();
+            spacing = buffer.getInt();
+            margin = buffer.getInt();
+            offsetX = buffer.getInt();
+            offsetY = buffer.getInt();
+            image = readString(buffer);
+            tileImageIds = new int[buffer.getInt()];
+            for (int i = 0; i < tileImageIds.length; i++) {
+                tileImageIds[i] = buffer.getInt();
+                tileImages.add(readString(buffer));
+            }
+        }
+
+        /**
+         * Creates a tile for each region of the tileset's image, in the same way as TmxMapLoader.
+         */
+        TiledMapTileSet build(ObjectMap<String, Texture> textures) {
+            TiledMapTileSet tileset = new TiledMapTileSet();
+            tileset.setName(name);
+            tileset.getProperties().put("firstgid", firstGid);
+
+            if (!image.isEmpty()) {
+                Texture texture = textures.get(image);
+                int id = firstGid;
+                for (int y = margin; y <= texture.getHeight() - tileHeight; y += tileHeight + spacing) {
+                    for (int x = margin; x <= texture.getWidth() - tileWidth; x += tileWidth + spacing) {
+                        addTile(tileset, new TextureRegion(texture, x, y, tileWidth, tileHeight), id++);
+                    }
+                }
+            }
+            for (int i = 0; i < tileImageIds.length; i++) {
+                addTile(tileset, new TextureRegion(textures.get(tileImages.get(i))), firstGid + tileImageIds[i]);
+            }
+            return tileset;
+        }
+
+        private void addTile(TiledMapTileSet tileset, TextureRegion region, int id) {
+            TiledMapTile tile = new StaticTiledMapTile(region);
+            tile.setId(id);
+            tile.setOffsetX(offsetX);
+            tile.setOffsetY(-offsetY);
+            tileset.putTile(id, tile);
+        }
+    }
+
+    /**
+     * A tile layer as it is stored in the file, with the tile ids of its cells.
+     */
+    private static class LayerData {
+        final String name;
+        final boolean visible;
+        final float opacity, offsetX, offsetY, parallaxX, parallaxY;
+        final int width, height;
+        final MapProperties properties = new MapProperties();
+        final int[] cells, ids;
+
+        LayerData(ByteBuffer buffer) {
+            name = readString(buffer);
+            visible = buffer.get() != 0;
+            opacity = buffer.getFloat();
+            offsetX = buffer.getFloat();
+            offsetY = buffer.getFloat();
+            parallaxX = buffer.getFloat();
+            parallaxY = buffer.getFloat();
+            width = buffer.getInt();
+            height = buffer.getInt();
+
+            int propertyCount = buffer.getInt();
+            for (int i = 0; i < propertyCount; i++) {
+                String key = readString(buffer);
+                String type = readString(buffer);
+                String value = readString(buffer);
+                properties.put(key, castProperty(type, value));
+            }
+
+            int cellCount = buffer.getInt();
+            cells = new int[cellCount];
+            ids = new int[cellCount];
+            buffer.asIntBuffer().get(cells).get(ids);
+            buffer.position(buffer.position() + 2 * cellCount * Integer.BYTES);
+        }
+
+        /**
+         * Creates the layer and its cells from the tile ids.
+         */
+        TiledMapTileLayer build(TiledMapTileSets tilesets, int tileWidth, int tileHeight) {
+            TiledMapTileLayer layer = new TiledMapTileLayer(width, height, tileWidth, tileHeight);
+            layer.setName(name);
+            layer.setVisible(visible);
+            layer.setOpacity(opacity);
+            layer.setOffsetX(offsetX);
+            layer.setOffsetY(offsetY);
+            layer.setParallaxX(parallaxX);
+            layer.setParallaxY(parallaxY);
+            layer.getProperties().putAll(properties);
+
+            for (int i = 0; i < cells.length; i++) {
+                TiledMapTile tile = tilesets.getTile(ids[i] & ~MASK_CLEAR);
+                if (tile != null) {
+                    TiledMapTileLayer.Cell cell = createCell(ids[i]);
+                    cell.setTile(tile);
+                    layer.setCell(cells[i] % width, cells[i] / width, cell);
+                }
+            }
+            return layer;
+        }
+    }
+
+    /**
+     * Creates a cell with the rotation and flipping encoded in a tile id, matching TmxMapLoader.
+     */
+    private static TiledMapTileLayer.Cell createCell(int id) {
+        boolean flipHorizontally = (id & FLIP_HORIZONTALLY) != 0;
+        boolean flipVertically = (id & FLIP_VERTICALLY) != 0;
+        TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+        if ((id & FLIP_DIAGONALLY) != 0) {
+            if (flipHorizontally && flipVertically) {
+                cell.setFlipHorizontally(true);
+                cell.setRotation(TiledMapTileLayer.Cell.ROTATE_270);
+            } else if (flipHorizontally) {
+                cell.setRotation(TiledMapTileLayer.Cell.ROTATE_270);
+            } else if (flipVertically) {
+                cell.setRotation(TiledMapTileLayer.Cell.ROTATE_90);
+            } else {
+                cell.setFlipVertically(true);
+                cell.setRotation(TiledMapTileLayer.Cell.ROTATE_270);
+            }
+        } else {
+            cell.setFlipHorizontally(flipHorizontally);
+            cell.setFlipVertically(flipVertically);
+        }
+        return cell;
+    }
+
+    private static Object castProperty(String type, String value) {
+        switch (type) {
+            case "int":
+                return Integer.valueOf(value);
+            case "float":
+                return Float.valueOf(value);
+            case "bool":
+                return Boolean.valueOf(value);
+            default:
+                return value;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
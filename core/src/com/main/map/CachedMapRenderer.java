@@ -0,0 +1,526 @@
+package com.main.map;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Renders an orthogonal map with its static layers baked into GPU geometry, split into square chunks of tiles.
+ * <p>
+ * Each chunk holds one mesh with the tiles of every static layer within it, which is drawn with one draw call per
+ * texture switch instead of walking every visible cell through the SpriteBatch each frame. Tiles are reordered by
+ * texture wherever that can not change which tile ends up on top, to keep the number of switches low. Consecutive
+ * layers whose tiles stay within their cells are drawn together one chunk at a time, while a layer whose tiles may
+ * reach into a neighbouring chunk, through a layer offset or oversized tiles, is drawn on its own across every visible
+ * chunk, so the earlier layers of the next chunk can not be drawn over it. Dynamic layers,
+ * which are the ones named when creating the renderer and any layer with animated tiles or parallax, are still drawn
+ * through the batch in their original place in the layer order, so they can change and be toggled freely.
+ * <p>
+ * A chunk needs at least one draw call for every texture it uses, so a view spanning several chunks takes more draw
+ * calls than the batch, which draws each layer across the whole view at once. These draw calls are cheap: the geometry
+ * is already on the GPU and only the texture changes between them, while the batch rebuilds and uploads the vertices of
+ * every visible tile each frame.
+ * <p>
+ * Only chunks that overlap the view are drawn. Chunks are baked when they come into view, with the chunks around the
+ * view baked ahead of time one per frame, and their meshes are freed again once they are far from the view, so the
+ * geometry held at any time depends on the size of the view rather than the size of the map. The chunks are rebuilt
+ * from the map's cells, which are not freed: they belong to the map, which is also used for collisions and zones, so
+ * memory as a whole still grows with the area of the map, by one cell per tile of each layer.
+ * <p>
+ * The cells and visibility of static layers are read when a chunk is baked, so changes to them are not reliably shown.
+ */
+public class CachedMapRenderer extends OrthogonalTiledMapRenderer {
+    private static final int VERTICES_PER_TILE = 6; // Two triangles, as the meshes are not indexed
+    private static final int VERTEX_SIZE = 5; // x, y, packed colour, u, v
+    private static final int PREFETCH_DISTANCE = 1; // Chunks around the view that are baked before they are needed
+    private static final int EVICT_DISTANCE = 3; // Chunks this far outside the view have their geometry freed
+
+    private final int chunkSize, chunksX, chunksY;
+    private final float tileWidth, tileHeight;
+    private final int[] runOfLayer; // The run of static layers each layer is drawn in, or -1 for dynamic layers
+    private final Array<Array<TiledMapTileLayer>> runs = new Array<>(); // The visible layers of each static run
+    private final BooleanArray alignedRuns = new BooleanArray(); // Whether each run's tiles all stay within their cells
+    private final Chunk[] chunks;
+    private final Array<Chunk> resident = new Array<>(false, 16);
+    private final ShaderProgram shader; // Shared by every chunk
+    private final Matrix4 projection = new Matrix4();
+
+    // Scratch state used while baking a chunk
+    private final FloatArray bakeVertices = new FloatArray();
+    private final float[] cornerU = new float[4], cornerV = new float[4];
+    private int bakeRun;
+
+    private final ChunkGrid grid; // Chooses the chunks to draw, bake and free
+    private final IntArray toBake = new IntArray();
+    private final IntPredicate isBaked;
+    private int renderCalls;
+
+    /**
+     * A square part of the map, with the geometry of its static tiles when it has been baked.
+     */
+    private static class Chunk {
+        final int tileX, tileY, width, height;
+        boolean baked;
+        Mesh mesh; // Null when not baked, or when the chunk has no static tiles
+        final Array<Texture> textures = new Array<>(); // The texture of each draw
+        final IntArray offsets = new IntArray(), counts = new IntArray(); // The vertices of each draw
+        final int[] firstDraw; // The first draw of each run, with an extra entry marking the end of the last run
+
+        Chunk(int tileX, int tileY, int width, int height, int runCount) {
+            this.tileX = tileX;
+            this.tileY = tileY;
+            this.width = width;
+            this.height = height;
+            firstDraw = new int[runCount + 1];
+        }
+    }
+
+    /**
+     * Creates the renderer. No geometry is baked until the map is first rendered.
+     *
+     * @param map The map to render.
+     * @param chunkSize The width and height of a chunk in tiles.
+     * @param dynamicLayers The names of layers that change while the game runs, for example by toggling their visibility.
+     */
+    public CachedMapRenderer(TiledMap map, int chunkSize, String... dynamicLayers) {
+        super(map);
+        this.chunkSize = chunkSize;
+        MapProperties properties = map.getProperties();
+        int mapWidth = properties.get("width", Integer.class);
+        int mapHeight = properties.get("height", Integer.class);
+        tileWidth = properties.get("tilewidth", Integer.class) * unitScale;
+        tileHeight = properties.get("tileheight", Integer.class) * unitScale;
+
+        MapLayers layers = map.getLayers();
+        ObjectSet<String> dynamicNames = new ObjectSet<>();
+        dynamicNames.addAll(dynamicLayers);
+        runOfLayer = new int[layers.size()];
+        for (int i = 0; i < layers.size(); i++) {
+            MapLayer layer = layers.get(i);
+            boolean dynamic = !(layer instanceof TiledMapTileLayer) || dynamicNames.contains(layer.getName())
+                    || isDynamic((TiledMapTileLayer) layer);
+            if (dynamic) {
+                runOfLayer[i] = -1;
+                continue;
+            }
+            // Aligned layers share a run, while any other layer gets a run of its own
+            TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+            boolean aligned = isAligned(tileLayer);
+            if (i == 0 || runOfLayer[i - 1] < 0 || !aligned || !alignedRuns.peek()) {
+                runs.add(new Array<>());
+                alignedRuns.add(aligned);
+            }
+            runOfLayer[i] = runs.size - 1;
+            if (tileLayer.isVisible()) runs.peek().add(tileLayer);
+        }
+
+        chunksX = (mapWidth + chunkSize - 1) / chunkSize;
+        chunksY = (mapHeight + chunkSize - 1) / chunkSize;
+        chunks = new Chunk[chunksX * chunksY];
+        for (int y = 0; y < chunksY; y++) {
+            for (int x = 0; x < chunksX; x++) {
+                chunks[y * chunksX + x] = new Chunk(x * chunkSize, y * chunkSize,
+                        Math.min(chunkSize, mapWidth - x * chunkSize), Math.min(chunkSize, mapHeight - y * chunkSize), runs.size);
+            }
+        }
+        grid = new ChunkGrid(chunksX, chunksY, chunkSize * tileWidth, chunkSize * tileHeight, tileWidth, tileHeight,
+                PREFETCH_DISTANCE, EVICT_DISTANCE);
+        isBaked = chunk -> chunks[chunk].baked;
+        shader = SpriteBatch.createDefaultShader();
+    }
+
+    /**
+     * Checks whether a layer has to be drawn every frame because it can not be baked.
+     */
+    private static boolean isDynamic(TiledMapTileLayer layer) {
+        if (layer.getParallaxX() != 1 || layer.getParallaxY() != 1) return true;
+        for (int x = 0; x < layer.getWidth(); x++) {
+            for (int y = 0; y < layer.getHeight(); y++) {
+                if (getTile(layer, x, y) instanceof AnimatedTiledMapTile) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether every tile of a layer is drawn exactly within its own cell, so it can only overlap tiles of the same
+     * cell in other layers.
+     */
+    private static boolean isAligned(TiledMapTileLayer layer) {
+        if (layer.getRenderOffsetX() != 0 || layer.getRenderOffsetY() != 0) return false;
+        for (int x = 0; x < layer.getWidth(); x++) {
+            for (int y = 0; y < layer.getHeight(); y++) {
+                TiledMapTile tile = getTile(layer, x, y);
+                if (tile == null) continue;
+                TextureRegion region = tile.getTextureRegion();
+                if (tile.getOffsetX() != 0 || tile.getOffsetY() != 0 || region.getRegionWidth() > layer.getTileWidth()
+                        || region.getRegionHeight() > layer.getTileHeight()) return false;
+            }
+        }
+        return true;
+    }
+
+    private static TiledMapTile getTile(TiledMapTileLayer layer, int x, int y) {
+        TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+        return cell != null ? cell.getTile() : null;
+    }
+
+    /**
+     * Builds the mesh of a chunk from the cells of the map.
+     */
+    private void bake(Chunk chunk) {
+        chunk.baked = true;
+        resident.add(chunk);
+        bakeVertices.clear();
+
+        for (bakeRun = 0; bakeRun < runs.size; bakeRun++) {
+            chunk.firstDraw[bakeRun] = chunk.textures.size;
+            if (alignedRuns.get(bakeRun)) {
+                addAligned(chunk, runs.get(bakeRun));
+            } else {
+                for (TiledMapTileLayer layer : runs.get(bakeRun)) addInOrder(chunk, layer);
+            }
+        }
+        chunk.firstDraw[runs.size] = chunk.textures.size;
+
+        if (bakeVertices.size > 0) {
+            chunk.mesh = new Mesh(true, bakeVertices.size / VERTEX_SIZE, 0,
+                    new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                    new VertexAttribute(VertexAttributes.Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE),
+                    new VertexAttribute(VertexAttributes.Usage.TextureCoordinates, 2, ShaderProgram.TEXCOORD_ATTRIBUTE + "0"));
+            chunk.mesh.setAutoBind(false);
+            chunk.mesh.setVertices(bakeVertices.items, 0, bakeVertices.size);
+        }
+    }
+
+    /**
+     * Frees the geometry of a chunk, which is baked again if it comes back into view.
+     */
+    private void evict(Chunk chunk) {
+        if (chunk.mesh != null) {
+            chunk.mesh.dispose();
+            chunk.mesh = null;
+        }
+        chunk.textures.clear();
+        chunk.offsets.clear();
+        chunk.counts.clear();
+        chunk.baked = false;
+    }
+
+    /**
+     * Adds the tiles of consecutive aligned layers within a chunk, grouped by texture as much as possible.
+     * As aligned tiles only overlap within a cell, the only order that has to be kept is the layer order of each cell,
+     * so every tile of the current texture that is next in its cell is added before switching to another texture.
+     */
+    private void addAligned(Chunk chunk, Array<TiledMapTileLayer> layers) {
+        if (layers.isEmpty()) return;
+        int cellCount = chunk.width * chunk.height;
+        float[] colors = new float[layers.size];
+        for (int i = 0; i < layers.size; i++) colors[i] = Color.toFloatBits(1f, 1f, 1f, layers.get(i).getOpacity());
+
+        // The layer of the next tile to add in each cell, and the cells whose next tile uses each texture
+        int[] nextLayer = new int[cellCount];
+        ObjectMap<Texture, IntArray> ready = new ObjectMap<>();
+        ObjectIntMap<Texture> remaining = new ObjectIntMap<>();
+        for (TiledMapTileLayer layer : layers) {
+            for (int cell = 0; cell < cellCount; cell++) {
+                TiledMapTile tile = getTile(layer, chunk.tileX + cell % chunk.width, chunk.tileY + cell / chunk.width);
+                if (tile != null) remaining.getAndIncrement(tile.getTextureRegion().getTexture(), 0, 1);
+            }
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            nextLayer[cell] = findTile(chunk, layers, cell, 0);
+            if (nextLayer[cell] < layers.size) addReady(chunk, ready, layers.get(nextLayer[cell]), cell);
+        }
+
+        Texture current = null;
+        while (true) {
+            IntArray cells = current != null ? ready.get(current) : null;
+            if (cells == null || cells.isEmpty()) {
+                current = pickTexture(ready, remaining);
+                if (current == null) break;
+                cells = ready.get(current);
+            }
+            int cell = cells.pop();
+            int layer = nextLayer[cell];
+            addTile(chunk, layers.get(layer), chunk.tileX + cell % chunk.width, chunk.tileY + cell / chunk.width, colors[layer]);
+            remaining.getAndIncrement(current, 0, -1);
+            nextLayer[cell] = findTile(chunk, layers, cell, layer + 1);
+            if (nextLayer[cell] < layers.size) addReady(chunk, ready, layers.get(nextLayer[cell]), cell);
+        }
+    }
+
+    /**
+     * Finds the first layer from the given one that has a tile in a cell of a chunk.
+     *
+     * @return The index of the layer, or the number of layers if there are no more tiles in the cell.
+     */
+    private static int findTile(Chunk chunk, Array<TiledMapTileLayer> layers, int cell, int from) {
+        for (int i = from; i < layers.size; i++) {
+            if (getTile(layers.get(i), chunk.tileX + cell % chunk.width, chunk.tileY + cell / chunk.width) != null) return i;
+        }
+        return layers.size;
+    }
+
+    private static void addReady(Chunk chunk, ObjectMap<Texture, IntArray> ready, TiledMapTileLayer layer, int cell) {
+        Texture texture = getTile(layer, chunk.tileX + cell % chunk.width, chunk.tileY + cell / chunk.width)
+                .getTextureRegion().getTexture();
+        IntArray cells = ready.get(texture);
+        if (cells == null) ready.put(texture, cells = new IntArray());
+        cells.add(cell);
+    }
+
+    /**
+     * Picks the texture to add next, or returns null if every tile has been added. A texture whose remaining tiles are
+     * all ready is preferred, as it never has to be switched back to, otherwise the one with the most ready tiles is used.
+     */
+    private static Texture pickTexture(ObjectMap<Texture, IntArray> ready, ObjectIntMap<Texture> remaining) {
+        Texture best = null;
+        boolean bestCompletes = false;
+        int bestCount = 0;
+        for (ObjectMap.Entry<Texture, IntArray> entry : ready) {
+            int count = entry.value.size;
+            if (count == 0) continue;
+            boolean completes = count == remaining.get(entry.key, 0);
+            if (best == null || (completes && !bestCompletes) || (completes == bestCompletes && count > bestCount)) {
+                best = entry.key;
+                bestCompletes = completes;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Adds the tiles of a layer within a chunk in the order the batch renderer would draw them,
+     * for layers whose tiles may overlap.
+     */
+    private void addInOrder(Chunk chunk, TiledMapTileLayer layer) {
+        float color = Color.toFloatBits(1f, 1f, 1f, layer.getOpacity());
+        for (int y = chunk.tileY + chunk.height - 1; y >= chunk.tileY; y--) {
+            for (int x = chunk.tileX; x < chunk.tileX + chunk.width; x++) {
+                if (getTile(layer, x, y) != null) addTile(chunk, layer, x, y, color);
+            }
+        }
+    }
+
+    /**
+     * Adds a single tile to the chunk being baked, positioned, flipped and rotated in the same way as the batch renderer.
+     */
+    private void addTile(Chunk chunk, TiledMapTileLayer layer, int x, int y, float color) {
+        TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+        TiledMapTile tile = cell.getTile();
+        TextureRegion region = tile.getTextureRegion();
+
+        float x1 = x * layer.getTileWidth() * unitScale + tile.getOffsetX() * unitScale + layer.getRenderOffsetX() * unitScale;
+        float y1 = y * layer.getTileHeight() * unitScale + tile.getOffsetY() * unitScale - layer.getRenderOffsetY() * unitScale;
+        float x2 = x1 + region.getRegionWidth() * unitScale;
+        float y2 = y1 + region.getRegionHeight() * unitScale;
+
+        // Texture coordinates of the corners: bottom left, top left, top right, bottom right
+        float[] u = cornerU, v = cornerV;
+        u[0] = u[1] = region.getU();
+        u[2] = u[3] = region.getU2();
+        v[0] = v[3] = region.getV2();
+        v[1] = v[2] = region.getV();
+        if (cell.getFlipHorizontally()) {
+            swap(u, 0, 2);
+            swap(u, 1, 3);
+        }
+        if (cell.getFlipVertically()) {
+            swap(v, 0, 2);
+            swap(v, 1, 3);
+        }
+        switch (cell.getRotation()) {
+            case TiledMapTileLayer.Cell.ROTATE_90:
+                rotate(u, 1);
+                rotate(v, 1);
+                break;
+            case TiledMapTileLayer.Cell.ROTATE_180:
+                rotate(u, 2);
+                rotate(v, 2);
+                break;
+            case TiledMapTileLayer.Cell.ROTATE_270:
+                rotate(u, 3);
+                rotate(v, 3);
+                break;
+        }
+
+        // Start a new draw when the texture changes, or for the first tile of a run
+        Texture texture = region.getTexture();
+        if (chunk.textures.size == chunk.firstDraw[bakeRun] || chunk.textures.peek() != texture) {
+            chunk.textures.add(texture);
+            chunk.offsets.add(bakeVertices.size / VERTEX_SIZE);
+            chunk.counts.add(0);
+        }
+        chunk.counts.incr(chunk.counts.size - 1, VERTICES_PER_TILE);
+
+        putVertex(x1, y1, color, u[0], v[0]);
+        putVertex(x1, y2, color, u[1], v[1]);
+        putVertex(x2, y2, color, u[2], v[2]);
+        putVertex(x2, y2, color, u[2], v[2]);
+        putVertex(x2, y1, color, u[3], v[3]);
+        putVertex(x1, y1, color, u[0], v[0]);
+    }
+
+    private void putVertex(float x, float y, float color, float u, float v) {
+        bakeVertices.add(x, y, color, u);
+        bakeVertices.add(v);
+    }
+
+    private static void swap(float[] values, int a, int b) {
+        float temp = values[a];
+        values[a] = values[b];
+        values[b] = temp;
+    }
+
+    /**
+     * Shifts each corner's value to the previous corner, the given number of times.
+     */
+    private static void rotate(float[] values, int steps) {
+        for (int i = 0; i < steps; i++) {
+            float first = values[0];
+            values[0] = values[1];
+            values[1] = values[2];
+            values[2] = values[3];
+            values[3] = first;
+        }
+    }
+
+    @Override
+    public void setView(OrthographicCamera camera) {
+        super.setView(camera);
+        projection.set(camera.combined);
+    }
+
+    @Override
+    public void setView(Matrix4 projection, float x, float y, float width, float height) {
+        super.setView(projection, x, y, width, height);
+        this.projection.set(projection);
+    }
+
+    /**
+     * Works out which chunks overlap the view, bakes the ones that are needed and frees the ones that are far away.
+     */
+    private void updateChunks() {
+        // Tiles can be drawn slightly outside their cell, so the grid widens the view by a tile on each side
+        grid.setView(viewBounds.x, viewBounds.y, viewBounds.width, viewBounds.height);
+
+        for (int i = resident.size - 1; i >= 0; i--) {
+            Chunk chunk = resident.get(i);
+            if (grid.isFarFromView(chunk.tileX / chunkSize, chunk.tileY / chunkSize)) {
+                evict(chunk);
+                resident.removeIndex(i);
+            }
+        }
+
+        grid.findChunksToBake(isBaked, toBake);
+        for (int i = 0; i < toBake.size; i++) {
+            bake(chunks[toBake.get(i)]);
+        }
+    }
+
+    /**
+     * Renders every layer in order, drawing baked layers from the visible chunks and dynamic layers through the batch.
+     */
+    @Override
+    public void render() {
+        updateChunks();
+        MapLayers layers = map.getLayers();
+        renderCalls = 0;
+        for (int i = 0; i < layers.size(); ) {
+            if (runOfLayer[i] >= 0) {
+                int run = runOfLayer[i];
+                while (i < layers.size() && runOfLayer[i] == run) i++;
+                drawRun(run);
+            } else {
+                beginRender();
+                for (; i < layers.size() && runOfLayer[i] < 0; i++) renderMapLayer(layers.get(i));
+                endRender();
+                renderCalls += ((SpriteBatch) batch).renderCalls;
+            }
+        }
+    }
+
+    /**
+     * Draws one run of baked layers from every visible chunk, blending in the same way as the batch.
+     */
+    private void drawRun(int run) {
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", projection);
+        shader.setUniformi("u_texture", 0);
+        Texture bound = null;
+        for (int y = grid.getViewY1(); y <= grid.getViewY2(); y++) {
+            for (int x = grid.getViewX1(); x <= grid.getViewX2(); x++) {
+                Chunk chunk = chunks[y * chunksX + x];
+                if (chunk.mesh == null || chunk.firstDraw[run] == chunk.firstDraw[run + 1]) continue;
+                chunk.mesh.bind(shader);
+                for (int draw = chunk.firstDraw[run]; draw < chunk.firstDraw[run + 1]; draw++) {
+                    Texture texture = chunk.textures.get(draw);
+                    if (texture != bound) {
+                        texture.bind();
+                        bound = texture;
+                    }
+                    chunk.mesh.render(shader, GL20.GL_TRIANGLES, chunk.offsets.get(draw), chunk.counts.get(draw));
+                    renderCalls++;
+                }
+                chunk.mesh.unbind(shader);
+            }
+        }
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    /**
+     * Gets the number of draw calls made by the last call to {@link #render()}, from both the chunks and the batch.
+     *
+     * @return The draw calls made to render the map in the last frame.
+     */
+    public int getRenderCalls() {
+        return renderCalls;
+    }
+
+    /**
+     * Gets the number of chunks whose geometry is currently held in memory.
+     *
+     * @return The number of baked chunks.
+     */
+    public int getResidentChunks() {
+        return resident.size;
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        for (Chunk chunk : resident) evict(chunk);
+        resident.clear();
+        shader.dispose();
+    }
+}
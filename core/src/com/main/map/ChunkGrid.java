@@ -0,0 +1,114 @@
+package com.main.map;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Works out which chunks of a map the {@link CachedMapRenderer} draws, bakes ahead of time and frees, from the
+ * bounds of the view. It does no drawing itself, so that the choices can be checked without a graphics context.
+ * <p>
+ * Chunks are numbered y * chunksX + x, from the bottom left of the map.
+ */
+public class ChunkGrid {
+    private final int chunksX, chunksY;
+    private final float chunkWidth, chunkHeight;
+    private final float marginX, marginY;
+    private final int prefetchDistance, evictDistance;
+    private int viewX1, viewY1, viewX2, viewY2; // Range of chunks overlapping the view, inclusive, empty if x1 > x2
+
+    /**
+     * @param chunksX The number of chunks across the map.
+     * @param chunksY The number of chunks up the map.
+     * @param chunkWidth The width of a chunk in world units.
+     * @param chunkHeight The height of a chunk in world units.
+     * @param marginX How far the view is widened on each side, as tiles can be drawn slightly outside their cell.
+     * @param marginY How far the view is widened at the top and bottom.
+     * @param prefetchDistance The number of chunks around the view that are baked before they are needed.
+     * @param evictDistance Chunks more than this many chunks outside the view are freed.
+     */
+    public ChunkGrid(int chunksX, int chunksY, float chunkWidth, float chunkHeight, float marginX, float marginY,
+                     int prefetchDistance, int evictDistance) {
+        this.chunksX = chunksX;
+        this.chunksY = chunksY;
+        this.chunkWidth = chunkWidth;
+        this.chunkHeight = chunkHeight;
+        this.marginX = marginX;
+        this.marginY = marginY;
+        this.prefetchDistance = prefetchDistance;
+        this.evictDistance = evictDistance;
+        this.viewX1 = this.viewY1 = 0;
+        this.viewX2 = this.viewY2 = -1;
+    }
+
+    /**
+     * Sets the bounds of the view, finding the chunks that overlap it.
+     *
+     * @param x The left of the view in world units.
+     * @param y The bottom of the view.
+     * @param width The width of the view.
+     * @param height The height of the view.
+     */
+    public void setView(float x, float y, float width, float height) {
+        viewX1 = Math.max(0, (int) Math.floor((x - marginX) / chunkWidth));
+        viewY1 = Math.max(0, (int) Math.floor((y - marginY) / chunkHeight));
+        viewX2 = Math.min(chunksX - 1, (int) Math.floor((x + width + marginX) / chunkWidth));
+        viewY2 = Math.min(chunksY - 1, (int) Math.floor((y + height + marginY) / chunkHeight));
+    }
+
+    /**
+     * @return True if a chunk overlaps the view and is drawn.
+     */
+    public boolean isInView(int x, int y) {
+        return x >= viewX1 && x <= viewX2 && y >= viewY1 && y <= viewY2;
+    }
+
+    /**
+     * @return True if a chunk is far enough from the view that its geometry should be freed.
+     */
+    public boolean isFarFromView(int x, int y) {
+        if (viewX1 > viewX2 || viewY1 > viewY2) return true; // The view is off the map
+        return x < viewX1 - evictDistance || x > viewX2 + evictDistance
+                || y < viewY1 - evictDistance || y > viewY2 + evictDistance;
+    }
+
+    /**
+     * Lists the chunks to bake this frame: every chunk in view that is not baked yet, and at most one chunk around
+     * the view, so that prefetching spreads its cost over several frames.
+     *
+     * @param isBaked Tells whether the chunk with the given number is baked.
+     * @param toBake Cleared, then filled with the numbers of the chunks to bake.
+     */
+    public void findChunksToBake(IntPredicate isBaked, IntArray toBake) {
+        toBake.clear();
+        if (viewX1 > viewX2 || viewY1 > viewY2) return;
+        boolean prefetched = false;
+        for (int y = Math.max(0, viewY1 - prefetchDistance); y <= Math.min(chunksY - 1, viewY2 + prefetchDistance); y++) {
+            for (int x = Math.max(0, viewX1 - prefetchDistance); x <= Math.min(chunksX - 1, viewX2 + prefetchDistance); x++) {
+                int chunk = y * chunksX + x;
+                if (isBaked.test(chunk)) continue;
+                boolean visible = isInView(x, y);
+                if (visible || !prefetched) {
+                    toBake.add(chunk);
+                    prefetched |= !visible;
+                }
+            }
+        }
+    }
+
+    public int getViewX1() {
+        return viewX1;
+    }
+
+    public int getViewY1() {
+        return viewY1;
+    }
+
+    public int getViewX2() {
+        return viewX2;
+    }
+
+    public int getViewY2() {
+        return viewY2;
+    }
+}
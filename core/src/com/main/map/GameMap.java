@@ -4,35 +4,48 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.maps.MapProperties;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.main.utils.GameAssets;
 
 /**
  * Represents the game map, handling rendering and toggling layer visibility.
  * It extends TiledMap to use the functionalities provided by libGDX for tile maps.
  */
 public class GameMap extends TiledMap {
+    public static final String MAP_PATH = "map/MainMap.tmx";
+    // Set -Dheslington.uncachedMap=true to draw every layer through the SpriteBatch each frame instead of baking them
+    private static final boolean UNCACHED_RENDER = Boolean.getBoolean("heslington.uncachedMap");
+    private static final String WATER_LAYER = "Water_2"; // Toggled on a timer, so it can not be baked
+    private static final int CHUNK_SIZE = 32; // Width and height in tiles of the chunks the map is baked in
+
     private final int width, height;
     private final TiledMap gameMap;
     private final OrthogonalTiledMapRenderer tiledMapRenderer;
     private final OrthographicCamera camera;
+    private final GameAssets assets;
+    private final ZoneIndex zoneIndex;
     final int tileSize = 16; // Added code
     float layerToggleTime;
 
     /**
      * Constructs a GameMap with an orthographic camera.
+     * The map is loaded by the {@link GameMapLoader} through the game's assets, so it is ready straight away
+     * if it was preloaded, and is only read here otherwise.
      *
+     * @param assets The game's assets, which the map is acquired from.
      * @param camera The camera used to view the map.
      */
-    public GameMap(OrthographicCamera camera) {
-        // Load the .tmx with the MainMap for game
-        gameMap = new TmxMapLoader().load("map/MainMap.tmx");
+    public GameMap(GameAssets assets, OrthographicCamera camera) {
+        this.assets = assets;
+        gameMap = assets.acquire(MAP_PATH, TiledMap.class);
         MapProperties properties = gameMap.getProperties();
         height = properties.get("tileheight", Integer.class) * properties.get("height", Integer.class);
         width = properties.get("tilewidth", Integer.class) * properties.get("width", Integer.class);
+        zoneIndex = new ZoneIndex(gameMap, tileSize, tileSize);
 
-        // Render the MainMap
-        tiledMapRenderer = new OrthogonalTiledMapRenderer(gameMap);
+        // Render the MainMap, with every layer except the animated water baked in chunks around the view
+        tiledMapRenderer = UNCACHED_RENDER ? new OrthogonalTiledMapRenderer(gameMap)
+                : new CachedMapRenderer(gameMap, CHUNK_SIZE, WATER_LAYER);
 
         this.camera = camera;
     }
@@ -57,7 +70,7 @@ public class GameMap extends TiledMap {
     public void update(float delta) {
         layerToggleTime += delta;
         if (layerToggleTime >= 0.75f) {
-            toggleLayerVisibility("Water_2");
+            toggleLayerVisibility(WATER_LAYER);
             //toggleLayerVisibility("Trees");
             layerToggleTime = 0;
         }
@@ -111,9 +124,17 @@ public class GameMap extends TiledMap {
         return gameMap;
     }
 
-    
+    /**
+     * Gets the index of the trigger zones (doors and activities) on the map.
+     *
+     * @return The zone index built when the map was loaded.
+     */
+    public ZoneIndex getZoneIndex(){
+        return zoneIndex;
+    }
+
     public void dispose() {
-        gameMap.dispose();
+        assets.release(MAP_PATH);
         tiledMapRenderer.dispose();
     }
 }
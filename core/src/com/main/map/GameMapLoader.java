@@ -0,0 +1,126 @@
+package com.main.map;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Loads .tmx maps through an AssetManager, preferring a compiled copy of them. A compiled copy shipped next to the
+ * .tmx by the compileMap build task is used first, otherwise the map is compiled into the local cache directory the
+ * first time it is loaded. Compiled copies that are out of date with the .tmx are ignored, and if compiling fails
+ * the .tmx is loaded directly.
+ * <p>
+ * The files are read and compiled on the manager's loading thread, and the map's images are loaded as textures
+ * the manager owns, one per update, so that only creating the tiles and cells is left for the rendering thread.
+ */
+public class GameMapLoader extends AsynchronousAssetLoader<TiledMap, TmxMapLoader.Parameters> {
+    private static final String COMPILED_EXTENSION = ".hhmap";
+    private static final String CACHE_DIRECTORY = "cache/";
+    // Set -Dheslington.loadTmx=true to always parse the .tmx, e.g. to compare load times with the compiled map
+    private static final boolean LOAD_TMX = Boolean.getBoolean("heslington.loadTmx");
+
+    private final TmxMapLoader tmxLoader;
+    // The map being loaded, as the manager loads one asset at a time. Null while a .tmx is loaded directly
+    private BinaryMapLoader.CompiledMap compiledMap;
+    private String source;
+    private long startTime;
+
+    /**
+     * @param resolver Finds the map files.
+     */
+    public GameMapLoader(FileHandleResolver resolver) {
+        super(resolver);
+        this.tmxLoader = new TmxMapLoader(resolver);
+    }
+
+    /**
+     * Reads the map, compiling it first if needed, and lists its images. Called on the loading thread.
+     */
+    @Override
+    @SuppressWarnings("rawtypes") // The raw Array<AssetDescriptor> is the signature AssetLoader declares
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle tmxFile, TmxMapLoader.Parameters parameter) {
+        startTime = TimeUtils.nanoTime();
+        compiledMap = LOAD_TMX ? null : readCompiled(tmxFile);
+        if (compiledMap == null) {
+            source = "tmx";
+            return tmxLoader.getDependencies(fileName, tmxFile, parameter);
+        }
+
+        TextureLoader.TextureParameter textureParameter = new TextureLoader.TextureParameter();
+        textureParameter.minFilter = textureParameter.magFilter = Texture.TextureFilter.Nearest;
+        Array<AssetDescriptor> dependencies = new Array<>();
+        for (String image : compiledMap.getImages()) {
+            dependencies.add(new AssetDescriptor<>(imagePath(tmxFile, image), Texture.class, textureParameter));
+        }
+        return dependencies;
+    }
+
+    /**
+     * Reads the compiled copy of a map, compiling it if there is no up to date copy.
+     * A cached copy that can not be read, e.g. one left damaged by an older version, is deleted so that it is
+     * compiled again on the next run.
+     *
+     * @return The compiled map, or null if it could not be compiled or read.
+     */
+    private BinaryMapLoader.CompiledMap readCompiled(FileHandle tmxFile) {
+        FileHandle cached = Gdx.files.local(CACHE_DIRECTORY + tmxFile.nameWithoutExtension() + COMPILED_EXTENSION);
+        FileHandle compiled = null;
+        try {
+            source = "compiled";
+            long checksum = MapCompiler.checksum(tmxFile);
+            compiled = tmxFile.sibling(tmxFile.nameWithoutExtension() + COMPILED_EXTENSION);
+            if (!MapCompiler.isUpToDate(compiled, checksum)) {
+                compiled = cached;
+                if (!MapCompiler.isUpToDate(compiled, checksum)) {
+                    MapCompiler.compile(tmxFile, compiled);
+                    source = "compiled on first run";
+                }
+            }
+            return new BinaryMapLoader().read(compiled);
+        } catch (RuntimeException e) { // A damaged file can fail with any exception while it is read
+            Gdx.app.error("GameMap", "Could not use a compiled map, loading " + tmxFile.path(), e);
+            if (compiled == cached) cached.delete();
+            return null;
+        }
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle tmxFile, TmxMapLoader.Parameters parameter) {
+        if (compiledMap == null) tmxLoader.loadAsync(manager, fileName, tmxFile, parameter);
+    }
+
+    /**
+     * Creates the map from its loaded textures. Called on the rendering thread.
+     */
+    @Override
+    public TiledMap loadSync(AssetManager manager, String fileName, FileHandle tmxFile, TmxMapLoader.Parameters parameter) {
+        TiledMap map;
+        if (compiledMap == null) {
+            map = tmxLoader.loadSync(manager, fileName, tmxFile, parameter);
+        } else {
+            ObjectMap<String, Texture> textures = new ObjectMap<>();
+            for (String image : compiledMap.getImages()) {
+                textures.put(image, manager.get(imagePath(tmxFile, image), Texture.class));
+            }
+            map = compiledMap.build(textures);
+            compiledMap = null;
+        }
+        Gdx.app.debug("GameMap", String.format("Loaded %s (%s) in %.1f ms, including waiting between frames",
+                fileName, source, TimeUtils.timeSinceNanos(startTime) / 1e6));
+        return map;
+    }
+
+    private static String imagePath(FileHandle tmxFile, String image) {
+        return tmxFile.parent().child(image).path();
+    }
+}
@@ -0,0 +1,275 @@
+package com.main.map;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.BaseTmxMapLoader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.XmlReader;
+import com.badlogic.gdx.utils.XmlReader.Element;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * Compiles a Tiled .tmx map into a compact binary file that {@link BinaryMapLoader} can read without parsing any XML or CSV.
+ * <p>
+ * The compiler only reads the map files, it does not need a graphics context and can run at build time through
+ * {@link #main(String[])} or on the first run of the game. Only orthogonal maps made of tile layers are supported,
+ * anything else is rejected so that the caller can fall back to loading the .tmx directly.
+ * <p>
+ * File layout, big-endian, strings are a short byte length followed by UTF-8 bytes:
+ * <pre>
+ * int magic, int version, long crc of the .tmx
+ * int width, int height, int tileWidth, int tileHeight, String orientation
+ * int tilesetCount, per tileset:
+ *     String name, int firstGid, int tileWidth, int tileHeight, int spacing, int margin, int offsetX, int offsetY,
+ *     String image (empty if every tile has its own image), int tileImageCount, per tile image: int id, String image
+ * int layerCount, per layer:
+ *     String name, boolean visible, float opacity, float offsetX, float offsetY, float parallaxX, float parallaxY,
+ *     int width, int height, int propertyCount, per property: String name, String type, String value,
+ *     int cellCount, int[cellCount] cell indices (y * width + x, bottom row first), int[cellCount] tile ids including flip flags
+ * </pre>
+ * Image paths are relative to the directory of the .tmx file.
+ */
+public class MapCompiler {
+    static final int MAGIC = 0x48484D50; // "HHMP"
+    static final int VERSION = 1;
+
+    /**
+     * Compiles a map from the command line, used by the compileMap build task.
+     *
+     * @param args The path of the .tmx file and the path of the binary file to write.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: MapCompiler <map.tmx> <output>");
+            System.exit(1);
+        }
+        compile(new FileHandle(args[0]), new FileHandle(args[1]));
+    }
+
+    /**
+     * Computes the checksum of a .tmx file that is stored in the compiled file to detect when it is out of date.
+     *
+     * @param tmxFile The .tmx file.
+     * @return The CRC32 of the file contents.
+     */
+    public static long checksum(FileHandle tmxFile) {
+        CRC32 crc = new CRC32();
+        crc.update(tmxFile.readBytes());
+        return crc.getValue();
+    }
+
+    /**
+     * Checks whether a compiled file exists and was compiled from the current version of a .tmx file.
+     *
+     * @param compiled The compiled map file.
+     * @param tmxChecksum The checksum of the .tmx file, from {@link #checksum(FileHandle)}.
+     * @return True if the compiled file can be loaded in place of the .tmx file.
+     */
+    public static boolean isUpToDate(FileHandle compiled, long tmxChecksum) {
+        if (!compiled.exists()) return false;
+        byte[] header = new byte[16];
+        try {
+            if (compiled.readBytes(header, 0, header.length) != header.length) return false;
+        } catch (GdxRuntimeException e) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(header);
+        return buffer.getInt() == MAGIC && buffer.getInt() == VERSION && buffer.getLong() == tmxChecksum;
+    }
+
+    /**
+     * Compiles a .tmx map into the binary format. The map is written to a temporary file next to the output, which is
+     * then renamed over it, so that a crash or a full disk never leaves a partly written file that looks up to date.
+     *
+     * @param tmxFile The .tmx file to compile.
+     * @param output The file to write the compiled map to.
+     * @throws GdxRuntimeException If the map uses features the binary format does not support, or can not be written.
+     */
+    public static void compile(FileHandle tmxFile, FileHandle output) {
+        Element root = new XmlReader().parse(tmxFile);
+        if (!"orthogonal".equals(root.getAttribute("orientation", ""))) {
+            throw new GdxRuntimeException("Only orthogonal maps can be compiled: " + tmxFile);
+        }
+        if (root.getIntAttribute("infinite", 0) == 1) {
+            throw new GdxRuntimeException("Infinite maps can not be compiled: " + tmxFile);
+        }
+
+        FileHandle temporary = output.sibling(output.name() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(temporary.write(false), 64 * 1024));
+        boolean written = false;
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(checksum(tmxFile));
+            out.writeInt(root.getIntAttribute("width"));
+            out.writeInt(root.getIntAttribute("height"));
+            out.writeInt(root.getIntAttribute("tilewidth"));
+            out.writeInt(root.getIntAttribute("tileheight"));
+            writeString(out, root.getAttribute("orientation"));
+
+            Array<Element> tilesets = root.getChildrenByName("tileset");
+            out.writeInt(tilesets.size);
+            for (Element tileset : tilesets) {
+                writeTileset(out, tmxFile, tileset);
+            }
+
+            Array<Element> layers = new Array<>();
+            for (int i = 0; i < root.getChildCount(); i++) {
+                Element child = root.getChild(i);
+                String type = child.getName();
+                if (type.equals("layer")) {
+                    layers.add(child);
+                } else if (type.equals("objectgroup") || type.equals("imagelayer") || type.equals("group")) {
+                    throw new GdxRuntimeException("Unsupported layer type '" + type + "' in " + tmxFile);
+                }
+            }
+            out.writeInt(layers.size);
+            for (Element layer : layers) {
+                writeLayer(out, layer);
+            }
+            out.close();
+            replace(temporary, output);
+            written = true;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error writing compiled map: " + output, e);
+        } finally {
+            StreamUtils.closeQuietly(out);
+            if (!written) temporary.delete();
+        }
+    }
+
+    /**
+     * Renames a file over another, atomically where the file system supports it.
+     */
+    private static void replace(FileHandle source, FileHandle target) throws IOException {
+        Path from = source.file().toPath(), to = target.file().toPath();
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes a tileset, reading it from its .tsx file first if it is external.
+     */
+    private static void writeTileset(DataOutputStream out, FileHandle tmxFile, Element tileset) throws IOException {
+        int firstGid = tileset.getIntAttribute("firstgid", 1);
+        String directory = ""; // Directory of the tileset relative to the map
+        String source = tileset.getAttribute("source", null);
+        if (source != null) {
+            directory = parentPath(source);
+            tileset = new XmlReader().parse(tmxFile.sibling(source));
+        }
+
+        writeString(out, tileset.getAttribute("name", ""));
+        out.writeInt(firstGid);
+        out.writeInt(tileset.getIntAttribute("tilewidth", 0));
+        out.writeInt(tileset.getIntAttribute("tileheight", 0));
+        out.writeInt(tileset.getIntAttribute("spacing", 0));
+        out.writeInt(tileset.getIntAttribute("margin", 0));
+        Element offset = tileset.getChildByName("tileoffset");
+        out.writeInt(offset != null ? offset.getIntAttribute("x", 0) : 0);
+        out.writeInt(offset != null ? offset.getIntAttribute("y", 0) : 0);
+
+        Element image = tileset.getChildByName("image");
+        writeString(out, image != null ? resolvePath(directory, image.getAttribute("source")) : "");
+
+        Array<Element> tileImages = new Array<>();
+        if (image == null) {
+            for (Element tile : tileset.getChildrenByName("tile")) {
+                if (tile.getChildByName("image") != null) tileImages.add(tile);
+            }
+        }
+        out.writeInt(tileImages.size);
+        for (Element tile : tileImages) {
+            out.writeInt(tile.getIntAttribute("id"));
+            writeString(out, resolvePath(directory, tile.getChildByName("image").getAttribute("source")));
+        }
+    }
+
+    /**
+     * Writes a tile layer, flipping the rows so that they are stored in the order libGDX uses.
+     */
+    private static void writeLayer(DataOutputStream out, Element layer) throws IOException {
+        int width = layer.getIntAttribute("width", 0);
+        int height = layer.getIntAttribute("height", 0);
+        writeString(out, layer.getAttribute("name", ""));
+        out.writeBoolean(layer.getIntAttribute("visible", 1) == 1);
+        out.writeFloat(layer.getFloatAttribute("opacity", 1f));
+        out.writeFloat(layer.getFloatAttribute("offsetx", 0));
+        out.writeFloat(layer.getFloatAttribute("offsety", 0));
+        out.writeFloat(layer.getFloatAttribute("parallaxx", 1f));
+        out.writeFloat(layer.getFloatAttribute("parallaxy", 1f));
+        out.writeInt(width);
+        out.writeInt(height);
+
+        Element properties = layer.getChildByName("properties");
+        Array<Element> propertyList = properties != null ? properties.getChildrenByName("property") : new Array<>();
+        out.writeInt(propertyList.size);
+        for (Element property : propertyList) {
+            writeString(out, property.getAttribute("name"));
+            writeString(out, property.getAttribute("type", "string"));
+            String value = property.getAttribute("value", null);
+            writeString(out, value != null ? value : property.getText() != null ? property.getText() : "");
+        }
+
+        // Most cells of a layer are empty, so only the occupied ones are stored
+        int[] ids = BaseTmxMapLoader.getTileIds(layer, width, height);
+        IntArray cells = new IntArray(), cellIds = new IntArray();
+        for (int y = height - 1; y >= 0; y--) {
+            for (int x = 0; x < width; x++) {
+                int id = ids[y * width + x];
+                if (id != 0) {
+                    cells.add((height - 1 - y) * width + x);
+                    cellIds.add(id);
+                }
+            }
+        }
+        out.writeInt(cells.size);
+        for (int i = 0; i < cells.size; i++) out.writeInt(cells.get(i));
+        for (int i = 0; i < cellIds.size; i++) out.writeInt(cellIds.get(i));
+    }
+
+    /**
+     * Gets the directory part of a relative path, including the trailing separator.
+     */
+    private static String parentPath(String path) {
+        int end = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        return end < 0 ? "" : path.substring(0, end + 1);
+    }
+
+    /**
+     * Joins a relative path onto a directory, resolving any "." and ".." segments.
+     */
+    private static String resolvePath(String directory, String path) {
+        Array<String> segments = new Array<>();
+        for (String segment : (directory + path).split("[/\\\\]")) {
+            if (segment.isEmpty() || segment.equals(".")) continue;
+            if (segment.equals("..") && segments.size > 0 && !segments.peek().equals("..")) {
+                segments.pop();
+            } else {
+                segments.add(segment);
+            }
+        }
+        return segments.toString("/");
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
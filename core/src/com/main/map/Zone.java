@@ -0,0 +1,35 @@
+package com.main.map;
+
+/**
+ * Enumerates the trigger zones of the map that the player can interact with.
+ * Each zone is backed by a tile layer of the same name, and the order of the constants
+ * decides which zone wins when the player touches more than one.
+ */
+public enum Zone {
+    NONE(""),
+    COMP_SCI("Comp_sci_door"),
+    PIAZZA("Piazza_door"),
+    GYM("Gym_door"),
+    GOODRICKE("Goodricke_door"),
+    FEED_DUCKS("Feed_ducks"),
+    VISIT_CITY("Visit_city"),
+    RON_COOKE("Ron_cooke_door"),
+    MARKET("market_door"),
+    MARKET_2("market_door_2"),
+    NISA("Nisa_door");
+
+    private final String layerName;
+
+    Zone(String layerName) {
+        this.layerName = layerName;
+    }
+
+    /**
+     * Gets the name of the tile layer that marks this zone on the map.
+     *
+     * @return The layer name, or an empty string for NONE.
+     */
+    public String getLayerName() {
+        return layerName;
+    }
+}
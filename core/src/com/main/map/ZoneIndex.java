@@ -0,0 +1,96 @@
+package com.main.map;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+/**
+ * A lookup table from each tile of the map to the zone it belongs to.
+ * It is built once when the map is loaded from the zone layers, so finding the zone the player
+ * is touching costs one array lookup per covered tile instead of a layer lookup by name per zone.
+ */
+public class ZoneIndex {
+    private static final Zone[] ZONES = Zone.values();
+
+    private final int width, height; // Size of the map in tiles
+    private final int tileWidth, tileHeight;
+    private final byte[] zoneIds; // Ordinal of the zone for each tile, 0 (NONE) if the tile is in no zone
+
+    /**
+     * Builds the index from the zone layers of a map. Layers that are missing from the map are ignored.
+     *
+     * @param tiledMap The map to index.
+     * @param tileWidth The width of a single tile in the map.
+     * @param tileHeight The height of a single tile in the map.
+     */
+    public ZoneIndex(TiledMap tiledMap, int tileWidth, int tileHeight) {
+        int mapWidth = 0, mapHeight = 0;
+        for (MapLayer layer : tiledMap.getLayers()) {
+            if (layer instanceof TiledMapTileLayer) {
+                mapWidth = ((TiledMapTileLayer) layer).getWidth();
+                mapHeight = ((TiledMapTileLayer) layer).getHeight();
+                break;
+            }
+        }
+        this.width = mapWidth;
+        this.height = mapHeight;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.zoneIds = new byte[width * height];
+
+        // Zones are visited in priority order, so a tile keeps the first zone that claims it
+        for (Zone zone : ZONES) {
+            if (zone == Zone.NONE) continue;
+            MapLayer mapLayer = tiledMap.getLayers().get(zone.getLayerName());
+            if (!(mapLayer instanceof TiledMapTileLayer)) continue;
+            TiledMapTileLayer layer = (TiledMapTileLayer) mapLayer;
+            for (int j = 0; j < Math.min(height, layer.getHeight()); j++) {
+                for (int i = 0; i < Math.min(width, layer.getWidth()); i++) {
+                    if (zoneIds[j * width + i] == 0 && layer.getCell(i, j) != null) {
+                        zoneIds[j * width + i] = (byte) zone.ordinal();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the zone a single tile belongs to.
+     *
+     * @param tileX The X-coordinate of the tile.
+     * @param tileY The Y-coordinate of the tile.
+     * @return The zone of the tile, NONE if it is in no zone or outside the map.
+     */
+    public Zone getZone(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) return Zone.NONE;
+        return ZONES[zoneIds[tileY * width + tileX]];
+    }
+
+    /**
+     * Finds the zone an object is touching. If it touches several, the one with the highest priority is returned.
+     *
+     * @param x The X-coordinate of the object.
+     * @param y The Y-coordinate of the object.
+     * @param objWidth The width of the object.
+     * @param objHeight The height of the object.
+     * @return The zone being touched, NONE if there is none.
+     */
+    public Zone getTouching(float x, float y, float objWidth, float objHeight) {
+        int left = Math.max(Math.floorDiv((int) x, tileWidth), 0);
+        int bottom = Math.max(Math.floorDiv((int) y, tileHeight), 0);
+        int right = Math.min(Math.floorDiv((int) (x + objWidth), tileWidth), width - 1);
+        int top = Math.min(Math.floorDiv((int) (y + objHeight), tileHeight), height - 1);
+        int best = 0;
+
+        for (int j = bottom; j <= top; j++) {
+            for (int i = left; i <= right; i++) {
+                int id = zoneIds[j * width + i];
+                if (id != 0 && (best == 0 || id < best)) {
+                    best = id;
+                }
+            }
+        }
+
+        return ZONES[best];
+    }
+}
@@ -0,0 +1,19 @@
+package com.main.replay;
+
+/**
+ * The choices a player makes on the game screen by clicking, recorded so that a session can be replayed
+ * without the screen positions that were clicked.
+ */
+public enum Command {
+    OPEN_STUDY,
+    OPEN_EXERCISE,
+    OPEN_SLEEP,
+    OPEN_FEED_DUCKS,
+    OPEN_VISIT_CITY,
+    EAT,
+    DURATION_UP,
+    DURATION_DOWN,
+    MENU_BACK,
+    CONFIRM, // The activity button of the duration menu
+    RESUME // The game screen was shown again, after a mini game or the menus
+}
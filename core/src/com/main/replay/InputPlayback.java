@@ -0,0 +1,106 @@
+package com.main.replay;
+
+/**
+ * Replays a recording made by {@link InputRecorder}, giving back the same commands and keys tick by tick.
+ * <p>
+ * Before each tick, {@link #nextCommand()} is called until it returns null to get the commands made before it,
+ * then {@link #nextKeys()} gives the keys held during it.
+ */
+public class InputPlayback {
+    private static final Command[] COMMANDS = Command.values();
+
+    private final byte[] data;
+    private final long seed;
+    private int position;
+    private int keys, run; // The keys of the current run and how many of its ticks are left
+    private long ticks;
+
+    private InputPlayback(byte[] data, long seed, int position) {
+        this.data = data;
+        this.seed = seed;
+        this.position = position;
+    }
+
+    /**
+     * Reads a recording.
+     *
+     * @param data The recording.
+     * @return The playback, at the start of the session.
+     * @throws IllegalArgumentException If the data is not a recording of this version.
+     */
+    public static InputPlayback read(byte[] data) {
+        int header = InputRecorder.MAGIC.length + 1 + 8;
+        if (data.length < header) throw new IllegalArgumentException("Recording is too short");
+        for (int i = 0; i < InputRecorder.MAGIC.length; i++) {
+            if (data[i] != InputRecorder.MAGIC[i]) throw new IllegalArgumentException("Not a session recording");
+        }
+        if (data[InputRecorder.MAGIC.length] != InputRecorder.VERSION) {
+            throw new IllegalArgumentException("Unsupported recording version " + data[InputRecorder.MAGIC.length]);
+        }
+        long seed = 0;
+        for (int i = InputRecorder.MAGIC.length + 1; i < header; i++) seed = seed << 8 | (data[i] & 0xFF);
+        return new InputPlayback(data, seed, header);
+    }
+
+    /**
+     * @return The seed of the session's random numbers.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the next command made before the coming tick.
+     *
+     * @return The command, or null once there are no more before the tick.
+     */
+    public Command nextCommand() {
+        if (run > 0 || isFinished()) return null;
+        int next = data[position] & 0xFF;
+        if ((next & InputRecorder.COMMAND) == 0) return null;
+        int ordinal = next & ~InputRecorder.COMMAND;
+        if (ordinal >= COMMANDS.length) throw new IllegalArgumentException("Unknown command " + ordinal);
+        position++;
+        return COMMANDS[ordinal];
+    }
+
+    /**
+     * Gets the keys held during the coming tick, once its commands have been taken.
+     *
+     * @return The bits of the keys, or 0 once the recording has finished.
+     */
+    public int nextKeys() {
+        if (run == 0) {
+            if (isFinished()) return 0;
+            if ((data[position] & InputRecorder.COMMAND) != 0) {
+                throw new IllegalStateException("Commands before the tick have not been taken");
+            }
+            keys = data[position++];
+            run = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (position >= data.length) throw new IllegalArgumentException("Recording is cut short");
+                int part = data[position++] & 0xFF;
+                run |= (part & 0x7F) << shift;
+                if (part < 0x80) break;
+            }
+            if (run <= 0) throw new IllegalArgumentException("Empty run of ticks");
+        }
+        run--;
+        ticks++;
+        return keys;
+    }
+
+    /**
+     * @return True once every tick and command has been played.
+     */
+    public boolean isFinished() {
+        return run == 0 && (position >= data.length || (data[position] & 0xFF) == InputRecorder.END);
+    }
+
+    /**
+     * @return The number of ticks played so far.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+}
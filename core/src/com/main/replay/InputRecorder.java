@@ -0,0 +1,97 @@
+package com.main.replay;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Records the input of a game session tick by tick, so that {@link InputPlayback} can replay it exactly.
+ * <p>
+ * The recording starts with a header holding the session's random seed. The keys held each tick are written as runs
+ * of ticks with the same keys, each a byte of key bits followed by the length of the run as a variable length
+ * integer, so a tick costs nothing while the keys do not change. A command is written as a single byte between the
+ * runs, before the tick it was made at, and the recording ends with {@link #END}.
+ */
+public class InputRecorder {
+    static final byte[] MAGIC = {'H', 'H', 'R'};
+    static final int VERSION = 1;
+    static final int COMMAND = 0x80; // Set in the bytes of commands, which key bits never use
+    static final int END = 0xFF;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final long seed;
+    private int keys = -1, run; // The keys of the run being recorded and its length so far
+    private long ticks;
+
+    /**
+     * Starts a recording.
+     *
+     * @param seed The seed of the session's random numbers, which the replay starts from.
+     */
+    public InputRecorder(long seed) {
+        this.seed = seed;
+        out.write(MAGIC, 0, MAGIC.length);
+        out.write(VERSION);
+        for (int shift = 56; shift >= 0; shift -= 8) out.write((int) (seed >>> shift));
+    }
+
+    /**
+     * Records the keys held during a tick.
+     *
+     * @param keys The bits of the keys, which must fit in seven bits.
+     */
+    public void recordTick(int keys) {
+        if ((keys & ~0x7F) != 0) throw new IllegalArgumentException("Key bits out of range: " + keys);
+        if (keys != this.keys) {
+            flush();
+            this.keys = keys;
+        }
+        run++;
+        ticks++;
+    }
+
+    /**
+     * Records a command, made before the next tick.
+     *
+     * @param command The command.
+     */
+    public void recordCommand(Command command) {
+        flush();
+        out.write(COMMAND | command.ordinal());
+    }
+
+    private void flush() {
+        if (run == 0) return;
+        out.write(keys);
+        for (int value = run; ; value >>>= 7) {
+            if (value < 0x80) {
+                out.write(value);
+                break;
+            }
+            out.write(value & 0x7F | 0x80);
+        }
+        run = 0;
+    }
+
+    /**
+     * Gets the recording so far. Recording can carry on afterwards.
+     *
+     * @return The recording, which {@link InputPlayback#read(byte[])} reads.
+     */
+    public byte[] toBytes() {
+        flush();
+        byte[] bytes = new byte[out.size() + 1];
+        System.arraycopy(out.toByteArray(), 0, bytes, 0, out.size());
+        bytes[bytes.length - 1] = (byte) END;
+        return bytes;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return The number of ticks recorded.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+}
@@ -1,15 +1,19 @@
 package com.main.screens;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout; // Added code
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.main.Main;
 import com.main.utils.Button; // Added code
+import com.main.utils.GameAssets;
+import com.main.utils.LeaderboardView;
+import com.main.utils.AsyncLeaderboards;
 import com.main.utils.Leaderboards; // Added code
 
 /**
@@ -19,14 +23,18 @@ import com.main.utils.Leaderboards; // Added code
 public class EndScreen implements Screen, InputProcessor {
     // Start of added code
     final Main game;
-    final Texture playAgainButton;
+    final TextureRegion playAgainButton;
     final BitmapFont font;
     final String titleText;
-    private final Leaderboards leaderboards;
+    private final AsyncLeaderboards leaderboards;
+    private AsyncLeaderboards.Submission submission; // The user's result while it is being written
     private String username = "";
     private final String streaks;
     private final int userScore;
+    private final byte[] sessionLog; // Replayed by the leaderboard to verify the score
     private boolean usernameEntry = false;
+    private boolean placementChecked = false; // Set once the leaderboard has been read
+    private LeaderboardView view = LeaderboardView.ALL_TIME; // Switched with the left and right arrow keys
     float maxNameWidth;
     Button playAgain;
     float titleY, userScoreY, leaderboardStartY, entryBoxY;
@@ -40,21 +48,22 @@ public class EndScreen implements Screen, InputProcessor {
      * Constructs a new EndScreen with the main game instance and user score.
      * @param game The main game instance.
      * @param userScore The user's score achieved in the game.
+     * @param streaks The streaks achieved, one per line.
+     * @param sessionLog The log of the game, which the leaderboard replays to verify the score.
      */
-    public EndScreen(Main game, int userScore, String streaks) { // Added code
+    public EndScreen(Main game, int userScore, String streaks, byte[] sessionLog) { // Added code
         assert streaks != null && game != null;
         this.game = game; // Added code
         this.userScore = userScore; // Added code
         titleText = "Game Over"; // Added code
-        playAgainButton = new Texture("end_gui/play_button.png");
-        font = new BitmapFont(Gdx.files.internal("font/WhitePeaberry.fnt"));
-        leaderboards = new Leaderboards("Leaderboards.csv"); // Added code
+        playAgainButton = game.atlas.get("end_gui/play_button");
+        font = game.assets.acquireFont(GameAssets.FONT);
+        leaderboards = game.leaderboards;
+        leaderboards.load(); // Normally already read during the last day
         playAgain = new Button(); // Added code
         this.streaks = streaks; // Added code
+        this.sessionLog = sessionLog;
         initDimensions(); // Added code
-
-        // Check if user scored high enough to add their name to the leaderboard
-        usernameEntry = leaderboards.doesPlaceT10(userScore); // Added code
     }
 
     /**
@@ -63,10 +72,10 @@ public class EndScreen implements Screen, InputProcessor {
     // Start of added code
     private void initDimensions() {
         playAgain.init(
-                (game.screenWidth - (playAgainButton.getWidth() * 6 * game.scaleFactorX)) / 2f,
+                (game.screenWidth - (playAgainButton.getRegionWidth() * 6 * game.scaleFactorX)) / 2f,
                 50f * game.scaleFactorY,
-                playAgainButton.getWidth() * 6 * game.scaleFactorX,
-                playAgainButton.getHeight() * 6 * game.scaleFactorY
+                playAgainButton.getRegionWidth() * 6 * game.scaleFactorX,
+                playAgainButton.getRegionHeight() * 6 * game.scaleFactorY
         );
         font.getData().setScale(3f * game.scaleFactorX, 3f * game.scaleFactorY); // Adjust font scale
         titleY = game.screenHeight + 40f * game.scaleFactorY;
@@ -86,6 +95,13 @@ public class EndScreen implements Screen, InputProcessor {
     public void render(float delta) {
         assert delta > 0;
         if (exitFlag) return;
+        // Check if user scored high enough to add their name to the leaderboard, once it has been read
+        if (!placementChecked && leaderboards.isLoaded()) {
+            usernameEntry = leaderboards.doesPlaceT10(userScore); // Added code
+            placementChecked = true;
+        } else if (!placementChecked && leaderboards.isFailed()) {
+            placementChecked = true; // Nowhere to save the result, so the name is not asked for
+        }
         ScreenUtils.clear(0.3f, 0.55f, 0.7f, 1);
         game.batch.setProjectionMatrix(game.defaultCamera.combined);
         game.batch.begin();
@@ -116,6 +132,8 @@ public class EndScreen implements Screen, InputProcessor {
         // Render the username entry box if active
         if (usernameEntry) {
             displayEntryBox(titleX, delta);
+        } else if (!placementChecked || submission != null || leaderboards.isFailed()) {
+            font.draw(game.batch, getStatusText(), titleX, entryBoxY, 0, Align.center, false);
         }
 
         // Draw the leaderboard
@@ -148,6 +166,18 @@ public class EndScreen implements Screen, InputProcessor {
         }
     }
 
+    /**
+     * @return The progress of reading the leaderboard or writing the user's result to it, shown in place of
+     * the name entry box.
+     */
+    private String getStatusText() {
+        if (!placementChecked) return "Loading leaderboard...";
+        if (submission == null) return "Leaderboard unavailable";
+        if (!submission.isDone()) return "Saving...";
+        if (submission.isFailed()) return "Score could not be saved";
+        return submission.isRegistered() ? "Saved" : "Score could not be verified";
+    }
+
     /**
      * Renders the username entry box group centered relative to the screen.
      * @param centerX The x-coordinate of the centre of the screen for centering the name entry box.
@@ -191,7 +221,12 @@ public class EndScreen implements Screen, InputProcessor {
      * @param centerX The x-coordinate of the centre of the screen for centering the leaderboard.
      */
     private void displayLeaderboard(float centerX) {
-        Leaderboards.Entry[] entries = leaderboards.getEntries();
+        Leaderboards.Entry[] entries = leaderboards.getEntries(view);
+
+        // Name of the view, with arrows showing that it can be switched
+        font.getData().setScale(2f * game.scaleFactorX, 2f * game.scaleFactorY);
+        font.draw(game.batch, "< " + view.title + " >", centerX, leaderboardStartY, 0, Align.center, false);
+        font.getData().setScale(3f * game.scaleFactorX, 3f * game.scaleFactorY);
 
         // Calculate max width of name
         for (Leaderboards.Entry entry: entries) {
@@ -223,8 +258,21 @@ public class EndScreen implements Screen, InputProcessor {
     }
     // End of added code
 
+    /**
+     * Switches between the daily, weekly and all-time leaderboards with the arrow keys.
+     * @param keycode The key pressed
+     * @return True if the event was handled, false otherwise
+     */
     @Override
-    public boolean keyDown(int i) {
+    public boolean keyDown(int keycode) {
+        if (keycode == Input.Keys.RIGHT) {
+            view = view.next();
+            return true;
+        }
+        if (keycode == Input.Keys.LEFT) {
+            view = view.previous();
+            return true;
+        }
         return false;
     }
 
@@ -250,7 +298,7 @@ public class EndScreen implements Screen, InputProcessor {
                 username = username.substring(0, username.length() - 1);
             } else if (c == '\n' && username.length() == 3) {
                 // Register the user's score in the leaderboard with their name
-                leaderboards.registerResult(userScore, username);
+                submission = leaderboards.registerVerifiedResult(userScore, username, sessionLog);
                 usernameEntry = false; // Only register once
             }
         }
@@ -335,7 +383,6 @@ public class EndScreen implements Screen, InputProcessor {
 
     @Override
     public void dispose() {
-        playAgainButton.dispose();
-        font.dispose();
+        game.assets.release(GameAssets.FONT);
     }
 }
@@ -0,0 +1,95 @@
+package com.main.screens;
+
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.ScreenUtils;
+import com.main.Main;
+import com.main.utils.GameAssets;
+
+/**
+ * Shown by the {@link com.main.utils.ScreenManager} while the assets of the next screen are loading.
+ * It spends most of each frame loading, and shows how far it has got with a progress bar.
+ */
+public class LoadingScreen implements Screen {
+    private static final int LOAD_MILLIS_PER_FRAME = 12; // Leaves time to draw the frame at 60 frames per second
+
+    private final Main game;
+    private final BitmapFont font;
+    private final ShapeRenderer shapeRenderer;
+    private float barX, barY, barWidth, barHeight;
+
+    /**
+     * @param game The main game instance.
+     */
+    public LoadingScreen(Main game) {
+        this.game = game;
+        this.font = game.assets.acquireFont(GameAssets.FONT);
+        this.shapeRenderer = new ShapeRenderer();
+        calculatePositions();
+    }
+
+    /**
+     * Calculates the size and position of the progress bar, in the middle of the screen.
+     */
+    private void calculatePositions() {
+        barWidth = game.screenWidth * 0.4f;
+        barHeight = 24 * game.scaleFactorY;
+        barX = (game.screenWidth - barWidth) / 2f;
+        barY = game.screenHeight / 2f - barHeight;
+        font.getData().setScale(game.scaleFactorX, game.scaleFactorY);
+    }
+
+    @Override
+    public void show() {
+        game.batch.setProjectionMatrix(game.defaultCamera.combined);
+    }
+
+    @Override
+    public void render(float delta) {
+        game.assets.update(LOAD_MILLIS_PER_FRAME);
+        float progress = game.assets.getProgress();
+
+        ScreenUtils.clear(0.3f, 0.55f, 0.7f, 1);
+        shapeRenderer.setProjectionMatrix(game.defaultCamera.combined);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(0.15f, 0.3f, 0.4f, 1);
+        shapeRenderer.rect(barX, barY, barWidth, barHeight);
+        shapeRenderer.setColor(1, 1, 1, 1);
+        shapeRenderer.rect(barX, barY, barWidth * progress, barHeight);
+        shapeRenderer.end();
+
+        game.batch.setProjectionMatrix(game.defaultCamera.combined);
+        game.batch.begin();
+        font.draw(game.batch, "Loading... " + (int) (progress * 100) + "%", barX,
+                barY + barHeight * 3, barWidth, Align.center, false);
+        game.batch.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        calculatePositions();
+    }
+
+    @Override
+    public void pause() {
+
+    }
+
+    @Override
+    public void resume() {
+
+    }
+
+    @Override
+    public void hide() {
+
+    }
+
+    @Override
+    public void dispose() {
+        shapeRenderer.dispose();
+        game.assets.release(GameAssets.FONT);
+    }
+}
@@ -2,12 +2,13 @@ package com.main.screens;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputProcessor;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.main.Main;
+import com.main.utils.GameAssets;
 import com.main.utils.ScreenType;
 
 /**
@@ -20,7 +21,7 @@ public class MainControlScreen implements Screen, InputProcessor {
     final Main game; // Added code
     final BitmapFont font; // Added code
     final String objective; // Added code
-    private final Texture backButton, controlLabel, controls;
+    private final TextureRegion backButton, controlLabel, controls;
     // X and Y coordinates
     private float backButtonX, backButtonY, controlLabelX, controlLabelY, controlsX, controlsY, objectiveY, instructionX, instructionY;
     // Buttons dimensions
@@ -36,11 +37,11 @@ public class MainControlScreen implements Screen, InputProcessor {
     public MainControlScreen(Main game) {
         assert game != null;
         this.game = game;
-        font = new BitmapFont(Gdx.files.internal("font/WhitePeaberry.fnt"));
+        font = game.assets.acquireFont(GameAssets.FONT);
 
-        backButton = new Texture("settings_gui/back_button.png");
-        controlLabel = new Texture("controls_gui/controls_label.png");
-        controls = new Texture("controls_gui/controls.png");
+        backButton = game.atlas.get("settings_gui/back_button");
+        controlLabel = game.atlas.get("controls_gui/controls_label");
+        controls = game.atlas.get("controls_gui/controls");
 
         calculateDimensions();
         calculatePositions();
@@ -202,10 +203,7 @@ public class MainControlScreen implements Screen, InputProcessor {
 
     @Override
     public void dispose() {
-        backButton.dispose();
-        controlLabel.dispose();
-        controls.dispose();
-        font.dispose();
+        game.assets.release(GameAssets.FONT);
     }
 
 }
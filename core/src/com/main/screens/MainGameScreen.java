@@ -6,19 +6,27 @@ import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.main.Main;
 import com.main.entity.Player;
 import com.main.map.GameMap;
+import com.main.map.Zone;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.main.replay.Command;
+import com.main.replay.InputPlayback;
+import com.main.replay.InputRecorder;
+import com.main.simulation.GameSimulation;
+import com.main.simulation.SessionLog;
 import com.main.utils.*; // Added code
 
+import java.util.Random;
+
 /**
  * The MainGameScreen class is responsible for rendering and updating all the game elements
  * including the player, game world, UI, and handling user input during the main gameplay phase.
@@ -33,20 +41,25 @@ public class MainGameScreen implements Screen, InputProcessor {
     private final float zoom = 3f;
     private final Player player;
     private final BitmapFont font, popupFont, durationFont;
+    private final CachedText counterText, timeText, menuTitleText, durationText, hoursText;
+    private final ObjectMap<String, CachedText> menuOptionText = new ObjectMap<>();
     private final GameMap gameMap;
     private final OrthographicCamera camera;
     private final ShapeRenderer shapeRenderer;
     private final Main game;
-    private final Texture menuButton, popupMenu, durationUpButton, durationDownButton,
+    private final TextureRegion menuButton, popupMenu, durationUpButton, durationDownButton,
     menuBackButton, menuStudyButton, menuSleepButton, menuGoButton,
     durationMenuBackground, counterBackground;
     private final Button _menu, _durationUp, _durationDown, _menuBack, _activity; // Added code
 
     // Added Code //
-    private final Score dailyScore;
-    private boolean hasFailed;
     private final EnergyTexture energy;
-    private final Time time;
+    private final GameSimulation simulation; // The rules of the game, driven by the player's input
+    private final FixedTimestep timestep = new FixedTimestep();
+    private final Random random; // Seeded per session, so that a replay draws the same numbers
+    private final InputRecorder recorder; // Only created when the session is being recorded
+    private final InputPlayback playback; // Only set when a recorded session is being replayed
+    private final SessionLog log; // Submitted with the score, so that the leaderboard can verify it
     // Added Code //
 
     // Non-final attributes
@@ -55,9 +68,12 @@ public class MainGameScreen implements Screen, InputProcessor {
     private float durationMenuBackgroundX, durationMenuBackgroundY; // Added code
     private float durationMenuBackgroundWidth, durationMenuBackgroundHeight; // Added code
     private float durationTextY, menuTitleY, hoursLabelY;
-    private String activity, popupMenuType;
-    private int duration, dayNum, recActivity, studyHours, mealCount, totalScore; // Added code
+    private String activity;
+    private Zone popupMenuType;
+    private int duration; // Added code
+    private int shownRecActivity, shownStudyHours, shownMealCount, shownDay, shownHour, shownDuration; // Values the HUD text was last built from
     private float fadeTime, minShade;
+    private int tickedDay; // The day of the last tick, to notice when the last day starts
     private boolean fadeOut, lockTime, lockMovement, lockPopup, resetPos, popupVisible, showMenu;
 
     /**
@@ -69,19 +85,18 @@ public class MainGameScreen implements Screen, InputProcessor {
     public MainGameScreen(Main game) {
         this.game = game;
         this.shader = new Color(0.5f, 0.5f, 0.5f, 1);
-        this.time = new Time();
-
-        // Initialize final Texture objects
-        this.menuButton = new Texture("menu_buttons/menu_icon.png");
-        this.counterBackground = new Texture("counter_background.png");
-        this.popupMenu = new Texture("popup_menu.png");
-        this.durationMenuBackground = new Texture("duration_menu_background.png");
-        this.durationUpButton = new Texture("settings_gui/arrow_right_button.png");
-        this.durationDownButton = new Texture("settings_gui/arrow_left_button.png");
-        this.menuBackButton = new Texture("settings_gui/back_button.png");
-        this.menuStudyButton = new Texture("study_button.png");
-        this.menuSleepButton = new Texture("sleep_button.png");
-        this.menuGoButton = new Texture("go_button.png");
+
+        // Get the UI images from the game's atlas, which owns their textures
+        this.menuButton = game.atlas.get("menu_buttons/menu_icon");
+        this.counterBackground = game.atlas.get("counter_background");
+        this.popupMenu = game.atlas.get("popup_menu");
+        this.durationMenuBackground = game.atlas.get("duration_menu_background");
+        this.durationUpButton = game.atlas.get("settings_gui/arrow_right_button");
+        this.durationDownButton = game.atlas.get("settings_gui/arrow_left_button");
+        this.menuBackButton = game.atlas.get("settings_gui/back_button");
+        this.menuStudyButton = game.atlas.get("study_button");
+        this.menuSleepButton = game.atlas.get("sleep_button");
+        this.menuGoButton = game.atlas.get("go_button");
 
         this._activity = new Button(); // Added code
         this._menu = new Button(); // Added code
@@ -89,30 +104,37 @@ public class MainGameScreen implements Screen, InputProcessor {
         this._durationDown = new Button(); // Added code
         this._menuBack = new Button(); // Added code
         this.energy = new EnergyTexture(game);
+        this.simulation = new GameSimulation(energy);
+        this.playback = game.playback != null && !game.playback.isFinished() ? game.playback : null;
+        long seed = playback != null ? playback.getSeed() : new Random().nextLong();
+        this.random = new Random(seed);
+        this.recorder = game.recordPath != null && playback == null ? new InputRecorder(seed) : null;
+        this.log = new SessionLog(seed);
+        this.simulation.setLog(log);
 
         // Initialize non-final attributes
         this.activity = "";
-        this.popupMenuType = "";
+        this.popupMenuType = Zone.NONE;
         this.duration = 1;
-        this.dayNum = 1;
         this.fadeTime = 0;
         this.minShade = 0;
         this.fadeOut = this.lockTime = this.lockMovement = this.lockPopup = this.resetPos = this.popupVisible = this.showMenu = false;
 
-        // Start of added Code
-        this.totalScore = 0;
-        this.hasFailed = false;
-        this.dailyScore = new Score();
-        // End of added Code
-
         // Setting up the game
         this.camera = new OrthographicCamera();
-        this.gameMap = new GameMap(this.camera);
+        this.gameMap = new GameMap(game.assets, this.camera);
         this.player = new Player(this.game, this.gameMap, this.camera);
-        this.font = new BitmapFont(Gdx.files.internal("font/WhitePeaberry.fnt"));
-        this.popupFont = new BitmapFont(Gdx.files.internal("font/WhitePeaberry.fnt"));
-        this.durationFont = new BitmapFont(Gdx.files.internal("font/WhitePeaberry.fnt"));
+        this.font = game.assets.acquireFont(GameAssets.FONT);
+        this.popupFont = game.assets.acquireFont(GameAssets.FONT);
+        this.durationFont = game.assets.acquireFont(GameAssets.FONT);
         this.shapeRenderer = new ShapeRenderer();
+        this.counterText = new CachedText(font);
+        this.timeText = new CachedText(font);
+        this.menuTitleText = new CachedText(durationFont, game.screenWidth, Align.center);
+        this.durationText = new CachedText(durationFont, game.screenWidth, Align.center);
+        this.hoursText = new CachedText(durationFont, game.screenWidth, Align.center);
+        this.hoursText.set("Hours");
+        this.shownRecActivity = this.shownStudyHours = this.shownMealCount = this.shownDay = this.shownHour = this.shownDuration = -1;
 
         this.initDimensions(); // Added code
         this.popupFont.getData().setScale(0.4f, 0.4f);
@@ -163,6 +185,9 @@ public class MainGameScreen implements Screen, InputProcessor {
         durationMenuBackgroundHeight = 500 * scaleY;
         font.getData().setScale(scaleX, scaleY);
         durationFont.getData().setScale(3f * scaleX, 3f * scaleY);
+        menuTitleText.setTargetWidth(screenWidth);
+        durationText.setTargetWidth(screenWidth);
+        hoursText.setTargetWidth(screenWidth);
         counterBackgroundX = screenWidth - counterBackgroundWidth;
         counterBackgroundY = screenHeight - counterBackgroundHeight;
         durationMenuBackgroundX = screenWidth/2f - durationMenuBackgroundWidth/2f;
@@ -179,8 +204,16 @@ public class MainGameScreen implements Screen, InputProcessor {
     @Override
     public void render(float deltaTime) {
         assert deltaTime > 0;
-        if (!lockMovement) player.update(deltaTime); // Added code
-        if (!lockTime) updateGameTime(deltaTime); // Update the game clock // Added code
+        // The game logic runs in fixed ticks, so it does not depend on the frame rate
+        int ticks = timestep.advance(deltaTime);
+        for (int i = 0; i < ticks; i++) {
+            tick(FixedTimestep.STEP);
+            // Fast forward through a replay, back to real speed as soon as the recording ends
+            for (int j = 1; j < game.replaySpeed && isReplaying(); j++) {
+                tick(FixedTimestep.STEP);
+            }
+        }
+        player.interpolate(timestep.getAlpha());
 
         ScreenUtils.clear(0, 0, 1, 1);
         drawWorldElements(deltaTime); // Added code
@@ -189,28 +222,66 @@ public class MainGameScreen implements Screen, InputProcessor {
     }
 
 
+    /**
+     * Advances the game logic by one tick: player movement, the game clock and the transition between days.
+     * The input comes from the keyboard, or from the recording while a session is replayed.
+     * @param step The length of the tick in seconds.
+     */
+    private void tick(float step) {
+        int keys;
+        if (isReplaying()) {
+            for (Command command = playback.nextCommand(); command != null; command = playback.nextCommand()) {
+                perform(command);
+            }
+            keys = playback.nextKeys();
+        } else {
+            keys = Player.pollKeys();
+            if (recorder != null) recorder.recordTick(keys);
+        }
+        player.startTick();
+        if (!lockMovement) player.update(step, keys); // Added code
+        if (!lockTime) updateGameTime(step); // Update the game clock // Added code
+        fadeOutStep(step);
+        if (!lockPopup) updatePopup();
+        // Read the leaderboard and load the end screen in the background once the last day starts, so it does not wait for them
+        if (simulation.getDay() != tickedDay) {
+            tickedDay = simulation.getDay();
+            if (tickedDay == GameSimulation.DAYS) {
+                game.leaderboards.load();
+                game.screenManager.preload(ScreenType.END_SCREEN);
+            }
+        }
+    }
+
     @Override
     public void show() {
         Gdx.input.setInputProcessor(this);
-        lockTime = false;
+        timestep.reset();
         player.updateGender();
+        if (!isReplaying()) perform(Command.RESUME);
+    }
+
+    /**
+     * @return True while a recorded session is being replayed. The player takes over once the recording ends.
+     */
+    private boolean isReplaying() {
+        return playback != null && !playback.isFinished();
+    }
+
+    /**
+     * Lets the game carry on when the screen is shown again, after a mini game or the menus.
+     */
+    private void returnToGame() {
+        lockTime = false;
         player.setDirection(Directions.Down); // Added code
     }
 
     /**
      * Identifies which door, if any, the player is currently touching.
-     * @return The name of the door the player is touching or an empty string if none.
+     * @return The zone of the door the player is touching or NONE if none.
      */
-    private String getDoorTouching(){
-        CollisionHandler collisionHandler = player.getCollisionHandler();
-        if (collisionHandler.isTouching("Comp_sci_door", player.getHitBox())) return "Comp_sci_door";
-        if (collisionHandler.isTouching("Piazza_door", player.getHitBox())) return "Piazza_door";
-        if (collisionHandler.isTouching("Gym_door", player.getHitBox())) return "Gym_door";
-        if (collisionHandler.isTouching("Goodricke_door", player.getHitBox())) return "Goodricke_door";
-        if (collisionHandler.isTouching("Feed_ducks", player.getHitBox())) return "Feed_ducks"; // Added code
-        if (collisionHandler.isTouching("Visit_city", player.getHitBox())) return "Visit_city"; // Added code
-        if (collisionHandler.isTouching("Ron_cooke_door", player.getHitBox())) return "Ron_cooke_door"; // Added code
-        return "";
+    private Zone getDoorTouching(){
+        return gameMap.getZoneIndex().getTouching(player.worldX, player.worldY, Player.SPRITE_X, Player.SPRITE_Y);
     }
 
     /**
@@ -238,7 +309,7 @@ public class MainGameScreen implements Screen, InputProcessor {
      * Retrieves the appropriate button texture based on the current activity.
      * @return The texture for the activity button.
      */
-    private Texture getActivityButton() {
+    private TextureRegion getActivityButton() {
         switch (activity) {
             case "study":
                 return menuStudyButton;
@@ -283,10 +354,14 @@ public class MainGameScreen implements Screen, InputProcessor {
         if (shadeOption == 0) isHovering(posX, posY);
         else if (shadeOption == 1) game.batch.setColor(Color.WHITE);
         else game.batch.setColor(shader);
-        GlyphLayout layout = new GlyphLayout();
-        layout.setText(popupFont, text);
+        CachedText option = menuOptionText.get(text);
+        if (option == null) {
+            option = new CachedText(popupFont);
+            option.set(text);
+            menuOptionText.put(text, option);
+        }
         game.batch.draw(popupMenu, posX, posY, popupMenuWidth, popupMenuHeight);
-        popupFont.draw(game.batch, text, posX + (popupMenuWidth - layout.width)/2, posY + (popupMenuHeight + layout.height)/2f - popupFont.getDescent() - layout.height/4f);
+        option.draw(game.batch, posX + (popupMenuWidth - option.getWidth())/2, posY + (popupMenuHeight + option.getHeight())/2f - popupFont.getDescent() - option.getHeight()/4f);
         game.batch.setColor(Color.WHITE);
     }
 
@@ -297,7 +372,7 @@ public class MainGameScreen implements Screen, InputProcessor {
      * should be segregated into its own class to reduce overheads and processing delay.
      */
     private void drawDurationMenu(){
-        Texture activityButton;
+        TextureRegion activityButton;
         String title;
         activityButton = getActivityButton();
         title = getMenuTitle();
@@ -306,60 +381,74 @@ public class MainGameScreen implements Screen, InputProcessor {
         game.batch.draw(durationMenuBackground, durationMenuBackgroundX, durationMenuBackgroundY, durationMenuBackgroundWidth, durationMenuBackgroundHeight);
         game.batch.draw(activityButton, _activity.x(), _activity.y(), _activity.width(), _activity.height()); // Added code
         game.batch.draw(menuBackButton, _menuBack.x(), _menuBack.y(), _menuBack.width(), _menuBack.height()); // Added code
-        durationFont.draw(game.batch, title, 0, menuTitleY, game.screenWidth, Align.center, false);
+        menuTitleText.set(title);
+        menuTitleText.draw(game.batch, 0, menuTitleY);
 
         if (!activity.equals("sleep")) {
             game.batch.draw(durationDownButton, _durationDown.x(),  _durationDown.y(),  _durationDown.width(),  _durationDown.height()); // Added code
             game.batch.draw(durationUpButton,   _durationUp.x(),    _durationUp.y(),    _durationUp.width(),    _durationUp.height()); // Added code
-            durationFont.draw(game.batch, Integer.toString(duration), 0, durationTextY, game.screenWidth, Align.center, false);
-            durationFont.draw(game.batch, "Hours", 0, hoursLabelY, game.screenWidth, Align.center, false);
+            if (duration != shownDuration) {
+                shownDuration = duration;
+                durationText.edit().append(duration);
+            }
+            durationText.draw(game.batch, 0, durationTextY);
+            hoursText.draw(game.batch, 0, hoursLabelY);
         }
         game.batch.end();
     }
 
     /**
-     * Draws the popup menu for interaction with various doors.
+     * Works out which door's popup menu is shown, and whether it can be clicked, at the end of a tick.
+     * It is part of the game logic rather than the drawing, so that a replay finds the same popups.
      */
-    private void drawPopUpMenu(){
+    private void updatePopup(){
         popupMenuType = getDoorTouching();
         switch (popupMenuType) {
-            case "Comp_sci_door":
-                drawMenuOption(player.worldX + 30, player.worldY + 20, "Study", 0);
+            case COMP_SCI:
+            case RON_COOKE: // Added code
+            case PIAZZA:
+            case GYM:
+            case FEED_DUCKS: // Added code
+            case VISIT_CITY: // Added code
                 popupVisible = true;
                 break;
-            case "Ron_cooke_door": // Added code
-            case "Piazza_door":
-                drawMenuOption(player.worldX + 30, player.worldY + 20, "Study", 0);
-                drawMenuOption(player.worldX + 30, player.worldY + 35, "Eat", 0);
-                popupVisible = true;
+            case GOODRICKE:
+                popupVisible = simulation.canSleep();
                 break;
-            case "Gym_door":
-                drawMenuOption(player.worldX + 30, player.worldY + 20, "Exercise", 0);
-                popupVisible = true;
+            default:
+                popupVisible = false;
                 break;
-            case "Goodricke_door":
-                int shadeOption;
-                if (time.getTimeHours() >= 20) {
-                    popupVisible = true;
-                    shadeOption = 0;
-                } else {
-                    popupVisible = false;
-                    shadeOption = 2;
-                }
-                drawMenuOption(player.worldX + 30, player.worldY + 20, "Sleep", shadeOption);
+        }
+    }
+
+    /**
+     * Draws the popup menu for interaction with various doors.
+     */
+    private void drawPopUpMenu(){
+        switch (popupMenuType) {
+            case COMP_SCI:
+                drawMenuOption(player.getRenderX() + 30, player.getRenderY() + 20, "Study", 0);
+                break;
+            case RON_COOKE: // Added code
+            case PIAZZA:
+                drawMenuOption(player.getRenderX() + 30, player.getRenderY() + 20, "Study", 0);
+                drawMenuOption(player.getRenderX() + 30, player.getRenderY() + 35, "Eat", 0);
+                break;
+            case GYM:
+                drawMenuOption(player.getRenderX() + 30, player.getRenderY() + 20, "Exercise", 0);
+                break;
+            case GOODRICKE:
+                drawMenuOption(player.getRenderX() + 30, player.getRenderY() + 20, "Sleep", popupVisible ? 0 : 2);
                 break;
             // Start of added code
-            case "Feed_ducks":
-                drawMenuOption(player.worldX + 30, player.worldY + 20, "Feed", 0);
-                popupVisible = true;
+            case FEED_DUCKS:
+                drawMenuOption(player.getRenderX() + 30, player.getRenderY() + 20, "Feed", 0);
                 break;
-            case "Visit_city":
-                drawMenuOption(player.worldX + 30, player.worldY + 20, "Visit City", 0);
-                popupVisible = true;
+            case VISIT_CITY:
+                drawMenuOption(player.getRenderX() + 30, player.getRenderY() + 20, "Visit City", 0);
                 break;
             // End of added code
             default:
-                popupVisible = false;
                 break;
         }
     }
@@ -378,11 +467,21 @@ public class MainGameScreen implements Screen, InputProcessor {
         Gdx.gl.glDisable(GL20.GL_BLEND);
     }
 
+    /**
+     * Gets how dark the night overlay is at the current time of day.
+     * @return The alpha of the overlay, 0 before 19:00.
+     */
+    private float getNightShade(){
+        float timeElapsed = simulation.getTime().getTimeElapsed();
+        return timeElapsed / SECONDS_PER_GAME_HOUR > 11 ? (timeElapsed - 11 * SECONDS_PER_GAME_HOUR)/(GAME_DAY_LENGTH_IN_SECONDS - 11 * SECONDS_PER_GAME_HOUR) : 0; // Added code
+    }
+
     /**
      * Initiates the fade out process and optionally resets the player's position.
      * @param resetPos A boolean indicating whether to reset the player's position.
+     * @param fromShade The darkness to start fading from, taken before the action that caused the fade changed the time.
      */
-    private void executeFadeOut(boolean resetPos){
+    private void executeFadeOut(boolean resetPos, float fromShade){
         if (fadeOut) return;
         fadeOut = true;
         lockMovement = true;
@@ -390,12 +489,12 @@ public class MainGameScreen implements Screen, InputProcessor {
         lockPopup = true;
         showMenu = false;
         this.resetPos = resetPos;
-        minShade = time.getTimeElapsed()/ SECONDS_PER_GAME_HOUR > 11 ? (time.getTimeElapsed() - 11 * SECONDS_PER_GAME_HOUR)/(GAME_DAY_LENGTH_IN_SECONDS - 11 * SECONDS_PER_GAME_HOUR) : 0; // Added code
+        minShade = fromShade;
     }
 
     /**
-     * Manages the stepwise execution of the fade-out effect.
-     * @param delta The time elapsed since the last frame.
+     * Manages the stepwise execution of the fade-out effect. The overlay is drawn with the world elements.
+     * @param delta The length of the tick in seconds.
      */
     private void fadeOutStep(float delta){
         assert delta > 0;
@@ -403,7 +502,6 @@ public class MainGameScreen implements Screen, InputProcessor {
             if (fadeTime == 0) fadeTime = minShade;
             if (fadeTime <= 1) {
                 fadeTime += delta;
-                drawShadeOverlay(fadeTime);
             }
             else{
                 if (resetPos) {
@@ -430,101 +528,89 @@ public class MainGameScreen implements Screen, InputProcessor {
         gameMap.render();
         game.batch.setProjectionMatrix(camera.combined);
         game.batch.begin();
-        game.batch.draw(player.getCurrentFrame(), player.worldX, player.worldY, Player.SPRITE_X, Player.SPRITE_Y); // Added code
+        game.batch.draw(player.getCurrentFrame(), player.getRenderX(), player.getRenderY(), Player.SPRITE_X, Player.SPRITE_Y); // Added code
         if (!lockPopup) drawPopUpMenu();
         game.batch.end();
-        if (!fadeOut && time.getTimeElapsed()/ SECONDS_PER_GAME_HOUR > 11) drawShadeOverlay((time.getTimeElapsed() - 11 * SECONDS_PER_GAME_HOUR)/(GAME_DAY_LENGTH_IN_SECONDS - 11 * SECONDS_PER_GAME_HOUR)); // Added code
-        fadeOutStep(delta);
+        if (!fadeOut && getNightShade() > 0) drawShadeOverlay(getNightShade()); // Added code
+        if (fadeOut && fadeTime > 0) drawShadeOverlay(fadeTime);
     }
 
     /**
      * Renders the UI elements of the game.
      */
     private void drawUIElements(){
-        String counterString = String.format("Recreation Activities done: " + recActivity + "\nStudy hours: " + studyHours + "\nMeals Eaten: " + mealCount, dayNum, time.getTimeElapsed() );
+        final int recActivity = simulation.getRecActivity(), studyHours = simulation.getStudyHours(), mealCount = simulation.getMealCount();
+        if (recActivity != shownRecActivity || studyHours != shownStudyHours || mealCount != shownMealCount) {
+            shownRecActivity = recActivity;
+            shownStudyHours = studyHours;
+            shownMealCount = mealCount;
+            counterText.edit().append("Recreation Activities done: ").append(recActivity)
+                    .append("\nStudy hours: ").append(studyHours)
+                    .append("\nMeals Eaten: ").append(mealCount);
+        }
         game.batch.setProjectionMatrix(game.defaultCamera.combined);
         if (showMenu) drawDurationMenu();
         game.batch.begin();
         game.batch.draw(menuButton, _menu.x(), _menu.y(), _menu.width(), _menu.height()); // Added code
         energy.draw(game);
         game.batch.draw(counterBackground, counterBackgroundX, counterBackgroundY, counterBackgroundWidth, counterBackgroundHeight);
-        font.draw(game.batch, counterString, game.screenWidth - 320 * game.scaleFactorX, game.screenHeight - 40 * game.scaleFactorY);
+        counterText.draw(game.batch, game.screenWidth - 320 * game.scaleFactorX, game.screenHeight - 40 * game.scaleFactorY);
         game.batch.end();
     }
 
     /**
      * Updates the game time and handles the transition from day to night.
-     * @param delta The time elapsed since the last frame.
+     * @param delta The length of the tick in seconds.
      */
     private void updateGameTime(float delta) {
         assert delta > 0;
         // Start of added code
-        time.incTimeElapsed(delta);
-
-        // Ensure the hour cycles through the active hours correctly (08:00 to 00:00)
-        if (time.getTimeHours() >= 24) { // If it reaches 00:00, reset to 08:00 the next day
-            if (dayNum == 7) {
-                totalScore += dailyScore.checkStreaks(); // Add bonus points from achieving streaks
-                game.screenManager.setScreen(ScreenType.END_SCREEN, totalScore, dailyScore.getStreaks());
+        float shade = getNightShade();
+        if (simulation.advance(delta)) { // At 00:00 the day ends, and the next starts at 08:00
+            if (simulation.isFinished()) {
+                endGame();
+            } else {
+                executeFadeOut(true, shade);
             }
-            // End of added code
-            resetDay();
         }
-    }
-
-    // Start of added Code
-    /**
-     * Calculates the in game time
-     */
-    private int getTime() {
-        // Calculate the current hour in game time
-        int hoursPassed = (int)(time.getTimeElapsed() / SECONDS_PER_GAME_HOUR);
-        return 8 + hoursPassed; // Starts at 08:00
+        // End of added code
     }
 
     /**
-     * adds daily score to totalScore
+     * Shows the end screen with the final score, handing it the session's log to verify the score with.
      */
-    private void addDailyScore() {
-        if (dailyScore.hasMissedStudy()) { //check if player has already missed study for a day
-            if (dailyScore.getStudyCount() == 0) { //check if the player hasn't studied today
-                hasFailed = true;
-            }
-        }
-        if (!hasFailed) {
-            totalScore += dailyScore.calculateScore();
-        }
-        else {
-            totalScore = 0;
-        }
-        dailyScore.resetDailyCounters();
+    private void endGame() {
+        game.screenManager.setScreen(ScreenType.END_SCREEN, simulation.getFinalScore(), simulation.getStreaks(), log.toBytes());
     }
-    // End of added Code
 
     /**
-     * Resets the game day, including resetting time and increasing the day counter.
+     * Saves the recording of the session so far, if it is being recorded.
      */
-    private void resetDay(){
-        executeFadeOut(true);
-        dayNum++;
-        energy.increaseEnergy(4);
-        time.reset();
-        addDailyScore(); // Added code
+    private void saveRecording() {
+        if (recorder != null) Gdx.files.absolute(game.recordPath).writeBytes(recorder.toBytes(), false);
     }
 
     /**
      * Draws the game time display.
      */
     private void drawGameTime() {
-        // Adjust the format if you want to display minutes or seconds
-        String timeString = String.format("Day: %d       Time: %02d:00", dayNum, time.getTimeHours() % 24);
+        // The text is only rebuilt when the day or hour changes
+        final int dayNum = simulation.getDay(), hour = simulation.getTime().getTimeHours() % 24;
+        if (dayNum != shownDay || hour != shownHour) {
+            shownDay = dayNum;
+            shownHour = hour;
+            StringBuilder timeString = timeText.edit().append("Day: ").append(dayNum).append("       Time: ");
+            if (hour < 10) timeString.append('0');
+            timeString.append(hour).append(":00");
+        }
         game.batch.begin();
-        font.draw(game.batch, timeString, game.screenWidth - 320 * game.scaleFactorX, game.screenHeight - 15 * game.scaleFactorY);
+        timeText.draw(game.batch, game.screenWidth - 320 * game.scaleFactorX, game.screenHeight - 15 * game.scaleFactorY);
         game.batch.end();
     }
 
     /**
      * Handles touch input from the user, managing interactions with UI elements and game objects.
+     * While a session is replayed, only the menu button is handled.
      *
      * @param touchX The x-coordinate of the touch.
      * @param touchY The y-coordinate of the touch.
@@ -542,188 +628,163 @@ public class MainGameScreen implements Screen, InputProcessor {
             game.screenManager.setScreen(ScreenType.MAIN_MENU);
             return true; // Added code
         }
+        if (isReplaying()) return true;
+        Command command = getClickedCommand(touchX, touchY);
+        if (command != null) {
+            game.gameData.buttonClickedSoundActivate();
+            if (command == Command.EAT) game.gameData.eatingSoundActivate();
+            perform(command);
+        }
+        return true;
+    }
+
+    /**
+     * Works out which choice a click makes in the duration menu or the popup menu being shown.
+     *
+     * @param touchX The x-coordinate of the click.
+     * @param touchY The y-coordinate of the click, from the bottom of the screen.
+     * @return The choice, or null if the click was not on an option.
+     */
+    private Command getClickedCommand(int touchX, int touchY){
         if (showMenu){ // Added code
-            switch (activity){
-                case "study":
-                    if (_durationUp.isClicked(touchX,touchY)) { // Added code
-                        game.gameData.buttonClickedSoundActivate();
-                        if (duration < 4) duration++;
-                    }
-                    else if (_durationDown.isClicked(touchX,touchY)) { // Added code
-                        game.gameData.buttonClickedSoundActivate();
-                        if (duration > 1) duration--;
-                    }
-                    else if (_menuBack.isClicked(touchX,touchY)) { // Added code
-                        game.gameData.buttonClickedSoundActivate();
-                        showMenu = false;
-                        lockMovement = fadeOut;
-                        duration = 1;
-                    }
-                    else if (_activity.isClicked(touchX,touchY)) { // Added code
-                        game.gameData.buttonClickedSoundActivate();
-                        showMenu = false;
-                        lockMovement = fadeOut;
-                        studyHours += duration;
-                        if (energy.getEnergy() > (duration+1)/2) energy.decreaseEnergy((duration+1)/2);
-
-                        // Start of added code
-                        time.incTimeElapsed( duration * SECONDS_PER_GAME_HOUR);
-                        dailyScore.study(duration, getDoorTouching());
-                        // End of added Code
-
-                        game.screenManager.setScreen(ScreenType.MINI_GAME, duration);
-                    }
-                    break;
-
-                case "exercise":
-                // Start of added code
-                case "feed_ducks":
-                case "visit_city":
-                    if (_durationUp.isClicked(touchX,touchY)) {
-                        game.gameData.buttonClickedSoundActivate();
-                        if (duration < 4) duration++;
-                    }
-                    else if (_durationDown.isClicked(touchX,touchY)) {
-                        game.gameData.buttonClickedSoundActivate();
-                        if (duration > 1) duration--;
-                    }
-                    else if (_menuBack.isClicked(touchX,touchY)) {
-                        game.gameData.buttonClickedSoundActivate();
-                        showMenu = false;
-                        lockMovement = fadeOut;
-                        duration = 1;
-                    }
-                    else if (_activity.isClicked(touchX,touchY)) {
-                        game.gameData.buttonClickedSoundActivate();
-                        if (energy.getEnergy() >= duration) {
-                            executeFadeOut(false);
-                            showMenu = false;
-                            lockMovement = fadeOut;
-                            recActivity++;
-                            energy.decreaseEnergy(duration);
-                            time.incTimeElapsed( duration * SECONDS_PER_GAME_HOUR);
-
-                            // Added Code //
-                            dailyScore.doRecActivity(duration, getDoorTouching());
-                            // Added Code //
-
-                            duration = 1;
-                        }
-                    }
-                    break;
-                // End of added code
-                case "sleep":
-                    if (_durationUp.isClicked(touchX,touchY)) { // Added code
-                        game.gameData.buttonClickedSoundActivate();
-                        if (duration < 10) duration++;
-                    }
-                    else if (_durationDown.isClicked(touchX,touchY)) { // Added code
-                        game.gameData.buttonClickedSoundActivate();
-                        if (duration > 1) duration--;
-                    }
-                    else if (_menuBack.isClicked(touchX,touchY)) { // Added code
-                        game.gameData.buttonClickedSoundActivate();
-                        showMenu = false;
-                        lockMovement = fadeOut;
-                        duration = 1;
-                    }
-                    else if (_activity.isClicked(touchX,touchY)) { // Added code
-                        game.gameData.buttonClickedSoundActivate();
-                        showMenu = false;
-                        lockMovement = fadeOut;
-
-                        // Start of added Code
-                        if (dayNum == 7) {
-                            addDailyScore();
-                            if (!hasFailed) {
-                                totalScore += dailyScore.checkStreaks(); // Add bonus points from achieving streaks
-                            }
-                            game.screenManager.setScreen(ScreenType.END_SCREEN, totalScore, dailyScore.getStreaks());
-                        } else {
-                            dailyScore.incrementSleep(); //increments count for number of early nights
-                            resetDay();
-                        }
-                        // End of Added Code
-
-                        duration = 1;
-                    }
-                    break;
-            }
+            if (_durationUp.isClicked(touchX,touchY)) return Command.DURATION_UP; // Added code
+            if (_durationDown.isClicked(touchX,touchY)) return Command.DURATION_DOWN; // Added code
+            if (_menuBack.isClicked(touchX,touchY)) return Command.MENU_BACK; // Added code
+            if (_activity.isClicked(touchX,touchY)) return Command.CONFIRM; // Added code
+            return null;
         }
-        else if (popupVisible){
-            Vector3 studyOpt = camera.project(new Vector3(player.worldX + 30, player.worldY + 20, 0));
-            Vector3 eatOpt = camera.project(new Vector3(player.worldX + 30, player.worldY + 35, 0));
-            switch (popupMenuType) {
-                case "Comp_sci_door":
-                    if (touchX >= studyOpt.x && touchX <= studyOpt.x + popupMenuWidth * zoom && touchY >= studyOpt.y && touchY <= studyOpt.y + popupMenuHeight * zoom) {
-                        game.gameData.buttonClickedSoundActivate();
-                        showMenu = true;
-                        lockMovement = true;
-                        activity = "study";
-                        duration = 1;
-                    }
-                    break;
-                case "Ron_cooke_door": // Added code
-                case "Piazza_door":
-                    if (touchX >= studyOpt.x && touchX <= studyOpt.x + popupMenuWidth * zoom && touchY >= studyOpt.y && touchY <= studyOpt.y + popupMenuHeight * zoom) {
-                        game.gameData.buttonClickedSoundActivate();
-                        showMenu = true;
-                        lockMovement = true;
-                        activity = "study";
-                        duration = 1;
-                    }
-                    else if (touchX >= eatOpt.x && touchX <= eatOpt.x + popupMenuWidth * zoom && touchY >= eatOpt.y && touchY <= eatOpt.y + popupMenuHeight * zoom) {
-                        game.gameData.buttonClickedSoundActivate();
-                        game.gameData.eatingSoundActivate();
-                        energy.increaseEnergy(3);
-                        mealCount++;
-                        dailyScore.eat(getTime()); // Added code
-                    }
-                    break;
-
-                case "Gym_door":
-                    if (touchX >= studyOpt.x && touchX <= studyOpt.x + popupMenuWidth * zoom && touchY >= studyOpt.y && touchY <= studyOpt.y + popupMenuHeight * zoom) {
-                        game.gameData.buttonClickedSoundActivate();
-                        showMenu = true;
-                        lockMovement = true;
-                        activity = "exercise";
-                        duration = 1;
-                    }
-                    break;
-
-                case "Goodricke_door":
-                    if (touchX >= studyOpt.x && touchX <= studyOpt.x + popupMenuWidth * zoom && touchY >= studyOpt.y && touchY <= studyOpt.y + popupMenuHeight * zoom) {
-                        game.gameData.buttonClickedSoundActivate();
-                        showMenu = true;
-                        lockMovement = true;
-                        activity = "sleep";
-                        duration = 1;
-                    }
-                    break;
-                // Start of added code
-                case "Feed_ducks":
-                    if (touchX >= studyOpt.x && touchX <= studyOpt.x + popupMenuWidth * zoom && touchY >= studyOpt.y && touchY <= studyOpt.y + popupMenuHeight * zoom) {
-                        game.gameData.buttonClickedSoundActivate();
-                        showMenu = true;
-                        lockMovement = true;
-                        activity = "feed_ducks";
-                        duration = 1;
-                    }
-                    break;
-                case "Visit_city":
-                    if (touchX >= studyOpt.x && touchX <= studyOpt.x + popupMenuWidth * zoom && touchY >= studyOpt.y && touchY <= studyOpt.y + popupMenuHeight * zoom) {
-                        game.gameData.buttonClickedSoundActivate();
-                        showMenu = true;
-                        lockMovement = true;
-                        activity = "visit_city";
-                        duration = 1;
-                    }
-                    break;
-                // End of added code
-            }
+        if (!popupVisible) return null;
+        Vector3 studyOpt = camera.project(new Vector3(player.getRenderX() + 30, player.getRenderY() + 20, 0));
+        Vector3 eatOpt = camera.project(new Vector3(player.getRenderX() + 30, player.getRenderY() + 35, 0));
+        boolean firstOption = touchX >= studyOpt.x && touchX <= studyOpt.x + popupMenuWidth * zoom && touchY >= studyOpt.y && touchY <= studyOpt.y + popupMenuHeight * zoom;
+        boolean secondOption = touchX >= eatOpt.x && touchX <= eatOpt.x + popupMenuWidth * zoom && touchY >= eatOpt.y && touchY <= eatOpt.y + popupMenuHeight * zoom;
+        switch (popupMenuType) {
+            case COMP_SCI:
+                return firstOption ? Command.OPEN_STUDY : null;
+            case RON_COOKE: // Added code
+            case PIAZZA:
+                return firstOption ? Command.OPEN_STUDY : secondOption ? Command.EAT : null;
+            case GYM:
+                return firstOption ? Command.OPEN_EXERCISE : null;
+            case GOODRICKE:
+                return firstOption ? Command.OPEN_SLEEP : null;
+            // Start of added code
+            case FEED_DUCKS:
+                return firstOption ? Command.OPEN_FEED_DUCKS : null;
+            case VISIT_CITY:
+                return firstOption ? Command.OPEN_VISIT_CITY : null;
+            // End of added code
+            default:
+                return null;
         }
+    }
 
-        return true;
+    /**
+     * Carries out a choice the player made, recording it first if the session is being recorded.
+     * Clicks and replays both make their choices through here, so they run the same code.
+     *
+     * @param command The choice.
+     */
+    private void perform(Command command){
+        if (recorder != null) recorder.recordCommand(command);
+        switch (command) {
+            case OPEN_STUDY:
+                openMenu("study");
+                break;
+            case OPEN_EXERCISE:
+                openMenu("exercise");
+                break;
+            case OPEN_SLEEP:
+                openMenu("sleep");
+                break;
+            // Start of added code
+            case OPEN_FEED_DUCKS:
+                openMenu("feed_ducks");
+                break;
+            case OPEN_VISIT_CITY:
+                openMenu("visit_city");
+                break;
+            // End of added code
+            case EAT:
+                simulation.eat(popupMenuType); // Added code
+                break;
+            case DURATION_UP:
+                if (duration < (activity.equals("sleep") ? 10 : 4)) duration++; // Added code
+                break;
+            case DURATION_DOWN:
+                if (duration > 1) duration--; // Added code
+                break;
+            case MENU_BACK:
+                showMenu = false;
+                lockMovement = fadeOut;
+                duration = 1;
+                break;
+            case CONFIRM:
+                confirmActivity();
+                break;
+            case RESUME:
+                returnToGame();
+                break;
+        }
+    }
+
+    /**
+     * Opens the duration menu for an activity.
+     * @param menuActivity The activity the menu is for.
+     */
+    private void openMenu(String menuActivity){
+        showMenu = true;
+        lockMovement = true;
+        activity = menuActivity;
+        duration = 1;
+        // Studying opens the mini game, so start loading it while the duration is chosen
+        if (menuActivity.equals("study") && !isReplaying()) game.screenManager.preload(ScreenType.MINI_GAME);
+    }
+
+    /**
+     * Does the activity of the duration menu for the chosen duration.
+     */
+    private void confirmActivity(){
+        switch (activity){
+            case "study":
+                showMenu = false;
+                lockMovement = fadeOut;
+                simulation.study(duration, getDoorTouching()); // Added code
+                long miniGameSeed = random.nextLong();
+                // The mini game does not change the score, so a replay goes straight on
+                if (!isReplaying()) game.screenManager.setScreen(ScreenType.MINI_GAME, duration, miniGameSeed);
+                break;
+
+            case "exercise":
+            // Start of added code
+            case "feed_ducks":
+            case "visit_city":
+                float shade = getNightShade();
+                if (simulation.doActivity(duration, getDoorTouching())) { // Only done if there is enough energy
+                    executeFadeOut(false, shade);
+                    showMenu = false;
+                    lockMovement = fadeOut;
+                    duration = 1;
+                }
+                break;
+            // End of added code
+            case "sleep":
+                showMenu = false;
+                lockMovement = fadeOut;
+
+                // Start of added Code
+                float sleepShade = getNightShade();
+                simulation.sleep();
+                if (simulation.isFinished()) {
+                    endGame();
+                } else {
+                    executeFadeOut(true, sleepShade);
+                }
+                // End of Added Code
+
+                duration = 1;
+                break;
+        }
     }
 
     @Override
@@ -733,7 +794,7 @@ public class MainGameScreen implements Screen, InputProcessor {
 
     @Override
     public void pause() {
-
+        saveRecording();
     }
 
     @Override
@@ -743,61 +804,24 @@ public class MainGameScreen implements Screen, InputProcessor {
 
     @Override
     public void hide() {
-
+        saveRecording();
     }
 
     @Override
     public void dispose() {
         shapeRenderer.dispose();
-        menuButton.dispose();
-        counterBackground.dispose();
-        popupMenu.dispose();
-        durationMenuBackground.dispose();
-        durationUpButton.dispose();
-        durationDownButton.dispose();
-        menuBackButton.dispose();
-        menuStudyButton.dispose();
-        menuSleepButton.dispose();
-        menuGoButton.dispose();
-        energy.disposeTexture();
         player.dispose();
-        font.dispose();
-        popupFont.dispose();
-        durationFont.dispose();
+        gameMap.dispose();
+        game.assets.release(GameAssets.FONT);
+        game.assets.release(GameAssets.FONT);
+        game.assets.release(GameAssets.FONT);
     }
 
-    // Start of added code
     @Override
     public boolean keyDown(int keycode) {
-//        if (keycode == Input.Keys.SEMICOLON) { // keybind for devhack to skip day and add to score
-//            skipDayAddScore();
-//            return true;
-//        }
-//
-//        if (keycode == Input.Keys.SLASH) {
-////            game.screenManager.setScreen(ScreenType.END_SCREEN, totalScore, dailyScore.getStreaks()); // Skip to the end screen
-//            game.screenManager.setScreen(ScreenType.END_SCREEN, totalScore, "WaddleWare Representative\nProgrammer\nAthlete\nEarly Nights\nAll Rounder\nDaily Routine\n"); // Skip to the end screen
-//            return true;
-//        }
-        // End of added code
         return false;
     }
 
-    /**
-     * Skips the current day and updates the score for testing
-     */
-    // Start of added code
-    private void skipDayAddScore() {
-        totalScore += 100;
-        dayNum++;
-
-        System.out.println("day: " + dayNum);
-        System.out.println("score: " + totalScore);
-
-        updateGameTime(10); // Update game time. also checks for last day
-    }
-    // End of added code
-
     @Override
     public boolean keyUp(int i) {
         return false;
@@ -2,7 +2,7 @@ package com.main.screens;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.main.Main;
 import com.badlogic.gdx.InputProcessor;
@@ -16,7 +16,7 @@ import com.main.utils.ScreenType;
 public class MainMenuScreen implements Screen, InputProcessor {
     final Main game; // Added code
 
-    Texture heslingtonHustleLabel, playButton, controlsButton, settingsButton, exitButton;
+    TextureRegion heslingtonHustleLabel, playButton, controlsButton, settingsButton, exitButton;
 
     int heslingtonHustleLabelHeight, playButtonHeight, controlsButtonHeight, settingsButtonHeight, exitButtonHeight;
     int heslingtonHustleLabelWidth, playButtonWidth, controlsButtonWidth, settingsButtonWidth, exitButtonWidth;
@@ -45,27 +45,27 @@ public class MainMenuScreen implements Screen, InputProcessor {
      * Loads textures for UI elements from the assets directory.
      */
     private void loadTextures() {
-        heslingtonHustleLabel = new Texture("menu_gui/heslington_hustle_label.png");
-        playButton = new Texture("menu_gui/play_button.png");
-        controlsButton = new Texture("menu_gui/controls_button.png");
-        settingsButton = new Texture("menu_gui/settings_button.png");
-        exitButton = new Texture("menu_gui/exit_button.png");
+        heslingtonHustleLabel = game.atlas.get("menu_gui/heslington_hustle_label");
+        playButton = game.atlas.get("menu_gui/play_button");
+        controlsButton = game.atlas.get("menu_gui/controls_button");
+        settingsButton = game.atlas.get("menu_gui/settings_button");
+        exitButton = game.atlas.get("menu_gui/exit_button");
     }
 
     /**
      * Calculates the dimensions of buttons based on their textures.
      */
     private void calculateDimensions() {
-        heslingtonHustleLabelHeight = (int) (heslingtonHustleLabel.getHeight() * 10 * game.scaleFactorY);
-        heslingtonHustleLabelWidth = (int) (heslingtonHustleLabel.getWidth() * 10 * game.scaleFactorX);
-        playButtonHeight = (int) (playButton.getHeight() * 10 * game.scaleFactorY);
-        playButtonWidth = (int) (playButton.getWidth() * 10 * game.scaleFactorX);
-        controlsButtonHeight = (int) (controlsButton.getHeight() * 10 * game.scaleFactorY);
-        controlsButtonWidth = (int) (controlsButton.getWidth() * 10 * game.scaleFactorX);
-        settingsButtonHeight = (int) (settingsButton.getHeight() * 10 * game.scaleFactorY);
-        settingsButtonWidth = (int) (settingsButton.getWidth() * 10 * game.scaleFactorX);
-        exitButtonHeight = (int) (exitButton.getHeight() * 10 * game.scaleFactorY);
-        exitButtonWidth = (int) (exitButton.getWidth() * 10 * game.scaleFactorX);
+        heslingtonHustleLabelHeight = (int) (heslingtonHustleLabel.getRegionHeight() * 10 * game.scaleFactorY);
+        heslingtonHustleLabelWidth = (int) (heslingtonHustleLabel.getRegionWidth() * 10 * game.scaleFactorX);
+        playButtonHeight = (int) (playButton.getRegionHeight() * 10 * game.scaleFactorY);
+        playButtonWidth = (int) (playButton.getRegionWidth() * 10 * game.scaleFactorX);
+        controlsButtonHeight = (int) (controlsButton.getRegionHeight() * 10 * game.scaleFactorY);
+        controlsButtonWidth = (int) (controlsButton.getRegionWidth() * 10 * game.scaleFactorX);
+        settingsButtonHeight = (int) (settingsButton.getRegionHeight() * 10 * game.scaleFactorY);
+        settingsButtonWidth = (int) (settingsButton.getRegionWidth() * 10 * game.scaleFactorX);
+        exitButtonHeight = (int) (exitButton.getRegionHeight() * 10 * game.scaleFactorY);
+        exitButtonWidth = (int) (exitButton.getRegionWidth() * 10 * game.scaleFactorX);
     }
 
     /**
@@ -195,10 +195,6 @@ public class MainMenuScreen implements Screen, InputProcessor {
 
     @Override
     public void dispose() {
-        playButton.dispose();
-        controlsButton.dispose();
-        settingsButton.dispose();
-        exitButton.dispose();
-        heslingtonHustleLabel.dispose();
+        // The images belong to the game's atlas, which disposes them
     }
 }
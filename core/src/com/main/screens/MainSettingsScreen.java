@@ -2,7 +2,7 @@ package com.main.screens;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputProcessor;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.main.Main;
@@ -15,8 +15,8 @@ import com.main.utils.ScreenType;
 public class MainSettingsScreen implements Screen, InputProcessor {
     final Main game; // Added code
     boolean gender;
-    private final Texture backButton, settingsLabel, musicUpButton, musicDownButton, musicLabel, soundUpButton, soundLabel, soundDownButton;
-    private Texture musicBar, soundBar, boyButton, girlButton;
+    private final TextureRegion backButton, settingsLabel, musicUpButton, musicDownButton, musicLabel, soundUpButton, soundLabel, soundDownButton;
+    private TextureRegion musicBar, soundBar, boyButton, girlButton;
     // X and Y coordinates for each button and label
     private float backButtonX, settingsLabelX, musicUpButtonX, musicDownButtonX, musicLabelX, musicBarX, soundUpButtonX, soundLabelX, soundDownButtonX,
             soundBarX, boyButtonX, girlButtonX;
@@ -37,23 +37,23 @@ public class MainSettingsScreen implements Screen, InputProcessor {
         this.game = game;
         gender = game.gameData.getGender();
 
-        backButton = new Texture("settings_gui/back_button.png");
-        settingsLabel = new Texture("settings_gui/settings_label.png");
-        musicUpButton = new Texture("settings_gui/arrow_right_button.png");
-        musicDownButton = new Texture("settings_gui/arrow_left_button.png");
-        musicLabel = new Texture("settings_gui/music_label.png");
-        musicBar = new Texture("settings_gui/bar_" + 25 * game.gameData.getMusicLevel() +".png");
-        soundUpButton = new Texture("settings_gui/arrow_right_button.png");
-        soundLabel = new Texture("settings_gui/sound_label.png");
-        soundDownButton = new Texture("settings_gui/arrow_left_button.png");
-        soundBar = new Texture("settings_gui/bar_" + 25 * game.gameData.getSoundLevel() +".png");
+        backButton = game.atlas.get("settings_gui/back_button");
+        settingsLabel = game.atlas.get("settings_gui/settings_label");
+        musicUpButton = game.atlas.get("settings_gui/arrow_right_button");
+        musicDownButton = game.atlas.get("settings_gui/arrow_left_button");
+        musicLabel = game.atlas.get("settings_gui/music_label");
+        musicBar = game.atlas.get("settings_gui/bar_" + 25 * game.gameData.getMusicLevel());
+        soundUpButton = game.atlas.get("settings_gui/arrow_right_button");
+        soundLabel = game.atlas.get("settings_gui/sound_label");
+        soundDownButton = game.atlas.get("settings_gui/arrow_left_button");
+        soundBar = game.atlas.get("settings_gui/bar_" + 25 * game.gameData.getSoundLevel());
         if (gender) {
-            boyButton = new Texture("settings_gui/boy_button_indented.png");
-            girlButton = new Texture("settings_gui/girl_button.png");
+            boyButton = game.atlas.get("settings_gui/boy_button_indented");
+            girlButton = game.atlas.get("settings_gui/girl_button");
         }
         else {
-            girlButton = new Texture("settings_gui/girl_button_indented.png");
-            boyButton = new Texture("settings_gui/boy_button.png");
+            girlButton = game.atlas.get("settings_gui/girl_button_indented");
+            boyButton = game.atlas.get("settings_gui/boy_button");
         }
 
         calculateDimensions();
@@ -175,8 +175,7 @@ public class MainSettingsScreen implements Screen, InputProcessor {
             if (game.gameData.getMusicLevel() <= 3){
                 game.gameData.incrementMusicLevel();
                 game.gameData.upSoundActivate();
-                if (musicBar!=null) musicBar.dispose();
-                musicBar = new Texture("settings_gui/bar_" + 25 * game.gameData.getMusicLevel() +".png");
+                musicBar = game.atlas.get("settings_gui/bar_" + 25 * game.gameData.getMusicLevel());
             }
         } else if (worldX >= musicDownButtonX && worldX <= musicDownButtonX + musicDownButtonWidth &&
                 worldY >= musicDownButtonY && worldY <= musicDownButtonY + musicDownButtonHeight){
@@ -184,8 +183,7 @@ public class MainSettingsScreen implements Screen, InputProcessor {
             if (game.gameData.getMusicLevel() >= 1){
                 game.gameData.decrementMusicLevel();
                 game.gameData.downSoundActivate();
-                if (musicBar!=null) musicBar.dispose();
-                musicBar = new Texture("settings_gui/bar_" + 25 * game.gameData.getMusicLevel() +".png");
+                musicBar = game.atlas.get("settings_gui/bar_" + 25 * game.gameData.getMusicLevel());
             }
         } else if (worldX >= soundUpButtonX && worldX <= soundUpButtonX + soundUpButtonWidth &&
                 worldY >= soundUpButtonY && worldY <= soundUpButtonY + soundUpButtonHeight) {
@@ -193,8 +191,7 @@ public class MainSettingsScreen implements Screen, InputProcessor {
             if (game.gameData.getSoundLevel() <= 3){
                 game.gameData.incrementSoundLevel();
                 game.gameData.upSoundActivate();
-                if (soundBar!=null) soundBar.dispose();
-                soundBar = new Texture("settings_gui/bar_" + 25 * game.gameData.getSoundLevel() +".png");
+                soundBar = game.atlas.get("settings_gui/bar_" + 25 * game.gameData.getSoundLevel());
             }
         } else if (worldX >= soundDownButtonX && worldX <= soundDownButtonX + soundDownButtonWidth &&
                 worldY >= soundDownButtonY && worldY <= soundDownButtonY + soundDownButtonHeight){
@@ -202,25 +199,20 @@ public class MainSettingsScreen implements Screen, InputProcessor {
             if (game.gameData.getSoundLevel() >= 1){
                 game.gameData.decrementSoundLevel();
                 game.gameData.downSoundActivate();
-                if (soundBar!=null) soundBar.dispose();
-                soundBar = new Texture("settings_gui/bar_" + 25 *game.gameData.getSoundLevel()+".png");
+                soundBar = game.atlas.get("settings_gui/bar_" + 25 *game.gameData.getSoundLevel());
             }
         } else if (worldX >= boyButtonX && worldX <= boyButtonX + boyButtonWidth &&
                 worldY >= boyButtonY && worldY <= boyButtonY + boyButtonHeight){
             gender = true;
             game.gameData.buttonClickedSoundActivate();
-            if (boyButton!=null) boyButton.dispose();
-            if (girlButton!=null) girlButton.dispose();
-            boyButton = new Texture("settings_gui/boy_button_indented.png");
-            girlButton = new Texture("settings_gui/girl_button.png");
+            boyButton = game.atlas.get("settings_gui/boy_button_indented");
+            girlButton = game.atlas.get("settings_gui/girl_button");
         } else if (worldX >= girlButtonX && worldX <= girlButtonX + girlButtonWidth &&
                 worldY >= girlButtonY && worldY <= girlButtonY + girlButtonHeight){
             gender = false;
             game.gameData.buttonClickedSoundActivate();
-            if (boyButton!=null) boyButton.dispose();
-            if (girlButton!=null) girlButton.dispose();
-            girlButton = new Texture("settings_gui/girl_button_indented.png");
-            boyButton = new Texture("settings_gui/boy_button.png");
+            girlButton = game.atlas.get("settings_gui/girl_button_indented");
+            boyButton = game.atlas.get("settings_gui/boy_button");
         }
 
         game.gameData.setGender(gender);
@@ -276,17 +268,6 @@ public class MainSettingsScreen implements Screen, InputProcessor {
 
     @Override
     public void dispose() {
-        backButton.dispose();
-        settingsLabel.dispose();
-        musicUpButton.dispose();
-        musicDownButton.dispose();
-        musicLabel.dispose();
-        musicBar.dispose();
-        soundUpButton.dispose();
-        soundLabel.dispose();
-        soundDownButton.dispose();
-        soundBar.dispose();
-        boyButton.dispose();
-        girlButton.dispose();
+        // The images belong to the game's atlas, which disposes them
     }
 }
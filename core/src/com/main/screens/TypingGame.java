@@ -3,15 +3,16 @@ package com.main.screens;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.Timer;
 import com.main.Main;
+import com.main.utils.GameAssets;
 import com.main.utils.ScreenType;
 
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Random;
 
 /**
  * The TypingGame class implements a mini-game for the player to increase their study hours.
@@ -20,17 +21,18 @@ import java.util.concurrent.ThreadLocalRandom;
 public class TypingGame implements Screen, InputProcessor {
     private final Main game;
     private final int studyDuration;
+    private final Random random; // Seeded by the game screen, so a recorded session shows the same numbers
     private int attempts = 0;
     private int currentNumber = 0;
     private int correct = 0;
-    private final Texture guessButton;
+    private final TextureRegion guessButton;
     private String userGuess = "";
     Boolean acceptInput = false, displayCorrect = false, displayWrong = false;
     final BitmapFont displayText; // Added code
     private float displayTextY, displayTextHeight;
     private float gameObjectiveY;
     private float guessButtonX, guessButtonY, guessButtonWidth, guessButtonHeight;
-    private final Texture title;
+    private final TextureRegion title;
     private float titleX, titleY, titleWidth, titleHeight;
     final String gameObjective; // Added code
 
@@ -39,12 +41,14 @@ public class TypingGame implements Screen, InputProcessor {
      *
      * @param game The main game instance.
      * @param studyDuration The duration of the study session in attempts.
+     * @param seed The seed of the numbers to remember.
      */
-    public TypingGame(Main game, int studyDuration){
+    public TypingGame(Main game, int studyDuration, long seed){
         this.game = game;
-        displayText = new BitmapFont(Gdx.files.internal("font/WhitePeaberry.fnt"));
-        guessButton = new Texture("mini_games/guess_button.png");
-        title = new Texture("mini_games/number_memoriser_label.png");
+        this.random = new Random(seed);
+        displayText = game.assets.acquireFont(GameAssets.FONT);
+        guessButton = game.atlas.get("mini_games/guess_button");
+        title = game.atlas.get("mini_games/number_memoriser_label");
 
         calculateDimensions();
         calculatePositions();
@@ -67,8 +71,8 @@ public class TypingGame implements Screen, InputProcessor {
         gameObjectiveY = game.screenHeight - 280 * game.scaleFactorY;
         guessButtonWidth = 156 * game.scaleFactorX;
         guessButtonHeight = 84 * game.scaleFactorY;
-        titleWidth = title.getWidth() * game.scaleFactorX * 11;
-        titleHeight = title.getHeight() * game.scaleFactorY * 11;
+        titleWidth = title.getRegionWidth() * game.scaleFactorX * 11;
+        titleHeight = title.getRegionHeight() * game.scaleFactorY * 11;
     }
 
     private void calculatePositions(){
@@ -152,7 +156,7 @@ public class TypingGame implements Screen, InputProcessor {
         int startingNumLength = 5;
         int startingNum = (int) (10*Math.pow(10, startingNumLength -1));
         int lowerLimit = (int) (startingNum*Math.pow(10, attempts-1));
-        int num = ThreadLocalRandom.current().nextInt(lowerLimit, lowerLimit*10-1);
+        int num = lowerLimit + random.nextInt(lowerLimit*9-1);
         attempts++;
         return num;
     }
@@ -180,9 +184,7 @@ public class TypingGame implements Screen, InputProcessor {
 
     @Override
     public void dispose() {
-        guessButton.dispose();
-        title.dispose();
-        displayText.dispose();
+        game.assets.release(GameAssets.FONT);
     }
 
     @Override
@@ -0,0 +1,323 @@
+package com.main.simulation;
+
+import com.main.map.Zone;
+import com.main.utils.Energy;
+import com.main.utils.PackedScore;
+import com.main.utils.Time;
+
+/**
+ * The rules of a game of Heslington Hustle, separated from the screens so that they can run without libGDX graphics.
+ * <p>
+ * The simulation tracks the game clock, energy, score and streaks over the seven days, and applies the same
+ * effects to them as the actions in MainGameScreen. The screen drives it from player input, while tools and tests
+ * drive it from scripted actions through {@link #perform(Action, int)}.
+ */
+public class GameSimulation {
+    public static final int DAYS = 7;
+    public static final int MAX_STUDY_HOURS = 4; // Longest study session that can be chosen
+    public static final int MAX_ACTIVITY_HOURS = 4; // Longest recreational activity that can be chosen
+    public static final int SLEEP_HOUR = 20; // Earliest hour the player can go to sleep
+    public static final int MEAL_ENERGY = 3;
+    public static final int NEW_DAY_ENERGY = 4;
+
+    /**
+     * The actions a player can take, with the zone of the map each one is taken in.
+     */
+    public enum Action {
+        MOVE(Zone.NONE), // Amount is the number of game minutes spent walking
+        STUDY_COMP_SCI(Zone.COMP_SCI), // Amount is the number of hours
+        STUDY_PIAZZA(Zone.PIAZZA),
+        STUDY_RON_COOKE(Zone.RON_COOKE),
+        EAT_PIAZZA(Zone.PIAZZA),
+        EAT_RON_COOKE(Zone.RON_COOKE),
+        EXERCISE(Zone.GYM), // Amount is the number of hours for recreational activities
+        FEED_DUCKS(Zone.FEED_DUCKS),
+        VISIT_CITY(Zone.VISIT_CITY),
+        SLEEP(Zone.GOODRICKE);
+
+        public final Zone zone;
+
+        Action(Zone zone) {
+            this.zone = zone;
+        }
+    }
+
+    private final Time time;
+    private final Energy energy;
+    private final PackedScore score;
+    private int day, totalScore, studyHours, mealCount, recActivity;
+    private boolean hasFailed, finished;
+    private int streaks; // Bits of the streaks achieved, set when the game finishes
+    private SessionLog log; // Only set when the session is logged for score verification
+
+    /**
+     * Starts a new game at 08:00 on the first day with full energy.
+     */
+    public GameSimulation() {
+        this(new Energy());
+    }
+
+    /**
+     * Starts a new game that tracks energy in the given object, so that a screen can draw it.
+     *
+     * @param energy The energy of the player, which should be full.
+     */
+    public GameSimulation(Energy energy) {
+        this.time = new Time();
+        this.energy = energy;
+        this.score = new PackedScore();
+        this.day = 1;
+    }
+
+    /**
+     * Starts a new game in this object, reusing its state so that running many games does not allocate.
+     */
+    public void reset() {
+        time.reset();
+        energy.increaseEnergy(Energy.MAX_ENERGY);
+        score.reset();
+        day = 1;
+        totalScore = studyHours = mealCount = recActivity = 0;
+        hasFailed = finished = false;
+        streaks = 0;
+    }
+
+    /**
+     * Logs every change made to the game from now on, so that its score can be verified.
+     *
+     * @param log The log to write to, or null to stop logging.
+     */
+    public void setLog(SessionLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Performs a scripted action.
+     *
+     * @param action The action to take.
+     * @param amount The number of hours for studying and recreational activities,
+     *               or the number of game minutes for moving. Ignored for eating and sleeping.
+     * @return True if the action was taken, false if the player could not take it at the moment.
+     */
+    public boolean perform(Action action, int amount) {
+        boolean taken;
+        switch (action) {
+            case MOVE:
+                taken = !finished;
+                advance(amount * Time.SECONDS_PER_GAME_HOUR / 60f);
+                break;
+            case STUDY_COMP_SCI:
+            case STUDY_PIAZZA:
+            case STUDY_RON_COOKE:
+                taken = study(amount, action.zone);
+                break;
+            case EAT_PIAZZA:
+            case EAT_RON_COOKE:
+                taken = eat(action.zone);
+                break;
+            case EXERCISE:
+            case FEED_DUCKS:
+            case VISIT_CITY:
+                taken = doActivity(amount, action.zone);
+                break;
+            case SLEEP:
+                taken = sleep();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown action: " + action);
+        }
+        // An action that runs past midnight ends the day at the next tick, as in the game
+        advance(0);
+        return taken;
+    }
+
+    /**
+     * Advances the game clock, ending the day at midnight and the game at the end of the last day.
+     *
+     * @param seconds The real time in seconds to advance by.
+     * @return True if a day ended.
+     */
+    public boolean advance(float seconds) {
+        if (finished) return false;
+        if (log != null) log.advance(seconds);
+        time.incTimeElapsed(seconds);
+        if (time.getTimeHours() < 24) return false;
+
+        if (day == DAYS) {
+            // Staying up on the last day ends the game without scoring that day, as it always has
+            totalScore += score.checkStreaks();
+            finish();
+        } else {
+            resetDay();
+        }
+        return true;
+    }
+
+    /**
+     * Studies in a building, which takes energy and time.
+     *
+     * @param hours The length of the session, from 1 to {@link #MAX_STUDY_HOURS}.
+     * @param zone The building studied in.
+     * @return True if the session was studied.
+     */
+    public boolean study(int hours, Zone zone) {
+        if (finished || hours < 1 || hours > MAX_STUDY_HOURS) return false;
+        if (zone != Zone.COMP_SCI && zone != Zone.PIAZZA && zone != Zone.RON_COOKE) {
+            throw new IllegalArgumentException("Can not study at " + zone);
+        }
+        if (log != null) log.study(hours, zone);
+        studyHours += hours;
+        if (energy.getEnergy() > (hours + 1) / 2) energy.decreaseEnergy((hours + 1) / 2);
+        time.incTimeElapsed(hours * Time.SECONDS_PER_GAME_HOUR);
+        score.study(hours, zone);
+        return true;
+    }
+
+    /**
+     * Eats a meal, which restores energy and takes no time.
+     *
+     * @param zone The building eaten in.
+     * @return True if the meal was eaten.
+     */
+    public boolean eat(Zone zone) {
+        if (finished) return false;
+        if (zone != Zone.PIAZZA && zone != Zone.RON_COOKE) {
+            throw new IllegalArgumentException("Can not eat at " + zone);
+        }
+        if (log != null) log.eat(zone);
+        energy.increaseEnergy(MEAL_ENERGY);
+        mealCount++;
+        score.eat(time.getTimeHours());
+        return true;
+    }
+
+    /**
+     * Does a recreational activity, which takes an hour of energy per hour of time.
+     *
+     * @param hours The length of the activity, from 1 to {@link #MAX_ACTIVITY_HOURS}.
+     * @param zone Where the activity is done.
+     * @return True if the activity was done, false if there was not enough energy.
+     */
+    public boolean doActivity(int hours, Zone zone) {
+        if (finished || hours < 1 || hours > MAX_ACTIVITY_HOURS) return false;
+        if (zone != Zone.GYM && zone != Zone.FEED_DUCKS && zone != Zone.VISIT_CITY) {
+            throw new IllegalArgumentException("Can not do an activity at " + zone);
+        }
+        if (energy.getEnergy() < hours) return false;
+        if (log != null) log.doActivity(hours, zone);
+        recActivity++;
+        energy.decreaseEnergy(hours);
+        time.incTimeElapsed(hours * Time.SECONDS_PER_GAME_HOUR);
+        score.doRecActivity(hours, zone);
+        return true;
+    }
+
+    /**
+     * Sleeps until the next day, or ends the game on the last day.
+     *
+     * @return True if the player slept, false if it is too early to.
+     */
+    public boolean sleep() {
+        if (finished || !canSleep()) return false;
+        if (log != null) log.sleep();
+        if (day == DAYS) {
+            addDailyScore();
+            if (!hasFailed) totalScore += score.checkStreaks();
+            finish();
+        } else {
+            score.incrementSleep();
+            resetDay();
+        }
+        return true;
+    }
+
+    /**
+     * @return True if it is late enough in the day to go to sleep.
+     */
+    public boolean canSleep() {
+        return time.getTimeHours() >= SLEEP_HOUR;
+    }
+
+    /**
+     * Starts the next day at 08:00 and scores the day that ended.
+     */
+    private void resetDay() {
+        day++;
+        energy.increaseEnergy(NEW_DAY_ENERGY);
+        time.reset();
+        addDailyScore();
+    }
+
+    /**
+     * Adds the score of the day to the total, which is lost for good once a second day passes without studying.
+     */
+    private void addDailyScore() {
+        if (score.hasMissedStudy() && score.getStudyCount() == 0) hasFailed = true;
+        if (!hasFailed) {
+            totalScore += score.calculateScore();
+        } else {
+            totalScore = 0;
+        }
+        score.resetDailyCounters();
+    }
+
+    /**
+     * Fixes the final score and streaks when the game ends.
+     */
+    private void finish() {
+        finished = true;
+        streaks = score.getStreakBits();
+    }
+
+    /**
+     * @return True once the last day has ended.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return The score shown on the end screen, valid once the game has finished.
+     */
+    public int getFinalScore() {
+        return totalScore;
+    }
+
+    /**
+     * @return The streaks achieved, one per line, valid once the game has finished.
+     */
+    public String getStreaks() {
+        return PackedScore.describeStreaks(streaks);
+    }
+
+    /**
+     * @return The bits of the streaks achieved, from {@link PackedScore.Streak}, valid once the game has finished.
+     */
+    public int getStreakBits() {
+        return streaks;
+    }
+
+    public int getDay() {
+        return day;
+    }
+
+    public Time getTime() {
+        return time;
+    }
+
+    public Energy getEnergy() {
+        return energy;
+    }
+
+    public int getStudyHours() {
+        return studyHours;
+    }
+
+    public int getMealCount() {
+        return mealCount;
+    }
+
+    public int getRecActivity() {
+        return recActivity;
+    }
+}
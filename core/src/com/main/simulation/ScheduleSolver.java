@@ -0,0 +1,356 @@
+package com.main.simulation;
+
+import com.main.simulation.GameSimulation.Action;
+import com.main.utils.Energy;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Finds the highest score a week of Heslington Hustle can reach under the rules in {@link GameSimulation} and
+ * {@code Score}, with a schedule that reaches it.
+ * <p>
+ * The search is a dynamic program in two levels. Each day is solved forwards hour by hour over a compact state:
+ * the hour, energy, hours studied, the study and recreation locations visited and enough about the meals eaten to
+ * score them. Recreation hours are the only part of the daily score that adds up along the way, so each state
+ * keeps the most recreation hours that reach it and everything else is scored from the state at the end of the day.
+ * The ends of a day are grouped by what carries over to the next day, which is the energy left, whether anything
+ * was studied, the flags the streaks count and whether the player slept. The week is then solved over those
+ * outcomes with the streak counters as its state.
+ * <p>
+ * Actions start on the hour, since the score only depends on whole hours. Weeks that fail by missing study twice
+ * are not searched, as they lose every daily score and can only keep a streak bonus.
+ * A schedule found by the solver can be checked against the game rules with {@link Solution#replay}.
+ */
+public class ScheduleSolver {
+    private static final int FIRST_HOUR = 8, MIDNIGHT = 24;
+    private static final int HOURS = MIDNIGHT - FIRST_HOUR + 1; // Every action that reaches midnight ends the day there
+    private static final int ENERGIES = Energy.MAX_ENERGY + 1;
+    private static final int STUDY_CAP = 6; // Studying six hours or more in a day scores the same
+    private static final int LOCATIONS = 64; // Study locations in bits 3-5, recreation locations in bits 0-2
+    private static final int ALL_LOCATIONS = LOCATIONS - 1;
+
+    // Meal states: none, one meal at each hour, two meals with the last hour and whether the interval scores,
+    // three meals by how many intervals score, and four or more by whether the first interval scores
+    private static final int ONE_MEAL = 1, TWO_MEALS = ONE_MEAL + 16, THREE_MEALS = TWO_MEALS + 32;
+    private static final int MORE_MEALS = THREE_MEALS + 3, MEAL_STATES = MORE_MEALS + 2;
+
+    private static final Action[] ACTIONS = Action.values();
+    private static final int STATES = HOURS * MEAL_STATES * ENERGIES * (STUDY_CAP + 1) * LOCATIONS;
+
+    // The ends of a day, by the energy left and these flags
+    private static final int STUDIED = 1, COMP_SCI = 2, GYM = 4, DUCKS = 8, ALL_SIX = 16, SLEPT = 32;
+    private static final int OUTCOMES = ENERGIES * 64;
+
+    // The streak counters carried between days
+    private static final int MISSED = 1, ALL_DUCKS = 2, ALL_GYM = 4, ALL_VISITED = 8, ALL_ROUNDER = 16;
+    private static final int COUNTER_CAP = 5; // Days at Computer Science and early nights only count up to five
+    private static final int STREAKS = 32 * (COUNTER_CAP + 1) * (COUNTER_CAP + 1);
+    private static final int START_STREAKS = ALL_DUCKS | ALL_GYM | ALL_VISITED;
+
+    private final int[] recreation = new int[STATES]; // The most recreation hours that reach each state, or -1
+    private final int[] previous = new int[STATES];
+    private final byte[] step = new byte[STATES]; // The action that reached each state, as its ordinal << 3 | hours
+    private final int[][] dayScores = new int[ENERGIES][];
+    private final int[][] dayEnds = new int[ENERGIES][];
+    private final int[] weekScores = new int[GameSimulation.DAYS * ENERGIES * STREAKS];
+    private final short[] weekChoices = new short[weekScores.length];
+
+    /**
+     * A schedule with the highest score.
+     */
+    public static class Solution {
+        private final int score;
+        private final int[] schedule;
+
+        Solution(int score, int[] schedule) {
+            this.score = score;
+            this.schedule = schedule;
+        }
+
+        /**
+         * @return The highest score a week can reach.
+         */
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * @return The actions of the schedule, packed as in {@link ScoreExplorer}.
+         */
+        public int[] getSchedule() {
+            return schedule.clone();
+        }
+
+        /**
+         * Plays the schedule in a simulation.
+         *
+         * @param simulation A new game to play it in.
+         * @return The final score of the game, which should be {@link #getScore()}.
+         */
+        public int replay(GameSimulation simulation) {
+            for (int code : schedule) {
+                simulation.perform(ScoreExplorer.actionOf(code), ScoreExplorer.amountOf(code));
+            }
+            return simulation.getFinalScore();
+        }
+
+        /**
+         * @return The schedule, one day per line.
+         */
+        public String describe() {
+            return ScoreExplorer.describe(schedule, schedule.length);
+        }
+    }
+
+    /**
+     * Solves the scoring rules from the command line, used by the solveSchedule build task.
+     * Exits with an error if the schedule found does not score as expected in GameSimulation.
+     */
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        Solution solution = new ScheduleSolver().solve();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        GameSimulation simulation = new GameSimulation();
+        int replayed = solution.replay(simulation);
+        System.out.printf(Locale.ROOT, "Highest score %d, found in %.2f s%n", solution.getScore(), seconds);
+        System.out.print("Streaks:\n" + simulation.getStreaks());
+        System.out.println(solution.describe());
+        if (replayed != solution.getScore()) {
+            System.err.println("The schedule scores " + replayed + " in GameSimulation, the rules have changed");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Finds the highest score and a schedule that reaches it.
+     *
+     * @return The solution.
+     */
+    public Solution solve() {
+        Arrays.fill(weekScores, Integer.MIN_VALUE);
+        int score = solveWeek(1, Energy.MAX_ENERGY, START_STREAKS);
+
+        int[] schedule = new int[ScoreExplorer.MAX_ACTIONS];
+        int length = 0;
+        int energy = Energy.MAX_ENERGY, streaks = START_STREAKS;
+        for (int day = 1; day <= GameSimulation.DAYS; day++) {
+            int outcome = weekChoices[weekIndex(day, energy, streaks)];
+            solveDay(energy);
+            length = trace(day, energy, dayEnds[energy][outcome], (outcome & SLEPT) != 0, schedule, length);
+            streaks = nextStreaks(streaks, outcome);
+            energy = Math.min(Energy.MAX_ENERGY, outcome / 64 + GameSimulation.NEW_DAY_ENERGY);
+        }
+        return new Solution(score, Arrays.copyOf(schedule, length));
+    }
+
+    /**
+     * @return The highest score of the rest of the week from the start of a day.
+     */
+    private int solveWeek(int day, int energy, int streaks) {
+        int index = weekIndex(day, energy, streaks);
+        if (weekScores[index] != Integer.MIN_VALUE) return weekScores[index];
+        if (dayScores[energy] == null) solveDay(energy);
+
+        int best = Integer.MIN_VALUE, choice = 0;
+        for (int outcome = 0; outcome < OUTCOMES; outcome++) {
+            int dayScore = dayScores[energy][outcome];
+            if (dayScore == Integer.MIN_VALUE) continue;
+            boolean slept = (outcome & SLEPT) != 0;
+            boolean fails = (outcome & STUDIED) == 0 && (streaks & MISSED) != 0;
+            int total;
+            if (day < GameSimulation.DAYS) {
+                if (fails) continue;
+                int nextEnergy = Math.min(Energy.MAX_ENERGY, outcome / 64 + GameSimulation.NEW_DAY_ENERGY);
+                total = dayScore + solveWeek(day + 1, nextEnergy, nextStreaks(streaks, outcome));
+            } else if (slept) {
+                if (fails) continue;
+                total = dayScore + streakBonus(nextStreaks(streaks, outcome & ~SLEPT));
+            } else {
+                // Staying up on the last day ends the game without scoring or counting that day
+                total = streakBonus(streaks);
+            }
+            if (total > best) {
+                best = total;
+                choice = outcome;
+            }
+        }
+        weekChoices[index] = (short) choice;
+        return weekScores[index] = best;
+    }
+
+    private static int weekIndex(int day, int energy, int streaks) {
+        return ((day - 1) * ENERGIES + energy) * STREAKS + streaks;
+    }
+
+    /**
+     * Updates the streak counters with the end of a day, as Score.resetDailyCounters and Score.incrementSleep do.
+     * The counters are packed as the flags, then the days at Computer Science times 32, then the early nights.
+     */
+    private static int nextStreaks(int streaks, int outcome) {
+        int flags = streaks & 31, compSci = streaks / 32 % (COUNTER_CAP + 1), nights = streaks / 32 / (COUNTER_CAP + 1);
+        if ((outcome & STUDIED) == 0) flags |= MISSED;
+        if ((outcome & DUCKS) == 0) flags &= ~ALL_DUCKS;
+        if ((outcome & GYM) == 0) flags &= ~ALL_GYM;
+        if ((outcome & ALL_SIX) == 0) flags &= ~ALL_VISITED;
+        else flags |= ALL_ROUNDER;
+        if ((outcome & COMP_SCI) != 0) compSci = Math.min(COUNTER_CAP, compSci + 1);
+        if ((outcome & SLEPT) != 0) nights = Math.min(COUNTER_CAP, nights + 1);
+        return flags + 32 * (compSci + (COUNTER_CAP + 1) * nights);
+    }
+
+    /**
+     * @return The bonus for the streaks, as Score.checkStreaks gives at the end of the game.
+     */
+    private static int streakBonus(int streaks) {
+        int compSci = streaks / 32 % (COUNTER_CAP + 1), nights = streaks / 32 / (COUNTER_CAP + 1);
+        int bonus = 0;
+        if ((streaks & ALL_DUCKS) != 0) bonus += 10;
+        if (compSci >= 5) bonus += 5;
+        if ((streaks & ALL_GYM) != 0) bonus += 10;
+        if (nights >= 5) bonus += 5;
+        if ((streaks & ALL_ROUNDER) != 0) bonus += 5;
+        if ((streaks & ALL_VISITED) != 0) bonus += 15;
+        return bonus;
+    }
+
+    /**
+     * Finds the highest score of each way a day starting with the given energy can end.
+     * States are numbered so that every action leads to a higher number, so they are solved in order.
+     */
+    private void solveDay(int startEnergy) {
+        Arrays.fill(recreation, -1);
+        int[] scores = new int[OUTCOMES], ends = new int[OUTCOMES];
+        Arrays.fill(scores, Integer.MIN_VALUE);
+
+        int start = stateIndex(FIRST_HOUR, 0, startEnergy, 0, 0);
+        recreation[start] = 0;
+        for (int state = start; state < STATES; state++) {
+            int hours = recreation[state];
+            if (hours < 0) continue;
+            int locations = state % LOCATIONS, rest = state / LOCATIONS;
+            int studied = rest % (STUDY_CAP + 1);
+            rest /= STUDY_CAP + 1;
+            int energy = rest % ENERGIES;
+            rest /= ENERGIES;
+            int meals = rest % MEAL_STATES;
+            int hour = FIRST_HOUR + rest / MEAL_STATES;
+
+            if (hour == MIDNIGHT) {
+                endDay(scores, ends, state, energy, studied, locations, meals, hours, false);
+                continue;
+            }
+            if (hour >= GameSimulation.SLEEP_HOUR) {
+                endDay(scores, ends, state, energy, studied, locations, meals, hours, true);
+            }
+
+            relax(state, stateIndex(hour + 1, meals, energy, studied, locations), hours, Action.MOVE, 1);
+            for (int length = 1; length <= GameSimulation.MAX_STUDY_HOURS; length++) {
+                int end = Math.min(MIDNIGHT, hour + length), cost = (length + 1) / 2;
+                int studyEnergy = energy > cost ? energy - cost : energy;
+                for (int location = 0; location < 3; location++) {
+                    relax(state, stateIndex(end, meals, studyEnergy, Math.min(STUDY_CAP, studied + length),
+                            locations | 8 << location), hours, ScoreExplorer.STUDY_ACTIONS[location], length);
+                }
+            }
+            for (int length = 1; length <= Math.min(GameSimulation.MAX_ACTIVITY_HOURS, energy); length++) {
+                int end = Math.min(MIDNIGHT, hour + length);
+                for (int location = 0; location < 3; location++) {
+                    relax(state, stateIndex(end, meals, energy - length, studied, locations | 1 << location),
+                            hours + length, ScoreExplorer.ACTIVITY_ACTIONS[location], length);
+                }
+            }
+            int eaten = stateIndex(hour, eat(meals, hour),
+                    Math.min(Energy.MAX_ENERGY, energy + GameSimulation.MEAL_ENERGY), studied, locations);
+            if (eaten != state) relax(state, eaten, hours, Action.EAT_PIAZZA, 0);
+        }
+        dayScores[startEnergy] = scores;
+        dayEnds[startEnergy] = ends;
+    }
+
+    private static int stateIndex(int hour, int meals, int energy, int studied, int locations) {
+        return (((Math.min(hour, MIDNIGHT) - FIRST_HOUR) * MEAL_STATES + meals) * ENERGIES + energy)
+                * (STUDY_CAP + 1) * LOCATIONS + studied * LOCATIONS + locations;
+    }
+
+    private void relax(int from, int to, int hours, Action action, int amount) {
+        if (recreation[to] >= hours) return;
+        recreation[to] = hours;
+        previous[to] = from;
+        step[to] = (byte) (action.ordinal() << 3 | amount);
+    }
+
+    /**
+     * Scores the end of a day as Score.calculateScore does and keeps it if it is the best way to reach its outcome.
+     */
+    private static void endDay(int[] scores, int[] ends, int state, int energy, int studied, int locations,
+                               int meals, int recreationHours, boolean slept) {
+        int score;
+        if (studied >= 2 && studied <= 3) score = 5;
+        else if (studied >= 3 && studied < 6) score = 10;
+        else if (studied < 2) score = -5;
+        else score = -3;
+        score += Integer.bitCount(locations) * 5 + recreationHours * 4 + mealBonus(meals);
+
+        int outcome = energy * 64 | (studied > 0 ? STUDIED : 0) | (slept ? SLEPT : 0)
+                | ((locations & 8) != 0 ? COMP_SCI : 0) | ((locations & 1) != 0 ? GYM : 0)
+                | ((locations & 2) != 0 ? DUCKS : 0) | (locations == ALL_LOCATIONS ? ALL_SIX : 0);
+        if (score > scores[outcome]) {
+            scores[outcome] = score;
+            ends[outcome] = state;
+        }
+    }
+
+    /**
+     * @return The meal state after eating at the given hour.
+     */
+    private static int eat(int meals, int hour) {
+        if (meals == 0) return ONE_MEAL + hour - FIRST_HOUR;
+        if (meals < TWO_MEALS) {
+            int last = meals - ONE_MEAL + FIRST_HOUR;
+            return TWO_MEALS + (hour - FIRST_HOUR) * 2 + (goodInterval(hour - last) ? 1 : 0);
+        }
+        if (meals < THREE_MEALS) {
+            int last = (meals - TWO_MEALS) / 2 + FIRST_HOUR;
+            boolean firstGood = (meals - TWO_MEALS) % 2 == 1;
+            return THREE_MEALS + (!firstGood ? 0 : goodInterval(hour - last) ? 2 : 1);
+        }
+        if (meals < MORE_MEALS) return MORE_MEALS + (meals > THREE_MEALS ? 1 : 0);
+        return meals;
+    }
+
+    private static boolean goodInterval(int hours) {
+        return hours >= 2 && hours <= 6;
+    }
+
+    /**
+     * @return The meal bonus of a meal state, as Score.calculateMealIntervalBonus gives.
+     */
+    private static int mealBonus(int meals) {
+        if (meals == 0) return 0;
+        if (meals < TWO_MEALS) return 3;
+        if (meals < THREE_MEALS) return (meals - TWO_MEALS) % 2 * 5;
+        if (meals < MORE_MEALS) return (meals - THREE_MEALS) * 5;
+        return (meals - MORE_MEALS) * 5;
+    }
+
+    /**
+     * Adds the actions that reach the end of a day to a schedule. The day must be the last one solved.
+     *
+     * @return The new length of the schedule.
+     */
+    private int trace(int day, int startEnergy, int end, boolean slept, int[] schedule, int length) {
+        int start = stateIndex(FIRST_HOUR, 0, startEnergy, 0, 0), steps = 0;
+        for (int state = end; state != start; state = previous[state]) steps++;
+        int index = length + steps;
+        for (int state = end; state != start; state = previous[state]) {
+            Action action = ACTIONS[step[state] >> 3];
+            int amount = step[state] & 7;
+            schedule[--index] = ScoreExplorer.encode(day, action, action == Action.MOVE ? amount * 60 : amount);
+        }
+        length += steps;
+        if (slept) schedule[length++] = ScoreExplorer.encode(day, Action.SLEEP, 0);
+        return length;
+    }
+}
@@ -0,0 +1,388 @@
+package com.main.simulation;
+
+import com.main.simulation.GameSimulation.Action;
+import com.main.utils.PackedScore.Streak;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays a large number of randomly generated weeks with {@link GameSimulation} to show how the scoring rules behave:
+ * the distribution of final scores, the best schedules found and how often each streak is achieved.
+ * <p>
+ * The games are split between the threads of a fork-join pool. Each task plays its games with one reused simulation
+ * and schedule buffer, and results are only combined when tasks join, so the threads share nothing while they run.
+ * Every task seeds its own random generator from the seed and the index of its first game, so the results for a
+ * seed are the same whatever the number of threads.
+ */
+public class ScoreExplorer {
+    public static final int MAX_ACTIONS = 512; // More than a week of actions can hold, see Explorer.play
+    public static final int TOP_SCHEDULES = 5;
+    private static final int MAX_MEALS_PER_DAY = 4;
+    private static final int LEAF_GAMES = 4096; // Games played by a task before it is split no further
+    private static final int HISTOGRAM_MIN = -1000, HISTOGRAM_MAX = 4000; // Scores outside are counted at the ends
+
+    static final Action[] STUDY_ACTIONS = {Action.STUDY_COMP_SCI, Action.STUDY_PIAZZA, Action.STUDY_RON_COOKE};
+    static final Action[] EAT_ACTIONS = {Action.EAT_PIAZZA, Action.EAT_RON_COOKE};
+    static final Action[] ACTIVITY_ACTIONS = {Action.EXERCISE, Action.FEED_DUCKS, Action.VISIT_CITY};
+    private static final Action[] ACTIONS = Action.values();
+
+    /**
+     * How likely each kind of action is to be chosen at each step of a generated schedule.
+     * Actions that can not be taken at that moment, such as sleeping before 20:00, are never chosen.
+     */
+    public enum Strategy {
+        RANDOM(1, 1, 1, 1, 1),
+        STUDIOUS(1, 3, 1, 0.5f, 2),
+        BALANCED(1, 2, 1.5f, 2, 2);
+
+        final float move, study, eat, activity, sleep;
+
+        Strategy(float move, float study, float eat, float activity, float sleep) {
+            this.move = move;
+            this.study = study;
+            this.eat = eat;
+            this.activity = activity;
+            this.sleep = sleep;
+        }
+    }
+
+    /**
+     * Runs the explorer from the command line, used by the exploreScores build task.
+     *
+     * @param args Optionally the number of games, the strategy, the seed and the number of threads.
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        Strategy strategy = args.length > 1 ? Strategy.valueOf(args[1].toUpperCase(Locale.ROOT)) : Strategy.RANDOM;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        Result result = explore(games, strategy, seed, pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        System.out.printf(Locale.ROOT, "%,d games with the %s strategy on %d threads in %.2f s (%,.0f games/s)%n",
+                result.getGames(), strategy, threads, seconds, result.getGames() / seconds);
+        System.out.print(result.report());
+    }
+
+    /**
+     * Plays games with generated schedules.
+     *
+     * @param games The number of games to play.
+     * @param strategy How the schedules are generated.
+     * @param seed The seed of the random schedules.
+     * @param pool The pool to play the games in.
+     * @return The combined results of all the games.
+     */
+    public static Result explore(long games, Strategy strategy, long seed, ForkJoinPool pool) {
+        return pool.invoke(new ExploreTask(strategy, seed, 0, games));
+    }
+
+    /**
+     * Plays a range of games, splitting it in half between two tasks while it is large.
+     */
+    private static class ExploreTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L; // RecursiveTask is Serializable, though tasks never are
+        private final Strategy strategy;
+        private final long seed, start, end;
+
+        ExploreTask(Strategy strategy, long seed, long start, long end) {
+            this.strategy = strategy;
+            this.seed = seed;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Result compute() {
+            if (end - start <= LEAF_GAMES) {
+                Explorer explorer = new Explorer(strategy, new SplittableRandom(seed * 0x9E3779B97F4A7C15L + start));
+                Result result = new Result();
+                for (long i = start; i < end; i++) {
+                    int score = explorer.play();
+                    result.add(score, explorer.simulation.getStreakBits(), explorer.schedule, explorer.length);
+                }
+                return result;
+            }
+            long middle = (start + end) >>> 1;
+            ExploreTask left = new ExploreTask(strategy, seed, start, middle);
+            left.fork();
+            Result result = new ExploreTask(strategy, seed, middle, end).compute();
+            return result.merge(left.join());
+        }
+    }
+
+    /**
+     * Generates and plays schedules, reusing the same simulation and schedule buffer for every game.
+     */
+    private static class Explorer {
+        final GameSimulation simulation = new GameSimulation();
+        final int[] schedule = new int[MAX_ACTIONS];
+        final Strategy strategy;
+        final SplittableRandom random;
+        int length;
+
+        Explorer(Strategy strategy, SplittableRandom random) {
+            this.strategy = strategy;
+            this.random = random;
+        }
+
+        /**
+         * Plays a game, choosing each action at random from those that can be taken.
+         * Every action but eating takes at least 15 game minutes and meals are limited per day,
+         * so a week always fits in {@link #MAX_ACTIONS}.
+         *
+         * @return The final score.
+         */
+        int play() {
+            simulation.reset();
+            length = 0;
+            int day = 0, meals = 0;
+            while (!simulation.isFinished()) {
+                if (simulation.getDay() != day) {
+                    day = simulation.getDay();
+                    meals = 0;
+                }
+                int energy = simulation.getEnergy().getEnergy();
+                float eatWeight = meals < MAX_MEALS_PER_DAY ? strategy.eat : 0;
+                float activityWeight = energy > 0 ? strategy.activity : 0;
+                float sleepWeight = simulation.canSleep() ? strategy.sleep : 0;
+                double choice = random.nextDouble() * (strategy.move + strategy.study + eatWeight + activityWeight + sleepWeight);
+
+                Action action;
+                int amount = 0;
+                if ((choice -= strategy.study) < 0) {
+                    action = STUDY_ACTIONS[random.nextInt(STUDY_ACTIONS.length)];
+                    amount = 1 + random.nextInt(GameSimulation.MAX_STUDY_HOURS);
+                } else if ((choice -= eatWeight) < 0) {
+                    action = EAT_ACTIONS[random.nextInt(EAT_ACTIONS.length)];
+                    meals++;
+                } else if ((choice -= activityWeight) < 0) {
+                    action = ACTIVITY_ACTIONS[random.nextInt(ACTIVITY_ACTIONS.length)];
+                    amount = 1 + random.nextInt(Math.min(GameSimulation.MAX_ACTIVITY_HOURS, energy));
+                } else if ((choice -= sleepWeight) < 0) {
+                    action = Action.SLEEP;
+                } else {
+                    action = Action.MOVE;
+                    amount = 15 * (1 + random.nextInt(16)); // Quarter hours, up to 4 hours
+                }
+                schedule[length++] = encode(day, action, amount);
+                simulation.perform(action, amount);
+            }
+            return simulation.getFinalScore();
+        }
+    }
+
+    /**
+     * Packs an action into an int: the day in the top byte, the action in the next and the amount in the low 16 bits.
+     */
+    static int encode(int day, Action action, int amount) {
+        return day << 24 | action.ordinal() << 16 | amount;
+    }
+
+    static int dayOf(int code) {
+        return code >>> 24;
+    }
+
+    static Action actionOf(int code) {
+        return ACTIONS[code >>> 16 & 0xFF];
+    }
+
+    static int amountOf(int code) {
+        return code & 0xFFFF;
+    }
+
+    /**
+     * Writes a schedule one day per line, for example "Day 1: eat piazza, study comp sci 3h, move 60m".
+     *
+     * @param schedule The actions, packed by {@link #encode}.
+     * @param length The number of actions.
+     * @return The readable schedule.
+     */
+    public static String describe(int[] schedule, int length) {
+        StringBuilder text = new StringBuilder();
+        int day = 0;
+        for (int i = 0; i < length; i++) {
+            int code = schedule[i];
+            Action action = actionOf(code);
+            int amount = amountOf(code);
+            if (dayOf(code) != day) {
+                day = dayOf(code);
+                text.append(text.length() == 0 ? "" : "\n").append("Day ").append(day).append(": ");
+            } else {
+                text.append(", ");
+            }
+            text.append(action.name().toLowerCase(Locale.ROOT).replace('_', ' '));
+            if (action == Action.MOVE) text.append(' ').append(amount).append('m');
+            else if (amount > 0) text.append(' ').append(amount).append('h');
+        }
+        return text.toString();
+    }
+
+    /**
+     * The combined results of a number of games.
+     */
+    public static class Result {
+        private final long[] histogram = new long[HISTOGRAM_MAX - HISTOGRAM_MIN + 1];
+        private final long[] streakCombinations = new long[1 << Streak.values().length]; // Games by streak bits
+        private final int[] bestScores = new int[TOP_SCHEDULES];
+        private final int[][] bestSchedules = new int[TOP_SCHEDULES][];
+        private int bestCount;
+        private long games, scoreTotal;
+        private int minScore = Integer.MAX_VALUE, maxScore = Integer.MIN_VALUE;
+
+        /**
+         * Adds the result of a game, copying its schedule only if it is one of the best so far.
+         */
+        void add(int score, int streaks, int[] schedule, int length) {
+            games++;
+            scoreTotal += score;
+            minScore = Math.min(minScore, score);
+            maxScore = Math.max(maxScore, score);
+            histogram[Math.min(Math.max(score, HISTOGRAM_MIN), HISTOGRAM_MAX) - HISTOGRAM_MIN]++;
+            streakCombinations[streaks]++;
+            if (bestCount < TOP_SCHEDULES || score > bestScores[bestCount - 1]) {
+                int[] copy = new int[length];
+                System.arraycopy(schedule, 0, copy, 0, length);
+                insertBest(score, copy);
+            }
+        }
+
+        /**
+         * Inserts a schedule into the best ones, which are kept sorted from the highest score.
+         */
+        private void insertBest(int score, int[] schedule) {
+            int i = Math.min(bestCount, TOP_SCHEDULES - 1);
+            if (bestCount == TOP_SCHEDULES && score <= bestScores[i]) return;
+            while (i > 0 && bestScores[i - 1] < score) {
+                bestScores[i] = bestScores[i - 1];
+                bestSchedules[i] = bestSchedules[i - 1];
+                i--;
+            }
+            bestScores[i] = score;
+            bestSchedules[i] = schedule;
+            bestCount = Math.min(bestCount + 1, TOP_SCHEDULES);
+        }
+
+        /**
+         * Adds the results of another set of games to these.
+         *
+         * @return These results.
+         */
+        Result merge(Result other) {
+            for (int i = 0; i < histogram.length; i++) histogram[i] += other.histogram[i];
+            for (int i = 0; i < streakCombinations.length; i++) streakCombinations[i] += other.streakCombinations[i];
+            for (int i = 0; i < other.bestCount; i++) insertBest(other.bestScores[i], other.bestSchedules[i]);
+            games += other.games;
+            scoreTotal += other.scoreTotal;
+            minScore = Math.min(minScore, other.minScore);
+            maxScore = Math.max(maxScore, other.maxScore);
+            return this;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public int getMinScore() {
+            return minScore;
+        }
+
+        public int getMaxScore() {
+            return maxScore;
+        }
+
+        public double getMeanScore() {
+            return games == 0 ? 0 : scoreTotal / (double) games;
+        }
+
+        /**
+         * @param fraction The fraction of games, from 0 to 1.
+         * @return The lowest score that at least that fraction of games scored no more than.
+         */
+        public int getPercentile(double fraction) {
+            long target = (long) Math.ceil(fraction * games);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= target && seen > 0) return i + HISTOGRAM_MIN;
+            }
+            return maxScore;
+        }
+
+        /**
+         * @return The number of games that achieved each streak, by name.
+         */
+        public Map<String, Long> getStreakCounts() {
+            Map<String, Long> counts = new TreeMap<>();
+            for (int streaks = 1; streaks < streakCombinations.length; streaks++) {
+                if (streakCombinations[streaks] == 0) continue;
+                for (Streak streak : Streak.values()) {
+                    if ((streaks & streak.bit) != 0) counts.merge(streak.title, streakCombinations[streaks], Long::sum);
+                }
+            }
+            return counts;
+        }
+
+        /**
+         * @return The best schedules found, from the highest score, each with its score.
+         */
+        public List<Map.Entry<Integer, int[]>> getBestSchedules() {
+            List<Map.Entry<Integer, int[]>> best = new ArrayList<>();
+            for (int i = 0; i < bestCount; i++) best.add(Map.entry(bestScores[i], bestSchedules[i]));
+            return best;
+        }
+
+        /**
+         * @return A readable report of the score distribution, the achieved streaks and the best schedules.
+         */
+        public String report() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format(Locale.ROOT, "Score: mean %.2f, min %d, p10 %d, p50 %d, p90 %d, p99 %d, max %d%n",
+                    getMeanScore(), minScore, getPercentile(0.1), getPercentile(0.5), getPercentile(0.9),
+                    getPercentile(0.99), maxScore));
+            appendHistogram(text);
+
+            text.append("Streaks:\n");
+            getStreakCounts().forEach((streak, count) -> text.append(String.format(Locale.ROOT,
+                    "  %-26s %,12d games (%.3f%%)%n", streak, count, 100.0 * count / games)));
+
+            for (Map.Entry<Integer, int[]> best : getBestSchedules()) {
+                text.append("Schedule scoring ").append(best.getKey()).append(":\n  ")
+                        .append(describe(best.getValue(), best.getValue().length).replace("\n", "\n  ")).append('\n');
+            }
+            return text.toString();
+        }
+
+        /**
+         * Draws the distribution of scores as 20 bars between the lowest and highest score.
+         */
+        private void appendHistogram(StringBuilder text) {
+            if (games == 0) return;
+            int low = Math.max(minScore, HISTOGRAM_MIN), high = Math.min(maxScore, HISTOGRAM_MAX);
+            int bins = 20, width = Math.max(1, (high - low + bins) / bins);
+            long[] counts = new long[bins];
+            long largest = 1;
+            for (int score = low; score <= high; score++) {
+                int bin = Math.min((score - low) / width, bins - 1);
+                counts[bin] += histogram[score - HISTOGRAM_MIN];
+                largest = Math.max(largest, counts[bin]);
+            }
+            for (int bin = 0; bin < bins && low + bin * width <= high; bin++) {
+                int bars = (int) (50 * counts[bin] / largest);
+                text.append(String.format(Locale.ROOT, "  %5d..%-5d %-50s %,d%n",
+                        low + bin * width, low + (bin + 1) * width - 1, "#".repeat(bars), counts[bin]));
+            }
+        }
+    }
+}
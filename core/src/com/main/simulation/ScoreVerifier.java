@@ -0,0 +1,114 @@
+package com.main.simulation;
+
+import com.main.map.Zone;
+import com.main.utils.FixedTimestep;
+
+/**
+ * Checks a submitted score by running the game rules again from the session's {@link SessionLog}, without graphics.
+ * <p>
+ * A log is only accepted if every action in it is one the rules allow at that moment, the game clock only moves
+ * forward by whole ticks, the game finishes exactly at the end of the log and the score it finishes with is the
+ * one submitted. Replaying a week takes a fraction of a millisecond, so a single core can check thousands a second.
+ */
+public class ScoreVerifier {
+    private static final Zone[] ZONES = Zone.values();
+    private static final int HEADER = SessionLog.MAGIC.length + 1 + 8;
+    private static final long MAX_TICKS = 10_000_000; // Far more than a week of play, so a bad log can not run forever
+
+    private ScoreVerifier() {
+    }
+
+    /**
+     * Checks a submitted score.
+     *
+     * @param log The log of the session.
+     * @param score The score submitted with it.
+     * @return True if replaying the log finishes the game with the score.
+     */
+    public static boolean verify(byte[] log, int score) {
+        try {
+            return replay(log) == score;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs the game rules again from a log.
+     *
+     * @param log The log of the session.
+     * @return The final score of the session.
+     * @throws IllegalArgumentException If the log is malformed or breaks the rules.
+     */
+    public static int replay(byte[] log) {
+        if (log == null || log.length <= HEADER) throw new IllegalArgumentException("Log is too short");
+        for (int i = 0; i < SessionLog.MAGIC.length; i++) {
+            if (log[i] != SessionLog.MAGIC[i]) throw new IllegalArgumentException("Not a session log");
+        }
+        if (log[SessionLog.MAGIC.length] != SessionLog.VERSION) throw new IllegalArgumentException("Unsupported log version");
+
+        GameSimulation simulation = new GameSimulation();
+        long ticks = 0;
+        int position = HEADER;
+        while (true) {
+            int kind = read(log, position++);
+            if (kind == SessionLog.END) break;
+            if (simulation.isFinished()) throw new IllegalArgumentException("Log carries on after the game finished");
+            boolean taken;
+            switch (kind) {
+                case SessionLog.ADVANCE:
+                    int bits = 0;
+                    for (int i = 0; i < 4; i++) bits = bits << 8 | read(log, position++);
+                    float seconds = Float.intBitsToFloat(bits);
+                    if (seconds != FixedTimestep.STEP && seconds != 0) {
+                        throw new IllegalArgumentException("Clock advanced by " + seconds + " seconds");
+                    }
+                    int count = 0;
+                    for (int shift = 0; ; shift += 7) {
+                        if (shift > 28) throw new IllegalArgumentException("Run length is too long");
+                        int part = read(log, position++);
+                        count |= (part & 0x7F) << shift;
+                        if (part < 0x80) break;
+                    }
+                    ticks += count;
+                    if (count <= 0 || ticks > MAX_TICKS) throw new IllegalArgumentException("Bad run of ticks");
+                    for (int i = 0; i < count; i++) {
+                        if (simulation.isFinished()) throw new IllegalArgumentException("Log carries on after the game finished");
+                        simulation.advance(seconds);
+                    }
+                    taken = true;
+                    break;
+                case SessionLog.STUDY:
+                    taken = simulation.study(read(log, position + 1), zone(read(log, position)));
+                    position += 2;
+                    break;
+                case SessionLog.EAT:
+                    taken = simulation.eat(zone(read(log, position++)));
+                    break;
+                case SessionLog.ACTIVITY:
+                    taken = simulation.doActivity(read(log, position + 1), zone(read(log, position)));
+                    position += 2;
+                    break;
+                case SessionLog.SLEEP:
+                    taken = simulation.sleep();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown entry " + kind);
+            }
+            if (!taken) throw new IllegalArgumentException("Log holds an action the rules do not allow");
+        }
+        if (position != log.length) throw new IllegalArgumentException("Data after the end of the log");
+        if (!simulation.isFinished()) throw new IllegalArgumentException("Game did not finish");
+        return simulation.getFinalScore();
+    }
+
+    private static int read(byte[] log, int position) {
+        if (position >= log.length) throw new IllegalArgumentException("Log is cut short");
+        return log[position] & 0xFF;
+    }
+
+    private static Zone zone(int ordinal) {
+        if (ordinal >= ZONES.length) throw new IllegalArgumentException("Unknown zone " + ordinal);
+        return ZONES[ordinal];
+    }
+}
@@ -0,0 +1,93 @@
+package com.main.simulation;
+
+import com.main.map.Zone;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * A compact log of every change a game session made to its {@link GameSimulation}, which {@link ScoreVerifier}
+ * runs again to check the score the session ended with.
+ * <p>
+ * The log starts with a header holding the session's random seed. Each action is written as a byte for its kind
+ * followed by the zone and hours, and the game clock is written as runs of calls that advanced it by the same time,
+ * so the hundreds of ticks between actions take a few bytes. The log ends with {@link #END}.
+ */
+public class SessionLog {
+    static final byte[] MAGIC = {'H', 'H', 'S'};
+    static final int VERSION = 1;
+    static final int ADVANCE = 1, STUDY = 2, EAT = 3, ACTIVITY = 4, SLEEP = 5, END = 0xFF;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private float advanceSeconds; // The time of the run of clock advances being logged
+    private int advanceCount; // The length of the run so far
+
+    /**
+     * Starts a log.
+     *
+     * @param seed The seed of the session's random numbers.
+     */
+    public SessionLog(long seed) {
+        out.write(MAGIC, 0, MAGIC.length);
+        out.write(VERSION);
+        for (int shift = 56; shift >= 0; shift -= 8) out.write((int) (seed >>> shift));
+    }
+
+    void advance(float seconds) {
+        if (advanceCount > 0 && Float.floatToIntBits(seconds) != Float.floatToIntBits(advanceSeconds)) flush();
+        advanceSeconds = seconds;
+        advanceCount++;
+    }
+
+    void study(int hours, Zone zone) {
+        action(STUDY, zone);
+        out.write(hours);
+    }
+
+    void eat(Zone zone) {
+        action(EAT, zone);
+    }
+
+    void doActivity(int hours, Zone zone) {
+        action(ACTIVITY, zone);
+        out.write(hours);
+    }
+
+    void sleep() {
+        flush();
+        out.write(SLEEP);
+    }
+
+    private void action(int kind, Zone zone) {
+        flush();
+        out.write(kind);
+        out.write(zone.ordinal());
+    }
+
+    private void flush() {
+        if (advanceCount == 0) return;
+        out.write(ADVANCE);
+        int bits = Float.floatToIntBits(advanceSeconds);
+        for (int shift = 24; shift >= 0; shift -= 8) out.write(bits >>> shift);
+        for (int value = advanceCount; ; value >>>= 7) {
+            if (value < 0x80) {
+                out.write(value);
+                break;
+            }
+            out.write(value & 0x7F | 0x80);
+        }
+        advanceCount = 0;
+    }
+
+    /**
+     * Gets the log so far. Logging can carry on afterwards.
+     *
+     * @return The log, to be submitted with the score.
+     */
+    public byte[] toBytes() {
+        flush();
+        byte[] bytes = new byte[out.size() + 1];
+        System.arraycopy(out.toByteArray(), 0, bytes, 0, out.size());
+        bytes[bytes.length - 1] = (byte) END;
+        return bytes;
+    }
+}
@@ -0,0 +1,315 @@
+package com.main.utils;
+
+import com.main.simulation.ScoreVerifier;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads and writes the leaderboard on a background thread, so that file access never stalls the render thread.
+ * <p>
+ * The {@link LeaderboardService}, a local file or a shared board, is only ever used by the background thread.
+ * Screens read the top 10 from a copy that is replaced after every change, and poll the {@link Submission} returned
+ * for each result to see when it has been written, so that none of the methods here wait for the disk. Results
+ * submitted while earlier ones are waiting to be written are written together, keeping only the best verified score
+ * of each player. If the leaderboard can not be opened or written, the screens are told so rather than left waiting.
+ */
+public class AsyncLeaderboards {
+    private static final int MAX_ENTRIES = 10;
+    private static final LeaderboardView[] VIEWS = LeaderboardView.values();
+    private static final Logger logger = Logger.getLogger(AsyncLeaderboards.class.getName());
+
+    /**
+     * A result waiting to be verified and written, which screens poll to find out when it has been.
+     */
+    public static class Submission {
+        private final int score;
+        private final String name;
+        private final byte[] sessionLog;
+        private volatile boolean done, registered, failed;
+
+        Submission(int score, String name, byte[] sessionLog) {
+            this.score = score;
+            this.name = name;
+            this.sessionLog = sessionLog;
+        }
+
+        /**
+         * @return True once the result has been verified and, if it was valid, written or failed to be.
+         */
+        public boolean isDone() {
+            return done;
+        }
+
+        /**
+         * @return True if the result matched its log and was registered, valid once {@link #isDone()}.
+         * A registered result only changes the leaderboard if it beats the player's best score.
+         */
+        public boolean isRegistered() {
+            return registered;
+        }
+
+        /**
+         * @return True if the result could not be saved, because the leaderboard could not be opened or written,
+         * valid once {@link #isDone()}.
+         */
+        public boolean isFailed() {
+            return failed;
+        }
+
+        private void complete(boolean registered, boolean failed) {
+            this.registered = registered;
+            this.failed = failed;
+            this.done = true;
+        }
+    }
+
+    private final Supplier<LeaderboardService> opener;
+    private final ExecutorService executor;
+    private final AtomicBoolean loadStarted = new AtomicBoolean();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    private final Queue<Submission> pending = new ConcurrentLinkedQueue<>();
+    private LeaderboardService leaderboards; // Only used on the background thread
+    private volatile Leaderboards.Entry[][] entries = new Leaderboards.Entry[VIEWS.length][MAX_ENTRIES]; // By view
+    private volatile boolean loaded, failed;
+
+    /**
+     * Creates the leaderboard without reading it yet, see {@link #load()}.
+     *
+     * @param fileName The CSV file of the leaderboard.
+     */
+    public AsyncLeaderboards(String fileName) {
+        this(() -> new Leaderboards(fileName));
+    }
+
+    /**
+     * Creates the leaderboard without opening it yet, see {@link #load()}.
+     *
+     * @param opener Opens the leaderboard, on the background thread.
+     */
+    public AsyncLeaderboards(Supplier<LeaderboardService> opener) {
+        this(opener, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Leaderboards");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Creates the leaderboard without reading it yet, reading and writing it on the given executor.
+     *
+     * @param fileName The CSV file of the leaderboard.
+     * @param executor Runs the reads and writes, which must run one at a time.
+     */
+    public AsyncLeaderboards(String fileName, ExecutorService executor) {
+        this(() -> new Leaderboards(fileName), executor);
+    }
+
+    /**
+     * Creates the leaderboard without opening it yet, opening, reading and writing it on the given executor.
+     *
+     * @param opener Opens the leaderboard, on the executor.
+     * @param executor Runs the reads and writes, which must run one at a time.
+     */
+    public AsyncLeaderboards(Supplier<LeaderboardService> opener, ExecutorService executor) {
+        this.opener = opener;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts reading the leaderboard in the background, if it has not been started already.
+     * Called during the last day of the game, so that it is ready by the end screen.
+     */
+    public void load() {
+        if (!loadStarted.compareAndSet(false, true)) return;
+        executor.execute(() -> {
+            try {
+                leaderboards = opener.get();
+                publish();
+                loaded = true;
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Could not open the leaderboard", e);
+                leaderboards = null;
+                failed = true;
+            }
+        });
+    }
+
+    /**
+     * @return True once the leaderboard has been read.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return True if the leaderboard could not be opened, in which case it stays empty and results are not saved.
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns the top 10 entries of all time, highest score first, followed by nulls if there are fewer than 10
+     * or the leaderboard has not been read yet.
+     * @return the top 10 entries, which are not changed afterwards
+     */
+    public Leaderboards.Entry[] getEntries() {
+        return getEntries(LeaderboardView.ALL_TIME);
+    }
+
+    /**
+     * Returns the top 10 entries of a view, as {@link #getEntries()} does, which can be switched between
+     * without reading the leaderboard again.
+     * @param view the period to show the leaderboard for
+     * @return the top 10 entries, which are not changed afterwards
+     */
+    public Leaderboards.Entry[] getEntries(LeaderboardView view) {
+        return entries[view.ordinal()];
+    }
+
+    /**
+     * Checks whether the given score is high enough to place in the top 10, as far as has been read and written.
+     *
+     * @param score the score to check
+     * @return true if the score is high enough to place in the top 10, otherwise false
+     */
+    public boolean doesPlaceT10(int score) {
+        Leaderboards.Entry last = getEntries()[MAX_ENTRIES - 1];
+        return last == null || score > last.score;
+    }
+
+    /**
+     * Submits a result to be verified against its session log and registered in the background.
+     * Reads the leaderboard first if it has not been read yet.
+     *
+     * @param score the score of the new result
+     * @param name  the name of the new result
+     * @param sessionLog the log of the game, from {@link com.main.simulation.SessionLog}
+     * @return the submission, to poll for when the result has been written
+     */
+    public Submission registerVerifiedResult(int score, String name, byte[] sessionLog) {
+        Submission submission = new Submission(score, name, sessionLog);
+        load();
+        pending.add(submission);
+        if (writeScheduled.compareAndSet(false, true)) {
+            executor.execute(this::writePending);
+        }
+        return submission;
+    }
+
+    /**
+     * Registers every pending result, writing only the best verified score of each player.
+     * Each result is verified here, once, and the leaderboard is trusted to take the ones that match their logs.
+     * Every result polled is completed, marked as failed if the leaderboard could not be opened or written, or did
+     * not register it, such as a shared board that could not be reached.
+     */
+    private void writePending() {
+        writeScheduled.set(false); // Results submitted from now on schedule another write
+        List<Submission> batch = new ArrayList<>();
+        for (Submission submission = pending.poll(); submission != null; submission = pending.poll()) {
+            batch.add(submission);
+        }
+
+        boolean[] valid = new boolean[batch.size()];
+        boolean writeFailed = false;
+        Set<String> unsaved = new HashSet<>(); // Players whose best result was not registered
+        try {
+            Map<String, Submission> best = new HashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                Submission submission = batch.get(i);
+                valid[i] = ScoreVerifier.verify(submission.sessionLog, submission.score);
+                if (!valid[i]) {
+                    logger.log(Level.WARNING, "Rejected score {0} for {1}, it does not match its log",
+                            new Object[]{submission.score, submission.name});
+                    continue;
+                }
+                Submission other = best.get(submission.name);
+                if (other == null || submission.score > other.score) best.put(submission.name, submission);
+            }
+            if (best.isEmpty()) return;
+            if (leaderboards == null) throw new IllegalStateException("The leaderboard could not be opened");
+            for (Submission submission : best.values()) {
+                try {
+                    boolean registered = leaderboards.registerVerifiedResult(submission.score, submission.name,
+                            submission.sessionLog);
+                    if (!registered) unsaved.add(submission.name);
+                } catch (UncheckedIOException e) {
+                    logger.log(Level.SEVERE, "Could not save the result of " + submission.name, e);
+                    unsaved.add(submission.name);
+                }
+            }
+            publish();
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Could not write " + batch.size() + " results to the leaderboard", e);
+            writeFailed = true;
+        } finally {
+            for (int i = 0; i < batch.size(); i++) {
+                boolean failed = valid[i] && (writeFailed || unsaved.contains(batch.get(i).name));
+                batch.get(i).complete(valid[i] && !failed, failed);
+            }
+        }
+    }
+
+    /**
+     * Saves the results the leaderboard is holding, logging any that are lost.
+     */
+    private void flushHeld() {
+        try {
+            if (leaderboards != null && !leaderboards.flush()) {
+                logger.log(Level.WARNING, "Could not save the results held by the leaderboard before closing");
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Could not save the results held by the leaderboard before closing", e);
+        }
+    }
+
+    /**
+     * Replaces the copies of the top 10 of each view that screens read.
+     */
+    private void publish() {
+        Leaderboards.Entry[][] copy = new Leaderboards.Entry[VIEWS.length][MAX_ENTRIES];
+        for (LeaderboardView view : VIEWS) {
+            Leaderboards.Entry[] current = leaderboards.getEntries(view);
+            for (int i = 0; i < MAX_ENTRIES; i++) {
+                Leaderboards.Entry entry = current[i];
+                if (entry != null) {
+                    copy[view.ordinal()][i] = new Leaderboards.Entry(entry.name, entry.score, entry.timestamp);
+                }
+            }
+        }
+        entries = copy;
+    }
+
+    /**
+     * Finishes writing the results already submitted, tries once more to save results the leaderboard is still
+     * holding, then stops the background thread.
+     *
+     * @param timeoutMillis How long to wait for the writes to finish.
+     * @return True if every write finished in time.
+     */
+    public boolean shutdown(long timeoutMillis) {
+        if (!executor.isShutdown()) executor.execute(this::flushHeld);
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.main.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A leaderboard saved as fixed-width binary records, read through a memory-mapped file so that a query only reads
+ * the parts of the file it needs, for leaderboards too large to read in full.
+ * <p>
+ * The file is a header, then the records ranked from the highest score, then an index of the records sorted by
+ * name. Each record is the name in UTF-8 after a byte giving its length, padded to {@link #NAME_BYTES}, the score
+ * and the time the score was set. As every record is the same size, the entry at any rank is found directly, the
+ * top k only reads the first k records, and the rank of a score or a name is found by binary search, reading
+ * about log n records. Equal scores keep the order they were written in, as the CSV file keeps them.
+ * <p>
+ * The game itself keeps its leaderboard in the CSV file and its journal. This format is for tooling: the
+ * convertLeaderboard build task converts between the two, and the benchmarkLeaderboards task compares them.
+ * <p>
+ * An open file stays mapped until the instance is garbage collected, as Java has no way to unmap a buffer.
+ * Callers must drop every instance for a path before writing it again, as on Windows the rename in
+ * {@link #write(Path, List)} fails while the file it replaces is mapped.
+ */
+public class BinaryLeaderboardFile {
+    public static final int NAME_BYTES = 24; // Including the length byte
+    private static final int MAGIC = 0x48484C42; // "HHLB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES; // Magic, version, record count
+    private static final int RECORD_BYTES = NAME_BYTES + Integer.BYTES + Long.BYTES;
+    private static final int SCORE_OFFSET = NAME_BYTES;
+    private static final int TIMESTAMP_OFFSET = NAME_BYTES + Integer.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int indexStart;
+
+    private BinaryLeaderboardFile(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " binary leaderboard");
+        }
+        this.count = buffer.getInt(8);
+        if (count < 0 || buffer.limit() != HEADER_BYTES + (long) count * (RECORD_BYTES + Integer.BYTES)) {
+            throw new IllegalArgumentException("Binary leaderboard is damaged: wrong length for " + count + " records");
+        }
+        this.indexStart = HEADER_BYTES + count * RECORD_BYTES;
+    }
+
+    /**
+     * Maps a binary leaderboard file, reading only its header. The file stays mapped for as long as the
+     * instance is reachable.
+     *
+     * @param path The file to open.
+     * @return The leaderboard.
+     * @throws IOException If the file could not be mapped.
+     * @throws IllegalArgumentException If the file is not a binary leaderboard.
+     */
+    public static BinaryLeaderboardFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new BinaryLeaderboardFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return The number of entries.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Reads the entry at a rank.
+     *
+     * @param rank The rank, from 1 to {@link #size()}.
+     * @return The entry.
+     * @throws IndexOutOfBoundsException If there is no entry at the rank.
+     */
+    public Leaderboards.Entry get(int rank) {
+        if (rank < 1 || rank > count) throw new IndexOutOfBoundsException("Rank " + rank + " of " + count);
+        int record = recordStart(rank - 1);
+        return new Leaderboards.Entry(readName(record), buffer.getInt(record + SCORE_OFFSET),
+                buffer.getLong(record + TIMESTAMP_OFFSET));
+    }
+
+    /**
+     * Reads the highest scores, touching only the first k records.
+     *
+     * @param k The maximum number of entries to read.
+     * @return Up to k entries, highest score first.
+     */
+    public List<Leaderboards.Entry> top(int k) {
+        List<Leaderboards.Entry> entries = new ArrayList<>(Math.min(k, count));
+        for (int rank = 1; rank <= Math.min(k, count); rank++) {
+            entries.add(get(rank));
+        }
+        return entries;
+    }
+
+    /**
+     * Counts the entries with a score at least the given score, which a new score must beat to rank ahead of them.
+     *
+     * @param score The score to compare with.
+     * @return The number of entries scoring the same or higher.
+     */
+    public int countAtLeast(int score) {
+        int low = 0, high = count; // The first record scoring less is in [low, high]
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buffer.getInt(recordStart(middle) + SCORE_OFFSET) >= score) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the best rank of a name, using the index sorted by name.
+     *
+     * @param name The name to find.
+     * @return The rank, where 1 is the highest score, or 0 if the name has no entry.
+     */
+    public int rank(String name) {
+        byte[] target = name.getBytes(StandardCharsets.UTF_8);
+        if (target.length >= NAME_BYTES) return 0; // Too long to have been written
+        int low = 0, high = count; // The first index position not before the name is in [low, high]
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareName(recordStart(indexAt(middle)), target) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low == count || compareName(recordStart(indexAt(low)), target) != 0) return 0;
+        return indexAt(low) + 1; // Equal names are indexed best first
+    }
+
+    private int recordStart(int record) {
+        return HEADER_BYTES + record * RECORD_BYTES;
+    }
+
+    private int indexAt(int position) {
+        return buffer.getInt(indexStart + position * Integer.BYTES);
+    }
+
+    private String readName(int record) {
+        byte[] name = new byte[buffer.get(record)];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = buffer.get(record + 1 + i);
+        }
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the name of a record with a name, byte by byte without sign, which is the order of the index.
+     */
+    private int compareName(int record, byte[] name) {
+        int length = buffer.get(record);
+        for (int i = 0; i < Math.min(length, name.length); i++) {
+            int difference = (buffer.get(record + 1 + i) & 0xFF) - (name[i] & 0xFF);
+            if (difference != 0) return difference;
+        }
+        return length - name.length;
+    }
+
+    private static byte[] encodeName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NAME_BYTES) {
+            throw new IllegalArgumentException("Name is longer than " + (NAME_BYTES - 1) + " bytes: " + name);
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes entries as a binary leaderboard, ranking them from the highest score and keeping the order of
+     * equal scores. The file is written next to the path and then renamed over it, which fails on Windows if the
+     * file is still mapped by an instance that has not been garbage collected.
+     *
+     * @param path The file to write.
+     * @param entries The entries, in any order.
+     * @throws IOException If the file could not be written.
+     * @throws IllegalArgumentException If a name is too long for a record.
+     */
+    public static void write(Path path, List<Leaderboards.Entry> entries) throws IOException {
+        Leaderboards.Entry[] ranked = entries.toArray(new Leaderboards.Entry[0]);
+        Arrays.sort(ranked, (a, b) -> Integer.compare(b.score, a.score)); // Stable, keeping ties in order
+        byte[][] names = new byte[ranked.length][];
+        Integer[] byName = new Integer[ranked.length];
+        for (int i = 0; i < ranked.length; i++) {
+            names[i] = encodeName(ranked[i].name);
+            byName[i] = i;
+        }
+        Arrays.sort(byName, Comparator.<Integer, byte[]>comparing(i -> names[i], Arrays::compareUnsigned)
+                .thenComparing(i -> i));
+
+        ByteBuffer data = ByteBuffer.allocate(HEADER_BYTES + ranked.length * (RECORD_BYTES + Integer.BYTES));
+        data.putInt(MAGIC).putInt(VERSION).putInt(ranked.length);
+        for (int i = 0; i < ranked.length; i++) {
+            data.put((byte) names[i].length).put(names[i]).put(new byte[NAME_BYTES - 1 - names[i].length]);
+            data.putInt(ranked[i].score).putLong(ranked[i].timestamp);
+        }
+        for (Integer record : byName) {
+            data.putInt(record);
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temporary, data.array());
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Converts a leaderboard between its CSV and binary forms.
+     *
+     * @param args "import", the CSV file and the binary file to write, or "export", the binary file and the
+     *             CSV file to write.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 || !args[0].equals("import") && !args[0].equals("export")) {
+            System.err.println("Usage: BinaryLeaderboardFile import <leaderboard.csv> <leaderboard.hhlb>");
+            System.err.println("       BinaryLeaderboardFile export <leaderboard.hhlb> <leaderboard.csv>");
+            System.exit(1);
+        }
+        Path from = Paths.get(args[1]), to = Paths.get(args[2]);
+        if (args[0].equals("import")) {
+            System.out.println("Converted " + importCsv(from, to) + " entries");
+        } else {
+            exportCsv(from, to);
+        }
+    }
+
+    /**
+     * Converts a leaderboard CSV file to a binary leaderboard, keeping every line, including repeated names.
+     *
+     * @param csv The CSV file, with lines read by {@link Leaderboards#parseLine(String)}.
+     * @param binary The binary file to write.
+     * @return The number of entries converted.
+     * @throws IOException If a file could not be read or written.
+     * @throws IllegalArgumentException If a line is not a name and a score.
+     */
+    public static int importCsv(Path csv, Path binary) throws IOException {
+        List<Leaderboards.Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                Leaderboards.Entry entry = Leaderboards.parseLine(line);
+                if (entry != null) entries.add(entry);
+            }
+        }
+        write(binary, entries);
+        return entries.size();
+    }
+
+    /**
+     * Converts a binary leaderboard to a CSV file, highest score first. The time each score was set is
+     * written as a third value when it is known, so that importing the CSV file again gives the same records.
+     *
+     * @param binary The binary file to read.
+     * @param csv The CSV file to write.
+     * @throws IOException If a file could not be read or written.
+     */
+    public static void exportCsv(Path binary, Path csv) throws IOException {
+        BinaryLeaderboardFile file = open(binary);
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            for (int rank = 1; rank <= file.size(); rank++) {
+                Leaderboards.Entry entry = file.get(rank);
+                writer.write(entry.name + "," + entry.score);
+                if (entry.timestamp != 0) writer.write("," + entry.timestamp);
+                writer.newLine();
+            }
+        }
+    }
+}
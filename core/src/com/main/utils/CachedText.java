@@ -0,0 +1,127 @@
+package com.main.utils;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.utils.Align;
+
+/**
+ * A piece of text whose glyphs are laid out once and then redrawn from a BitmapFontCache every frame.
+ * <p>
+ * The glyphs are only laid out again when the text is edited or the font's scale changes. Moving the text only
+ * moves the cached glyphs, so drawing text that has not changed does not allocate anything.
+ */
+public class CachedText {
+    private final BitmapFont font;
+    private final BitmapFontCache cache;
+    private final StringBuilder text = new StringBuilder();
+    private final int halign;
+    private float targetWidth;
+    private GlyphLayout layout;
+    private float scaleX, scaleY; // The font's scale when the glyphs were laid out
+    private boolean dirty = true;
+
+    /**
+     * Creates an empty, left aligned piece of text.
+     *
+     * @param font The font to draw the text with.
+     */
+    public CachedText(BitmapFont font) {
+        this(font, 0, Align.left);
+    }
+
+    /**
+     * Creates an empty piece of text that is aligned within a width.
+     *
+     * @param font The font to draw the text with.
+     * @param targetWidth The width to align the text within.
+     * @param halign The horizontal alignment, from {@link Align}.
+     */
+    public CachedText(BitmapFont font, float targetWidth, int halign) {
+        this.font = font;
+        this.cache = font.newFontCache();
+        this.targetWidth = targetWidth;
+        this.halign = halign;
+    }
+
+    /**
+     * Changes the width the text is aligned within, laying it out again if it is different.
+     *
+     * @param targetWidth The new width.
+     */
+    public void setTargetWidth(float targetWidth) {
+        if (this.targetWidth == targetWidth) return;
+        this.targetWidth = targetWidth;
+        dirty = true;
+    }
+
+    /**
+     * Starts replacing the text. The glyphs are laid out again the next time the text is drawn.
+     *
+     * @return The builder to append the new text to, which is empty.
+     */
+    public StringBuilder edit() {
+        text.setLength(0);
+        dirty = true;
+        return text;
+    }
+
+    /**
+     * Replaces the text, laying it out again only if it is different.
+     *
+     * @param newText The new text.
+     */
+    public void set(CharSequence newText) {
+        if (contentEquals(newText)) return;
+        edit().append(newText);
+    }
+
+    private boolean contentEquals(CharSequence other) {
+        if (text.length() != other.length()) return false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != other.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Draws the text, with the top of the first line at the given position.
+     *
+     * @param batch The batch to draw with, which must have been begun.
+     * @param x The x position of the left edge of the text, or of the area it is aligned within.
+     * @param y The y position of the top of the text.
+     */
+    public void draw(Batch batch, float x, float y) {
+        layout();
+        cache.setPosition(x, y);
+        cache.draw(batch);
+    }
+
+    /**
+     * @return The width of the text as it will be drawn.
+     */
+    public float getWidth() {
+        layout();
+        return layout.width;
+    }
+
+    /**
+     * @return The height of the text as it will be drawn.
+     */
+    public float getHeight() {
+        layout();
+        return layout.height;
+    }
+
+    /**
+     * Lays out the glyphs at the origin if the text or the font's scale has changed since they were last laid out.
+     */
+    private void layout() {
+        if (!dirty && scaleX == font.getScaleX() && scaleY == font.getScaleY()) return;
+        scaleX = font.getScaleX();
+        scaleY = font.getScaleY();
+        layout = cache.setText(text, 0, 0, targetWidth, halign, false);
+        dirty = false;
+    }
+}
@@ -1,24 +1,47 @@
 package com.main.utils;
 
+import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
-import java.util.ArrayList;
+import java.util.BitSet;
 
 /**
  * The CollisionHandler class handles collisions for each layer called through.
  * A layer has tiles that the player should collide with if the layer has the property "blocked"
  * and determines the resulting position after collisions have been resolved.
+ * <p>
+ * All collision layers are flattened into a single bitmap of blocked tiles when they are added,
+ * so checking a tile costs one lookup regardless of how many layers were registered.
+ * The methods taking an {@code out} parameter reuse internal scratch objects and do not allocate,
+ * which means a single handler must not be used from several threads at once.
  */
 public class CollisionHandler {
+    /**
+     * The algorithms available to adjustPos for resolving a movement against the blocked tiles.
+     */
+    public enum Solver {
+        /** Repeatedly pushes the object out of the tiles it overlaps at the target, until nothing is hit. */
+        ITERATIVE,
+        /** Sweeps the object along the X then the Y axis, checking each tile column and row it crosses once. */
+        SWEPT
+    }
+
     private final TiledMap tiledMap;
     private final int tileWidth, tileHeight;
 
     private final float objWidth, objHeight;
     private final float offSetX, offSetY;
-    private final ArrayList<TiledMapTileLayer> collisionLayers;
+    private final int mapWidth, mapHeight; // Size of the map in tiles
+    private final BitSet blockedTiles; // One bit per tile, set if any collision layer has a cell there
+
+    // Scratch objects reused by the collision resolution so that no garbage is created per frame
+    private final Rectangle objRect = new Rectangle(), tileRect = new Rectangle();
+    private final Vector2 sideHit = new Vector2(), sideCandidate = new Vector2(), nextPos = new Vector2();
+
+    private Solver solver = Solver.ITERATIVE;
 
     /**
      * Constructs a CollisionHandler with specified parameters.
@@ -40,20 +63,55 @@ public class CollisionHandler {
         this.objHeight = objHeight * scaleY;
         this.offSetX = (objWidth - this.objWidth) / 2;
         this.offSetY = (objHeight - this.objHeight) / 2;
-        this.collisionLayers = new ArrayList<>();
+
+        // Size the bitmap from the first tile layer, all layers of a map share the same dimensions
+        int width = 0, height = 0;
+        for (MapLayer layer : tiledMap.getLayers()) {
+            if (layer instanceof TiledMapTileLayer) {
+                width = ((TiledMapTileLayer) layer).getWidth();
+                height = ((TiledMapTileLayer) layer).getHeight();
+                break;
+            }
+        }
+        this.mapWidth = width;
+        this.mapHeight = height;
+        this.blockedTiles = new BitSet(mapWidth * mapHeight);
     }
 
     /**
      * Adds collision layers by name to the handler for collision detection.
+     * Every cell of the layers is merged into the blocked tile bitmap, layers that do not exist are ignored.
      *
      * @param args The names of the TiledMapTileLayer(s) to be added for collision detection.
      */
     public void addCollisionLayers(String... args){
-        for (String layer : args) {
-            collisionLayers.add((TiledMapTileLayer) tiledMap.getLayers().get(layer));
+        for (String layerName : args) {
+            TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get(layerName);
+            if (layer == null) continue;
+            int width = Math.min(mapWidth, layer.getWidth());
+            int height = Math.min(mapHeight, layer.getHeight());
+            for (int j = 0; j < height; j++) {
+                for (int i = 0; i < width; i++) {
+                    if (layer.getCell(i, j) != null) {
+                        blockedTiles.set(j * mapWidth + i);
+                    }
+                }
+            }
         }
     }
 
+    /**
+     * Checks whether a tile is blocked by any of the collision layers.
+     *
+     * @param tileX The X-coordinate of the tile.
+     * @param tileY The Y-coordinate of the tile.
+     * @return True if the tile is blocked, false if it is free or outside the map.
+     */
+    public boolean isBlocked(int tileX, int tileY){
+        if (tileX < 0 || tileY < 0 || tileX >= mapWidth || tileY >= mapHeight) return false;
+        return blockedTiles.get(tileY * mapWidth + tileX);
+    }
+
     /**
      * Detects whether the object is touching a tile of a specific layer.
      *
@@ -62,12 +120,12 @@ public class CollisionHandler {
      * @return A Boolean indicating whether the object is touching a tile of the layer
      */
     public boolean isTouching(String layerName, Rectangle obj){
-        Vector2 bottomLeft = new Vector2 (Math.floorDiv((int) obj.x, tileWidth), Math.floorDiv((int) obj.y, tileHeight));
-        Vector2 topRight = new Vector2 (Math.floorDiv((int) (obj.x + obj.width), tileWidth), Math.floorDiv((int) (obj.y + obj.height), tileHeight));
+        int left = Math.floorDiv((int) obj.x, tileWidth), bottom = Math.floorDiv((int) obj.y, tileHeight);
+        int right = Math.floorDiv((int) (obj.x + obj.width), tileWidth), top = Math.floorDiv((int) (obj.y + obj.height), tileHeight);
         TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get(layerName);
 
-        for (int i = (int) bottomLeft.x; i <= topRight.x; i++) {
-            for (int j = (int) bottomLeft.y; j <= topRight.y; j++) {
+        for (int i = left; i <= right; i++) {
+            for (int j = bottom; j <= top; j++) {
                 TiledMapTileLayer.Cell cell = layer.getCell(i, j);
                 if (cell != null){
                     return true;
@@ -78,6 +136,24 @@ public class CollisionHandler {
         return false;
     }
 
+    /**
+     * Sets the algorithm used by adjustPos to resolve collisions.
+     *
+     * @param solver The solver to use.
+     */
+    public void setSolver(Solver solver){
+        this.solver = solver;
+    }
+
+    /**
+     * Gets the algorithm used by adjustPos to resolve collisions.
+     *
+     * @return The current solver.
+     */
+    public Solver getSolver(){
+        return solver;
+    }
+
     /**
      * Determines the first side hit during movement in a specified direction.
      *
@@ -88,26 +164,36 @@ public class CollisionHandler {
      * @return A Vector2 indicating the side hit and the depth of collision; null if no collision occurred.
      */
     public Vector2 getSideHit(float x, float y, Rectangle obj, int dir){
-        Vector2 bottomLeft = new Vector2 (Math.floorDiv((int) x, tileWidth), Math.floorDiv((int) y, tileHeight));
-        Vector2 topRight = new Vector2 (Math.floorDiv((int) (x + objWidth), tileWidth), Math.floorDiv((int) (y + objHeight), tileHeight));
-        Vector2 firstSide = null;
-
-        for (int i = (int) bottomLeft.x; i <= topRight.x; i++) {
-            for (int j = (int) bottomLeft.y; j <= topRight.y; j++) {
-                for (TiledMapTileLayer layer : collisionLayers) {
-                    TiledMapTileLayer.Cell cell = layer.getCell(i, j);
-                    if (cell != null) {
-                        Vector2 side = collidingSide(obj, tileToRect(i, j), dir);
-                        if (side != null && (firstSide == null || side.x < firstSide.x) && side.x >= 0) {
-                            firstSide = side;
-                        }
-                        break;
-                    }
+        Vector2 side = new Vector2();
+        return getSideHit(x, y, obj, dir, side) ? side : null;
+    }
+
+    /**
+     * Determines the first side hit during movement in a specified direction without allocating.
+     *
+     * @param x The X-coordinate of the object's position.
+     * @param y The Y-coordinate of the object's position.
+     * @param obj The rectangle representing the object's position and size.
+     * @param dir The direction of movement.
+     * @param out The vector that receives the depth of collision (x) and the side hit (y).
+     * @return True if a collision occurred, in which case out has been set.
+     */
+    public boolean getSideHit(float x, float y, Rectangle obj, int dir, Vector2 out){
+        int left = Math.floorDiv((int) x, tileWidth), bottom = Math.floorDiv((int) y, tileHeight);
+        int right = Math.floorDiv((int) (x + objWidth), tileWidth), top = Math.floorDiv((int) (y + objHeight), tileHeight);
+        boolean hit = false;
+
+        for (int i = left; i <= right; i++) {
+            for (int j = bottom; j <= top; j++) {
+                if (isBlocked(i, j) && collidingSide(obj, tileToRect(i, j, tileRect), dir, sideCandidate)
+                        && sideCandidate.x >= 0 && (!hit || sideCandidate.x < out.x)) {
+                    out.set(sideCandidate);
+                    hit = true;
                 }
             }
         }
 
-        return firstSide;
+        return hit;
     }
 
     /**
@@ -118,7 +204,19 @@ public class CollisionHandler {
      * @return A rectangle representing the tile's position and size in world space.
      */
     public Rectangle tileToRect(int tileX, int tileY){
-        return new Rectangle(tileX * tileWidth, tileY * tileHeight, tileWidth, tileHeight);
+        return tileToRect(tileX, tileY, new Rectangle());
+    }
+
+    /**
+     * Converts tile coordinates to a rectangle in world space, writing into an existing rectangle.
+     *
+     * @param tileX The X-coordinate of the tile.
+     * @param tileY The Y-coordinate of the tile.
+     * @param out The rectangle that receives the tile's position and size.
+     * @return The out rectangle, for chaining.
+     */
+    public Rectangle tileToRect(int tileX, int tileY, Rectangle out){
+        return out.set(tileX * tileWidth, tileY * tileHeight, tileWidth, tileHeight);
     }
 
     /**
@@ -156,39 +254,52 @@ public class CollisionHandler {
      * @return A Vector2 indicating the colliding side and the depth of collision; null if no collision occurred.
      */
     public Vector2 collidingSide(Rectangle movingObj, Rectangle other, int dir){
-        Vector2 coll1, coll2, coll3, coll4;
+        Vector2 side = new Vector2();
+        return collidingSide(movingObj, other, dir, side) ? side : null;
+    }
+
+    /**
+     * Determines the colliding side between two rectangles during movement in a specified direction without allocating.
+     *
+     * @param movingObj The rectangle representing the moving object.
+     * @param other The rectangle representing the object being collided with.
+     * @param dir The direction of movement.
+     * @param out The vector that receives the depth of collision (x) and the colliding side (y).
+     * @return True if the direction is a movement, in which case out has been set.
+     */
+    public boolean collidingSide(Rectangle movingObj, Rectangle other, int dir, Vector2 out){
+        float bottom = movingObj.y - (other.y + other.height); // side 0
+        float top = other.y - (movingObj.y + movingObj.height); // side 1
+        float left = movingObj.x - (other.x + other.width); // side 2
+        float right = other.x - (movingObj.x + movingObj.width); // side 3
 
         switch (dir){
             case 1:
-                coll1 = new Vector2(movingObj.y - (other.y + other.height), 0);
-                return coll1;
+                out.set(bottom, 0);
+                return true;
             case 2:
-                coll2 = new Vector2(other.y - (movingObj.y + movingObj.height), 1);
-                return coll2;
+                out.set(top, 1);
+                return true;
             case 3:
-                coll3 = new Vector2(movingObj.x - (other.x + other.width), 2);
-                return coll3;
+                out.set(left, 2);
+                return true;
             case 4:
-                coll1 = new Vector2(movingObj.y - (other.y + other.height), 0);
-                coll3 = new Vector2(movingObj.x - (other.x + other.width), 2);
-                return coll1.x > coll3.x ? coll1 : coll3;
+                if (bottom > left) out.set(bottom, 0); else out.set(left, 2);
+                return true;
             case 5:
-                coll2 = new Vector2(other.y - (movingObj.y + movingObj.height), 1);
-                coll3 = new Vector2(movingObj.x - (other.x + other.width), 2);
-                return coll2.x > coll3.x ? coll2 : coll3;
+                if (top > left) out.set(top, 1); else out.set(left, 2);
+                return true;
             case 6:
-                coll4 = new Vector2(other.x - (movingObj.x + movingObj.width), 3);
-                return coll4;
+                out.set(right, 3);
+                return true;
             case 7:
-                coll1 = new Vector2(movingObj.y - (other.y + other.height), 0);
-                coll4 = new Vector2(other.x - (movingObj.x + movingObj.width), 3);
-                return coll1.x > coll4.x ? coll1 : coll4;
+                if (bottom > right) out.set(bottom, 0); else out.set(right, 3);
+                return true;
             case 8:
-                coll2 = new Vector2(other.y - (movingObj.y + movingObj.height), 1);
-                coll4 = new Vector2(other.x - (movingObj.x + movingObj.width), 3);
-                return coll2.x > coll4.x ? coll2 : coll4;
+                if (top > right) out.set(top, 1); else out.set(right, 3);
+                return true;
             default:
-                return null;
+                return false;
         }
     }
 
@@ -202,22 +313,39 @@ public class CollisionHandler {
      * @return A Vector2 representing the adjusted position; null if no adjustment is necessary.
      */
     public Vector2 adjustPosStep(float startX, float startY, float targX, float targY){
-        Rectangle obj = new Rectangle(startX, startY, objWidth, objHeight);
+        Vector2 pos = new Vector2();
+        return adjustPosStep(startX, startY, targX, targY, pos) ? pos : null;
+    }
+
+    /**
+     * Adjusts the position of the object for a single movement step without allocating.
+     *
+     * @param startX The starting X-coordinate.
+     * @param startY The starting Y-coordinate.
+     * @param targX The target X-coordinate.
+     * @param targY The target Y-coordinate.
+     * @param out The vector that receives the adjusted position.
+     * @return True if an adjustment was necessary, in which case out has been set.
+     */
+    public boolean adjustPosStep(float startX, float startY, float targX, float targY, Vector2 out){
+        objRect.set(startX, startY, objWidth, objHeight);
         int dir = getDirection(startX, startY, targX, targY);
-        Vector2 side = getSideHit(targX, targY, obj, dir);
-        if (side == null) {return null;}
-        int sideNum = (int) side.y;
-        switch(sideNum) {
+        if (!getSideHit(targX, targY, objRect, dir, sideHit)) {return false;}
+        switch((int) sideHit.y) {
             case 0:
-                return new Vector2(targX, startY - side.x + 1);
+                out.set(targX, startY - sideHit.x + 1);
+                return true;
             case 1:
-                return new Vector2(targX, startY + side.x - 1);
+                out.set(targX, startY + sideHit.x - 1);
+                return true;
             case 2:
-                return new Vector2(startX - side.x + 1, targY);
+                out.set(startX - sideHit.x + 1, targY);
+                return true;
             case 3:
-                return new Vector2(startX + side.x - 1, targY);
+                out.set(startX + sideHit.x - 1, targY);
+                return true;
             default:
-                return null;
+                return false;
         }
     }
 
@@ -231,19 +359,91 @@ public class CollisionHandler {
      * @return A Vector2 representing the final adjusted position after resolving all collisions.
      */
     public Vector2 adjustPos(float startX, float startY, float targX, float targY){
+        return adjustPos(startX, startY, targX, targY, new Vector2());
+    }
+
+    /**
+     * Continuously adjusts the position of the object from start to target without allocating.
+     *
+     * @param startX The starting X-coordinate.
+     * @param startY The starting Y-coordinate.
+     * @param targX The target X-coordinate.
+     * @param targY The target Y-coordinate.
+     * @param out The vector that receives the final adjusted position.
+     * @return The out vector, for chaining.
+     */
+    public Vector2 adjustPos(float startX, float startY, float targX, float targY, Vector2 out){
         startX += offSetX; startY += offSetY; targX += offSetX; targY += offSetY;
-        Vector2 nextPos = adjustPosStep(startX, startY, targX, targY);
-        Vector2 newPos = null;
-        while (nextPos != null){
-            newPos = nextPos;
-            nextPos = adjustPosStep(startX, startY, nextPos.x, nextPos.y);
-        }
-        if (newPos != null){
-            newPos.x -= offSetX; newPos.y -= offSetY;
+        if (solver == Solver.SWEPT) {
+            targX = sweepX(startX, startY, targX);
+            targY = sweepY(targX, startY, targY);
         }
         else {
-            newPos = new Vector2(targX - offSetX, targY - offSetY);
+            while (adjustPosStep(startX, startY, targX, targY, nextPos)){
+                targX = nextPos.x;
+                targY = nextPos.y;
+            }
+        }
+        return out.set(targX - offSetX, targY - offSetY);
+    }
+
+    /**
+     * Moves the object horizontally towards a target, stopping before the first blocked tile column it would cross.
+     * Every column between the start and the target is checked once, so thin walls can not be skipped,
+     * and the work is bounded by the width of the map however far the object moves.
+     *
+     * @param x The starting X-coordinate.
+     * @param y The Y-coordinate of the object.
+     * @param targX The target X-coordinate.
+     * @return The X-coordinate the object can move to.
+     */
+    private float sweepX(float x, float y, float targX){
+        int bottom = Math.floorDiv((int) y, tileHeight), top = Math.floorDiv((int) (y + objHeight), tileHeight);
+        if (targX > x) {
+            int last = Math.min(Math.floorDiv((int) (targX + objWidth), tileWidth), mapWidth - 1);
+            for (int i = Math.floorDiv((int) (x + objWidth), tileWidth) + 1; i <= last; i++) {
+                for (int j = bottom; j <= top; j++) {
+                    if (isBlocked(i, j)) return Math.max(x, i * tileWidth - objWidth - 1);
+                }
+            }
+        }
+        else if (targX < x) {
+            int last = Math.max(Math.floorDiv((int) targX, tileWidth), 0);
+            for (int i = Math.floorDiv((int) x, tileWidth) - 1; i >= last; i--) {
+                for (int j = bottom; j <= top; j++) {
+                    if (isBlocked(i, j)) return Math.min(x, (i + 1) * tileWidth + 1);
+                }
+            }
+        }
+        return targX;
+    }
+
+    /**
+     * Moves the object vertically towards a target, stopping before the first blocked tile row it would cross.
+     *
+     * @param x The X-coordinate of the object.
+     * @param y The starting Y-coordinate.
+     * @param targY The target Y-coordinate.
+     * @return The Y-coordinate the object can move to.
+     */
+    private float sweepY(float x, float y, float targY){
+        int left = Math.floorDiv((int) x, tileWidth), right = Math.floorDiv((int) (x + objWidth), tileWidth);
+        if (targY > y) {
+            int last = Math.min(Math.floorDiv((int) (targY + objHeight), tileHeight), mapHeight - 1);
+            for (int j = Math.floorDiv((int) (y + objHeight), tileHeight) + 1; j <= last; j++) {
+                for (int i = left; i <= right; i++) {
+                    if (isBlocked(i, j)) return Math.max(y, j * tileHeight - objHeight - 1);
+                }
+            }
+        }
+        else if (targY < y) {
+            int last = Math.max(Math.floorDiv((int) targY, tileHeight), 0);
+            for (int j = Math.floorDiv((int) y, tileHeight) - 1; j >= last; j--) {
+                for (int i = left; i <= right; i++) {
+                    if (isBlocked(i, j)) return Math.min(y, (j + 1) * tileHeight + 1);
+                }
+            }
         }
-        return newPos;
+        return targY;
     }
 }
@@ -6,6 +6,7 @@ package com.main.utils;
  * The energy level has a max cap of 10 and a minimum of 0.
  */
 public class Energy {
+    public static final int MAX_ENERGY = 10;
 
     private Integer counter; // Current energy level
 
@@ -13,7 +14,7 @@ public class Energy {
      * Constructs a new Energy object with energy initially set to 10.
      */
     public Energy() {
-        counter = 10;
+        counter = MAX_ENERGY;
     }
 
     /**
@@ -22,7 +23,7 @@ public class Energy {
      * @param amount the amount to increase the energy by; should be non-negative
      */
     public void increaseEnergy(int amount) {
-        counter = Math.min(10, counter + amount);
+        counter = Math.min(MAX_ENERGY, counter + amount);
     }
 
     /**
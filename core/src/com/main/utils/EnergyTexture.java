@@ -1,6 +1,6 @@
 package com.main.utils;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.main.Main;
 
 /**
@@ -11,7 +11,7 @@ import com.main.Main;
 public class EnergyTexture extends Energy {
 
     private float energyBarY, energyBarX, energyBarWidth, energyBarHeight;
-    private Texture energyTexture;
+    private final TextureRegion[] frames; // The energy bar for each energy level, indexed by the level
 
     /**
      * Constructs a new EnergyTexture object. Inherits instantiation from Energy.
@@ -21,7 +21,10 @@ public class EnergyTexture extends Energy {
     public EnergyTexture(Main game) {
         super();
         onResize(game);
-        energyTexture = new Texture(super.getTextureName());
+        frames = new TextureRegion[MAX_ENERGY + 1];
+        for (int i = 0; i <= MAX_ENERGY; i++) {
+            frames[i] = game.atlas.get("energy/energy_" + i);
+        }
     }
 
     /**
@@ -43,46 +46,16 @@ public class EnergyTexture extends Energy {
      * @param game the main game passed in for texture scaling.
      */
     public void draw(Main game) {
-        game.batch.draw(energyTexture, energyBarX, energyBarY, energyBarWidth, energyBarHeight);
+        game.batch.draw(getFrame(), energyBarX, energyBarY, energyBarWidth, energyBarHeight);
     }
 
     /**
-     * Changes the texture when the energy value changes.
-     */
-    private void updateTexture() {
-        energyTexture.dispose();
-        energyTexture = new Texture(getTextureName());
-    }
-
-    /**
-     * Increases energy level by a specified amount, ensuring that it does not exceed the max of 10.
-     * Updates the energy bar texture accordingly.
+     * Gets the energy bar for the current energy level. All levels are loaded up front,
+     * so changing the energy only changes which one is drawn.
      *
-     * @param amount the amount to increase the energy by; should be non-negative
-     */
-    @Override
-    public void increaseEnergy(int amount) {
-        super.increaseEnergy(amount);
-        updateTexture();
-    }
-
-    /**
-     * Decreases energy level by a specified amount, ensuring that it does not exceed the max of 10.
-     * Updates the energy bar texture accordingly.
-     *
-     * @param amount the amount to decrease the energy by; should be non-negative
-     */
-    @Override
-    public void decreaseEnergy(int amount) {
-        super.decreaseEnergy(amount);
-        updateTexture();
-    }
-
-    /**
-     * Dispose of energy bar texture when it is not needed.
+     * @return the atlas region of the energy bar.
      */
-    public void disposeTexture()
-    {
-        energyTexture.dispose();
+    public TextureRegion getFrame() {
+        return frames[getEnergy()];
     }
 }
@@ -0,0 +1,43 @@
+package com.main.utils;
+
+/**
+ * Splits the variable time between frames into a whole number of fixed length ticks, so that the game logic
+ * advances the same way whatever the frame rate is.
+ * <p>
+ * Time that is left over after the last whole tick is carried over to the next frame. The fraction of a tick
+ * it makes up is given by {@link #getAlpha()}, which rendering uses to interpolate between the last two ticks.
+ */
+public class FixedTimestep {
+    public static final float TICK_RATE = 120; // Ticks per second
+    public static final float STEP = 1 / TICK_RATE; // Seconds per tick
+    public static final float MAX_FRAME_TIME = 0.25f; // Longer frames are clamped, so a hitch can not cause a burst of ticks
+
+    private double accumulator; // Unused time in seconds, kept in double precision so it does not drift
+
+    /**
+     * Adds the time of a frame and takes out as many whole ticks as it now holds.
+     *
+     * @param delta The time in seconds since the last frame.
+     * @return The number of ticks to run this frame, each of {@link #STEP} seconds.
+     */
+    public int advance(float delta) {
+        accumulator += Math.min(Math.max(delta, 0), MAX_FRAME_TIME);
+        int ticks = (int) (accumulator / STEP);
+        accumulator -= ticks * STEP;
+        return ticks;
+    }
+
+    /**
+     * @return How far the time left over is through the next tick, from 0 to 1.
+     */
+    public float getAlpha() {
+        return (float) Math.min(accumulator / STEP, 1);
+    }
+
+    /**
+     * Discards the time left over, used when the game logic is paused.
+     */
+    public void reset() {
+        accumulator = 0;
+    }
+}
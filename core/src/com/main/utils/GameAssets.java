@@ -0,0 +1,168 @@
+package com.main.utils;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.Disposable;
+import com.main.map.GameMapLoader;
+
+/**
+ * The shared cache for textures, fonts and other assets loaded from files, built on the libGDX AssetManager.
+ * <p>
+ * Every {@link #acquire} of a path adds a reference to the same loaded asset, and every {@link #release} removes one.
+ * The file is only read the first time it is acquired, and the asset is only disposed when its last reference is
+ * released. Assets can also be loaded ahead of time with {@link #preload}, which is finished a little each frame
+ * by {@link #update()}. Files are read on the manager's loading thread, and only the work that needs OpenGL, such as
+ * uploading a texture, is left for the update, one step at a time.
+ */
+public class GameAssets implements Disposable {
+    public static final String FONT = "font/WhitePeaberry.fnt";
+    public static final String BOY_IDLE = "character/boy_idle.png";
+    public static final String BOY_WALK = "character/boy_walk.png";
+    public static final String GIRL_IDLE = "character/girl_idle.png";
+    public static final String GIRL_WALK = "character/girl_walk.png";
+
+    private final AssetManager manager;
+
+    /**
+     * Creates a cache that loads assets from the internal files.
+     */
+    public GameAssets() {
+        this(new AssetManager());
+    }
+
+    /**
+     * Creates a cache that loads assets with the given manager, and maps with the {@link GameMapLoader}.
+     *
+     * @param manager The manager to load assets with, which the cache disposes with itself.
+     */
+    public GameAssets(AssetManager manager) {
+        this.manager = manager;
+        manager.setLoader(TiledMap.class, new GameMapLoader(manager.getFileHandleResolver()));
+    }
+
+    /**
+     * Gets an asset, loading it now if it has not been loaded yet, and adds a reference to it.
+     *
+     * @param path The path of the asset file.
+     * @param type The type of the asset.
+     * @return The loaded asset, which must be released with {@link #release(String)} and not disposed.
+     */
+    public <T> T acquire(String path, Class<T> type) {
+        manager.load(path, type);
+        return manager.finishLoadingAsset(path);
+    }
+
+    /**
+     * Gets a font that shares its glyphs and texture with every other font acquired from the same file,
+     * but has its own scale and colour so that it can be changed without affecting the others.
+     *
+     * @param path The path of the .fnt file.
+     * @return A new font, which must be released with {@link #release(String)} and does not need to be disposed.
+     */
+    public BitmapFont acquireFont(String path) {
+        BitmapFont shared = acquire(path, BitmapFont.class);
+        return new BitmapFont(new FontData(shared.getData()), shared.getRegions(), shared.usesIntegerPositions());
+    }
+
+    /**
+     * Starts loading an asset in the background and adds a reference to it, so that a later {@link #acquire} does not
+     * have to wait for it. The reference is released with {@link #release(String)} like any other.
+     *
+     * @param path The path of the asset file.
+     * @param type The type of the asset.
+     */
+    public <T> void preload(String path, Class<T> type) {
+        manager.load(path, type);
+    }
+
+    /**
+     * Removes a reference to an asset, disposing it if it was the last one.
+     *
+     * @param path The path the asset was acquired with.
+     */
+    public void release(String path) {
+        manager.unload(path);
+    }
+
+    /**
+     * Continues loading the preloaded assets. Called once per frame.
+     *
+     * @return True if there is nothing left to load.
+     */
+    public boolean update() {
+        return manager.update();
+    }
+
+    /**
+     * Continues loading the preloaded assets for up to the given time, e.g. while a loading screen is shown.
+     * A single step, such as uploading a large texture, may take longer.
+     *
+     * @param millis The time to spend loading, in milliseconds.
+     * @return True if there is nothing left to load.
+     */
+    public boolean update(int millis) {
+        return manager.update(millis);
+    }
+
+    /**
+     * @return How much of the assets queued since loading was last finished have loaded, from 0 to 1.
+     */
+    public float getProgress() {
+        return manager.getProgress();
+    }
+
+    /**
+     * @param path The path of the asset file.
+     * @return True if the asset is loaded and can be acquired without waiting.
+     */
+    public boolean isLoaded(String path) {
+        return manager.isLoaded(path);
+    }
+
+    /**
+     * @param path The path of the asset file.
+     * @return The number of references to the asset, or 0 if it is not loaded.
+     */
+    public int getReferenceCount(String path) {
+        return manager.isLoaded(path) ? manager.getReferenceCount(path) : 0;
+    }
+
+    @Override
+    public void dispose() {
+        manager.dispose();
+    }
+
+    /**
+     * A copy of a font's data that shares its glyphs, as the scale of a font is stored in its data.
+     */
+    private static class FontData extends BitmapFont.BitmapFontData {
+        FontData(BitmapFont.BitmapFontData source) {
+            name = source.name;
+            imagePaths = source.imagePaths;
+            fontFile = source.fontFile;
+            flipped = source.flipped;
+            padTop = source.padTop;
+            padRight = source.padRight;
+            padBottom = source.padBottom;
+            padLeft = source.padLeft;
+            lineHeight = source.lineHeight;
+            capHeight = source.capHeight;
+            ascent = source.ascent;
+            descent = source.descent;
+            down = source.down;
+            blankLineScale = source.blankLineScale;
+            scaleX = source.scaleX;
+            scaleY = source.scaleY;
+            markupEnabled = source.markupEnabled;
+            cursorX = source.cursorX;
+            System.arraycopy(source.glyphs, 0, glyphs, 0, glyphs.length);
+            missingGlyph = source.missingGlyph;
+            spaceXadvance = source.spaceXadvance;
+            xHeight = source.xHeight;
+            breakChars = source.breakChars;
+            xChars = source.xChars;
+            capChars = source.capChars;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.main.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Looks up images by name from a texture atlas, so that everything drawn from it shares a few textures and the
+ * SpriteBatch does not have to flush when switching between them.
+ * <p>
+ * Names are image paths relative to the assets directory without the extension, e.g. "menu_gui/play_button".
+ * The atlas is normally packed ahead of time by the packTextures build task. If it has not been packed,
+ * images are packed into pages at runtime the first time they are asked for, which gives the same batching.
+ */
+public class GameAtlas implements Disposable {
+    public static final String UI_ATLAS = "atlas/ui.atlas";
+    private static final int PAGE_SIZE = 1024;
+
+    private final TextureAtlas atlas;
+    private final PixmapPacker packer; // Only used when the atlas was not packed ahead of time
+    private final ObjectMap<String, TextureRegion> regions = new ObjectMap<>();
+
+    /**
+     * Loads a packed atlas, or prepares to pack images at runtime if it does not exist.
+     *
+     * @param atlasPath The internal path of the .atlas file.
+     */
+    public GameAtlas(String atlasPath) {
+        FileHandle atlasFile = Gdx.files.internal(atlasPath);
+        if (atlasFile.exists()) {
+            atlas = new TextureAtlas(atlasFile);
+            packer = null;
+        } else {
+            atlas = new TextureAtlas();
+            packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 2, false);
+        }
+    }
+
+    /**
+     * Gets an image from the atlas.
+     *
+     * @param name The path of the image relative to the assets directory, without the extension.
+     * @return The region of the atlas holding the image.
+     * @throws GdxRuntimeException If there is no image with that name.
+     */
+    public TextureRegion get(String name) {
+        TextureRegion region = regions.get(name);
+        if (region != null) return region;
+
+        region = atlas.findRegion(name);
+        if (region == null && packer != null) region = pack(name);
+        if (region == null) throw new GdxRuntimeException("No image in the atlas named " + name);
+        regions.put(name, region);
+        return region;
+    }
+
+    /**
+     * Packs an image into the runtime pages, together with the other images in its directory, then updates the
+     * page textures once. A screen mostly draws images from one directory, so this uploads the pages once per
+     * directory instead of once per image.
+     */
+    private TextureRegion pack(String name) {
+        FileHandle file = Gdx.files.internal(name + ".png");
+        if (!file.exists()) return null;
+        String directory = name.substring(0, name.lastIndexOf('/') + 1);
+        packImage(name, file);
+        for (FileHandle image : file.parent().list(".png")) { // Empty if the assets are only on the classpath
+            String imageName = directory + image.nameWithoutExtension();
+            if (packer.getRect(imageName) == null) packImage(imageName, image);
+        }
+        packer.updateTextureAtlas(atlas, Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false);
+        return atlas.findRegion(name);
+    }
+
+    private void packImage(String name, FileHandle file) {
+        Pixmap pixmap = new Pixmap(file);
+        packer.pack(name, pixmap);
+        pixmap.dispose();
+    }
+
+    @Override
+    public void dispose() {
+        atlas.dispose();
+        if (packer != null) packer.dispose();
+    }
+}
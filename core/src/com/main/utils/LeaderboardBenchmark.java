@@ -0,0 +1,69 @@
+package com.main.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compares loading a leaderboard from its CSV file with opening it as a {@link BinaryLeaderboardFile},
+ * for leaderboards of 10, 10 thousand and a million players.
+ * <p>
+ * Loading the CSV file parses every line into the ranking before anything can be shown. Opening the binary file
+ * maps it, then reads the top 10, the rank of one player and the place of one score, as the end screen needs.
+ * Each is timed a few times and the fastest time is reported, leaving out the first runs while the JIT warms up.
+ */
+public class LeaderboardBenchmark {
+    private static final int[] SIZES = {10, 10_000, 1_000_000};
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("leaderboard-benchmark");
+        try {
+            System.out.printf("%10s %14s %14s %12s %12s%n", "Players", "CSV load ms", "Binary ms", "CSV bytes", "Binary bytes");
+            for (int size : SIZES) {
+                run(directory, size);
+            }
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    private static void run(Path directory, int size) throws IOException {
+        Path csv = directory.resolve(size + ".csv");
+        Path binary = directory.resolve(size + ".hhlb");
+        SplittableRandom random = new SplittableRandom(size);
+        List<Leaderboards.Entry> entries = new ArrayList<>(size);
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            for (int i = 0; i < size; i++) {
+                Leaderboards.Entry entry = new Leaderboards.Entry("P" + i, random.nextInt(1000));
+                entries.add(entry);
+                writer.write(entry.name + "," + entry.score);
+                writer.newLine();
+            }
+        }
+        BinaryLeaderboardFile.write(binary, entries);
+
+        long csvBest = Long.MAX_VALUE, binaryBest = Long.MAX_VALUE;
+        long checksum = 0; // Used, so that the work is not optimised away
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            Leaderboards leaderboards = new Leaderboards(csv.toString());
+            checksum += leaderboards.getEntries()[0].score + leaderboards.getRank("P" + size / 2);
+            csvBest = Math.min(csvBest, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            BinaryLeaderboardFile file = BinaryLeaderboardFile.open(binary);
+            checksum += file.top(10).get(0).score + file.rank("P" + size / 2) + file.countAtLeast(500);
+            binaryBest = Math.min(binaryBest, System.nanoTime() - start);
+        }
+        System.out.printf("%10d %14.3f %14.3f %12d %12d%n", size, csvBest / 1e6, binaryBest / 1e6,
+                Files.size(csv), Files.size(binary));
+        if (checksum == 42) System.out.println();
+        Files.delete(csv);
+        Files.delete(binary);
+    }
+}
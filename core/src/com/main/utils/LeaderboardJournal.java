@@ -0,0 +1,250 @@
+package com.main.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of the results registered since the leaderboard snapshot was last written.
+ * <p>
+ * Each result is appended as one record and forced to disk, so that registering a result costs the same however
+ * large the leaderboard is, and a crash loses at most the record being written. The file starts with a magic number
+ * and a version, followed by the records. A record is the length of the name as a short, the name in UTF-8, the
+ * score as an int, the time it was submitted as a long and a CRC32 of all of them. Reading stops at the first
+ * record that is cut short or fails its check, and cuts the file back to the records before it, so that new
+ * records are not appended after a damaged one.
+ * <p>
+ * Version 1 journals had no header and no timestamps. They are read with their results marked as submitted at an
+ * unknown time, and rewritten in the current version. A journal with a version this game does not know, or that
+ * is not a journal at all, is moved aside rather than cut, and replaying it fails.
+ * <p>
+ * Replaying a record only ever raises a player's best score, so replaying records that are already part of the
+ * snapshot changes nothing. The journal can therefore be cleared after the snapshot is replaced, without a crash
+ * between the two losing or doubling anything.
+ */
+public class LeaderboardJournal {
+    private static final int MAGIC = 0x48484C4A; // "HHLJ"
+    private static final int VERSION = 2;
+    private static final int FILE_HEADER_BYTES = Integer.BYTES * 2; // Magic and version
+    private static final int HEADER_BYTES = Short.BYTES;
+    private static final int TRAILER_BYTES = Integer.BYTES * 2 + Long.BYTES; // Score, timestamp and checksum
+    private static final int V1_TRAILER_BYTES = Integer.BYTES * 2; // Score and checksum
+    private static final int MAX_NAME_BYTES = Short.MAX_VALUE;
+
+    private final Path path;
+    private int recordCount;
+
+    /**
+     * @param path The file of the journal, which is created when the first record is appended.
+     */
+    public LeaderboardJournal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Replays every complete record in the journal into a store, and cuts off anything after them.
+     *
+     * @param store The store to register the results in.
+     * @return The number of records replayed.
+     * @throws IOException If the journal could not be read or cut, or is not a journal this game can read.
+     */
+    public int replay(LeaderboardStore store) throws IOException {
+        return replay(entry -> store.upsert(entry.name, entry.score, entry.timestamp));
+    }
+
+    /**
+     * Passes every complete record in the journal to a consumer, and cuts off anything after them.
+     * A version 1 journal is rewritten in the current version.
+     *
+     * @param consumer Registers each result, in the order they were appended.
+     * @return The number of records replayed.
+     * @throws IOException If the journal could not be read or cut, or is not a journal this game can read, in
+     *                     which case it is moved to {@link #getUnreadablePath()}.
+     */
+    public int replay(Consumer<Leaderboards.Entry> consumer) throws IOException {
+        recordCount = 0;
+        if (!Files.exists(path)) return 0;
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.limit() >= FILE_HEADER_BYTES && buffer.getInt(0) == MAGIC) {
+            int version = buffer.getInt(Integer.BYTES);
+            if (version != VERSION) moveAside("it is version " + version);
+            buffer.position(FILE_HEADER_BYTES);
+            int valid = readRecords(buffer, true, consumer);
+            if (valid < buffer.limit()) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(valid);
+                }
+            }
+            return recordCount;
+        }
+
+        // A version 1 journal, or the start of a header cut short while the journal was created
+        List<Leaderboards.Entry> migrated = new ArrayList<>();
+        readRecords(buffer, false, entry -> {
+            migrated.add(entry);
+            consumer.accept(entry);
+        });
+        if (migrated.isEmpty() && buffer.limit() >= HEADER_BYTES + V1_TRAILER_BYTES) {
+            moveAside("it has no header and no version 1 records");
+        }
+        rewrite(migrated);
+        return recordCount;
+    }
+
+    /**
+     * Reads records from the position of a buffer until one is cut short or fails its check.
+     *
+     * @param timestamps True if the records hold the time they were submitted, as since version 2.
+     * @return The position after the last complete record.
+     */
+    private int readRecords(ByteBuffer buffer, boolean timestamps, Consumer<Leaderboards.Entry> consumer) {
+        CRC32 crc = new CRC32();
+        int trailerBytes = timestamps ? TRAILER_BYTES : V1_TRAILER_BYTES;
+        int valid = buffer.position();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int nameLength = buffer.getShort();
+            if (nameLength < 0 || buffer.remaining() < nameLength + trailerBytes) break;
+
+            byte[] name = new byte[nameLength];
+            buffer.get(name);
+            int score = buffer.getInt();
+            long timestamp = timestamps ? buffer.getLong() : 0;
+            crc.reset();
+            crc.update(buffer.array(), start, buffer.position() - start);
+            if (buffer.getInt() != (int) crc.getValue()) break;
+
+            consumer.accept(new Leaderboards.Entry(new String(name, StandardCharsets.UTF_8), score, timestamp));
+            recordCount++;
+            valid = buffer.position();
+        }
+        return valid;
+    }
+
+    /**
+     * Replaces the journal with the given results in the current version, writing them next to it first.
+     */
+    private void rewrite(List<Leaderboards.Entry> entries) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel, fileHeader());
+            for (Leaderboards.Entry entry : entries) {
+                write(channel, encode(entry.name.getBytes(StandardCharsets.UTF_8), entry.score, entry.timestamp));
+            }
+            channel.force(false);
+        }
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Moves a journal this game can not read out of the way, so that it is kept rather than cut or overwritten.
+     *
+     * @throws IOException Always, saying why the journal could not be read.
+     */
+    private void moveAside(String reason) throws IOException {
+        Path unreadable = getUnreadablePath();
+        Files.move(path, unreadable, StandardCopyOption.REPLACE_EXISTING);
+        throw new IOException("Could not read the journal " + path + " as " + reason + ", moved it to " + unreadable);
+    }
+
+    /**
+     * Appends a result to the journal and forces it to disk.
+     *
+     * @param name The name of the player.
+     * @param score The score of the result.
+     * @throws IOException If the record could not be written.
+     */
+    public void append(String name, int score) throws IOException {
+        append(name, score, 0);
+    }
+
+    /**
+     * Appends a result to the journal and forces it to disk.
+     *
+     * @param name The name of the player.
+     * @param score The score of the result.
+     * @param timestamp When the result was submitted, in milliseconds since 1970, or 0 if not known.
+     * @throws IOException If the record could not be written.
+     */
+    public void append(String name, int score, long timestamp) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name is too long for the journal: " + nameBytes.length + " bytes");
+        }
+
+        ByteBuffer record = encode(nameBytes, score, timestamp);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            if (channel.size() == 0) write(channel, fileHeader());
+            write(channel, record);
+            channel.force(false);
+        }
+        recordCount++;
+    }
+
+    private static ByteBuffer fileHeader() {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        return header;
+    }
+
+    private static ByteBuffer encode(byte[] name, int score, long timestamp) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + name.length + TRAILER_BYTES);
+        record.putShort((short) name.length).put(name).putInt(score).putLong(timestamp);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        record.flip();
+        return record;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    /**
+     * Empties the journal, once every record in it is part of the snapshot.
+     *
+     * @throws IOException If the journal could not be deleted.
+     */
+    public void clear() throws IOException {
+        Files.deleteIfExists(path);
+        recordCount = 0;
+    }
+
+    /**
+     * @return The number of records in the journal.
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return Where a journal this game can not read is moved to, next to the journal.
+     */
+    public Path getUnreadablePath() {
+        return path.resolveSibling(path.getFileName() + ".unreadable");
+    }
+}
@@ -0,0 +1,55 @@
+package com.main.utils;
+
+/**
+ * The operations the game needs from a leaderboard, whether it is kept in a local file by {@link Leaderboards}
+ * or shared between machines by {@link com.main.leaderboard.LeaderboardClient}.
+ */
+public interface LeaderboardService {
+    /**
+     * Registers a result whose score the caller has already checked against the log of its game, see
+     * {@link com.main.simulation.ScoreVerifier}. The log is kept with the result, so that a shared board, which can not
+     * trust the machine a result comes from, can check it again.
+     *
+     * @param score the score of the new result
+     * @param name  the name of the new result
+     * @param sessionLog the log of the game, from {@link com.main.simulation.SessionLog}
+     * @return true if the result was registered, false if it is held to be saved later or was refused
+     * @throws java.io.UncheckedIOException if the result could not be saved
+     */
+    boolean registerVerifiedResult(int score, String name, byte[] sessionLog);
+
+    /**
+     * Saves any results that were registered but are still held, such as results a shared board could not be
+     * reached for. Called before the game closes.
+     *
+     * @return true if no results are left unsaved
+     */
+    default boolean flush() {
+        return true;
+    }
+
+    /**
+     * Checks whether the given score is high enough to place in the top 10.
+     *
+     * @param score the score to check
+     * @return true if the score is high enough to place in the top 10, otherwise false
+     */
+    boolean doesPlaceT10(int score);
+
+    /**
+     * Returns the top 10 entries, highest score first, followed by nulls if there are fewer than 10.
+     * @return the top 10 entries
+     */
+    Leaderboards.Entry[] getEntries();
+
+    /**
+     * Returns the top 10 entries of a view, highest score first, followed by nulls if there are fewer than 10.
+     * Leaderboards that only keep the best scores of all time show nothing for the other views.
+     * @param view the period to show the leaderboard for
+     * @return the top 10 entries
+     */
+    default Leaderboards.Entry[] getEntries(LeaderboardView view) {
+        Leaderboards.Entry[] entries = getEntries();
+        return view == LeaderboardView.ALL_TIME ? entries : new Leaderboards.Entry[entries.length];
+    }
+}
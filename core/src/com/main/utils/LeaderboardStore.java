@@ -0,0 +1,327 @@
+package com.main.utils;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Keeps the best score of every player, ranked from highest to lowest, for leaderboards of any size.
+ * <p>
+ * The ranking is a treap whose nodes also count the nodes below them, so that a score can be inserted or removed,
+ * and a rank or the entry at a rank can be found, in O(log n) time however many players there are. A map from
+ * names to nodes finds a player's entry without searching the ranking. Equal scores are ranked by when they were
+ * set, earliest first, as the fixed-size leaderboard always ranked them.
+ */
+public class LeaderboardStore implements Iterable<Leaderboards.Entry> {
+
+    /**
+     * A player's best score in the ranking.
+     */
+    private static final class Node {
+        final String name;
+        final int score;
+        final long order; // When the score was set, which ranks equal scores
+        final long timestamp; // When the result was submitted, in milliseconds since 1970, or 0 if not known
+        final int priority; // Random, keeps the tree balanced
+        int size = 1; // The number of nodes in this subtree
+        Node left, right;
+
+        Node(String name, int score, long order, long timestamp, int priority) {
+            this.name = name;
+            this.score = score;
+            this.order = order;
+            this.timestamp = timestamp;
+            this.priority = priority;
+        }
+
+        Leaderboards.Entry toEntry() {
+            return new Leaderboards.Entry(name, score, timestamp);
+        }
+
+        /**
+         * @return True if this node ranks above the given score set at the given time.
+         */
+        boolean ranksAbove(int score, long order) {
+            return this.score > score || (this.score == score && this.order < order);
+        }
+    }
+
+    private final Map<String, Node> players = new HashMap<>();
+    private Node root;
+    private long nextOrder;
+    private long seed = 0x2545F4914F6CDD1DL;
+
+    /**
+     * Sets a player's score if they have none yet or it beats their best score, otherwise keeps their best.
+     *
+     * @param name the name of the player
+     * @param score the score of the result
+     * @return true if the player's best score changed
+     */
+    public boolean upsert(String name, int score) {
+        return upsert(name, score, 0);
+    }
+
+    /**
+     * Sets a player's score if they have none yet or it beats their best score, otherwise keeps their best.
+     *
+     * @param name the name of the player
+     * @param score the score of the result
+     * @param timestamp when the result was submitted, in milliseconds since 1970, or 0 if not known
+     * @return true if the player's best score changed
+     */
+    public boolean upsert(String name, int score, long timestamp) {
+        Node old = players.get(name);
+        if (old != null) {
+            if (score <= old.score) return false;
+            root = remove(root, old);
+        }
+        Node node = new Node(name, score, nextOrder++, timestamp, nextPriority());
+        root = insert(root, node);
+        players.put(name, node);
+        return true;
+    }
+
+    /**
+     * Removes a player from the ranking.
+     *
+     * @param name the name of the player
+     * @return true if the player had a score
+     */
+    public boolean remove(String name) {
+        Node node = players.remove(name);
+        if (node == null) return false;
+        root = remove(root, node);
+        return true;
+    }
+
+    /**
+     * @param name the name of the player
+     * @return the player's best score, or null if they have none
+     */
+    public Integer getScore(String name) {
+        Node node = players.get(name);
+        return node == null ? null : node.score;
+    }
+
+    /**
+     * @param name the name of the player
+     * @return the player's best score and when it was set, or null if they have none
+     */
+    public Leaderboards.Entry getEntry(String name) {
+        Node node = players.get(name);
+        return node == null ? null : node.toEntry();
+    }
+
+    /**
+     * Finds a player's position in the ranking.
+     *
+     * @param name the name of the player
+     * @return the player's rank, where 1 is the highest score, or 0 if they have no score
+     */
+    public int rank(String name) {
+        Node target = players.get(name);
+        if (target == null) return 0;
+
+        int above = 0;
+        Node node = root;
+        while (node != target) {
+            if (node.ranksAbove(target.score, target.order)) {
+                above += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return above + size(node.left) + 1;
+    }
+
+    /**
+     * Finds the entry at a position in the ranking.
+     *
+     * @param rank the rank, from 1 to {@link #size()}
+     * @return the entry at the rank
+     * @throws IndexOutOfBoundsException if there is no entry at the rank
+     */
+    public Leaderboards.Entry get(int rank) {
+        if (rank < 1 || rank > size()) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " of " + size());
+        }
+        Node node = root;
+        int index = rank - 1;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.toEntry();
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Counts the players whose best score is at least the given score, which a new score must beat
+     * to rank ahead of them.
+     *
+     * @param score the score to compare with
+     * @return the number of players scoring the same or higher
+     */
+    public int countAtLeast(int score) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.score >= score) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lists the highest scores, which takes O(log n + k) time.
+     *
+     * @param k the maximum number of entries to list
+     * @return up to k entries, highest score first
+     */
+    public List<Leaderboards.Entry> top(int k) {
+        List<Leaderboards.Entry> entries = new ArrayList<>(Math.min(k, size()));
+        Iterator<Leaderboards.Entry> iterator = iterator();
+        while (entries.size() < k && iterator.hasNext()) {
+            entries.add(iterator.next());
+        }
+        return entries;
+    }
+
+    /**
+     * @return the number of players with a score
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Removes every score.
+     */
+    public void clear() {
+        players.clear();
+        root = null;
+    }
+
+    /**
+     * Iterates through every entry, highest score first. The ranking must not change during iteration.
+     */
+    @Override
+    public Iterator<Leaderboards.Entry> iterator() {
+        return new Iterator<Leaderboards.Entry>() {
+            private final ArrayDeque<Node> path = new ArrayDeque<>();
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node node) {
+                for (; node != null; node = node.left) {
+                    path.push(node);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public Leaderboards.Entry next() {
+                if (path.isEmpty()) throw new NoSuchElementException();
+                Node node = path.pop();
+                pushLeft(node.right);
+                return node.toEntry();
+            }
+        };
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    /**
+     * Inserts a node below the given subtree, rotating it up past nodes of lower priority.
+     */
+    private static Node insert(Node node, Node added) {
+        if (node == null) return added;
+        if (node.ranksAbove(added.score, added.order)) {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        } else {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        }
+        return update(node);
+    }
+
+    /**
+     * Removes a node from below the given subtree by merging its children in its place.
+     */
+    private static Node remove(Node node, Node removed) {
+        if (node == removed) return merge(node.left, node.right);
+        if (node.ranksAbove(removed.score, removed.order)) {
+            node.right = remove(node.right, removed);
+        } else {
+            node.left = remove(node.left, removed);
+        }
+        return update(node);
+    }
+
+    /**
+     * Merges two subtrees where every node of the first ranks above every node of the second.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            return update(first);
+        }
+        second.left = merge(first, second.left);
+        return update(second);
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = update(node);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = update(node);
+        return left;
+    }
+
+    /**
+     * @return The next number of an xorshift generator, which is all the balancing needs.
+     */
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (int) (seed >>> 32);
+    }
+}
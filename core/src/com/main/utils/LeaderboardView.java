@@ -0,0 +1,48 @@
+package com.main.utils;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * The periods a leaderboard can be shown for. Daily and weekly leaderboards start again at midnight and on
+ * Monday at midnight, in the time zone of the machine.
+ */
+public enum LeaderboardView {
+    DAILY("Today"),
+    WEEKLY("This week"),
+    ALL_TIME("All time");
+
+    public final String title;
+
+    LeaderboardView(String title) {
+        this.title = title;
+    }
+
+    /**
+     * Numbers the periods of this view, so that two times are in the same period if they have the same number.
+     *
+     * @param timestamp The time, in milliseconds since 1970.
+     * @param zone The time zone the periods start in.
+     * @return The number of the period, which is always 0 for {@link #ALL_TIME}.
+     */
+    public long windowOf(long timestamp, ZoneId zone) {
+        if (this == ALL_TIME) return 0;
+        long day = Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate().toEpochDay();
+        // The 1st of January 1970 was a Thursday, so weeks counted from the Monday before it start on Mondays
+        return this == DAILY ? day : Math.floorDiv(day + 3, 7);
+    }
+
+    /**
+     * @return The view after this one, wrapping around, for switching between them.
+     */
+    public LeaderboardView next() {
+        return values()[(ordinal() + 1) % values().length];
+    }
+
+    /**
+     * @return The view before this one, wrapping around, for switching between them.
+     */
+    public LeaderboardView previous() {
+        return values()[(ordinal() + values().length - 1) % values().length];
+    }
+}
@@ -0,0 +1,91 @@
+package com.main.utils;
+
+import java.time.ZoneId;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the daily and weekly leaderboards alongside the all-time one, updating them as each result is registered.
+ * <p>
+ * Each view holds one {@link LeaderboardStore} for its current period, such as today. A result from a later period
+ * replaces the store with an empty one, so the old period is dropped at once however many players it had, rather
+ * than going back through the results to remove them. Results from earlier periods are left out of the view.
+ * Results whose time is not known only count towards the all-time leaderboard.
+ */
+public class LeaderboardWindows {
+    private static final LeaderboardView[] VIEWS = {LeaderboardView.DAILY, LeaderboardView.WEEKLY};
+
+    private final ZoneId zone;
+    private final LeaderboardStore[] stores = new LeaderboardStore[VIEWS.length];
+    private final long[] windows = new long[VIEWS.length]; // The period each store holds
+
+    /**
+     * @param zone The time zone the days and weeks start in.
+     */
+    public LeaderboardWindows(ZoneId zone) {
+        this.zone = zone;
+        for (int i = 0; i < VIEWS.length; i++) {
+            stores[i] = new LeaderboardStore();
+            windows[i] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Registers a result in the views of the period it was submitted in.
+     *
+     * @param name the name of the player
+     * @param score the score of the result
+     * @param timestamp when the result was submitted, in milliseconds since 1970, or 0 if not known
+     * @return true if the player's best score changed in any view
+     */
+    public boolean upsert(String name, int score, long timestamp) {
+        if (timestamp == 0) return false;
+        boolean changed = false;
+        for (int i = 0; i < VIEWS.length; i++) {
+            long window = VIEWS[i].windowOf(timestamp, zone);
+            if (window > windows[i]) roll(i, window);
+            if (window == windows[i]) changed |= stores[i].upsert(name, score, timestamp);
+        }
+        return changed;
+    }
+
+    /**
+     * Finds the leaderboard of the current period of a view.
+     *
+     * @param view The daily or weekly view.
+     * @param now The current time, in milliseconds since 1970.
+     * @return The leaderboard, which is empty if nothing has been registered in the period yet.
+     */
+    public LeaderboardStore get(LeaderboardView view, long now) {
+        int i = indexOf(view);
+        long window = view.windowOf(now, zone);
+        if (window > windows[i]) roll(i, window);
+        // A clock set back to an earlier period shows nothing rather than a later period
+        return window == windows[i] ? stores[i] : new LeaderboardStore();
+    }
+
+    /**
+     * Passes every entry of every view to a consumer, so that they can be saved.
+     *
+     * @param consumer Takes each entry, with the time it was submitted.
+     */
+    public void forEach(Consumer<Leaderboards.Entry> consumer) {
+        for (LeaderboardStore store : stores) {
+            store.forEach(consumer);
+        }
+    }
+
+    /**
+     * Starts a new period of a view, dropping the previous one.
+     */
+    private void roll(int i, long window) {
+        stores[i] = new LeaderboardStore();
+        windows[i] = window;
+    }
+
+    private static int indexOf(LeaderboardView view) {
+        for (int i = 0; i < VIEWS.length; i++) {
+            if (VIEWS[i] == view) return i;
+        }
+        throw new IllegalArgumentException("Not a view with periods: " + view);
+    }
+}
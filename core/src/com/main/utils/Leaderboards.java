@@ -4,9 +4,17 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneId;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -14,15 +22,27 @@ import java.util.logging.Logger;
  * The Leaderboards class is a new addition to the project for assessment 2, responsible for managing
  * a leaderboard and tracking the top 10 high scores.
  *
- * The Leaderboards class manages a leaderboard with a specified maximum number of entries.
- * The leaderboard entries are stored in a CSV file with each line representing a name and score.
+ * The Leaderboards class keeps the best score of every player in a {@link LeaderboardStore}, and shows
+ * the top 10 of them. The leaderboard entries are stored in a CSV file with each line representing a name and score.
  * The class provides methods for reading, writing, and updating the leaderboard data.
+ *
+ * New results are appended to a {@link LeaderboardJournal} next to the CSV file rather than rewriting it, and the
+ * journal is compacted into a new CSV file once it grows long. The CSV file is replaced by renaming a complete
+ * copy over it, so a crash leaves either the old or the new file, never a partly written one.
+ *
+ * Each result is stamped with the time it was registered, and {@link LeaderboardWindows} keeps the daily and weekly
+ * leaderboards from them as well as the all-time one. The CSV file keeps the best score of each view, so that all
+ * three can be read back from it.
  */
-public class Leaderboards {
+public class Leaderboards implements LeaderboardService {
     private final String fileName;
     private final static int MAX_ENTRIES = 10;
-    private final Entry[] entries;
-    private int entryCount;
+    private final static int COMPACT_AFTER = 64; // Journal records before they are written into the CSV file
+    private final LeaderboardJournal journal;
+    private final LeaderboardStore store;
+    private final LeaderboardWindows windows;
+    private final Entry[] entries; // The top 10, rebuilt when the store changes
+    private boolean entriesChanged;
 
     private static final Logger logger = Logger.getLogger(Leaderboards.class.getName());
 
@@ -33,6 +53,7 @@ public class Leaderboards {
     public static class Entry implements Comparable < Object > {
         public String name;
         public Integer score;
+        public long timestamp; // When the score was set, in milliseconds since 1970, or 0 if not known
 
         /**
          * Constructs a new Entry with a specified name and score.
@@ -40,10 +61,21 @@ public class Leaderboards {
          * @param name  the name of the entry
          * @param score the score of the entry
          */
-        Entry(String name, int score) {
+        public Entry(String name, int score) {
+            this(name, score, 0);
+        }
+
+        /**
+         * Constructs a new Entry with a specified name, score and the time it was set.
+         *
+         * @param name  the name of the entry
+         * @param score the score of the entry
+         * @param timestamp when the score was set, in milliseconds since 1970, or 0 if not known
+         */
+        public Entry(String name, int score, long timestamp) {
             this.name = name;
             this.score = score;
-
+            this.timestamp = timestamp;
         }
 
         /**
@@ -61,13 +93,26 @@ public class Leaderboards {
     }
 
     /**
-     * Constructs a new Leaderboards instance and initialises the entries array.
-     * It reads the existing leaderboard data from the CSV file if available.
+     * Constructs a new Leaderboards instance and initialises the store.
+     * It reads the existing leaderboard data from the CSV file if available, then replays the journal.
+     *
+     * @throws UncheckedIOException if the CSV file can not be created or read, or the journal can not be read
      */
     public Leaderboards(String fileName) {
+        this(fileName, ZoneId.systemDefault());
+    }
+
+    /**
+     * Constructs a new Leaderboards instance whose days and weeks start in the given time zone.
+     *
+     * @throws UncheckedIOException if the CSV file can not be created or read, or the journal can not be read
+     */
+    public Leaderboards(String fileName, ZoneId zone) {
+        this.store = new LeaderboardStore();
+        this.windows = new LeaderboardWindows(zone);
         this.entries = new Entry[MAX_ENTRIES];
-        this.entryCount = 0;
         this.fileName = fileName;
+        this.journal = new LeaderboardJournal(Paths.get(fileName + ".journal"));
         File file = new File(fileName);
 
         try {
@@ -76,94 +121,197 @@ public class Leaderboards {
                 logger.log(Level.WARNING, "Failed to create new file: {0}", fileName);
             }
         } catch (IOException e) {
-            logger.log(Level.SEVERE, "Error while creating or opening file", e);
+            throw new UncheckedIOException("Could not create " + fileName, e);
         }
 
         readFromSaved();
+        try {
+            journal.replay(this::register);
+        } catch (IOException e) {
+            // A journal this game can not read is moved aside, and new results start a fresh one
+            if (Files.exists(journal.getPath())) {
+                throw new UncheckedIOException("Could not read " + journal.getPath(), e);
+            }
+            logger.log(Level.SEVERE, "Error while replaying the journal", e);
+        }
+        if (journal.getRecordCount() >= COMPACT_AFTER) {
+            compact();
+        }
     }
 
     /**
-     * Reads the existing leaderboard data from the CSV file and populates the entries array.
-     * Splits each line into name and score, Creates a new Entry object for each pair and adds it to the entries array.
+     * Reads the existing leaderboard data from the CSV file and populates the store.
+     * Splits each line into name and score, and keeps the best score of each name.
+     * Empty lines are skipped, and lines that are not a name and a score are skipped and logged.
+     *
+     * @throws UncheckedIOException if the file can not be read
      */
     private void readFromSaved() {
         try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
             String line;
             // Read each line from file
-            while ((line = reader.readLine()) != null && entryCount < MAX_ENTRIES) {
-                if (line.isEmpty()) {
-                    break;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    Entry entry = parseLine(line);
+                    if (entry != null) register(entry);
+                } catch (IllegalArgumentException e) {
+                    logger.log(Level.WARNING, "Skipped invalid line in {0}: {1}", new Object[]{fileName, line});
                 }
-
-                // Splits line into name and score
-                final String[] parts = line.split(",");
-                final String name = parts[0];
-                final int score = Integer.parseInt(parts[1]);
-
-                // Create a new Entry with the parsed name and score and add it to entities array
-                entries[entryCount++] = new Entry(name, score);
             }
         } catch (IOException e) {
-            logger.log(Level.SEVERE, "Error while reading from file", e);
+            throw new UncheckedIOException("Could not read " + fileName, e);
         }
+        entriesChanged = true;
+    }
+
+    /**
+     * Parses a line of a leaderboard CSV file, which is a name and a score, optionally followed by the time
+     * the score was set. Spaces around each value are ignored, as in "JAM, 10".
+     *
+     * @param line the line to parse
+     * @return the entry, or null if the line is empty
+     * @throws IllegalArgumentException if the line is not a name and a score
+     */
+    public static Entry parseLine(String line) {
+        if (line.trim().isEmpty()) return null;
+        final String[] parts = line.split(",");
+        if (parts.length < 2 || parts.length > 3 || parts[0].trim().isEmpty()) {
+            throw new IllegalArgumentException("Not a name and a score: " + line);
+        }
+        final String name = parts[0].trim();
+        final int score = Integer.parseInt(parts[1].trim());
+        final long timestamp = parts.length == 3 ? Long.parseLong(parts[2].trim()) : 0;
+        return new Entry(name, score, timestamp);
+    }
+
+    /**
+     * Registers a result read back from the CSV file or the journal in every view.
+     *
+     * @return true if the player's best score changed in any view
+     */
+    private boolean register(Entry entry) {
+        return store.upsert(entry.name, entry.score, entry.timestamp)
+                | windows.upsert(entry.name, entry.score, entry.timestamp);
     }
 
     /**
-     * Writes the current entries array to the CSV file.
+     * Formats an entry as a line of the CSV file, leaving out the time if it is not known.
+     */
+    private static String formatLine(Entry entry) {
+        String line = entry.name + "," + entry.score;
+        return entry.timestamp == 0 ? line : line + "," + entry.timestamp;
+    }
+
+    /**
+     * Writes every player's best score to the CSV file, highest first, and empties the journal.
+     * The best scores of today and this week follow, where they are not also the player's best of all time.
+     * The scores are written to a temporary file first, which is then renamed over the CSV file.
+     *
+     * @throws UncheckedIOException if the CSV file can not be written
      */
     public void writeToFile() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
-            for (int i = 0; i < entryCount; i++) {
-                Entry entry = entries[i];
-                writer.write(entry.name + "," + entry.score);
-                writer.newLine();
+        Path target = Paths.get(fileName);
+        Path temporary = Paths.get(fileName + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary)) {
+                for (Entry entry : store) {
+                    writer.write(formatLine(entry));
+                    writer.newLine();
+                }
+                // Today's and this week's best scores, where they are not the best of all time
+                Set<String> windowLines = new LinkedHashSet<>();
+                windows.forEach(entry -> {
+                    Entry best = store.getEntry(entry.name);
+                    if (!best.score.equals(entry.score) || best.timestamp != entry.timestamp) {
+                        windowLines.add(formatLine(entry));
+                    }
+                });
+                for (String line : windowLines) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
             }
         } catch (IOException e) {
-            logger.log(Level.SEVERE, "Error while writing to file", e);
+            throw new UncheckedIOException("Could not write " + fileName, e);
+        }
+        try {
+            journal.clear();
+        } catch (IOException e) {
+            // The scores are saved, and replaying records already in the CSV file changes nothing
+            logger.log(Level.WARNING, "Error while clearing the journal", e);
+        }
+    }
+
+    /**
+     * Writes the journal into the CSV file, logging rather than throwing if that fails, as every result in the journal
+     * is saved either way.
+     */
+    private void compact() {
+        try {
+            writeToFile();
+        } catch (UncheckedIOException e) {
+            logger.log(Level.SEVERE, "Error while compacting the journal", e);
         }
     }
 
     /**
      * Registers a new result with the given score and name.
      * If the name already exists in the leaderboard and the new score is higher, the score is updated.
-     * If the name does not exist and the score is good enough, a new entry is added.
+     * If the name does not exist, a new entry is added.
+     * Changes are appended to the journal, which is written into the CSV file once it grows long.
      *
      * @param score the score of the new result
      * @param name  the name of the new result
+     * @throws UncheckedIOException if the result could not be saved, in which case it is only kept until the game
+     * closes
      */
     public void registerResult(int score, String name) {
-        // Check if the player already exists and update their score if the new score is higher
-        for (int i = 0; i < entryCount; i++) {
-            if (entries[i].name.equals(name)) {
-                if (score > entries[i].score) {
-                    entries[i].score = score;
-                    // Write the updated list to file after modifying their score
-                    writeToFile();
-                }
-                return; // Exit early as result has been registered
-            }
-        }
-
-        // If the player doesn't already exist, handle adding a new entry
-        if (entryCount < MAX_ENTRIES) {
-            entries[entryCount++] = new Entry(name, score); // Adds a new entry if there is space in the array
-        } else {
-            // Find position for the new entry
-            int i = 0;
-            while (i < MAX_ENTRIES && entries[i].score >= score) {
-                i++;
-            }
+        registerResult(score, name, System.currentTimeMillis());
+    }
 
-            if (i < MAX_ENTRIES) {
-                // Shifts entries down to make room for a new entry
-                System.arraycopy(entries, i, entries, i + 1, MAX_ENTRIES - i - 1);
-                entries[i] = new Entry(name, score);
-            }
+    /**
+     * Registers a new result submitted at the given time, in the all-time leaderboard and those of its day and week.
+     *
+     * @param score the score of the new result
+     * @param name  the name of the new result
+     * @param timestamp when the result was submitted, in milliseconds since 1970
+     * @throws UncheckedIOException if the result could not be saved, in which case it is only kept until the game
+     * closes
+     */
+    public void registerResult(int score, String name, long timestamp) {
+        if (!register(new Entry(name, score, timestamp))) return;
+        entriesChanged = true;
+        try {
+            journal.append(name, score, timestamp);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error while writing to the journal", e);
+            writeToFile(); // Keep the result by writing the whole leaderboard instead
+            return;
+        }
+        if (journal.getRecordCount() >= COMPACT_AFTER) {
+            compact();
         }
+    }
 
-        // Sort entries and write the updated list to file
-        Arrays.sort(entries, 0, entryCount);
-        writeToFile();
+    /**
+     * Registers a result whose score the caller has already checked against the log of its game, see
+     * {@link com.main.simulation.ScoreVerifier}. The local file has no use for the log, so it is not checked again.
+     *
+     * @param score the score of the new result
+     * @param name  the name of the new result
+     * @param sessionLog the log of the game, from {@link com.main.simulation.SessionLog}
+     * @return true, as the result is always registered
+     * @throws UncheckedIOException if the result could not be saved
+     */
+    @Override
+    public boolean registerVerifiedResult(int score, String name, byte[] sessionLog) {
+        registerResult(score, name);
+        return true;
     }
 
     /**
@@ -172,16 +320,57 @@ public class Leaderboards {
      * @param score the score to check
      * @return true if the score is high enough to place in the top 10, otherwise false
      */
+    @Override
     public boolean doesPlaceT10(int score) {
-        if (entryCount < MAX_ENTRIES) return true;
-        return score > this.entries[MAX_ENTRIES-1].score;
+        return store.countAtLeast(score) < MAX_ENTRIES;
+    }
+
+    /**
+     * Finds a player's position among every player on the leaderboard, not only the top 10.
+     *
+     * @param name the name of the player
+     * @return the player's rank, where 1 is the highest score, or 0 if they have no score
+     */
+    public int getRank(String name) {
+        return store.rank(name);
+    }
+
+    /**
+     * Returns the top 10 entries of a view as it is now, highest score first, followed by nulls if there are
+     * fewer than 10.
+     * @param view the period to show the leaderboard for
+     * @return the top 10 entries
+     */
+    @Override
+    public Entry[] getEntries(LeaderboardView view) {
+        return getEntries(view, System.currentTimeMillis());
     }
 
     /**
-     * Returns the current entries array.
-     * @return the current entries array
+     * Returns the top 10 entries of a view at the given time, highest score first, followed by nulls if there are
+     * fewer than 10.
+     * @param view the period to show the leaderboard for
+     * @param now the current time, in milliseconds since 1970
+     * @return the top 10 entries
      */
+    public Entry[] getEntries(LeaderboardView view, long now) {
+        if (view == LeaderboardView.ALL_TIME) return getEntries();
+        Entry[] top = new Entry[MAX_ENTRIES];
+        windows.get(view, now).top(MAX_ENTRIES).toArray(top);
+        return top;
+    }
+
+    /**
+     * Returns the top 10 entries of all time, highest score first, followed by nulls if there are fewer than 10.
+     * @return the top 10 entries
+     */
+    @Override
     public Entry[] getEntries() {
+        if (entriesChanged) {
+            Arrays.fill(entries, null);
+            store.top(MAX_ENTRIES).toArray(entries);
+            entriesChanged = false;
+        }
         return entries;
     }
 }
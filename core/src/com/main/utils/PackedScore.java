@@ -0,0 +1,276 @@
+package com.main.utils;
+
+import com.main.map.Zone;
+
+/**
+ * Keeps the same score as {@link Score}, but in primitive fields so that it can be updated, scored and reset
+ * without allocating or boxing, for simulating and replaying large numbers of games.
+ * <p>
+ * Locations are zones, kept as bits of a mask by their ordinal. Only the three earliest meal times are kept in
+ * order, as they are all the meal bonus looks at, and the streaks achieved are kept as bits of an int.
+ * Every method gives the same results as the matching method of Score, except that calling
+ * {@link #checkStreaks()} more than once sets the same bits again rather than repeating the streaks.
+ */
+public class PackedScore {
+    // Constants for scoring
+    private static final int MAX_STUDY_HOURS = 6;
+    private static final int MIN_STUDY_HOURS = 2;
+    private static final int DAILY_RECREATIONAL_ACTIVITY_BONUS = 4;
+    private static final int MEAL_INTERVAL_BONUS = 5;
+    private static final int KEPT_MEALS = 3;
+
+    // Constants for streaks
+    private static final int NUM_LOCATIONS = 6;
+
+    /**
+     * The streaks that can be achieved, in the order Score lists them.
+     */
+    public enum Streak {
+        WADDLEWARE_REPRESENTATIVE("WaddleWare Representative"),
+        PROGRAMMER("Programmer"),
+        ATHLETE("Athlete"),
+        EARLY_NIGHTS("Early Nights"),
+        ALL_ROUNDER("All Rounder"),
+        DAILY_ROUTINE("Daily Routine");
+
+        public final String title;
+        public final int bit;
+
+        Streak(String title) {
+            this.title = title;
+            this.bit = 1 << ordinal();
+        }
+    }
+
+    private static final Streak[] STREAKS = Streak.values();
+
+    private int studyLocations; // Bits of the zones studied at today
+    private int recreationLocations; // Bits of the zones recreational activities were done at today
+    private final int[] mealTimes = new int[KEPT_MEALS]; // The earliest meal times today, in order
+    private boolean missedStudy;
+    private int studyCount;
+    private int mealCount;
+    private int recreationCount;
+    private int score;
+
+    // Used for streaks:
+    private int streaks; // Bits of the streaks achieved
+    private int daysAtSports;
+    private int earlyNights;
+    private int daysFeedDucks;
+    private int daysAtCS;
+    private int daysVisitAll;
+    private boolean allRounder;
+
+    /**
+     * Resets every counter and streak, so that the object can be reused for a new game.
+     */
+    public void reset() {
+        resetDay();
+        missedStudy = false;
+        score = 0;
+        streaks = 0;
+        daysAtSports = earlyNights = daysFeedDucks = daysAtCS = daysVisitAll = 0;
+        allRounder = false;
+    }
+
+    /**
+     * Adds study hours and the zone where the player studied.
+     * @param hours The number of study hours the player has completed.
+     * @param zone The zone where the player studied.
+     */
+    public void study(int hours, Zone zone) {
+        studyCount += hours;
+        studyLocations |= 1 << zone.ordinal();
+    }
+
+    /**
+     * Adds a meal the player has consumed and the time it was eaten.
+     * @param timeEaten The time the meal was eaten (as an integer representing game time in 24-hour clock).
+     */
+    public void eat(int timeEaten) {
+        int i = Math.min(mealCount, KEPT_MEALS);
+        mealCount++;
+        if (i == KEPT_MEALS) {
+            if (timeEaten >= mealTimes[KEPT_MEALS - 1]) return;
+            i--; // The latest kept meal is no longer one of the earliest
+        }
+        while (i > 0 && mealTimes[i - 1] > timeEaten) {
+            mealTimes[i] = mealTimes[i - 1];
+            i--;
+        }
+        mealTimes[i] = timeEaten;
+    }
+
+    /**
+     * Adds a recreational activity and the zone where it took place.
+     * @param hours The number of hours the activity took.
+     * @param zone The zone where the recreational activity was done.
+     */
+    public void doRecActivity(int hours, Zone zone) {
+        recreationCount += hours;
+        recreationLocations |= 1 << zone.ordinal();
+    }
+
+    /**
+     * Calculates and updates the player's score for the day, as {@link Score#calculateScore()} does.
+     * Should be called at the end of each day.
+     */
+    public int calculateScore() {
+        score = 0;
+
+        if (studyCount == 0) {
+            missedStudy = true;
+        }
+
+        if (studyCount >= MIN_STUDY_HOURS && studyCount <= MAX_STUDY_HOURS / 2) {
+            score += 5;
+        } else if (studyCount >= MAX_STUDY_HOURS / 2 && studyCount < MAX_STUDY_HOURS) {
+            score += 10;
+        } else if (studyCount < MIN_STUDY_HOURS) {
+            score -= 5;
+        } else {
+            score -= 3;
+        }
+
+        score += Integer.bitCount(studyLocations) * 5;
+        score += Integer.bitCount(recreationLocations) * 5;
+        score += recreationCount * DAILY_RECREATIONAL_ACTIVITY_BONUS;
+        score += calculateMealIntervalBonus();
+
+        return score;
+    }
+
+    /**
+     * Calculates the meal interval bonus from the earliest meal times, which are already in order.
+     * @return The meal interval bonus.
+     */
+    private int calculateMealIntervalBonus() {
+        if (mealCount == 1) return 3;
+        if (mealCount < 2 || !goodInterval(mealTimes[1] - mealTimes[0])) return 0;
+        if (mealCount == 3 && goodInterval(mealTimes[2] - mealTimes[1])) return 2 * MEAL_INTERVAL_BONUS;
+        return MEAL_INTERVAL_BONUS;
+    }
+
+    private static boolean goodInterval(int interval) {
+        return interval >= 2 && interval <= 6;
+    }
+
+    /**
+     * Counts the day towards the streaks and resets the daily counters.
+     * Should be called at the end of the day.
+     */
+    public void resetDailyCounters() {
+        incrementStreakCounters();
+        resetDay();
+    }
+
+    private void resetDay() {
+        studyLocations = recreationLocations = 0;
+        studyCount = mealCount = recreationCount = 0;
+    }
+
+    /**
+     * Checks the streak counters and sets the bits of the streaks that have been achieved.
+     * @return The streak bonus
+     */
+    public int checkStreaks() {
+        int streakBonus = 0;
+        if (daysFeedDucks == 7) {
+            streaks |= Streak.WADDLEWARE_REPRESENTATIVE.bit;
+            streakBonus += 10;
+        }
+        if (daysAtCS >= 5) {
+            streaks |= Streak.PROGRAMMER.bit;
+            streakBonus += 5;
+        }
+        if (daysAtSports == 7) {
+            streaks |= Streak.ATHLETE.bit;
+            streakBonus += 10;
+        }
+        if (earlyNights >= 5) {
+            streaks |= Streak.EARLY_NIGHTS.bit;
+            streakBonus += 5;
+        }
+        if (allRounder) {
+            streaks |= Streak.ALL_ROUNDER.bit;
+            streakBonus += 5;
+        }
+        if (daysVisitAll == 7) {
+            streaks |= Streak.DAILY_ROUTINE.bit;
+            streakBonus += 15;
+        }
+        return streakBonus;
+    }
+
+    private void incrementStreakCounters() {
+        if ((recreationLocations & 1 << Zone.FEED_DUCKS.ordinal()) != 0) {
+            daysFeedDucks += 1;
+        }
+        if ((recreationLocations & 1 << Zone.GYM.ordinal()) != 0) {
+            daysAtSports += 1;
+        }
+        if ((studyLocations & 1 << Zone.COMP_SCI.ordinal()) != 0) {
+            daysAtCS += 1;
+        }
+        if (Integer.bitCount(recreationLocations) + Integer.bitCount(studyLocations) == NUM_LOCATIONS) {
+            daysVisitAll += 1;
+            allRounder = true;
+        }
+    }
+
+    /**
+     * Increments earlyNights counter variable
+     */
+    public void incrementSleep() {
+        earlyNights += 1;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getStudyCount() {
+        return studyCount;
+    }
+
+    public int getMealCount() {
+        return mealCount;
+    }
+
+    public int getRecreationCount() {
+        return recreationCount;
+    }
+
+    public boolean hasMissedStudy() {
+        return missedStudy;
+    }
+
+    /**
+     * @return The bits of the streaks achieved, from {@link Streak#bit}.
+     */
+    public int getStreakBits() {
+        return streaks;
+    }
+
+    /**
+     * @return The streaks achieved, one per line, as Score gives them.
+     */
+    public String getStreaks() {
+        return describeStreaks(streaks);
+    }
+
+    /**
+     * Lists the streaks in a set of bits, one per line, as Score gives them.
+     *
+     * @param bits The bits of the streaks.
+     * @return The names of the streaks.
+     */
+    public static String describeStreaks(int bits) {
+        StringBuilder text = new StringBuilder();
+        for (Streak streak : STREAKS) {
+            if ((bits & streak.bit) != 0) text.append(streak.title).append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.main.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+/**
+ * Measures the rendering work done each frame and logs the averages at a fixed interval.
+ * Draw calls, texture binds and shader switches are counted for all GL calls, batch flushes only for the main batch.
+ * Enabled with -Dheslington.renderStats=true, as profiling adds a small cost to every GL call.
+ */
+public class RenderStats {
+    public static final boolean ENABLED = Boolean.getBoolean("heslington.renderStats");
+    private static final float LOG_INTERVAL = 2f; // Seconds between log lines
+
+    private final GLProfiler profiler;
+    private final SpriteBatch batch;
+    private int lastBatchFlushes;
+    private int frames;
+    private long drawCalls, textureBinds, shaderSwitches, batchFlushes;
+    private float timeSinceLog;
+
+    /**
+     * Starts profiling the GL calls made by the application.
+     *
+     * @param batch The main sprite batch, whose flushes are counted.
+     */
+    public RenderStats(SpriteBatch batch) {
+        this.batch = batch;
+        lastBatchFlushes = batch.totalRenderCalls;
+        profiler = new GLProfiler(Gdx.graphics);
+        profiler.enable();
+    }
+
+    /**
+     * Records the work done for the frame that was just rendered, logging the averages once the interval has passed.
+     *
+     * @param delta The time in seconds since the last frame.
+     */
+    public void endFrame(float delta) {
+        frames++;
+        drawCalls += profiler.getDrawCalls();
+        textureBinds += profiler.getTextureBindings();
+        shaderSwitches += profiler.getShaderSwitches();
+        batchFlushes += batch.totalRenderCalls - lastBatchFlushes;
+        lastBatchFlushes = batch.totalRenderCalls;
+        profiler.reset();
+
+        timeSinceLog += delta;
+        if (timeSinceLog >= LOG_INTERVAL) {
+            Gdx.app.log("RenderStats", String.format(
+                    "Per frame over %d frames: %.1f draw calls, %.1f texture binds, %.1f shader switches, %.1f batch flushes",
+                    frames, drawCalls / (float) frames, textureBinds / (float) frames,
+                    shaderSwitches / (float) frames, batchFlushes / (float) frames));
+            frames = 0;
+            drawCalls = textureBinds = shaderSwitches = batchFlushes = 0;
+            timeSinceLog = 0;
+        }
+    }
+}
@@ -2,21 +2,43 @@ package com.main.utils;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.main.Main;
+import com.main.map.GameMap;
 import com.main.screens.*;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Set;
 
 /**
  * The ScreenManager class manages the game screens, including creation, switching,
  * and memory management of screens.
+ * <p>
+ * Screens are built in stages, so that building one does not freeze the game. The files a screen needs are
+ * preloaded through the game's assets, which read them in the background and upload them a step per frame, and
+ * the screen itself is only built once they have all loaded, which is then quick. A screen that is asked for before
+ * its assets have loaded is replaced by a {@link LoadingScreen} until they have. Screens likely to come next can be
+ * warmed up with {@link #preload(ScreenType)} so that they are ready when they are asked for.
  */
 public class ScreenManager {
     private final Main game;
     private final Map<ScreenType, Screen> screensInMemory;
+    private final Map<ScreenType, List<AssetDescriptor<?>>> preloaded; // Assets held for screens until they are built
+    private final Set<ScreenType> keepWhenLoaded; // Screens to build and keep in memory once their assets have loaded
     private Screen curScreen;
-    private ScreenType curScreenType;
+    private ScreenType curScreenType; // Null while the loading screen is shown
+    private ScreenType nextScreenType; // The screen the loading screen is shown for
+    private Object[] nextArgs;
 
     /**
      * Initializes the ScreenManager with a reference to the main game class.
@@ -26,10 +48,13 @@ public class ScreenManager {
     public ScreenManager(Main game) {
         this.game = game;
         this.screensInMemory = new HashMap<>();
+        this.preloaded = new EnumMap<>(ScreenType.class);
+        this.keepWhenLoaded = EnumSet.noneOf(ScreenType.class);
     }
 
     /**
      * Keeps a screen in memory for quick access without having to recreate it.
+     * If its assets have not loaded yet, they are preloaded and the screen is built once they have.
      *
      * @param screenType The type of the screen to keep in memory.
      */
@@ -37,8 +62,12 @@ public class ScreenManager {
         if (screenType.equals(curScreenType) && curScreen != null){
             screensInMemory.put(screenType, curScreen);
         }
-        else{
-            screensInMemory.put(screenType, createScreen(screenType));
+        else if (isLoaded(screenType)) {
+            screensInMemory.put(screenType, buildScreen(screenType));
+        }
+        else {
+            preload(screenType);
+            keepWhenLoaded.add(screenType);
         }
     }
 
@@ -47,23 +76,90 @@ public class ScreenManager {
             screen.dispose();
         }
         screensInMemory.clear();
+        for (ScreenType type : ScreenType.values()) {
+            if (type != nextScreenType) releasePreloaded(type);
+        }
+        keepWhenLoaded.clear();
+    }
+
+    /**
+     * Starts loading the assets of a screen in the background, so that it can be built without waiting when it is
+     * next asked for. Does nothing if the screen is in memory or already being preloaded.
+     *
+     * @param screenType The type of the screen likely to be shown next.
+     */
+    public void preload(ScreenType screenType) {
+        if (screensInMemory.containsKey(screenType) || preloaded.containsKey(screenType)) return;
+        List<AssetDescriptor<?>> assets = getAssets(screenType);
+        for (AssetDescriptor<?> asset : assets) {
+            game.assets.preload(asset.fileName, asset.type);
+        }
+        preloaded.put(screenType, assets);
+    }
+
+    /**
+     * @param screenType The type of the screen.
+     * @return True if every asset of the screen has loaded, so it can be built without waiting.
+     */
+    public boolean isLoaded(ScreenType screenType) {
+        List<AssetDescriptor<?>> assets = preloaded.get(screenType);
+        for (AssetDescriptor<?> asset : assets != null ? assets : getAssets(screenType)) {
+            if (!game.assets.isLoaded(asset.fileName)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return True if the loading screen is shown while the assets of the next screen load.
+     */
+    public boolean isLoading() {
+        return nextScreenType != null;
+    }
+
+    /**
+     * Builds the screens whose assets have finished loading, and shows the screen the loading screen was
+     * shown for once it is built. Called once per frame, after the assets are updated.
+     */
+    public void update() {
+        Iterator<ScreenType> pending = keepWhenLoaded.iterator();
+        while (pending.hasNext()) {
+            ScreenType type = pending.next();
+            if (type != nextScreenType && isLoaded(type)) {
+                pending.remove();
+                screensInMemory.put(type, buildScreen(type));
+            }
+        }
+        if (nextScreenType != null && isLoaded(nextScreenType)) {
+            setScreen(nextScreenType, nextArgs);
+        }
     }
 
     /**
-     * Sets the current screen of the game. If the screen is stored in memory, it uses it; otherwise, it creates a new screen.
+     * Sets the current screen of the game. If the screen is stored in memory, it uses it; otherwise, it creates a
+     * new screen, showing the loading screen until its assets have loaded if they have not already.
      *
      * @param screenType The type of the screen to display.
      */
     public void setScreen(ScreenType screenType, Object... args) {
         Gdx.input.setInputProcessor(null);
+        nextScreenType = null;
+        nextArgs = null;
         if (curScreen != null && !screensInMemory.containsKey(curScreenType)){
             curScreen.dispose();
         }
         if (screensInMemory.containsKey(screenType)) {
             curScreen = screensInMemory.get(screenType);
         }
+        else if (isLoaded(screenType)) {
+            curScreen = buildScreen(screenType, args);
+            if (keepWhenLoaded.remove(screenType)) screensInMemory.put(screenType, curScreen);
+        }
         else {
-            curScreen = createScreen(screenType, args);
+            preload(screenType);
+            nextScreenType = screenType;
+            nextArgs = args;
+            screenType = null;
+            curScreen = createLoadingScreen();
         }
         curScreenType = screenType;
         game.setScreen(curScreen);
@@ -84,13 +180,61 @@ public class ScreenManager {
         }
     }
 
+    /**
+     * Builds a screen, then releases the references preloading held on its assets, which it now holds itself.
+     */
+    private Screen buildScreen(ScreenType type, Object... args) {
+        Screen screen = createScreen(type, args);
+        releasePreloaded(type);
+        return screen;
+    }
+
+    private void releasePreloaded(ScreenType type) {
+        List<AssetDescriptor<?>> assets = preloaded.remove(type);
+        if (assets == null) return;
+        for (AssetDescriptor<?> asset : assets) {
+            game.assets.release(asset.fileName);
+        }
+    }
+
+    /**
+     * Lists the assets loaded from files when a screen is built. Images drawn from the game's atlas and fonts shared
+     * through the skin are already loaded, but are listed so that they stay loaded until the screen is built.
+     *
+     * @param type The type of the screen.
+     * @return The assets the screen acquires.
+     */
+    protected List<AssetDescriptor<?>> getAssets(ScreenType type) {
+        switch (type) {
+            case GAME_SCREEN:
+                boolean boy = game.gameData.getGender();
+                return Arrays.asList(
+                        new AssetDescriptor<>(GameMap.MAP_PATH, TiledMap.class),
+                        new AssetDescriptor<>(GameAssets.FONT, BitmapFont.class),
+                        new AssetDescriptor<>(boy ? GameAssets.BOY_IDLE : GameAssets.GIRL_IDLE, Texture.class),
+                        new AssetDescriptor<>(boy ? GameAssets.BOY_WALK : GameAssets.GIRL_WALK, Texture.class));
+            case MINI_GAME:
+            case END_SCREEN:
+                return Collections.singletonList(new AssetDescriptor<>(GameAssets.FONT, BitmapFont.class));
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    /**
+     * @return The screen shown while the assets of the next screen load.
+     */
+    protected Screen createLoadingScreen() {
+        return new LoadingScreen(game);
+    }
+
     /**
      * Creates a screen based on the given screen type. This method defines how each screen type is instantiated.
      *
      * @param type The type of the screen to create.
      * @return The created screen, or null if the type is unknown.
      */
-    private Screen createScreen(ScreenType type, Object... args) {
+    protected Screen createScreen(ScreenType type, Object... args) {
         switch (type) {
             case MAIN_MENU:
                 return new MainMenuScreen(game);
@@ -101,9 +245,9 @@ public class ScreenManager {
             case CONTROLS:
                 return new MainControlScreen(game);
             case MINI_GAME:
-                return new TypingGame(game, (int) args[0]);
+                return new TypingGame(game, (int) args[0], (long) args[1]);
             case END_SCREEN:
-                return new EndScreen(game, (int) args[0], (String) args[1]); // Added code
+                return new EndScreen(game, (int) args[0], (String) args[1], (byte[]) args[2]); // Added code
             default: // Added code
                 throw new IllegalArgumentException("Unknown screen type: " + type); // Added code
         }
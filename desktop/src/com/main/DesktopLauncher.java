@@ -4,12 +4,16 @@ import com.badlogic.gdx.Files;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import com.badlogic.gdx.Graphics.DisplayMode;
+import com.main.replay.InputPlayback;
 import org.lwjgl.glfw.GLFW;
 import org.lwjgl.glfw.GLFWVidMode;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 // Please note that on macOS your application needs to be started with the -XstartOnFirstThread JVM argument
 public class DesktopLauncher {
-	public static void main (String[] arg) {
+	public static void main (String[] arg) throws IOException {
 		Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
 		// get user's monitor resolution
 		DisplayMode displayMode = Lwjgl3ApplicationConfiguration.getDisplayMode();
@@ -24,7 +28,8 @@ public class DesktopLauncher {
 		// General window configuration
 		config.setWindowPosition(0, 40);
 		config.setResizable(true);
-		config.setForegroundFPS(60);
+		// Only limits rendering, the game logic runs at a fixed rate. 0 renders as fast as possible
+		config.setForegroundFPS(Integer.getInteger("heslington.fps", 60));
 		// config.setDecorated(false); //this can be used to remove the window
 
 		// Set window icons for different platforms
@@ -33,6 +38,16 @@ public class DesktopLauncher {
 		config.setWindowIcon(Files.FileType.Internal, "icon/icon_128.png"); // icon for macOS
 
 		config.setTitle("Heslington_Hustle");
-		new Lwjgl3Application(new Main(), config);
+
+		// Sessions can be recorded to a file and replayed from one, for testing and checking scores
+		Main game = new Main();
+		game.recordPath = System.getProperty("heslington.record");
+		String replayPath = System.getProperty("heslington.replay");
+		if (replayPath != null) game.playback = InputPlayback.read(java.nio.file.Files.readAllBytes(Paths.get(replayPath)));
+		game.replaySpeed = Integer.getInteger("heslington.replaySpeed", 1);
+		// Kiosks can share one leaderboard server, see LeaderboardServer
+		game.leaderboardUrl = System.getProperty("heslington.leaderboardUrl");
+		game.leaderboardBoard = System.getProperty("heslington.leaderboardBoard", game.leaderboardBoard);
+		new Lwjgl3Application(game, config);
 	}
 }
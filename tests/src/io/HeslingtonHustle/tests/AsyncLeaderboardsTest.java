@@ -0,0 +1,194 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.map.Zone;
+import com.main.simulation.GameSimulation;
+import com.main.simulation.SessionLog;
+import com.main.utils.AsyncLeaderboards;
+import com.main.utils.FixedTimestep;
+import com.main.utils.LeaderboardJournal;
+import com.main.utils.LeaderboardStore;
+import com.main.utils.Leaderboards;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the AsyncLeaderboards class
+ */
+public class AsyncLeaderboardsTest {
+    private static final String FILE_NAME = "async-test.csv";
+    private static final Path CSV = Paths.get(FILE_NAME);
+    private static final Path JOURNAL = Paths.get(FILE_NAME + ".journal");
+    private static final Path TEMPORARY = Paths.get(FILE_NAME + ".tmp");
+    private static final Path BLOCKER = JOURNAL.resolve("blocker"); // Keeps a journal replaced by a directory in place
+
+    /**
+     * Erases the leaderboard and its journal after each test
+     */
+    @After
+    public void eraseFiles() throws IOException {
+        Files.deleteIfExists(CSV);
+        if (Files.isDirectory(JOURNAL)) Files.delete(BLOCKER);
+        Files.deleteIfExists(JOURNAL);
+        Files.deleteIfExists(TEMPORARY);
+    }
+
+    /**
+     * Plays a logged week of studying for the given number of hours a day.
+     *
+     * @return the simulation, holding the final score
+     */
+    static GameSimulation playWeek(int studyHours, SessionLog log) {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setLog(log);
+        while (!simulation.isFinished()) {
+            simulation.eat(Zone.PIAZZA);
+            simulation.study(studyHours, Zone.COMP_SCI);
+            while (!simulation.isFinished() && !simulation.canSleep()) simulation.advance(FixedTimestep.STEP);
+            simulation.sleep();
+        }
+        return simulation;
+    }
+
+    static void await(AsyncLeaderboards.Submission submission) throws InterruptedException {
+        for (int i = 0; i < 500 && !submission.isDone(); i++) Thread.sleep(10);
+        assertTrue(submission.isDone());
+    }
+
+    /**
+     * Tests that the leaderboard is read in the background and its top 10 can then be read without waiting.
+     */
+    @Test
+    public void testLoadsInBackground() throws InterruptedException, IOException {
+        Files.write(CSV, Arrays.asList("AMY,200", "BOB,100"));
+        AsyncLeaderboards leaderboards = new AsyncLeaderboards(FILE_NAME);
+        leaderboards.load();
+        for (int i = 0; i < 500 && !leaderboards.isLoaded(); i++) Thread.sleep(10);
+
+        assertTrue(leaderboards.isLoaded());
+        Leaderboards.Entry[] entries = leaderboards.getEntries();
+        assertEquals("AMY", entries[0].name);
+        assertEquals((Integer) 100, entries[1].score);
+        assertNull(entries[2]);
+        assertTrue(leaderboards.doesPlaceT10(0));
+        assertTrue(leaderboards.shutdown(1000));
+    }
+
+    /**
+     * Tests that results submitted while the background thread is busy are verified and written together,
+     * keeping only the best valid score of each player.
+     */
+    @Test
+    public void testCoalescesSubmissions() throws InterruptedException, IOException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AsyncLeaderboards leaderboards = new AsyncLeaderboards(FILE_NAME, executor);
+        CountDownLatch busy = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                busy.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        SessionLog lowLog = new SessionLog(1), highLog = new SessionLog(2);
+        int low = playWeek(1, lowLog).getFinalScore();
+        int high = playWeek(3, highLog).getFinalScore();
+        assertTrue(high > low);
+
+        AsyncLeaderboards.Submission first = leaderboards.registerVerifiedResult(low, "JAM", lowLog.toBytes());
+        AsyncLeaderboards.Submission second = leaderboards.registerVerifiedResult(high, "JAM", highLog.toBytes());
+        AsyncLeaderboards.Submission forged = leaderboards.registerVerifiedResult(high + 1, "BOB", highLog.toBytes());
+        assertFalse(first.isDone());
+        busy.countDown();
+        await(first);
+        await(second);
+        await(forged);
+
+        assertTrue(first.isRegistered());
+        assertTrue(second.isRegistered());
+        assertFalse(forged.isRegistered());
+        assertEquals("JAM", leaderboards.getEntries()[0].name);
+        assertEquals((Integer) high, leaderboards.getEntries()[0].score);
+        assertNull(leaderboards.getEntries()[1]);
+        assertTrue(leaderboards.shutdown(1000));
+
+        LeaderboardStore store = new LeaderboardStore();
+        assertEquals(1, new LeaderboardJournal(JOURNAL).replay(store)); // Only the best score was written
+        assertEquals((Integer) high, store.getScore("JAM"));
+    }
+
+    /**
+     * Tests that a leaderboard that can not be opened is reported as failed rather than loading forever,
+     * and that results submitted to it are completed as not saved.
+     */
+    @Test
+    public void testFailingOpener() throws InterruptedException {
+        AsyncLeaderboards leaderboards = new AsyncLeaderboards(() -> {
+            throw new UncheckedIOException(new IOException("Disk unavailable"));
+        });
+        SessionLog log = new SessionLog(1);
+        int score = playWeek(2, log).getFinalScore();
+
+        AsyncLeaderboards.Submission valid = leaderboards.registerVerifiedResult(score, "JAM", log.toBytes());
+        AsyncLeaderboards.Submission forged = leaderboards.registerVerifiedResult(score + 1, "BOB", log.toBytes());
+        await(valid);
+        await(forged);
+
+        assertTrue(leaderboards.isFailed());
+        assertFalse(leaderboards.isLoaded());
+        assertNull(leaderboards.getEntries()[0]);
+        assertFalse(valid.isRegistered());
+        assertTrue(valid.isFailed());
+        assertFalse(forged.isRegistered());
+        assertFalse(forged.isFailed()); // Rejected for not matching its log, not for the failure
+
+        // Later results are completed too, rather than failing on the missing leaderboard
+        AsyncLeaderboards.Submission later = leaderboards.registerVerifiedResult(score, "AMY", log.toBytes());
+        await(later);
+        assertTrue(later.isFailed());
+        assertTrue(leaderboards.shutdown(1000));
+    }
+
+    /**
+     * Tests that a result the leaderboard could not save is completed as failed rather than saved, and that a
+     * leaderboard whose journal can not be read fails to open.
+     */
+    @Test
+    public void testUnwritableJournal() throws InterruptedException, IOException {
+        AsyncLeaderboards leaderboards = new AsyncLeaderboards(FILE_NAME);
+        leaderboards.load();
+        for (int i = 0; i < 500 && !leaderboards.isLoaded(); i++) Thread.sleep(10);
+        assertTrue(leaderboards.isLoaded());
+
+        // Directories where the journal and the replacement CSV file would be written
+        Files.createDirectory(JOURNAL);
+        Files.createFile(BLOCKER);
+        Files.createDirectory(TEMPORARY);
+        SessionLog log = new SessionLog(1);
+        int score = playWeek(2, log).getFinalScore();
+        AsyncLeaderboards.Submission submission = leaderboards.registerVerifiedResult(score, "JAM", log.toBytes());
+        await(submission);
+        assertTrue(submission.isFailed());
+        assertFalse(submission.isRegistered());
+        assertTrue(leaderboards.shutdown(1000));
+
+        AsyncLeaderboards reopened = new AsyncLeaderboards(FILE_NAME);
+        reopened.load();
+        for (int i = 0; i < 500 && !reopened.isFailed(); i++) Thread.sleep(10);
+        assertTrue(reopened.isFailed());
+        assertFalse(reopened.isLoaded());
+        assertTrue(reopened.shutdown(1000));
+    }
+}
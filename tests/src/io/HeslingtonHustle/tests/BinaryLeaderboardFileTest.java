@@ -0,0 +1,117 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.utils.BinaryLeaderboardFile;
+import com.main.utils.LeaderboardStore;
+import com.main.utils.Leaderboards;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the BinaryLeaderboardFile class
+ */
+public class BinaryLeaderboardFileTest {
+    private static final Path CSV = Paths.get("binary-test.csv");
+    private static final Path BINARY = Paths.get("binary-test.hhlb");
+    private static final Path EXPORTED = Paths.get("binary-test-exported.csv");
+
+    /**
+     * Erases the files written after each test
+     */
+    @After
+    public void eraseFiles() throws IOException {
+        Files.deleteIfExists(CSV);
+        Files.deleteIfExists(BINARY);
+        Files.deleteIfExists(EXPORTED);
+    }
+
+    /**
+     * Tests importing a CSV file written like the shipped leaderboard.csv, with spaces after commas,
+     * an empty line and no line break at the end.
+     */
+    @Test
+    public void testImportShippedCsv() throws IOException {
+        Files.write(CSV, "MIS,2147483647\nBOB,0\nJAM, 10\n\nWIL, 98\nMIA, 2".getBytes());
+        assertEquals(5, BinaryLeaderboardFile.importCsv(CSV, BINARY));
+
+        BinaryLeaderboardFile file = BinaryLeaderboardFile.open(BINARY);
+        assertEquals(5, file.size());
+        assertEquals("MIS", file.get(1).name);
+        assertEquals((Integer) Integer.MAX_VALUE, file.get(1).score);
+        assertEquals("WIL", file.top(2).get(1).name);
+        assertEquals(3, file.rank("JAM"));
+        assertEquals(5, file.rank("BOB"));
+        assertEquals(0, file.rank("ZED"));
+        assertEquals(2, file.countAtLeast(98));
+        assertEquals(2, file.countAtLeast(11));
+        assertEquals(3, file.countAtLeast(10));
+    }
+
+    /**
+     * Tests that exporting and importing again keeps every entry, including repeated names and timestamps.
+     */
+    @Test
+    public void testCsvRoundTrip() throws IOException {
+        Files.write(CSV, Arrays.asList("JAM,10,1714000000000", "AMY,20", "JAM,30,1714000001000", "BOB,20"));
+        BinaryLeaderboardFile.importCsv(CSV, BINARY);
+        byte[] imported = Files.readAllBytes(BINARY);
+
+        BinaryLeaderboardFile.exportCsv(BINARY, EXPORTED);
+        assertEquals(Arrays.asList("JAM,30,1714000001000", "AMY,20", "BOB,20", "JAM,10,1714000000000"),
+                Files.readAllLines(EXPORTED));
+        BinaryLeaderboardFile.importCsv(EXPORTED, BINARY);
+        assertArrayEquals(imported, Files.readAllBytes(BINARY));
+        assertEquals(1, BinaryLeaderboardFile.open(BINARY).rank("JAM")); // The best of a repeated name
+        assertEquals(1714000000000L, BinaryLeaderboardFile.open(BINARY).get(4).timestamp);
+    }
+
+    /**
+     * Tests ranks, entries at ranks and placing scores against a LeaderboardStore holding the same entries.
+     */
+    @Test
+    public void testAgainstStore() throws IOException {
+        Random random = new Random(23);
+        LeaderboardStore store = new LeaderboardStore();
+        List<Leaderboards.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            String name = Integer.toString(random.nextInt(1 << 30), 36);
+            int score = random.nextInt(500) - 100;
+            if (store.upsert(name, score)) entries.add(new Leaderboards.Entry(name, score));
+        }
+        BinaryLeaderboardFile.write(BINARY, entries);
+
+        BinaryLeaderboardFile file = BinaryLeaderboardFile.open(BINARY);
+        assertEquals(store.size(), file.size());
+        for (int rank = 1; rank <= store.size(); rank++) {
+            Leaderboards.Entry expected = store.get(rank);
+            assertEquals(expected.name, file.get(rank).name);
+            assertEquals(expected.score, file.get(rank).score);
+            assertEquals(rank, file.rank(expected.name));
+        }
+        for (int score = -120; score < 420; score += 7) {
+            assertEquals(store.countAtLeast(score), file.countAtLeast(score));
+        }
+    }
+
+    /**
+     * Tests that a file cut short is refused rather than read past its end.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncatedFile() throws IOException {
+        BinaryLeaderboardFile.write(BINARY, Arrays.asList(new Leaderboards.Entry("JAM", 10),
+                new Leaderboards.Entry("AMY", 20)));
+        byte[] bytes = Files.readAllBytes(BINARY);
+        Files.write(BINARY, Arrays.copyOf(bytes, bytes.length - 1));
+        BinaryLeaderboardFile.open(BINARY);
+    }
+}
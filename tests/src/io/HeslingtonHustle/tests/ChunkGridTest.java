@@ -0,0 +1,139 @@
+package io.HeslingtonHustle.tests;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.main.map.ChunkGrid;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the ChunkGrid class
+ */
+public class ChunkGridTest {
+    private static final int CHUNKS = 8; // A map of 8x8 chunks
+    private static final float CHUNK_SIZE = 512; // 32 tiles of 16px
+    private static final float TILE = 16;
+
+    private ChunkGrid grid;
+    private boolean[] baked;
+    private IntArray toBake;
+
+    @Before
+    public void initialise() {
+        grid = new ChunkGrid(CHUNKS, CHUNKS, CHUNK_SIZE, CHUNK_SIZE, TILE, TILE, 1, 3);
+        baked = new boolean[CHUNKS * CHUNKS];
+        toBake = new IntArray();
+    }
+
+    /**
+     * Bakes the chunks the grid asks for, as the renderer does each frame.
+     */
+    private void bakeFrame() {
+        grid.findChunksToBake(chunk -> baked[chunk], toBake);
+        for (int i = 0; i < toBake.size; i++) {
+            baked[toBake.get(i)] = true;
+        }
+    }
+
+    private static int chunk(int x, int y) {
+        return y * CHUNKS + x;
+    }
+
+    /**
+     * Tests that the view is widened by a tile, so a view ending just before a chunk still includes it.
+     */
+    @Test
+    public void testViewRange() {
+        grid.setView(600, 600, 420, 300); // Ends in chunk 1 at x = 1020, widened by a tile to reach chunk 2
+        assertEquals(1, grid.getViewX1());
+        assertEquals(1, grid.getViewY1());
+        assertEquals(2, grid.getViewX2());
+        assertEquals(1, grid.getViewY2());
+        assertTrue(grid.isInView(2, 1));
+        assertFalse(grid.isInView(0, 1));
+        assertFalse(grid.isInView(2, 2));
+
+        grid.setView(1100, 1100, 200, 200); // Well inside chunk 2
+        assertEquals(2, grid.getViewX1());
+        assertEquals(2, grid.getViewX2());
+    }
+
+    /**
+     * Tests that the range is clamped to the map at its edges, and is empty for a view off the map.
+     */
+    @Test
+    public void testMapEdges() {
+        grid.setView(-300, -300, 640, 360);
+        assertEquals(0, grid.getViewX1());
+        assertEquals(0, grid.getViewY1());
+        assertEquals(0, grid.getViewX2());
+        assertEquals(0, grid.getViewY2());
+
+        grid.setView(CHUNKS * CHUNK_SIZE - 100, CHUNKS * CHUNK_SIZE - 100, 640, 360);
+        assertEquals(CHUNKS - 1, grid.getViewX1());
+        assertEquals(CHUNKS - 1, grid.getViewX2());
+        assertEquals(CHUNKS - 1, grid.getViewY2());
+
+        // Prefetching at the corner stays on the map
+        bakeFrame();
+        bakeFrame();
+        bakeFrame();
+        bakeFrame();
+        for (int i = 0; i < baked.length; i++) {
+            boolean nearCorner = i == chunk(7, 7) || i == chunk(6, 7) || i == chunk(7, 6) || i == chunk(6, 6);
+            assertEquals("Chunk " + i, nearCorner, baked[i]);
+        }
+
+        grid.setView(CHUNKS * CHUNK_SIZE + 1000, 0, 640, 360);
+        assertFalse(grid.isInView(CHUNKS - 1, 0));
+        assertTrue(grid.isFarFromView(CHUNKS - 1, 0));
+        grid.findChunksToBake(chunk -> false, toBake);
+        assertEquals(0, toBake.size);
+    }
+
+    /**
+     * Tests that every chunk in view is baked at once, but the chunks around it only one per frame.
+     */
+    @Test
+    public void testPrefetchOnePerFrame() {
+        grid.setView(1100, 1100, 200, 200); // Only chunk (2, 2) in view
+        bakeFrame();
+        assertEquals(2, toBake.size);
+        assertEquals(chunk(2, 2), toBake.get(0) == chunk(2, 2) ? toBake.get(0) : toBake.get(1));
+
+        for (int frame = 0; frame < 7; frame++) {
+            bakeFrame();
+            assertEquals(1, toBake.size);
+        }
+        bakeFrame();
+        assertEquals(0, toBake.size); // The 3x3 chunks around the view are all baked
+        int count = 0;
+        for (boolean chunkBaked : baked) {
+            if (chunkBaked) count++;
+        }
+        assertEquals(9, count);
+    }
+
+    /**
+     * Tests a camera that moves several chunks in one frame: everything in the new view is baked straight away,
+     * and only the chunks more than the evict distance from the new view are freed.
+     */
+    @Test
+    public void testJumpSeveralChunks() {
+        grid.setView(0, 0, 640, 360);
+        bakeFrame();
+        assertTrue(baked[chunk(0, 0)] && baked[chunk(1, 0)]);
+
+        grid.setView(5 * CHUNK_SIZE + 100, 5 * CHUNK_SIZE + 100, 640, 360); // Chunks 5 to 6, five chunks away
+        bakeFrame();
+        assertTrue(baked[chunk(5, 5)] && baked[chunk(6, 5)]);
+        assertEquals(3, toBake.size); // The two in view and one prefetched
+
+        assertTrue(grid.isFarFromView(0, 0));
+        assertTrue(grid.isFarFromView(1, 5));
+        assertFalse(grid.isFarFromView(2, 5)); // Exactly the evict distance away, so kept
+        assertFalse(grid.isFarFromView(5, 2));
+        assertFalse(grid.isFarFromView(7, 7));
+    }
+}
@@ -0,0 +1,273 @@
+package io.HeslingtonHustle.tests;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.Vector2;
+import com.main.utils.CollisionHandler;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the CollisionHandler class
+ */
+public class CollisionHandlerTest {
+    private static final int TILE_SIZE = 16;
+    private static final int MAP_SIZE = 20;
+
+    private TiledMap tiledMap;
+
+    /**
+     * Creates an empty tile layer with the map's dimensions and adds it to the map.
+     *
+     * @param name The name of the layer.
+     * @return The created layer.
+     */
+    private TiledMapTileLayer addLayer(String name) {
+        TiledMapTileLayer layer = new TiledMapTileLayer(MAP_SIZE, MAP_SIZE, TILE_SIZE, TILE_SIZE);
+        layer.setName(name);
+        tiledMap.getLayers().add(layer);
+        return layer;
+    }
+
+    /**
+     * Fills a column of tiles in a layer, used to build walls.
+     */
+    private void fillColumn(TiledMapTileLayer layer, int tileX) {
+        for (int j = 0; j < MAP_SIZE; j++) {
+            layer.setCell(tileX, j, new TiledMapTileLayer.Cell());
+        }
+    }
+
+    /**
+     * A handler that counts the tiles it looks up, to compare the cost of the solvers.
+     */
+    private static class ProbeCountingHandler extends CollisionHandler {
+        long probes;
+
+        ProbeCountingHandler(TiledMap tiledMap) {
+            super(tiledMap, TILE_SIZE, TILE_SIZE, 16, 16, 1, 1);
+        }
+
+        @Override
+        public boolean isBlocked(int tileX, int tileY) {
+            probes++;
+            return super.isBlocked(tileX, tileY);
+        }
+    }
+
+    /**
+     * Creates a handler for a 16x16 object with no scaling.
+     */
+    private CollisionHandler createHandler() {
+        return new CollisionHandler(tiledMap, TILE_SIZE, TILE_SIZE, 16, 16, 1, 1);
+    }
+
+    /**
+     * Initialises an empty map with a single non-colliding ground layer.
+     */
+    @Before
+    public void initialise() {
+        tiledMap = new TiledMap();
+        addLayer("Ground");
+    }
+
+    /**
+     * Tests that tiles from every added layer are blocked, and tiles from other layers are not.
+     */
+    @Test
+    public void testBlockedTilesFromAllLayers() {
+        addLayer("Water").setCell(2, 3, new TiledMapTileLayer.Cell());
+        addLayer("Trees").setCell(5, 7, new TiledMapTileLayer.Cell());
+        addLayer("Path").setCell(9, 9, new TiledMapTileLayer.Cell());
+
+        CollisionHandler handler = createHandler();
+        handler.addCollisionLayers("Water", "Trees");
+
+        assertTrue(handler.isBlocked(2, 3));
+        assertTrue(handler.isBlocked(5, 7));
+        assertFalse(handler.isBlocked(9, 9));
+        assertFalse(handler.isBlocked(0, 0));
+    }
+
+    /**
+     * Tests that tiles outside the map and layers missing from the map are treated as free.
+     */
+    @Test
+    public void testOutsideMapAndMissingLayer() {
+        CollisionHandler handler = createHandler();
+        handler.addCollisionLayers("Does_not_exist");
+
+        assertFalse(handler.isBlocked(-1, 0));
+        assertFalse(handler.isBlocked(0, -1));
+        assertFalse(handler.isBlocked(MAP_SIZE, 0));
+        assertFalse(handler.isBlocked(0, MAP_SIZE));
+    }
+
+    /**
+     * Tests that moving into a wall stops the object before the wall.
+     */
+    @Test
+    public void testAdjustPosStopsAtWall() {
+        fillColumn(addLayer("wall_1"), 10);
+        CollisionHandler handler = createHandler();
+        handler.addCollisionLayers("wall_1");
+
+        Vector2 pos = handler.adjustPos(140, 100, 150, 100);
+        assertTrue(pos.x + 16 < 10 * TILE_SIZE);
+        assertEquals(100, pos.y, 0.001);
+    }
+
+    /**
+     * Tests that the result of a collision does not depend on how the blocked tiles are split between layers.
+     */
+    @Test
+    public void testResultIndependentOfLayerCount() {
+        fillColumn(addLayer("wall_1"), 10);
+        TiledMapTileLayer[] split = new TiledMapTileLayer[9];
+        for (int i = 0; i < split.length; i++) {
+            split[i] = addLayer("split_" + i);
+        }
+        for (int j = 0; j < MAP_SIZE; j++) {
+            split[j % split.length].setCell(10, j, new TiledMapTileLayer.Cell());
+        }
+
+        CollisionHandler single = createHandler();
+        single.addCollisionLayers("wall_1");
+        CollisionHandler many = createHandler();
+        many.addCollisionLayers("split_0", "split_1", "split_2", "split_3", "split_4",
+                "split_5", "split_6", "split_7", "split_8");
+
+        assertEquals(single.adjustPos(140, 100, 150, 103), many.adjustPos(140, 100, 150, 103));
+        assertEquals(single.adjustPos(100, 100, 104, 96), many.adjustPos(100, 100, 104, 96));
+    }
+
+    /**
+     * Tests that the allocation-free overload gives the same result as the object-returning one.
+     */
+    @Test
+    public void testOutOverloadMatchesWrapper() {
+        fillColumn(addLayer("wall_1"), 10);
+        CollisionHandler handler = createHandler();
+        handler.addCollisionLayers("wall_1");
+
+        Vector2 out = new Vector2();
+        assertSame(out, handler.adjustPos(140, 100, 150, 103, out));
+        assertEquals(handler.adjustPos(140, 100, 150, 103), out);
+        assertFalse(handler.adjustPosStep(100, 100, 104, 104, out));
+        assertNull(handler.adjustPosStep(100, 100, 104, 104));
+    }
+
+    /**
+     * Tests that once warmed up, resolving a collision with adjustPos does not allocate any memory.
+     */
+    @Test
+    public void testAdjustPosDoesNotAllocate() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        fillColumn(addLayer("wall_1"), 10);
+        CollisionHandler handler = createHandler();
+        handler.addCollisionLayers("wall_1");
+        Vector2 out = new Vector2();
+        final int calls = 10000;
+
+        for (int i = 0; i < calls * 5; i++) { // Warm up so that the JIT has compiled the collision path
+            handler.adjustPos(140, 100, 150 + i % 3, 103, out);
+            handler.adjustPos(100, 100, 104, 96 + i % 3, out);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < calls; i++) {
+            handler.adjustPos(140, 100, 150 + i % 3, 103, out);
+            handler.adjustPos(100, 100, 104, 96 + i % 3, out);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("adjustPos allocated " + allocated + " bytes over " + calls + " calls", allocated < calls);
+    }
+
+    /**
+     * Tests that both solvers agree on ordinary per-frame movements, including sliding along a wall.
+     */
+    @Test
+    public void testSolversAgreeOnSmallMoves() {
+        fillColumn(addLayer("wall_1"), 10);
+        ProbeCountingHandler iterative = new ProbeCountingHandler(tiledMap);
+        iterative.addCollisionLayers("wall_1");
+        ProbeCountingHandler swept = new ProbeCountingHandler(tiledMap);
+        swept.addCollisionLayers("wall_1");
+        swept.setSolver(CollisionHandler.Solver.SWEPT);
+
+        float[][] moves = {
+                {140, 100, 146, 100}, // Into the wall
+                {140, 100, 146, 106}, // Diagonally into the wall, sliding up it
+                {100, 100, 106, 94},  // Nowhere near the wall
+                {180, 100, 174, 100}, // Into the wall from the other side
+                {143, 100, 143, 107}, // Along the wall
+        };
+        for (float[] move : moves) {
+            assertEquals(iterative.adjustPos(move[0], move[1], move[2], move[3]),
+                    swept.adjustPos(move[0], move[1], move[2], move[3]));
+        }
+    }
+
+    /**
+     * Tests that a large movement in one frame skips a thin wall with the iterative solver but not the swept one.
+     */
+    @Test
+    public void testSweptDoesNotTunnel() {
+        fillColumn(addLayer("wall_1"), 10);
+        CollisionHandler handler = createHandler();
+        handler.addCollisionLayers("wall_1");
+
+        assertTrue(handler.adjustPos(100, 100, 200, 100).x > 11 * TILE_SIZE); // Iterative only checks the target
+
+        handler.setSolver(CollisionHandler.Solver.SWEPT);
+        Vector2 pos = handler.adjustPos(100, 100, 200, 100);
+        assertEquals(10 * TILE_SIZE - 16 - 1, pos.x, 0.001);
+        assertEquals(100, pos.y, 0.001);
+    }
+
+    /**
+     * Tests that the work done by the swept solver is bounded by the tiles crossed, even for movements far off the map.
+     */
+    @Test
+    public void testSweptCostIsBounded() {
+        ProbeCountingHandler handler = new ProbeCountingHandler(tiledMap);
+        handler.setSolver(CollisionHandler.Solver.SWEPT);
+
+        // A 16px object spans 2 rows, so crossing the 20 columns of the map costs at most 2 * 20 probes
+        handler.adjustPos(0, 100, 100000, 100);
+        assertTrue(handler.probes <= 2 * MAP_SIZE);
+
+        handler.probes = 0;
+        handler.adjustPos(100, 100, 104, 100); // Staying in the same column needs no probes at all
+        assertEquals(0, handler.probes);
+    }
+
+    /**
+     * Tests that pressing against a wall for a frame costs the swept solver fewer probes than the iterative one.
+     */
+    @Test
+    public void testSweptCheaperAgainstWall() {
+        fillColumn(addLayer("wall_1"), 10);
+        ProbeCountingHandler iterative = new ProbeCountingHandler(tiledMap);
+        iterative.addCollisionLayers("wall_1");
+        ProbeCountingHandler swept = new ProbeCountingHandler(tiledMap);
+        swept.addCollisionLayers("wall_1");
+        swept.setSolver(CollisionHandler.Solver.SWEPT);
+
+        iterative.adjustPos(143, 100, 149, 100);
+        swept.adjustPos(143, 100, 149, 100);
+        assertTrue(swept.probes < iterative.probes);
+    }
+}
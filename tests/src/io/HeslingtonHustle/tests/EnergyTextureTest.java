@@ -0,0 +1,99 @@
+package io.HeslingtonHustle.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.main.Main;
+import com.main.utils.EnergyTexture;
+import com.main.utils.GameAtlas;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the EnergyTexture class
+ */
+@RunWith(GdxTestRunner.class)
+public class EnergyTextureTest {
+
+    private CountingAtlas atlas;
+    private EnergyTexture energy;
+
+    /**
+     * An atlas that gives a separate region for each image and counts how many times it is asked for one.
+     */
+    private static class CountingAtlas extends GameAtlas {
+        final ObjectMap<String, TextureRegion> frames = new ObjectMap<>();
+        int lookups;
+
+        CountingAtlas() {
+            super("no_such.atlas");
+        }
+
+        @Override
+        public TextureRegion get(String name) {
+            lookups++;
+            if (!frames.containsKey(name)) frames.put(name, new TextureRegion());
+            return frames.get(name);
+        }
+    }
+
+    /**
+     * Initialises an EnergyTexture with a counting atlas, then forgets the GL calls made while initialising.
+     */
+    @Before
+    public void initialise() {
+        atlas = new CountingAtlas();
+        Main game = new Main();
+        game.atlas = atlas;
+        energy = new EnergyTexture(game);
+        reset(Gdx.gl);
+    }
+
+    @After
+    public void dispose() {
+        atlas.dispose();
+    }
+
+    private TextureRegion frame(int level) {
+        return atlas.frames.get("energy/energy_" + level);
+    }
+
+    /**
+     * Tests that the frame drawn matches the energy level as it changes.
+     */
+    @Test
+    public void testFrameMatchesEnergy() {
+        assertSame(frame(10), energy.getFrame());
+        energy.decreaseEnergy(4);
+        assertSame(frame(6), energy.getFrame());
+        energy.decreaseEnergy(7);
+        assertSame(frame(0), energy.getFrame());
+        energy.increaseEnergy(3);
+        assertSame(frame(3), energy.getFrame());
+    }
+
+    /**
+     * Tests that no images are loaded and no textures are created once the energy bar has been initialised,
+     * however many times the energy changes.
+     */
+    @Test
+    public void testNoLoadingAfterInitialisation() {
+        int lookups = atlas.lookups;
+        for (int i = 0; i < 20; i++) {
+            energy.decreaseEnergy(1);
+            energy.getFrame();
+        }
+        for (int i = 0; i < 20; i++) {
+            energy.increaseEnergy(1);
+            energy.getFrame();
+        }
+        assertEquals(lookups, atlas.lookups);
+        verify(Gdx.gl, never()).glGenTexture();
+    }
+}
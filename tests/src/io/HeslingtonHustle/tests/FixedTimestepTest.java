@@ -0,0 +1,79 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.utils.FixedTimestep;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the FixedTimestep class
+ */
+public class FixedTimestepTest {
+
+    private FixedTimestep timestep;
+
+    /**
+     * Initialises a new FixedTimestep with no time left over.
+     */
+    @Before
+    public void initialise() {
+        timestep = new FixedTimestep();
+    }
+
+    /**
+     * Runs frames of the given length for one second and counts the ticks.
+     */
+    private int ticksInOneSecond(float frameRate) {
+        int ticks = 0;
+        for (int i = 0; i < frameRate; i++) {
+            ticks += timestep.advance(1 / frameRate);
+        }
+        return ticks;
+    }
+
+    /**
+     * Tests that the same number of ticks run in a second whatever the frame rate.
+     */
+    @Test
+    public void testTicksIndependentOfFrameRate() {
+        assertEquals(FixedTimestep.TICK_RATE, ticksInOneSecond(30), 1);
+        timestep.reset();
+        assertEquals(FixedTimestep.TICK_RATE, ticksInOneSecond(60), 1);
+        timestep.reset();
+        assertEquals(FixedTimestep.TICK_RATE, ticksInOneSecond(144), 1);
+        timestep.reset();
+        assertEquals(FixedTimestep.TICK_RATE, ticksInOneSecond(1000), 1);
+    }
+
+    /**
+     * Tests that time shorter than a tick is carried over and reported as the interpolation alpha.
+     */
+    @Test
+    public void testLeftoverTimeCarriedOver() {
+        assertEquals(0, timestep.advance(FixedTimestep.STEP * 0.25f));
+        assertEquals(0.25f, timestep.getAlpha(), 0.001f);
+        assertEquals(1, timestep.advance(FixedTimestep.STEP));
+        assertEquals(0.25f, timestep.getAlpha(), 0.001f);
+        assertEquals(1, timestep.advance(FixedTimestep.STEP * 0.75f));
+        assertEquals(0, timestep.getAlpha(), 0.001f);
+    }
+
+    /**
+     * Tests that a long frame is clamped, so that it does not cause a burst of ticks.
+     */
+    @Test
+    public void testLongFrameClamped() {
+        int maxTicks = (int) (FixedTimestep.MAX_FRAME_TIME * FixedTimestep.TICK_RATE);
+        assertEquals(maxTicks, timestep.advance(5f), 1);
+    }
+
+    /**
+     * Tests that negative frame times are ignored.
+     */
+    @Test
+    public void testNegativeDeltaIgnored() {
+        assertEquals(0, timestep.advance(-1f));
+        assertEquals(0, timestep.getAlpha(), 0);
+    }
+}
@@ -0,0 +1,143 @@
+package io.HeslingtonHustle.tests;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.main.utils.GameAssets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the GameAssets class
+ */
+public class GameAssetsTest {
+    private static final String PATH = "test_asset";
+
+    private GameAssets assets;
+    private CountingLoader loader;
+
+    /**
+     * An asset that records whether it has been disposed.
+     */
+    public static class TestAsset implements Disposable {
+        boolean disposed;
+
+        @Override
+        public void dispose() {
+            disposed = true;
+        }
+    }
+
+    /**
+     * Loads test assets without reading any files, counting how many times it is asked to.
+     */
+    private static class CountingLoader extends SynchronousAssetLoader<TestAsset, AssetLoaderParameters<TestAsset>> {
+        int loads;
+
+        CountingLoader(FileHandleResolver resolver) {
+            super(resolver);
+        }
+
+        @Override
+        public TestAsset load(AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<TestAsset> parameter) {
+            loads++;
+            return new TestAsset();
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes") // The raw Array<AssetDescriptor> is the signature AssetLoader declares
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, AssetLoaderParameters<TestAsset> parameter) {
+            return null;
+        }
+    }
+
+    /**
+     * Initialises a cache whose manager loads test assets with the counting loader.
+     */
+    @Before
+    public void initialise() {
+        AssetManager manager = new AssetManager(FileHandle::new);
+        loader = new CountingLoader(manager.getFileHandleResolver());
+        manager.setLoader(TestAsset.class, loader);
+        assets = new GameAssets(manager);
+    }
+
+    @After
+    public void dispose() {
+        assets.dispose();
+    }
+
+    /**
+     * Tests that acquiring the same path twice gives the same asset and only loads it once.
+     */
+    @Test
+    public void testAcquireDedupes() {
+        TestAsset first = assets.acquire(PATH, TestAsset.class);
+        TestAsset second = assets.acquire(PATH, TestAsset.class);
+        assets.update();
+
+        assertSame(first, second);
+        assertEquals(1, loader.loads);
+        assertEquals(2, assets.getReferenceCount(PATH));
+    }
+
+    /**
+     * Tests that an asset is only disposed when its last reference is released.
+     */
+    @Test
+    public void testReleaseDisposesLast() {
+        TestAsset asset = assets.acquire(PATH, TestAsset.class);
+        assets.acquire(PATH, TestAsset.class);
+        assets.update();
+
+        assets.release(PATH);
+        assertFalse(asset.disposed);
+        assertTrue(assets.isLoaded(PATH));
+
+        assets.release(PATH);
+        assertTrue(asset.disposed);
+        assertFalse(assets.isLoaded(PATH));
+        assertEquals(0, assets.getReferenceCount(PATH));
+    }
+
+    /**
+     * Tests that a preloaded asset is loaded by updating, and is not loaded again when acquired.
+     */
+    @Test
+    public void testPreload() {
+        assets.preload(PATH, TestAsset.class);
+        assertFalse(assets.isLoaded(PATH));
+
+        while (!assets.update()) {
+            Thread.yield();
+        }
+        assertTrue(assets.isLoaded(PATH));
+
+        assets.acquire(PATH, TestAsset.class);
+        assets.update();
+        assertEquals(1, loader.loads);
+        assertEquals(2, assets.getReferenceCount(PATH));
+    }
+
+    /**
+     * Tests that releasing an asset acquired again after it was disposed loads it again.
+     */
+    @Test
+    public void testReacquireAfterDispose() {
+        TestAsset first = assets.acquire(PATH, TestAsset.class);
+        assets.release(PATH);
+        TestAsset second = assets.acquire(PATH, TestAsset.class);
+
+        assertNotSame(first, second);
+        assertEquals(2, loader.loads);
+        assertFalse(second.disposed);
+    }
+}
@@ -0,0 +1,111 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.map.Zone;
+import com.main.simulation.GameSimulation;
+import com.main.simulation.GameSimulation.Action;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the GameSimulation class
+ */
+public class GameSimulationTest {
+
+    private GameSimulation simulation;
+
+    /**
+     * Initialises a new game before each test is executed.
+     */
+    @Before
+    public void initialise() {
+        simulation = new GameSimulation();
+    }
+
+    /**
+     * Tests that a game in which the player never studies ends with no score after seven days.
+     */
+    @Test
+    public void testIdleGame() {
+        for (int day = 1; day <= GameSimulation.DAYS; day++) {
+            assertEquals(day, simulation.getDay());
+            assertFalse(simulation.isFinished());
+            simulation.perform(Action.MOVE, 16 * 60);
+        }
+        assertTrue(simulation.isFinished());
+        assertEquals(0, simulation.getFinalScore());
+        assertEquals("", simulation.getStreaks());
+    }
+
+    /**
+     * Tests a week of studying three hours, eating two well spaced meals and sleeping at 20:00 every day.
+     * Each day scores 5 for studying, 5 for the study location and 5 for the meals, and the week earns the
+     * Programmer and Early Nights streaks.
+     */
+    @Test
+    public void testStudyAndSleepWeek() {
+        for (int day = 1; day <= GameSimulation.DAYS; day++) {
+            assertTrue(simulation.perform(Action.EAT_PIAZZA, 0));
+            assertTrue(simulation.perform(Action.STUDY_COMP_SCI, 3));
+            simulation.perform(Action.MOVE, 60);
+            assertTrue(simulation.perform(Action.EAT_PIAZZA, 0));
+            assertFalse(simulation.perform(Action.SLEEP, 0)); // Too early to sleep at 12:00
+            simulation.perform(Action.MOVE, 8 * 60);
+            assertTrue(simulation.perform(Action.SLEEP, 0));
+        }
+        assertTrue(simulation.isFinished());
+        assertEquals(7 * 15 + 5 + 5, simulation.getFinalScore());
+        assertEquals("Programmer\nEarly Nights\n", simulation.getStreaks());
+        assertEquals(7 * 3, simulation.getStudyHours());
+        assertEquals(7 * 2, simulation.getMealCount());
+    }
+
+    /**
+     * Tests that staying up until midnight on the last day ends the game without scoring that day.
+     */
+    @Test
+    public void testStayingUpOnLastDay() {
+        for (int day = 1; day <= GameSimulation.DAYS; day++) {
+            simulation.perform(Action.STUDY_COMP_SCI, 3);
+            simulation.perform(Action.MOVE, 13 * 60);
+        }
+        assertTrue(simulation.isFinished());
+        assertEquals(6 * 10 + 5, simulation.getFinalScore());
+        assertEquals("Programmer\n", simulation.getStreaks());
+    }
+
+    /**
+     * Tests that recreational activities need an hour of energy per hour and are refused without it.
+     */
+    @Test
+    public void testActivityNeedsEnergy() {
+        assertTrue(simulation.perform(Action.EXERCISE, 4));
+        assertTrue(simulation.perform(Action.FEED_DUCKS, 4));
+        assertEquals((Integer) 2, simulation.getEnergy().getEnergy());
+        assertFalse(simulation.perform(Action.VISIT_CITY, 4));
+        assertEquals(16, simulation.getTime().getTimeHours());
+        assertEquals(2, simulation.getRecActivity());
+    }
+
+    /**
+     * Tests that actions can only be taken in the zones they belong to.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongZone() {
+        simulation.study(1, Zone.GYM);
+    }
+
+    /**
+     * Tests that no actions are taken once the game has finished.
+     */
+    @Test
+    public void testNoActionsAfterFinish() {
+        for (int day = 1; day <= GameSimulation.DAYS; day++) {
+            simulation.perform(Action.MOVE, 16 * 60);
+        }
+        assertFalse(simulation.perform(Action.STUDY_COMP_SCI, 1));
+        assertFalse(simulation.perform(Action.EAT_PIAZZA, 0));
+        assertFalse(simulation.perform(Action.MOVE, 60));
+    }
+}
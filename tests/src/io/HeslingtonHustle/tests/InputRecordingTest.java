@@ -0,0 +1,71 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.entity.Player;
+import com.main.replay.Command;
+import com.main.replay.InputPlayback;
+import com.main.replay.InputRecorder;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the InputRecorder and InputPlayback classes
+ */
+public class InputRecordingTest {
+
+    /**
+     * Tests that random keys and commands are played back on the same ticks they were recorded on.
+     */
+    @Test
+    public void testRoundTrip() {
+        Random random = new Random(17);
+        InputRecorder recorder = new InputRecorder(-1234567890123L);
+        int ticks = 20000;
+        int[] keys = new int[ticks];
+        Command[] commands = new Command[ticks];
+        int held = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            if (random.nextInt(50) == 0) {
+                commands[tick] = Command.values()[random.nextInt(Command.values().length)];
+                recorder.recordCommand(commands[tick]);
+            }
+            if (random.nextInt(30) == 0) held = random.nextInt(32);
+            keys[tick] = held;
+            recorder.recordTick(held);
+        }
+
+        InputPlayback playback = InputPlayback.read(recorder.toBytes());
+        assertEquals(-1234567890123L, playback.getSeed());
+        for (int tick = 0; tick < ticks; tick++) {
+            assertEquals(commands[tick], playback.nextCommand());
+            assertNull(playback.nextCommand());
+            assertEquals(keys[tick], playback.nextKeys());
+        }
+        assertTrue(playback.isFinished());
+        assertEquals(0, playback.nextKeys());
+        assertEquals(ticks, playback.getTicks());
+    }
+
+    /**
+     * Tests that ticks where the keys do not change take almost no space, so a whole week fits in a few bytes.
+     */
+    @Test
+    public void testCompact() {
+        InputRecorder recorder = new InputRecorder(1);
+        for (int tick = 0; tick < 7 * 60 * 120; tick++) {
+            recorder.recordTick(tick < 1000 ? Player.KEY_UP | Player.KEY_SPRINT : 0);
+        }
+        recorder.recordCommand(Command.OPEN_SLEEP);
+        assertTrue(recorder.toBytes().length < 24);
+    }
+
+    /**
+     * Tests that data that is not a recording is refused.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotARecording() {
+        InputPlayback.read(new byte[]{'P', 'N', 'G', 1, 0, 0, 0, 0, 0, 0, 0, 0});
+    }
+}
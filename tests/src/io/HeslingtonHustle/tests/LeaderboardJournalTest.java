@@ -0,0 +1,200 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.utils.LeaderboardJournal;
+import com.main.utils.LeaderboardStore;
+import com.main.utils.Leaderboards;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the LeaderboardJournal class, and how Leaderboards recovers from it
+ */
+public class LeaderboardJournalTest {
+    private static final String FILE_NAME = "journal-test.csv";
+    private static final Path CSV = Paths.get(FILE_NAME);
+    private static final Path JOURNAL = Paths.get(FILE_NAME + ".journal");
+
+    /**
+     * Erases the leaderboard and its journal after each test
+     */
+    @After
+    public void eraseFiles() throws IOException {
+        Files.deleteIfExists(CSV);
+        Files.deleteIfExists(JOURNAL);
+        Files.deleteIfExists(Paths.get(FILE_NAME + ".tmp"));
+        Files.deleteIfExists(Paths.get(FILE_NAME + ".journal.tmp"));
+        Files.deleteIfExists(Paths.get(FILE_NAME + ".journal.unreadable"));
+    }
+
+    /**
+     * Encodes a record as version 1 journals wrote them, without a timestamp.
+     */
+    private static byte[] version1Record(String name, int score) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(Short.BYTES + nameBytes.length + Integer.BYTES * 2);
+        record.putShort((short) nameBytes.length).put(nameBytes).putInt(score);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        return record.array();
+    }
+
+    /**
+     * Tests that results are appended to the journal rather than the CSV file, and are read back from it.
+     */
+    @Test
+    public void testReplayAfterRestart() throws IOException {
+        Leaderboards leaderboards = new Leaderboards(FILE_NAME);
+        leaderboards.registerResult(100, "James");
+        leaderboards.registerResult(200, "Amy");
+        leaderboards.registerResult(150, "James");
+
+        assertEquals(0, Files.size(CSV));
+        leaderboards = new Leaderboards(FILE_NAME);
+        assertEquals("Amy", leaderboards.getEntries()[0].name);
+        assertEquals((Integer) 150, leaderboards.getEntries()[1].score);
+        assertEquals(2, leaderboards.getRank("James"));
+    }
+
+    /**
+     * Tests that a journal cut off in the middle of its last record keeps the records before it, and that
+     * records appended after recovering are read back.
+     */
+    @Test
+    public void testTruncatedJournal() throws IOException {
+        Leaderboards leaderboards = new Leaderboards(FILE_NAME);
+        leaderboards.registerResult(100, "James");
+        leaderboards.registerResult(200, "Amy");
+        long intact = Files.size(JOURNAL);
+        leaderboards.registerResult(300, "Bob");
+
+        // Simulate a crash while the last record was being written
+        try (FileChannel channel = FileChannel.open(JOURNAL, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(JOURNAL) - 3);
+        }
+
+        leaderboards = new Leaderboards(FILE_NAME);
+        assertEquals(0, leaderboards.getRank("Bob"));
+        assertEquals(1, leaderboards.getRank("Amy"));
+        assertEquals(intact, Files.size(JOURNAL)); // The damaged record is cut off
+
+        leaderboards.registerResult(250, "Carol");
+        leaderboards = new Leaderboards(FILE_NAME);
+        assertEquals(1, leaderboards.getRank("Carol"));
+        assertEquals(3, leaderboards.getRank("James"));
+    }
+
+    /**
+     * Tests that replaying stops at a record that fails its checksum.
+     */
+    @Test
+    public void testCorruptRecord() throws IOException {
+        LeaderboardJournal journal = new LeaderboardJournal(JOURNAL);
+        journal.append("James", 100);
+        long first = Files.size(JOURNAL);
+        journal.append("Amy", 200);
+        journal.append("Bob", 300);
+
+        byte[] bytes = Files.readAllBytes(JOURNAL);
+        bytes[(int) first + 3] ^= 1; // A letter of Amy's name
+        Files.write(JOURNAL, bytes);
+
+        LeaderboardStore store = new LeaderboardStore();
+        assertEquals(1, new LeaderboardJournal(JOURNAL).replay(store));
+        assertEquals(1, store.size());
+        assertEquals((Integer) 100, store.getScore("James"));
+        assertEquals(first, Files.size(JOURNAL));
+    }
+
+    /**
+     * Tests that a version 1 journal, without a header or timestamps, is replayed and rewritten in the current
+     * version, so that records appended afterwards are read back with it.
+     */
+    @Test
+    public void testVersion1Journal() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(version1Record("James", 100));
+        bytes.write(version1Record("Amy", 200));
+        bytes.write(version1Record("James", 150));
+        Files.write(JOURNAL, bytes.toByteArray());
+
+        LeaderboardStore store = new LeaderboardStore();
+        assertEquals(3, new LeaderboardJournal(JOURNAL).replay(store));
+        assertEquals((Integer) 150, store.getScore("James"));
+        assertEquals((Integer) 200, store.getScore("Amy"));
+        assertEquals(0, store.getEntry("Amy").timestamp); // Not known for version 1 records
+        assertEquals("HHLJ", new String(Files.readAllBytes(JOURNAL), 0, 4, StandardCharsets.US_ASCII));
+
+        Leaderboards leaderboards = new Leaderboards(FILE_NAME);
+        assertEquals(1, leaderboards.getRank("Amy"));
+        leaderboards.registerResult(300, "Bob");
+        leaderboards = new Leaderboards(FILE_NAME);
+        assertEquals(1, leaderboards.getRank("Bob"));
+        assertEquals(3, leaderboards.getRank("James"));
+        assertEquals(4, new LeaderboardJournal(JOURNAL).replay(new LeaderboardStore()));
+    }
+
+    /**
+     * Tests that a journal of a version this game does not know is moved aside untouched rather than cut.
+     */
+    @Test
+    public void testUnknownVersion() throws IOException {
+        LeaderboardJournal journal = new LeaderboardJournal(JOURNAL);
+        journal.append("James", 100);
+        byte[] bytes = Files.readAllBytes(JOURNAL);
+        bytes[7] = 99; // The version, after the magic number
+        Files.write(JOURNAL, bytes);
+
+        assertThrows(IOException.class, () -> new LeaderboardJournal(JOURNAL).replay(new LeaderboardStore()));
+        assertFalse(Files.exists(JOURNAL));
+        assertArrayEquals(bytes, Files.readAllBytes(journal.getUnreadablePath()));
+
+        // Bytes that are neither a header nor version 1 records are kept the same way
+        Files.write(JOURNAL, new byte[]{'n', 'o', 't', ' ', 'a', ' ', 'j', 'o', 'u', 'r', 'n', 'a', 'l'});
+        assertThrows(IOException.class, () -> new LeaderboardJournal(JOURNAL).replay(new LeaderboardStore()));
+        assertEquals(13, Files.size(journal.getUnreadablePath()));
+    }
+
+    /**
+     * Tests that a long journal is compacted into the CSV file, and that replaying records already in the CSV file,
+     * as after a crash between writing it and clearing the journal, changes nothing.
+     */
+    @Test
+    public void testCompaction() throws IOException {
+        Leaderboards leaderboards = new Leaderboards(FILE_NAME);
+        for (int i = 0; i < 100; i++) {
+            leaderboards.registerResult(i % 7 * 10, "Player" + i);
+        }
+        assertTrue(Files.size(CSV) > 0);
+        assertTrue(Files.size(JOURNAL) > 0); // Only the results since the compaction remain
+
+        leaderboards.writeToFile();
+        assertFalse(Files.exists(JOURNAL));
+        List<String> lines = Files.readAllLines(CSV);
+        assertEquals(100, lines.size());
+        assertTrue(lines.get(0).startsWith("Player6,60,")); // Followed by when it was registered
+
+        LeaderboardJournal journal = new LeaderboardJournal(JOURNAL);
+        journal.append("Player6", 60);
+        journal.append("Player0", 0);
+        leaderboards = new Leaderboards(FILE_NAME);
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Player" + (6 + i * 7), leaderboards.getEntries()[i].name);
+        }
+        assertEquals(86, leaderboards.getRank("Player0"));
+    }
+}
@@ -0,0 +1,367 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.leaderboard.BoardRegistry;
+import com.main.leaderboard.HttpTransport;
+import com.main.leaderboard.LeaderboardClient;
+import com.main.leaderboard.LeaderboardServer;
+import com.main.leaderboard.LeaderboardTransport;
+import com.main.leaderboard.LocalTransport;
+import com.main.leaderboard.LoggedResult;
+import com.main.leaderboard.RequestRefusedException;
+import com.main.simulation.SessionLog;
+import com.main.utils.AsyncLeaderboards;
+import com.main.utils.LeaderboardView;
+import com.main.utils.Leaderboards;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the shared leaderboard service: the registry, the HTTP server and the client
+ */
+public class LeaderboardServiceTest {
+    // Logged weeks of studying 0, 1, 2 and 4 hours a day, which finish with four different scores
+    private static final LoggedResult NONE = week("NONE", 0), LOW = week("LOW", 1), MID = week("MID", 2),
+            HIGH = week("HIGH", 4);
+
+    private BoardRegistry registry;
+    private LeaderboardServer server;
+    private String url;
+
+    /**
+     * A transport that fails a number of times before passing requests on to a registry.
+     */
+    private static class FlakyTransport implements LeaderboardTransport {
+        final LeaderboardTransport target;
+        final List<Integer> batchSizes = new ArrayList<>();
+        int failures;
+        int calls;
+
+        FlakyTransport(LeaderboardTransport target, int failures) {
+            this.target = target;
+            this.failures = failures;
+        }
+
+        @Override
+        public void submit(String board, List<LoggedResult> results) throws IOException {
+            calls++;
+            if (failures-- > 0) throw new IOException("Connection refused");
+            batchSizes.add(results.size());
+            target.submit(board, results);
+        }
+
+        @Override
+        public List<Leaderboards.Entry> fetchTop(String board, LeaderboardView view, int count) throws IOException {
+            return target.fetchTop(board, view, count);
+        }
+    }
+
+    /**
+     * Plays a logged week of studying for the given number of hours a day.
+     *
+     * @return the result of the week, with its log
+     */
+    private static LoggedResult week(String name, int studyHours) {
+        SessionLog log = new SessionLog(studyHours);
+        int score = AsyncLeaderboardsTest.playWeek(studyHours, log).getFinalScore();
+        return new LoggedResult(name, score, log.toBytes());
+    }
+
+    /**
+     * Registers a logged week as the result of a player.
+     */
+    private static boolean register(LeaderboardClient client, String name, LoggedResult week) {
+        return client.registerVerifiedResult(week.score, name, week.sessionLog);
+    }
+
+    /**
+     * Starts a server on a free port of localhost before each test.
+     */
+    @Before
+    public void startServer() throws IOException {
+        registry = new BoardRegistry();
+        server = new LeaderboardServer(registry, 0, 16);
+        server.start();
+        url = "http://localhost:" + server.getPort();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop();
+    }
+
+    /**
+     * Tests that results sent over HTTP are ranked per board and read back by every client.
+     */
+    @Test
+    public void testSharedBoardsOverHttp() {
+        LeaderboardClient kiosk1 = new LeaderboardClient(new HttpTransport(url), "main");
+        LeaderboardClient kiosk2 = new LeaderboardClient(new HttpTransport(url), "main");
+        LeaderboardClient other = new LeaderboardClient(new HttpTransport(url), "other");
+
+        assertTrue(register(kiosk1, "JAM", MID));
+        assertTrue(register(kiosk2, "AMY", HIGH));
+        assertTrue(register(kiosk2, "JAM", LOW));
+        assertTrue(register(other, "BOB", NONE));
+
+        assertTrue(kiosk2.refresh());
+        Leaderboards.Entry[] entries = kiosk2.getEntries();
+        assertEquals("AMY", entries[0].name);
+        assertEquals("JAM", entries[1].name);
+        assertEquals((Integer) MID.score, entries[1].score);
+        assertNull(entries[2]);
+        assertEquals(1, registry.size("other"));
+        assertEquals(0, kiosk1.getPendingCount());
+    }
+
+    /**
+     * Tests that the server refuses results it can not register, and the client reports them as not sent.
+     */
+    @Test
+    public void testInvalidRequests() {
+        LeaderboardTransport transport = new HttpTransport(url);
+        List<LoggedResult> results = Collections.singletonList(new LoggedResult("A\rB", LOW.score, LOW.sessionLog));
+        assertThrows(IOException.class, () -> transport.submit("main", results));
+        assertThrows(IOException.class, () -> transport.fetchTop("main", LeaderboardView.ALL_TIME, -1));
+        assertThrows(IOException.class, () -> transport.fetchTop("no.such.board", LeaderboardView.ALL_TIME, 10));
+        assertEquals(0, registry.size("main"));
+    }
+
+    /**
+     * Tests that the server refuses a batch holding a score that does not match its log, registering none of it,
+     * and that the client drops refused results rather than sending them again.
+     */
+    @Test
+    public void testForgedScoresOverHttp() {
+        LeaderboardTransport transport = new HttpTransport(url);
+        LoggedResult forged = new LoggedResult("JAM", HIGH.score, MID.sessionLog);
+        LoggedResult garbled = new LoggedResult("BOB", 0, new byte[]{1, 2, 3});
+        assertThrows(RequestRefusedException.class, () -> transport.submit("main", Arrays.asList(LOW, forged)));
+        assertThrows(RequestRefusedException.class,
+                () -> transport.submit("main", Collections.singletonList(garbled)));
+        assertEquals(0, registry.size("main"));
+
+        LeaderboardClient client = new LeaderboardClient(new HttpTransport(url), "main");
+        assertFalse(client.registerVerifiedResult(forged.score, forged.name, forged.sessionLog));
+        assertEquals(0, client.getPendingCount());
+        assertTrue(register(client, "AMY", MID));
+        assertEquals(1, registry.size("main"));
+        assertEquals("AMY", client.getEntries()[0].name);
+    }
+
+    /**
+     * Tests that when the board refuses a batch, the held results it takes are still registered and only the refused
+     * one is dropped.
+     */
+    @Test
+    public void testRefusedResultKeepsHeldOnes() {
+        FlakyTransport transport = new FlakyTransport(new LocalTransport(registry), 2);
+        LeaderboardClient client = new LeaderboardClient(transport, "main", 2, 1);
+        assertFalse(register(client, "AMY", MID)); // Held, as the board can not be reached
+        assertEquals(1, client.getPendingCount());
+
+        LoggedResult forged = new LoggedResult("JAM", HIGH.score, LOW.sessionLog);
+        assertFalse(client.registerVerifiedResult(forged.score, forged.name, forged.sessionLog));
+        assertEquals(0, client.getPendingCount());
+        assertEquals(Arrays.asList(2, 1, 1), transport.batchSizes); // The batch, then each result on its own
+        assertEquals(1, registry.size("main"));
+        assertEquals("AMY", registry.top("main", 1).get(0).name);
+    }
+
+    /**
+     * Tests that results delivered in the same process are checked against their logs as the server checks them.
+     */
+    @Test
+    public void testForgedScoresInProcess() throws IOException {
+        LeaderboardTransport transport = new LocalTransport(registry);
+        LoggedResult forged = new LoggedResult("JAM", MID.score + 1, MID.sessionLog);
+        assertThrows(RequestRefusedException.class, () -> transport.submit("main", Arrays.asList(MID, forged)));
+        assertEquals(0, registry.size("main"));
+
+        transport.submit("main", Collections.singletonList(MID));
+        assertEquals((Integer) MID.score, registry.top("main", 1).get(0).score);
+    }
+
+    /**
+     * Tests that held results are sent as one batch with the best score of each name, and retried until sent.
+     */
+    @Test
+    public void testClientBatchesAndRetries() {
+        FlakyTransport transport = new FlakyTransport(new LocalTransport(registry), 2);
+        LeaderboardClient client = new LeaderboardClient(transport, "main", 4, 1);
+        client.submit(LOW.score, "JAM", LOW.sessionLog);
+        client.submit(HIGH.score, "JAM", HIGH.sessionLog);
+        client.submit(MID.score, "AMY", MID.sessionLog);
+
+        assertTrue(client.flush());
+        assertEquals(3, transport.calls);
+        assertEquals(Collections.singletonList(2), transport.batchSizes);
+        assertEquals((Integer) HIGH.score, registry.top("main", 1).get(0).score);
+    }
+
+    /**
+     * Tests that results are kept while the board can not be reached, and sent with the next result.
+     */
+    @Test
+    public void testClientKeepsResultsWhenUnreachable() {
+        FlakyTransport transport = new FlakyTransport(new LocalTransport(registry), 3);
+        LeaderboardClient client = new LeaderboardClient(transport, "main", 2, 1);
+        assertFalse(register(client, "JAM", LOW));
+        assertEquals(1, client.getPendingCount());
+        assertNull(client.getEntries()[0]);
+        assertTrue(client.doesPlaceT10(0));
+
+        assertTrue(register(client, "AMY", MID)); // The third failure, then the retry succeeds
+        assertEquals(0, client.getPendingCount());
+        assertEquals("AMY", client.getEntries()[0].name);
+        assertEquals("JAM", client.getEntries()[1].name);
+    }
+
+    /**
+     * Tests that a result the board could not be reached for is reported as not saved, and is sent when the game
+     * closes once the board can be reached again.
+     */
+    @Test
+    public void testUnsentResultsReportedAndSentOnShutdown() throws InterruptedException {
+        FlakyTransport transport = new FlakyTransport(new LocalTransport(registry), 2);
+        LeaderboardClient client = new LeaderboardClient(transport, "main", 2, 1);
+        AsyncLeaderboards leaderboards = new AsyncLeaderboards(() -> client);
+
+        AsyncLeaderboards.Submission submission = leaderboards.registerVerifiedResult(MID.score, "AMY", MID.sessionLog);
+        AsyncLeaderboardsTest.await(submission);
+        assertTrue(submission.isFailed());
+        assertFalse(submission.isRegistered());
+        assertEquals(1, client.getPendingCount());
+        assertEquals(0, registry.size("main"));
+
+        assertTrue(leaderboards.shutdown(1000));
+        assertEquals(0, client.getPendingCount());
+        assertEquals((Integer) MID.score, registry.top("main", 1).get(0).score);
+    }
+
+    /**
+     * Tests that boards saved in a directory are read back by a new registry.
+     */
+    @Test
+    public void testSavedBoards() throws IOException {
+        Path directory = Files.createTempDirectory("boards");
+        try {
+            BoardRegistry saved = new BoardRegistry(directory);
+            saved.submit("main", "JAM", 100);
+            saved.submit("main", "JAM", 150);
+            saved.submit("main", "AMY", 120);
+
+            List<Leaderboards.Entry> top = new BoardRegistry(directory).top("main", 10);
+            assertEquals(2, top.size());
+            assertEquals("JAM", top.get(0).name);
+            assertEquals((Integer) 150, top.get(0).score);
+        } finally {
+            Files.deleteIfExists(directory.resolve("main.journal"));
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Tests that boards keep today's and this week's best scores from the time results arrive, including when the
+     * board is read back from its journal.
+     */
+    @Test
+    public void testBoardViews() throws IOException {
+        long monday = ZonedDateTime.of(2024, 5, 6, 12, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+        long day = 24 * 60 * 60 * 1000L;
+        Path directory = Files.createTempDirectory("boards");
+        try {
+            BoardRegistry saved = new BoardRegistry(directory, ZoneOffset.UTC);
+            assertTrue(saved.submit("main", "JAM", 300, monday - 2 * day)); // The Saturday before
+            assertTrue(saved.submit("main", "AMY", 100, monday));
+            assertTrue(saved.submit("main", "JAM", 200, monday + day)); // Below JAM's best, but the best of the day
+            assertFalse(saved.submit("main", "JAM", 150, monday + day));
+
+            for (BoardRegistry registry : Arrays.asList(saved, new BoardRegistry(directory, ZoneOffset.UTC))) {
+                assertEquals("JAM", registry.top("main", 10).get(0).name);
+                assertEquals((Integer) 300, registry.top("main", 10).get(0).score);
+                List<Leaderboards.Entry> today = registry.top("main", LeaderboardView.DAILY, 10, monday + day);
+                assertEquals(1, today.size());
+                assertEquals((Integer) 200, today.get(0).score);
+                List<Leaderboards.Entry> week = registry.top("main", LeaderboardView.WEEKLY, 10, monday + day);
+                assertEquals(2, week.size());
+                assertEquals("JAM", week.get(0).name);
+                assertEquals("AMY", week.get(1).name);
+            }
+        } finally {
+            Files.deleteIfExists(directory.resolve("main.journal"));
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Tests that clients fetch the daily and weekly views of a shared board over HTTP, stamped by the server.
+     */
+    @Test
+    public void testViewsOverHttp() throws IOException {
+        LeaderboardClient client = new LeaderboardClient(new HttpTransport(url), "main");
+        assertTrue(register(client, "JAM", MID));
+        for (LeaderboardView view : LeaderboardView.values()) {
+            assertEquals("JAM", client.getEntries(view)[0].name);
+            assertEquals((Integer) MID.score, client.getEntries(view)[0].score);
+        }
+        assertEquals(1, new HttpTransport(url).fetchTop("main", LeaderboardView.DAILY, 10).size());
+    }
+
+    /**
+     * Tests that thousands of submitters sending results at the same time leave every player's best score ranked.
+     */
+    @Test
+    public void testConcurrentSubmitters() throws Exception {
+        int submitters = 2000, players = 500;
+        LoggedResult[] weeks = {NONE, LOW, MID, HIGH};
+        Map<String, Integer> expected = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        List<Future<Boolean>> sent = new ArrayList<>();
+        for (int i = 0; i < submitters; i++) {
+            final int submitter = i;
+            sent.add(pool.submit(() -> {
+                Random random = new Random(submitter);
+                LeaderboardClient client = new LeaderboardClient(new HttpTransport(url), "load");
+                for (int j = 0; j < 3; j++) {
+                    String name = "P" + random.nextInt(players);
+                    LoggedResult week = weeks[random.nextInt(weeks.length)];
+                    client.submit(week.score, name, week.sessionLog);
+                    expected.merge(name, week.score, Math::max);
+                }
+                return client.flush();
+            }));
+        }
+        for (Future<Boolean> result : sent) {
+            assertTrue(result.get());
+        }
+        pool.shutdown();
+
+        List<Leaderboards.Entry> top = registry.top("load", players);
+        assertEquals(expected.size(), top.size());
+        int previous = Integer.MAX_VALUE;
+        for (Leaderboards.Entry entry : top) {
+            assertEquals(expected.get(entry.name), entry.score);
+            assertTrue(entry.score <= previous);
+            previous = entry.score;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.utils.LeaderboardStore;
+import com.main.utils.Leaderboards;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the LeaderboardStore class
+ */
+public class LeaderboardStoreTest {
+
+    private LeaderboardStore store;
+
+    /**
+     * Initialises an empty store before each test is executed.
+     */
+    @Before
+    public void initialise() {
+        store = new LeaderboardStore();
+    }
+
+    /**
+     * Tests that only improved scores replace a player's best, and that equal scores rank earliest first.
+     */
+    @Test
+    public void testUpsertKeepsBestScore() {
+        assertTrue(store.upsert("James", 100));
+        assertFalse(store.upsert("James", 50));
+        assertFalse(store.upsert("James", 100));
+        assertTrue(store.upsert("Amy", 100));
+        assertTrue(store.upsert("Bob", 120));
+
+        assertEquals(3, store.size());
+        assertEquals((Integer) 100, store.getScore("James"));
+        assertEquals(1, store.rank("Bob"));
+        assertEquals(2, store.rank("James"));
+        assertEquals(3, store.rank("Amy"));
+        assertEquals(0, store.rank("Nobody"));
+        assertEquals(3, store.countAtLeast(100));
+
+        assertTrue(store.upsert("Amy", 130));
+        assertEquals(1, store.rank("Amy"));
+        assertEquals("Bob", store.get(2).name);
+    }
+
+    /**
+     * Tests ranks, entries at ranks and top k lists against a sorted list, over random upserts and removals.
+     */
+    @Test
+    public void testAgainstSortedList() {
+        Random random = new Random(19);
+        List<String> expected = new ArrayList<>(); // Names, highest score first
+        List<Integer> scores = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            String name = "Player" + random.nextInt(300);
+            int score = random.nextInt(200);
+            int index = expected.indexOf(name);
+
+            if (random.nextInt(10) == 0) {
+                assertEquals(index >= 0, store.remove(name));
+                if (index >= 0) {
+                    expected.remove(index);
+                    scores.remove(index);
+                }
+                continue;
+            }
+
+            boolean improves = index < 0 || score > scores.get(index);
+            assertEquals(improves, store.upsert(name, score));
+            if (!improves) continue;
+            if (index >= 0) {
+                expected.remove(index);
+                scores.remove(index);
+            }
+            int position = 0;
+            while (position < scores.size() && scores.get(position) >= score) position++;
+            expected.add(position, name);
+            scores.add(position, score);
+        }
+
+        assertEquals(expected.size(), store.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i + 1, store.rank(expected.get(i)));
+            Leaderboards.Entry entry = store.get(i + 1);
+            assertEquals(expected.get(i), entry.name);
+            assertEquals(scores.get(i), entry.score);
+        }
+        List<Leaderboards.Entry> top = store.top(10);
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(expected.get(i), top.get(i).name);
+        }
+    }
+
+    /**
+     * Tests that a store of a million players stays consistent, including after every player improves.
+     */
+    @Test
+    public void testMillionPlayers() {
+        int players = 1_000_000;
+        for (int i = 0; i < players; i++) {
+            store.upsert("Player" + i, i % 1000);
+        }
+        for (int i = 0; i < players; i += 2) {
+            store.upsert("Player" + i, 1000 + i % 1000);
+        }
+
+        assertEquals(players, store.size());
+        assertEquals(1, store.rank("Player998")); // Scores 1998, set before Player1998 and the rest
+        assertEquals(1000, store.countAtLeast(1998));
+        assertEquals(players - 999, store.rank("Player1")); // The first of the 1000 lowest, scoring 1
+        assertEquals((Integer) 1, store.get(players).score);
+        assertEquals((Integer) 1998, store.top(3).get(2).score);
+    }
+}
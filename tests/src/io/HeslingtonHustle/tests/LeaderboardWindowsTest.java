@@ -0,0 +1,116 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.utils.LeaderboardView;
+import com.main.utils.Leaderboards;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the daily and weekly leaderboards kept by Leaderboards and LeaderboardWindows
+ */
+public class LeaderboardWindowsTest {
+    private static final String FILE_NAME = "windows-test.csv";
+    // Monday the 6th of May 2024 at noon, in UTC
+    private static final long MONDAY = ZonedDateTime.of(2024, 5, 6, 12, 0, 0, 0, ZoneOffset.UTC)
+            .toInstant().toEpochMilli();
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private Leaderboards leaderboards;
+
+    @Before
+    public void initialise() {
+        leaderboards = new Leaderboards(FILE_NAME, ZoneOffset.UTC);
+    }
+
+    /**
+     * Erases the leaderboard and its journal after each test
+     */
+    @After
+    public void eraseFiles() throws IOException {
+        Files.deleteIfExists(Paths.get(FILE_NAME));
+        Files.deleteIfExists(Paths.get(FILE_NAME + ".journal"));
+    }
+
+    private static int count(Leaderboards.Entry[] entries) {
+        int count = 0;
+        for (Leaderboards.Entry entry : entries) {
+            if (entry != null) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Tests that each view only shows the results of its current period, and starts again when the period ends.
+     */
+    @Test
+    public void testViewsRollOver() {
+        leaderboards.registerResult(300, "AMY", MONDAY - 2 * DAY); // The Saturday before
+        leaderboards.registerResult(100, "JAM", MONDAY);
+        leaderboards.registerResult(200, "BOB", MONDAY + DAY);
+        leaderboards.registerResult(150, "JAM", MONDAY + DAY + 1000);
+
+        long tuesday = MONDAY + DAY + 2000;
+        Leaderboards.Entry[] daily = leaderboards.getEntries(LeaderboardView.DAILY, tuesday);
+        assertEquals(2, count(daily));
+        assertEquals("BOB", daily[0].name);
+        assertEquals((Integer) 150, daily[1].score);
+
+        Leaderboards.Entry[] weekly = leaderboards.getEntries(LeaderboardView.WEEKLY, tuesday);
+        assertEquals(2, count(weekly));
+        assertEquals(3, count(leaderboards.getEntries(LeaderboardView.ALL_TIME, tuesday)));
+
+        assertEquals(0, count(leaderboards.getEntries(LeaderboardView.DAILY, tuesday + DAY)));
+        assertEquals(2, count(leaderboards.getEntries(LeaderboardView.WEEKLY, MONDAY + 6 * DAY)));
+        assertEquals(0, count(leaderboards.getEntries(LeaderboardView.WEEKLY, MONDAY + 7 * DAY)));
+        assertEquals(3, count(leaderboards.getEntries(LeaderboardView.ALL_TIME, MONDAY + 7 * DAY)));
+    }
+
+    /**
+     * Tests that a score below the player's best of all time still counts for today and this week,
+     * and that results from an earlier day than today are left out of the daily view.
+     */
+    @Test
+    public void testLowerScoresCountForTheirPeriod() {
+        leaderboards.registerResult(500, "JAM", MONDAY - 7 * DAY);
+        leaderboards.registerResult(100, "JAM", MONDAY + DAY);
+        leaderboards.registerResult(400, "AMY", MONDAY); // Arrives after Tuesday's result
+
+        Leaderboards.Entry[] daily = leaderboards.getEntries(LeaderboardView.DAILY, MONDAY + DAY);
+        assertEquals(1, count(daily));
+        assertEquals((Integer) 100, daily[0].score);
+        assertEquals("AMY", leaderboards.getEntries(LeaderboardView.WEEKLY, MONDAY + DAY)[0].name);
+        assertEquals((Integer) 500, leaderboards.getEntries(LeaderboardView.ALL_TIME, MONDAY + DAY)[0].score);
+    }
+
+    /**
+     * Tests that every view is read back after the leaderboard is written to its CSV file, or left in the journal.
+     */
+    @Test
+    public void testViewsAreSaved() throws IOException {
+        leaderboards.registerResult(500, "JAM", MONDAY - 7 * DAY);
+        leaderboards.registerResult(100, "JAM", MONDAY);
+        leaderboards.writeToFile();
+        leaderboards.registerResult(50, "BOB", MONDAY);
+        // The best of all time, then today's best, which is also this week's
+        assertEquals(2, Files.readAllLines(Paths.get(FILE_NAME)).size());
+
+        leaderboards = new Leaderboards(FILE_NAME, ZoneOffset.UTC);
+        Leaderboards.Entry[] daily = leaderboards.getEntries(LeaderboardView.DAILY, MONDAY);
+        assertEquals("JAM", daily[0].name);
+        assertEquals((Integer) 100, daily[0].score);
+        assertEquals(MONDAY, daily[0].timestamp);
+        assertEquals("BOB", daily[1].name);
+        assertEquals(2, count(leaderboards.getEntries(LeaderboardView.WEEKLY, MONDAY)));
+        assertEquals(0, count(leaderboards.getEntries(LeaderboardView.DAILY, MONDAY - DAY))); // Clock set back
+        assertEquals((Integer) 500, leaderboards.getEntries(LeaderboardView.ALL_TIME, MONDAY)[0].score);
+    }
+}
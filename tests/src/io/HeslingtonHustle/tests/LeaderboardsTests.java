@@ -2,6 +2,8 @@ package io.HeslingtonHustle.tests;
 
 import com.main.utils.Leaderboards;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 
 import org.junit.After;
 import org.junit.Before;
@@ -46,6 +48,7 @@ public class LeaderboardsTests
         if (file.exists()) {
             file.delete();
         }
+        new File("test.csv.journal").delete();
     }
 
     /**
@@ -177,4 +180,39 @@ public class LeaderboardsTests
             prevScore = e.score;
         }
     }
+
+    /**
+     * Test that players outside the top 10 keep their score and rank, and are saved to the file.
+     */
+    @Test
+    public void testRegisterResult_keepsScoresOutsideTop10() {
+        for (int i = 1; i <= 15; i++) {
+            leaderboards.registerResult(i * 10, "Player" + i);
+        }
+        assertEquals(10, countEntries(leaderboards.getEntries()));
+        assertEquals(15, leaderboards.getRank("Player1"));
+
+        leaderboards = new Leaderboards("test.csv");
+        assertEquals(15, leaderboards.getRank("Player1"));
+        assertEquals("Player15", leaderboards.getEntries()[0].name);
+        assertFalse(leaderboards.doesPlaceT10(60));
+        assertTrue(leaderboards.doesPlaceT10(61));
+    }
+
+    /**
+     * Test that readFromSaved reads past empty lines, ignores spaces around values and skips invalid lines.
+     */
+    @Test
+    public void testReadFromSaved_untidyFile() throws IOException {
+        Files.write(new File("test.csv").toPath(),
+                "MIS,21\n\nJAM, 10\nnot a score\n WIL , 98 \nBOB,x\nMIA, 2".getBytes());
+        leaderboards = new Leaderboards("test.csv");
+        Leaderboards.Entry[] entries = leaderboards.getEntries();
+
+        assertEquals(4, countEntries(entries));
+        assertEquals("WIL", entries[0].name);
+        assertEquals((Integer) 98, entries[0].score);
+        assertEquals(3, leaderboards.getRank("JAM"));
+        assertEquals(4, leaderboards.getRank("MIA"));
+    }
 }
@@ -0,0 +1,128 @@
+package io.HeslingtonHustle.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.main.map.BinaryMapLoader;
+import com.main.map.GameMap;
+import com.main.map.MapCompiler;
+import com.main.utils.GameAssets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the MapCompiler and BinaryMapLoader classes
+ */
+@RunWith(GdxTestRunner.class)
+public class MapCompilerTest {
+    private FileHandle directory;
+    private FileHandle tmxFile;
+    private FileHandle cached; // Where the game compiles the map to
+
+    /**
+     * Checks that two maps have the same layers, with the same tile in every cell.
+     */
+    static void assertSameTiles(TiledMap expected, TiledMap actual) {
+        assertEquals(expected.getLayers().size(), actual.getLayers().size());
+        for (int i = 0; i < expected.getLayers().size(); i++) {
+            TiledMapTileLayer expectedLayer = (TiledMapTileLayer) expected.getLayers().get(i);
+            TiledMapTileLayer actualLayer = (TiledMapTileLayer) actual.getLayers().get(i);
+            assertEquals(expectedLayer.getName(), actualLayer.getName());
+            assertEquals(expectedLayer.isVisible(), actualLayer.isVisible());
+            for (int x = 0; x < expectedLayer.getWidth(); x++) {
+                for (int y = 0; y < expectedLayer.getHeight(); y++) {
+                    TiledMapTileLayer.Cell expectedCell = expectedLayer.getCell(x, y), actualCell = actualLayer.getCell(x, y);
+                    assertEquals(expectedCell == null, actualCell == null);
+                    if (expectedCell != null) {
+                        assertEquals(expectedCell.getTile().getId(), actualCell.getTile().getId());
+                        assertEquals(expectedCell.getRotation(), actualCell.getRotation());
+                        assertEquals(expectedCell.getFlipHorizontally(), actualCell.getFlipHorizontally());
+                        assertEquals(expectedCell.getFlipVertically(), actualCell.getFlipVertically());
+                    }
+                }
+            }
+        }
+    }
+
+    @Before
+    public void initialise() throws Exception {
+        directory = new FileHandle(Files.createTempDirectory("map-compiler").toFile());
+        tmxFile = Gdx.files.internal(GameMap.MAP_PATH);
+        cached = Gdx.files.local("cache/MainMap.hhmap");
+    }
+
+    @After
+    public void cleanUp() {
+        directory.deleteDirectory();
+    }
+
+    /**
+     * Tests that a compiled map is up to date with the .tmx it was compiled from, and reads back with the same tiles.
+     */
+    @Test
+    public void testRoundTrip() {
+        FileHandle compiled = directory.child("MainMap.hhmap");
+        MapCompiler.compile(tmxFile, compiled);
+        long checksum = MapCompiler.checksum(tmxFile);
+        assertTrue(MapCompiler.isUpToDate(compiled, checksum));
+        assertFalse(MapCompiler.isUpToDate(compiled, checksum + 1));
+        assertFalse(directory.child("MainMap.hhmap.tmp").exists());
+
+        BinaryMapLoader.CompiledMap compiledMap = new BinaryMapLoader().read(compiled);
+        ObjectMap<String, Texture> textures = new ObjectMap<>();
+        for (String image : compiledMap.getImages()) {
+            textures.put(image, new Texture(tmxFile.parent().child(image)));
+        }
+        TiledMap direct = new TmxMapLoader().load(GameMap.MAP_PATH);
+        assertSameTiles(direct, compiledMap.build(textures));
+        direct.dispose();
+        for (Texture texture : textures.values()) {
+            texture.dispose();
+        }
+    }
+
+    /**
+     * Tests that a compiled map cut short, as an older version could leave it after a crash, is not read and
+     * the game falls back to the .tmx, deleting the damaged copy so that it is compiled again.
+     */
+    @Test
+    public void testTruncatedFile() {
+        FileHandle compiled = directory.child("MainMap.hhmap");
+        MapCompiler.compile(tmxFile, compiled);
+        byte[] bytes = compiled.readBytes();
+        compiled.writeBytes(Arrays.copyOf(bytes, bytes.length / 2), false);
+        assertTrue("The header alone looks up to date", MapCompiler.isUpToDate(compiled, MapCompiler.checksum(tmxFile)));
+        try {
+            new BinaryMapLoader().read(compiled);
+            fail("Read a truncated map");
+        } catch (RuntimeException expected) {
+            // Any exception is enough for the loader to fall back
+        }
+
+        FileHandle saved = cached.exists() ? directory.child("saved.hhmap") : null;
+        if (saved != null) cached.copyTo(saved);
+        compiled.copyTo(cached);
+        GameAssets assets = new GameAssets();
+        try {
+            TiledMap map = assets.acquire(GameMap.MAP_PATH, TiledMap.class);
+            TiledMap direct = new TmxMapLoader().load(GameMap.MAP_PATH);
+            assertSameTiles(direct, map);
+            direct.dispose();
+            assertFalse(cached.exists());
+        } finally {
+            assets.dispose();
+            if (saved != null) saved.copyTo(cached);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.map.Zone;
+import com.main.utils.PackedScore;
+import com.main.utils.Score;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the PackedScore class against the Score class
+ */
+public class PackedScoreTest {
+
+    /**
+     * Tests that random weeks of actions give the same daily scores, counters and streaks in both classes.
+     * Meals are eaten at random hours, not in order, and activities happen in every zone.
+     */
+    @Test
+    public void testMatchesScore() {
+        Random random = new Random(16);
+        Zone[] zones = Zone.values();
+        PackedScore packed = new PackedScore();
+        for (int game = 0; game < 5000; game++) {
+            Score score = new Score();
+            packed.reset();
+            for (int day = 0; day < 7; day++) {
+                int actions = random.nextInt(12);
+                for (int i = 0; i < actions; i++) {
+                    Zone zone = zones[random.nextInt(zones.length)];
+                    int hours = 1 + random.nextInt(4);
+                    switch (random.nextInt(3)) {
+                        case 0:
+                            score.study(hours, zone.getLayerName());
+                            packed.study(hours, zone);
+                            break;
+                        case 1:
+                            int time = 8 + random.nextInt(16);
+                            score.eat(time);
+                            packed.eat(time);
+                            break;
+                        default:
+                            score.doRecActivity(hours, zone.getLayerName());
+                            packed.doRecActivity(hours, zone);
+                    }
+                }
+                assertEquals(score.getStudyCount(), packed.getStudyCount());
+                assertEquals(score.getMealCount(), packed.getMealCount());
+                assertEquals(score.getRecreationCount(), packed.getRecreationCount());
+                assertEquals(score.calculateScore(), packed.calculateScore());
+                assertEquals(score.getScore(), packed.getScore());
+                assertEquals(score.hasMissedStudy(), packed.hasMissedStudy());
+                if (random.nextBoolean()) {
+                    score.incrementSleep();
+                    packed.incrementSleep();
+                }
+                score.resetDailyCounters();
+                packed.resetDailyCounters();
+            }
+            assertEquals(score.checkStreaks(), packed.checkStreaks());
+            assertEquals(score.getStreaks(), packed.getStreaks());
+        }
+    }
+
+    /**
+     * Tests that the streak bits name the same streaks as the string.
+     */
+    @Test
+    public void testStreakBits() {
+        PackedScore score = new PackedScore();
+        for (int day = 0; day < 7; day++) {
+            score.study(3, Zone.COMP_SCI);
+            score.doRecActivity(1, Zone.FEED_DUCKS);
+            score.incrementSleep();
+            score.resetDailyCounters();
+        }
+        assertEquals(10 + 5 + 5, score.checkStreaks());
+        int expected = PackedScore.Streak.WADDLEWARE_REPRESENTATIVE.bit | PackedScore.Streak.PROGRAMMER.bit
+                | PackedScore.Streak.EARLY_NIGHTS.bit;
+        assertEquals(expected, score.getStreakBits());
+        assertEquals("WaddleWare Representative\nProgrammer\nEarly Nights\n", score.getStreaks());
+    }
+}
@@ -0,0 +1,55 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.simulation.GameSimulation;
+import com.main.simulation.ScheduleSolver;
+import com.main.simulation.ScoreExplorer;
+import com.main.simulation.ScoreExplorer.Strategy;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the ScheduleSolver class
+ */
+public class ScheduleSolverTest {
+
+    private static ScheduleSolver.Solution solution;
+
+    /**
+     * Solves the rules once for all the tests, as it takes a second or two.
+     */
+    @BeforeClass
+    public static void solve() {
+        solution = new ScheduleSolver().solve();
+    }
+
+    /**
+     * Tests that the highest score has not changed. A change to the scoring rules that changes it should update this.
+     */
+    @Test
+    public void testHighestScore() {
+        assertEquals(790, solution.getScore());
+    }
+
+    /**
+     * Tests that the schedule found scores the highest score when played in the simulation.
+     */
+    @Test
+    public void testScheduleReplays() {
+        GameSimulation simulation = new GameSimulation();
+        assertEquals(solution.getScore(), solution.replay(simulation));
+        assertTrue(simulation.isFinished());
+    }
+
+    /**
+     * Tests that no randomly generated schedule beats the solution.
+     */
+    @Test
+    public void testNotBeatenByRandomSchedules() {
+        int best = ScoreExplorer.explore(20000, Strategy.BALANCED, 5, ForkJoinPool.commonPool()).getMaxScore();
+        assertTrue(best <= solution.getScore());
+    }
+}
@@ -0,0 +1,48 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.simulation.ScoreExplorer;
+import com.main.simulation.ScoreExplorer.Result;
+import com.main.simulation.ScoreExplorer.Strategy;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the ScoreExplorer class
+ */
+public class ScoreExplorerTest {
+
+    /**
+     * Tests that a seed gives the same results whatever the number of threads.
+     */
+    @Test
+    public void testSameResultsOnAnyThreads() {
+        Result single = ScoreExplorer.explore(20000, Strategy.BALANCED, 3, new ForkJoinPool(1));
+        Result parallel = ScoreExplorer.explore(20000, Strategy.BALANCED, 3, new ForkJoinPool(4));
+        assertEquals(20000, single.getGames());
+        assertEquals(single.getMeanScore(), parallel.getMeanScore(), 0);
+        assertEquals(single.getMaxScore(), parallel.getMaxScore());
+        assertEquals(single.getStreakCounts(), parallel.getStreakCounts());
+        assertEquals(single.getPercentile(0.5), parallel.getPercentile(0.5));
+    }
+
+    /**
+     * Tests that the best schedules are sorted from the highest score, which is the maximum score.
+     */
+    @Test
+    public void testBestSchedules() {
+        Result result = ScoreExplorer.explore(5000, Strategy.STUDIOUS, 1, ForkJoinPool.commonPool());
+        int previous = Integer.MAX_VALUE;
+        for (Map.Entry<Integer, int[]> best : result.getBestSchedules()) {
+            assertTrue(best.getKey() <= previous);
+            previous = best.getKey();
+        }
+        assertEquals(ScoreExplorer.TOP_SCHEDULES, result.getBestSchedules().size());
+        assertEquals(result.getMaxScore(), (int) result.getBestSchedules().get(0).getKey());
+        assertTrue(result.getMinScore() <= result.getPercentile(0.5));
+        assertTrue(result.getPercentile(0.5) <= result.getMaxScore());
+    }
+}
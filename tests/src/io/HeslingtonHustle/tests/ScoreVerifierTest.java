@@ -0,0 +1,86 @@
+package io.HeslingtonHustle.tests;
+
+import com.main.map.Zone;
+import com.main.simulation.GameSimulation;
+import com.main.simulation.ScoreVerifier;
+import com.main.simulation.SessionLog;
+import com.main.utils.FixedTimestep;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the ScoreVerifier and SessionLog classes
+ */
+public class ScoreVerifierTest {
+
+    private GameSimulation simulation;
+    private SessionLog log;
+
+    /**
+     * Plays a logged week the way the game screen does, advancing the clock a tick at a time between actions.
+     */
+    @Before
+    public void playWeek() {
+        simulation = new GameSimulation();
+        log = new SessionLog(42);
+        simulation.setLog(log);
+        while (!simulation.isFinished()) {
+            tickUntil(9);
+            simulation.eat(Zone.PIAZZA);
+            simulation.study(3, Zone.COMP_SCI);
+            simulation.doActivity(2, Zone.FEED_DUCKS);
+            tickUntil(15);
+            simulation.eat(Zone.RON_COOKE);
+            tickUntil(20);
+            simulation.sleep();
+        }
+    }
+
+    private void tickUntil(int hour) {
+        while (simulation.getTime().getTimeHours() < hour) simulation.advance(FixedTimestep.STEP);
+    }
+
+    /**
+     * Tests that the score of a game is accepted with its log and any other score is rejected.
+     */
+    @Test
+    public void testVerifiesScore() {
+        byte[] bytes = log.toBytes();
+        assertEquals(simulation.getFinalScore(), ScoreVerifier.replay(bytes));
+        assertTrue(ScoreVerifier.verify(bytes, simulation.getFinalScore()));
+        assertFalse(ScoreVerifier.verify(bytes, simulation.getFinalScore() + 1));
+        assertFalse(ScoreVerifier.verify(bytes, Integer.MAX_VALUE));
+        assertTrue(bytes.length < 400);
+    }
+
+    /**
+     * Tests that a log that has been edited to give more hours of activity is rejected.
+     */
+    @Test
+    public void testRejectsEditedLog() {
+        byte[] bytes = log.toBytes();
+        int edited = 0;
+        for (int i = 0; i < bytes.length - 2; i++) {
+            if (bytes[i] == 4 && bytes[i + 1] == Zone.FEED_DUCKS.ordinal() && bytes[i + 2] == 2) {
+                bytes[i + 2] = 4;
+                edited++;
+            }
+        }
+        assertTrue(edited > 0);
+        assertFalse(ScoreVerifier.verify(bytes, simulation.getFinalScore()));
+    }
+
+    /**
+     * Tests that logs which are cut short, or of games that never finished, are rejected.
+     */
+    @Test
+    public void testRejectsIncompleteLogs() {
+        byte[] bytes = log.toBytes();
+        assertFalse(ScoreVerifier.verify(java.util.Arrays.copyOf(bytes, bytes.length / 2), 0));
+        assertFalse(ScoreVerifier.verify(new SessionLog(1).toBytes(), 0));
+        assertFalse(ScoreVerifier.verify(new byte[0], 0));
+        assertFalse(ScoreVerifier.verify(null, 0));
+    }
+}
@@ -0,0 +1,238 @@
+package io.HeslingtonHustle.tests;
+
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.Array;
+import com.main.Main;
+import com.main.map.GameMap;
+import com.main.utils.GameAssets;
+import com.main.utils.ScreenManager;
+import com.main.utils.ScreenType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the staged building of screens by the ScreenManager, and the map loaded in stages for the game screen.
+ */
+@RunWith(GdxTestRunner.class)
+public class ScreenManagerTest {
+    private static final String PATH = "test_asset";
+
+    private Main game;
+    private TestScreenManager screens;
+    private CountDownLatch release; // Holds the test asset on the loading thread until counted down
+
+    /**
+     * A screen that records whether it has been disposed.
+     */
+    private static class TestScreen extends ScreenAdapter {
+        final ScreenType type; // Null for the loading screen
+        boolean disposed;
+
+        TestScreen(ScreenType type) {
+            this.type = type;
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+        }
+    }
+
+    /**
+     * Loads test assets on the loading thread once it is allowed to.
+     */
+    private class BlockingLoader extends AsynchronousAssetLoader<GameAssetsTest.TestAsset, AssetLoaderParameters<GameAssetsTest.TestAsset>> {
+        BlockingLoader(FileHandleResolver resolver) {
+            super(resolver);
+        }
+
+        @Override
+        public void loadAsync(AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<GameAssetsTest.TestAsset> parameter) {
+            try {
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public GameAssetsTest.TestAsset loadSync(AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<GameAssetsTest.TestAsset> parameter) {
+            return new GameAssetsTest.TestAsset();
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes") // The raw Array<AssetDescriptor> is the signature AssetLoader declares
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, AssetLoaderParameters<GameAssetsTest.TestAsset> parameter) {
+            return null;
+        }
+    }
+
+    /**
+     * Builds test screens, where only the game screen has an asset, which it acquires like the real one.
+     */
+    private class TestScreenManager extends ScreenManager {
+        final List<ScreenType> built = new ArrayList<>();
+
+        TestScreenManager() {
+            super(game);
+        }
+
+        @Override
+        protected List<AssetDescriptor<?>> getAssets(ScreenType type) {
+            if (type != ScreenType.GAME_SCREEN) return Collections.emptyList();
+            return Collections.singletonList(new AssetDescriptor<>(PATH, GameAssetsTest.TestAsset.class));
+        }
+
+        @Override
+        protected Screen createLoadingScreen() {
+            return new TestScreen(null);
+        }
+
+        @Override
+        protected Screen createScreen(ScreenType type, Object... args) {
+            if (type == ScreenType.GAME_SCREEN) {
+                assertTrue("Built before its asset loaded", game.assets.isLoaded(PATH));
+                game.assets.acquire(PATH, GameAssetsTest.TestAsset.class);
+            }
+            built.add(type);
+            return new TestScreen(type);
+        }
+    }
+
+    /**
+     * Initialises a game whose assets load test assets with the blocking loader.
+     */
+    @Before
+    public void initialise() {
+        release = new CountDownLatch(1);
+        AssetManager manager = new AssetManager(FileHandle::new);
+        manager.setLoader(GameAssetsTest.TestAsset.class, new BlockingLoader(manager.getFileHandleResolver()));
+        game = new Main();
+        game.assets = new GameAssets(manager);
+        screens = new TestScreenManager();
+    }
+
+    @After
+    public void dispose() {
+        release.countDown();
+        game.assets.dispose();
+    }
+
+    /**
+     * Runs frames until the assets have loaded and the screen manager has built everything waiting for them.
+     */
+    private void runFrames() {
+        for (int frame = 0; frame < 10000 && (!game.assets.update() || screens.isLoading()); frame++) {
+            screens.update();
+            Thread.yield();
+        }
+        screens.update();
+    }
+
+    /**
+     * Tests that a screen asked for before its assets have loaded shows the loading screen until they have,
+     * and that a screen kept in memory is built once its assets have loaded without waiting to be asked for.
+     */
+    @Test
+    public void testLoadingScreen() {
+        screens.keepInMemory(ScreenType.GAME_SCREEN);
+        screens.setScreen(ScreenType.MAIN_MENU);
+        assertEquals(ScreenType.MAIN_MENU, ((TestScreen) game.getScreen()).type);
+
+        screens.setScreen(ScreenType.GAME_SCREEN);
+        TestScreen loading = (TestScreen) game.getScreen();
+        assertNull(loading.type);
+        assertTrue(screens.isLoading());
+        screens.update();
+        assertFalse(screens.built.contains(ScreenType.GAME_SCREEN));
+
+        release.countDown();
+        runFrames();
+        TestScreen gameScreen = (TestScreen) game.getScreen();
+        assertEquals(ScreenType.GAME_SCREEN, gameScreen.type);
+        assertTrue(loading.disposed);
+        assertEquals(1, Collections.frequency(screens.built, ScreenType.GAME_SCREEN));
+        assertEquals(1, game.assets.getReferenceCount(PATH)); // Only the screen's own reference is left
+
+        // The game screen was asked to be kept, so it is not disposed when left
+        screens.setScreen(ScreenType.MAIN_MENU);
+        screens.setScreen(ScreenType.GAME_SCREEN);
+        assertFalse(gameScreen.disposed);
+        assertSame(gameScreen, game.getScreen());
+    }
+
+    /**
+     * Tests that a preloaded screen is built straight away once its assets have loaded, and that clearing the
+     * memory releases the assets of screens that were preloaded but not built.
+     */
+    @Test
+    public void testPreload() {
+        screens.setScreen(ScreenType.MAIN_MENU);
+        screens.preload(ScreenType.GAME_SCREEN);
+        assertFalse(screens.isLoaded(ScreenType.GAME_SCREEN));
+        release.countDown();
+        runFrames();
+        assertTrue(screens.isLoaded(ScreenType.GAME_SCREEN));
+        assertFalse(screens.built.contains(ScreenType.GAME_SCREEN));
+
+        screens.setScreen(ScreenType.GAME_SCREEN);
+        assertFalse(screens.isLoading());
+        assertEquals(ScreenType.GAME_SCREEN, ((TestScreen) game.getScreen()).type);
+        assertEquals(1, game.assets.getReferenceCount(PATH));
+
+        screens.setScreen(ScreenType.MAIN_MENU); // Disposes the game screen, which does not release its asset here
+        screens.preload(ScreenType.GAME_SCREEN);
+        runFrames();
+        assertEquals(2, game.assets.getReferenceCount(PATH));
+        screens.clearMemory();
+        assertEquals(1, game.assets.getReferenceCount(PATH));
+    }
+
+    /**
+     * Tests that the map loaded in stages, with its files read on the loading thread and its textures loaded over
+     * several updates, has the same tiles as the map loaded at once from the .tmx file.
+     */
+    @Test
+    public void testMapLoadedInStages() {
+        GameAssets assets = new GameAssets();
+        try {
+            assets.preload(GameMap.MAP_PATH, TiledMap.class);
+            int updates = 1;
+            while (!assets.update()) {
+                updates++;
+                Thread.yield();
+            }
+            assertTrue("Loaded in a single update", updates > 1);
+
+            TiledMap staged = assets.acquire(GameMap.MAP_PATH, TiledMap.class);
+            TiledMap direct = new TmxMapLoader().load(GameMap.MAP_PATH);
+            MapCompilerTest.assertSameTiles(direct, staged);
+            direct.dispose();
+
+            assets.release(GameMap.MAP_PATH); // The reference held by preloading
+            assets.release(GameMap.MAP_PATH);
+            assertFalse(assets.isLoaded(GameMap.MAP_PATH));
+        } finally {
+            assets.dispose();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.HeslingtonHustle.tests;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.main.map.Zone;
+import com.main.map.ZoneIndex;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the ZoneIndex class
+ */
+public class ZoneIndexTest {
+    private static final int TILE_SIZE = 16;
+    private static final int MAP_SIZE = 20;
+
+    private TiledMap tiledMap;
+
+    /**
+     * Adds a layer to the map with a single cell set.
+     */
+    private void addZoneTile(String layerName, int tileX, int tileY) {
+        TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get(layerName);
+        if (layer == null) {
+            layer = new TiledMapTileLayer(MAP_SIZE, MAP_SIZE, TILE_SIZE, TILE_SIZE);
+            layer.setName(layerName);
+            tiledMap.getLayers().add(layer);
+        }
+        layer.setCell(tileX, tileY, new TiledMapTileLayer.Cell());
+    }
+
+    /**
+     * Initialises an empty map with a single ground layer.
+     */
+    @Before
+    public void initialise() {
+        tiledMap = new TiledMap();
+        TiledMapTileLayer ground = new TiledMapTileLayer(MAP_SIZE, MAP_SIZE, TILE_SIZE, TILE_SIZE);
+        ground.setName("Ground");
+        tiledMap.getLayers().add(ground);
+    }
+
+    /**
+     * Tests that each tile is mapped to the zone of the layer it is on.
+     */
+    @Test
+    public void testZoneOfTile() {
+        addZoneTile("Comp_sci_door", 2, 3);
+        addZoneTile("Feed_ducks", 10, 10);
+        ZoneIndex index = new ZoneIndex(tiledMap, TILE_SIZE, TILE_SIZE);
+
+        assertEquals(Zone.COMP_SCI, index.getZone(2, 3));
+        assertEquals(Zone.FEED_DUCKS, index.getZone(10, 10));
+        assertEquals(Zone.NONE, index.getZone(0, 0));
+        assertEquals(Zone.NONE, index.getZone(-1, 3));
+        assertEquals(Zone.NONE, index.getZone(MAP_SIZE, 3));
+    }
+
+    /**
+     * Tests that an object touching a zone tile with any part of its hitbox is detected.
+     */
+    @Test
+    public void testTouching() {
+        addZoneTile("Gym_door", 5, 5);
+        ZoneIndex index = new ZoneIndex(tiledMap, TILE_SIZE, TILE_SIZE);
+
+        assertEquals(Zone.GYM, index.getTouching(60, 60, 24, 38)); // Overlaps from below left
+        assertEquals(Zone.GYM, index.getTouching(80, 80, 24, 38)); // Bottom left corner on the tile
+        assertEquals(Zone.NONE, index.getTouching(100, 100, 24, 38));
+        assertEquals(Zone.NONE, index.getTouching(-50, -50, 24, 38)); // Partly outside the map
+    }
+
+    /**
+     * Tests that when several zones are touched, the one with the highest priority is returned,
+     * matching the order in which the doors used to be checked.
+     */
+    @Test
+    public void testPriority() {
+        addZoneTile("Ron_cooke_door", 5, 5);
+        addZoneTile("Piazza_door", 6, 5);
+        addZoneTile("Visit_city", 6, 5);
+        ZoneIndex index = new ZoneIndex(tiledMap, TILE_SIZE, TILE_SIZE);
+
+        assertEquals(Zone.PIAZZA, index.getZone(6, 5));
+        assertEquals(Zone.PIAZZA, index.getTouching(80, 80, 24, 10));
+        assertEquals(Zone.RON_COOKE, index.getTouching(80, 80, 10, 10));
+    }
+}